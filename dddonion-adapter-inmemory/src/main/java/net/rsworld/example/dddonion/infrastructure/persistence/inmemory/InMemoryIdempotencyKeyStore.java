@@ -0,0 +1,74 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+/**
+ * Idempotency keys of profile {@code in-memory}: a heap map with a deadline per key, local to this instance like the
+ * orders themselves. Expired keys are ignored on read, taken over on write and removed by {@link #purgeExpired}.
+ */
+public class InMemoryIdempotencyKeyStore implements IdempotencyKeyPort {
+
+    private final Map<String, Entry> keys = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final LongSupplier nanoTime;
+
+    public InMemoryIdempotencyKeyStore(Duration ttl) {
+        this(ttl, System::nanoTime);
+    }
+
+    InMemoryIdempotencyKeyStore(Duration ttl, LongSupplier nanoTime) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = keys.get(key);
+            return entry == null || entry.expiredAt(nanoTime.getAsLong()) ? null : entry.placement();
+        });
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> remember(String key, IdempotencyRecord placement) {
+        return Mono.fromSupplier(() -> {
+            long now = nanoTime.getAsLong();
+            Entry fresh = new Entry(placement, now + ttlNanos);
+            return keys.compute(key, (k, old) -> old == null || old.expiredAt(now) ? fresh : old).placement();
+        });
+    }
+
+    @Override
+    public Mono<Integer> purgeExpired(int limit) {
+        return Mono.fromSupplier(() -> {
+            long now = nanoTime.getAsLong();
+            int purged = 0;
+            for (Iterator<Map.Entry<String, Entry>> it = keys.entrySet().iterator(); it.hasNext() && purged < limit; ) {
+                var candidate = it.next();
+                // remove(key, value): a key taken over since the iterator saw it stays
+                if (candidate.getValue().expiredAt(now) && keys.remove(candidate.getKey(), candidate.getValue())) {
+                    purged++;
+                }
+            }
+            return purged;
+        });
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    private record Entry(IdempotencyRecord placement, long expiresAtNanos) {
+        boolean expiredAt(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import java.time.Instant;
+import java.util.UUID;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Flux;
+
+/**
+ * Order listing over an {@link InMemoryOrderRepository}. There is no separate creation timestamp on the heap, so
+ * {@code createdAt} is the millisecond embedded in the time-ordered id ({@link Instant#EPOCH} for other ids) and a
+ * page seeks by id alone: a skip-list lookup, then lazy iteration until {@code limit} orders matched the filters.
+ */
+public class InMemoryOrderQueryAdapter implements OrderQueryPort {
+
+    private final InMemoryOrderRepository orders;
+
+    public InMemoryOrderQueryAdapter(InMemoryOrderRepository orders) {
+        this.orders = orders;
+    }
+
+    @Override
+    public Flux<OrderSummary> list(OrderListQuery query) {
+        UUID after = null;
+        if (query.after() != null) {
+            after = InMemoryOrderRepository.key(query.after().id());
+            if (after == null) {
+                return Flux.error(new IllegalArgumentException("Cursor does not point to an order id"));
+            }
+        }
+        return Flux.fromIterable(orders.keysAfter(after))
+                .mapNotNull(key -> {
+                    StoredOrder stored = orders.stored(key);
+                    return stored == null ? null : summary(key, stored.toOrder(new OrderId(key.toString())));
+                })
+                .filter(order -> query.status() == null || order.status() == query.status())
+                .filter(order -> query.customerEmail() == null || order.customerEmail().equals(query.customerEmail()))
+                .take(query.limit());
+    }
+
+    private static OrderSummary summary(UUID key, Order order) {
+        return new OrderSummary(
+                order.id(),
+                order.customerEmail(),
+                order.total().toDecimal(),
+                order.status(),
+                order.version(),
+                createdAt(key));
+    }
+
+    private static Instant createdAt(UUID key) {
+        return key.version() == 7 ? Instant.ofEpochMilli(key.getMostSignificantBits() >>> 16) : Instant.EPOCH;
+    }
+}
@@ -0,0 +1,182 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * {@link OrderRepository} kept entirely on the heap, for load tests without a database and single-node edge
+ * deployments.
+ *
+ * <p>Orders live in a {@link ConcurrentHashMap} (reads are lock-free, writes lock a single bin) as immutable
+ * {@link StoredOrder} entries keyed by {@link UUID} (32 bytes) rather than the 36 character id string. Writes follow
+ * the same contract as the R2DBC adapter: a new aggregate is inserted with {@code putIfAbsent} and fails on a
+ * duplicate id, a changed one replaces exactly the entry carrying the version it was loaded with (compare-and-set),
+ * anything else is an {@link OptimisticLockingFailureException}.
+ *
+ * <p>Next to the map, a {@link ConcurrentSkipListSet} keeps all ids in unsigned byte order, which for time-ordered
+ * (v7) ids is creation order; {@link InMemoryOrderQueryAdapter} pages through it. Each order costs about 190 bytes in
+ * the map (key, entry and {@link StoredOrder} with a typical email) plus about 36 bytes for its skip-list node, so
+ * roughly 4.5 million orders fit into one GB of heap.
+ *
+ * <p>{@link #snapshotTo(Path)} writes a point-in-time copy per order (not across orders) that
+ * {@link #restoreFrom(Path)} loads on the next start.
+ */
+public class InMemoryOrderRepository implements OrderRepository {
+
+    private static final int SNAPSHOT_MAGIC = 0x44444F32; // "DDO2": totals as minor units plus currency code
+
+    // same order as the BINARY(16) primary key of the R2DBC adapter; written out so no comparison boxes the halves
+    static final Comparator<UUID> UNSIGNED_ORDER = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+
+    private final ConcurrentHashMap<UUID, StoredOrder> orders;
+    private final ConcurrentSkipListSet<UUID> creationOrder = new ConcurrentSkipListSet<>(UNSIGNED_ORDER);
+
+    public InMemoryOrderRepository() {
+        this(1 << 10);
+    }
+
+    /** @param expectedOrders pre-sizes the table to avoid rehashing while it fills up */
+    public InMemoryOrderRepository(int expectedOrders) {
+        this.orders = new ConcurrentHashMap<>(expectedOrders);
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        UUID key = key(order.id());
+        if (key == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("Order id is not a UUID: " + order.id().value()));
+        }
+        StoredOrder next = StoredOrder.of(order);
+
+        if (order.isNew()) {
+            if (orders.putIfAbsent(key, next) != null) {
+                return CompletableFuture.failedFuture(
+                        new DuplicateKeyException("Order %s already exists".formatted(order.id().value())));
+            }
+            creationOrder.add(key);
+            return CompletableFuture.completedFuture(next.toOrder(order.id()));
+        }
+        if (order.version() == order.persistedVersion()) {
+            return CompletableFuture.completedFuture(order);
+        }
+
+        StoredOrder current = orders.get(key);
+        if (current == null || current.version() != order.persistedVersion() || !orders.replace(key, current, next)) {
+            return CompletableFuture.failedFuture(new OptimisticLockingFailureException(
+                    "Order %s was modified concurrently (expected version %d)"
+                            .formatted(order.id().value(), order.persistedVersion())));
+        }
+        return CompletableFuture.completedFuture(next.toOrder(order.id()));
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        UUID key = key(id);
+        StoredOrder stored = key == null ? null : orders.get(key);
+        return CompletableFuture.completedFuture(Optional.ofNullable(stored).map(s -> s.toOrder(id)));
+    }
+
+    public int size() {
+        return orders.size();
+    }
+
+    /**
+     * Writes all orders to {@code file} via a temporary sibling that is atomically moved into place, so a crash never
+     * leaves a truncated snapshot behind. Concurrent writes continue while the snapshot is taken.
+     *
+     * @return the number of orders written
+     */
+    public int snapshotTo(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        int written = 0;
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(SNAPSHOT_MAGIC);
+            for (Map.Entry<UUID, StoredOrder> entry : orders.entrySet()) {
+                out.writeBoolean(true);
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                entry.getValue().writeTo(out);
+                written++;
+            }
+            out.writeBoolean(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return written;
+    }
+
+    /**
+     * Loads a snapshot written by {@link #snapshotTo(Path)}; entries replace orders with the same id.
+     *
+     * @return the number of orders read, {@code 0} if the file does not exist
+     */
+    public int restoreFrom(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int read = 0;
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an order snapshot: " + file);
+            }
+            while (in.readBoolean()) {
+                UUID key = new UUID(in.readLong(), in.readLong());
+                orders.put(key, StoredOrder.readFrom(in));
+                creationOrder.add(key);
+                read++;
+            }
+        }
+        return read;
+    }
+
+    /** Ids in creation order, starting right after {@code after} or at the beginning if it is {@code null}. */
+    NavigableSet<UUID> keysAfter(UUID after) {
+        return after == null ? creationOrder : creationOrder.tailSet(after, false);
+    }
+
+    StoredOrder stored(UUID key) {
+        return orders.get(key);
+    }
+
+    /** The id as {@link UUID}, or {@code null} if it is not a UUID in canonical form (and so can never be stored). */
+    static UUID key(OrderId id) {
+        String value = id.value();
+        if (value.length() != 36) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(value);
+            return uuid.toString().equals(value) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Currency;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+
+/**
+ * Immutable, compact state of one order: the email as raw UTF-8 bytes instead of a {@code String}, the total as
+ * its {@code long} minor units plus the shared {@link Currency} instance and the status as its ordinal. About 40
+ * bytes plus the email array, compared to several hundred for a live {@link Order} graph.
+ *
+ * <p>Deliberately no {@code equals}: {@link java.util.concurrent.ConcurrentHashMap#replace(Object, Object, Object)}
+ * then compares by identity, which turns it into a compare-and-set on the stored instance.
+ */
+final class StoredOrder {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final byte[] customerEmail;
+    private final long totalMinorUnits;
+    private final Currency currency;
+    private final long version;
+    private final byte status;
+
+    private StoredOrder(byte[] customerEmail, long totalMinorUnits, Currency currency, long version, byte status) {
+        this.customerEmail = customerEmail;
+        this.totalMinorUnits = totalMinorUnits;
+        this.currency = currency;
+        this.version = version;
+        this.status = status;
+    }
+
+    static StoredOrder of(Order order) {
+        Money total = order.total();
+        return new StoredOrder(
+                order.customerEmail().getBytes(StandardCharsets.UTF_8),
+                total.minorUnits(),
+                total.currency(),
+                order.version(),
+                (byte) order.status().ordinal());
+    }
+
+    long version() {
+        return version;
+    }
+
+    /** Order with the same content, whose state is in sync with this entry (not new, no pending events). */
+    Order toOrder(OrderId id) {
+        return new Order(
+                id,
+                new String(customerEmail, StandardCharsets.UTF_8),
+                new Money(totalMinorUnits, currency),
+                version,
+                STATUSES[status]);
+    }
+
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(customerEmail.length);
+        out.write(customerEmail);
+        out.writeLong(totalMinorUnits);
+        out.writeUTF(currency.getCurrencyCode());
+        out.writeLong(version);
+        out.writeByte(status);
+    }
+
+    static StoredOrder readFrom(DataInput in) throws IOException {
+        byte[] email = new byte[in.readInt()];
+        in.readFully(email);
+        long totalMinorUnits = in.readLong();
+        Currency currency = Currency.getInstance(in.readUTF());
+        return new StoredOrder(email, totalMinorUnits, currency, in.readLong(), in.readByte());
+    }
+}
@@ -0,0 +1,46 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InMemoryIdempotencyKeyStoreTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final InMemoryIdempotencyKeyStore store = new InMemoryIdempotencyKeyStore(Duration.ofSeconds(10), now::get);
+
+    @Test
+    @DisplayName("Der erste gemerkte Schlüssel gewinnt, bis er abläuft")
+    void firstRememberWins_untilExpiry() {
+        var first = new IdempotencyRecord(new OrderId("ORD-1"), "fp-1");
+        var second = new IdempotencyRecord(new OrderId("ORD-2"), "fp-2");
+
+        assertThat(store.remember("k", first).block()).isEqualTo(first);
+        assertThat(store.remember("k", second).block()).isEqualTo(first);
+        assertThat(store.find("k").block()).isEqualTo(first);
+
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertThat(store.find("k").block()).isNull();
+        assertThat(store.remember("k", second).block()).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("Räumt nur abgelaufene Schlüssel ab, höchstens limit pro Aufruf")
+    void purgesExpiredKeys_inBatches() {
+        for (int i = 0; i < 5; i++) {
+            store.remember("old-" + i, new IdempotencyRecord(new OrderId("ORD-" + i), "fp")).block();
+        }
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+        store.remember("fresh", new IdempotencyRecord(new OrderId("ORD-9"), "fp")).block();
+
+        assertThat(store.purgeExpired(3).block()).isEqualTo(3);
+        assertThat(store.purgeExpired(3).block()).isEqualTo(2);
+        assertThat(store.purgeExpired(3).block()).isEqualTo(0);
+        assertThat(store.size()).isEqualTo(1);
+    }
+}
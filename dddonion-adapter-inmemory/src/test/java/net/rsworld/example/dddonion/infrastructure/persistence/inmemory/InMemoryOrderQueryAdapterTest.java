@@ -0,0 +1,77 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class InMemoryOrderQueryAdapterTest {
+
+    private final InMemoryOrderRepository repository = new InMemoryOrderRepository();
+    private final InMemoryOrderQueryAdapter adapter = new InMemoryOrderQueryAdapter(repository);
+    private final List<OrderId> created = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < 10; i++) {
+            var order = new Order("customer" + (i % 2) + "@example.com", Money.ofMinor(i * 100L));
+            order.place();
+            repository.save(order).toCompletableFuture().join();
+            created.add(order.id());
+        }
+    }
+
+    @Test
+    @DisplayName("Blättert in Anlagereihenfolge und setzt nach dem Cursor der letzten Order fort")
+    void pagesInCreationOrder() {
+        List<OrderSummary> first = list(new OrderListQuery(null, null, null, 4));
+        List<OrderSummary> second = list(new OrderListQuery(null, null, first.getLast().cursor(), 4));
+        List<OrderSummary> last = list(new OrderListQuery(null, null, second.getLast().cursor(), 4));
+
+        assertThat(first).extracting(OrderSummary::id).containsExactlyElementsOf(created.subList(0, 4));
+        assertThat(second).extracting(OrderSummary::id).containsExactlyElementsOf(created.subList(4, 8));
+        assertThat(last).extracting(OrderSummary::id).containsExactlyElementsOf(created.subList(8, 10));
+        assertThat(first.getFirst().createdAt()).isBeforeOrEqualTo(last.getLast().createdAt());
+    }
+
+    @Test
+    @DisplayName("Filtert nach Status und Kunde, bis das Limit erreicht ist")
+    void filtersByStatusAndCustomer() {
+        Order paid = repository.findById(created.get(3)).toCompletableFuture().join().orElseThrow();
+        paid.pay();
+        repository.save(paid).toCompletableFuture().join();
+
+        assertThat(list(new OrderListQuery(null, "customer1@example.com", null, 3)))
+                .extracting(OrderSummary::id)
+                .containsExactly(created.get(1), created.get(3), created.get(5));
+        assertThat(list(new OrderListQuery(OrderStatus.PAID, "customer1@example.com", null, 3)))
+                .singleElement()
+                .satisfies(order -> {
+                    assertThat(order.id()).isEqualTo(created.get(3));
+                    assertThat(order.version()).isEqualTo(2L);
+                });
+    }
+
+    @Test
+    @DisplayName("Liefert nach der jüngsten Order eine leere Seite")
+    void afterNewest_isEmpty() {
+        OrderSummary newest = list(new OrderListQuery(null, null, null, 10)).getLast();
+
+        assertThat(list(new OrderListQuery(null, null, OrderCursor.parse(newest.cursor().encode()), 10)))
+                .isEmpty();
+    }
+
+    private List<OrderSummary> list(OrderListQuery query) {
+        return adapter.list(query).collectList().block();
+    }
+}
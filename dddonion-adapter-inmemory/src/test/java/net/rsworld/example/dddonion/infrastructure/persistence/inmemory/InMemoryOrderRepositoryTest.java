@@ -0,0 +1,154 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.inmemory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+class InMemoryOrderRepositoryTest {
+
+    private final InMemoryOrderRepository repository = new InMemoryOrderRepository();
+
+    @Test
+    @DisplayName("Speichert eine neue Order und liefert sie mit allen Feldern wieder aus")
+    void save_thenFindById_returnsSameState() {
+        var order = placed("a@b.com", "12.34");
+
+        Order saved = repository.save(order).toCompletableFuture().join();
+        Order found = find(order.id());
+
+        assertThat(saved.isNew()).isFalse();
+        assertThat(found.id()).isEqualTo(order.id());
+        assertThat(found.customerEmail()).isEqualTo("a@b.com");
+        assertThat(found.total()).isEqualTo(Money.parse("12.34"));
+        assertThat(found.status()).isEqualTo(OrderStatus.PLACED);
+        assertThat(found.version()).isEqualTo(order.version());
+    }
+
+    @Test
+    @DisplayName("Liefert leer für unbekannte IDs, auch wenn sie keine UUID sind")
+    void findById_unknownId_isEmpty() {
+        assertThat(repository.findById(OrderId.newId()).toCompletableFuture().join())
+                .isEmpty();
+        assertThat(repository.findById(new OrderId("does-not-exist")).toCompletableFuture().join())
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("Lehnt ein zweites Insert mit derselben ID ab")
+    void save_newOrderTwice_failsWithDuplicateKey() {
+        var order = placed("a@b.com", "1.00");
+        repository.save(order).toCompletableFuture().join();
+
+        assertThatThrownBy(() -> repository.save(order).toCompletableFuture().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    @DisplayName("Übernimmt eine Änderung mit passender Version und lehnt eine veraltete ab")
+    void save_update_checksLoadedVersion() {
+        var order = placed("a@b.com", "1.00");
+        repository.save(order).toCompletableFuture().join();
+        Order first = find(order.id());
+        Order stale = find(order.id());
+
+        first.pay();
+        repository.save(first).toCompletableFuture().join();
+        stale.pay();
+
+        assertThat(find(order.id()).status()).isEqualTo(OrderStatus.PAID);
+        assertThatThrownBy(() -> repository.save(stale).toCompletableFuture().join())
+                .hasCauseInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Lässt von parallelen Änderungen derselben Version genau eine gewinnen")
+    void save_concurrentUpdates_exactlyOneWins() {
+        var order = placed("a@b.com", "1.00");
+        repository.save(order).toCompletableFuture().join();
+
+        // every copy is loaded with the same version before any of them is written
+        List<Order> copies = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Order copy = find(order.id());
+            copy.pay();
+            copies.add(copy);
+        }
+        List<CompletableFuture<Boolean>> attempts = new ArrayList<>();
+        for (Order copy : copies) {
+            attempts.add(CompletableFuture.supplyAsync(() -> repository
+                    .save(copy)
+                    .toCompletableFuture()
+                    .handle((saved, error) -> error == null)
+                    .join()));
+        }
+
+        long winners = attempts.stream().filter(CompletableFuture::join).count();
+        assertThat(winners).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Stellt alle Orders aus einem Snapshot wieder her")
+    void snapshot_roundTrip(@TempDir Path dir) throws Exception {
+        var small = placed("a@b.com", "12.34");
+        var large = placed("ümlaut@b.com", "92233720368547758.07");
+        repository.save(small).toCompletableFuture().join();
+        repository.save(large).toCompletableFuture().join();
+        Path file = dir.resolve("orders.snapshot");
+
+        assertThat(repository.snapshotTo(file)).isEqualTo(2);
+        var restored = new InMemoryOrderRepository();
+        assertThat(restored.restoreFrom(file)).isEqualTo(2);
+
+        Order found = restored.findById(large.id()).toCompletableFuture().join().orElseThrow();
+        assertThat(found.customerEmail()).isEqualTo("ümlaut@b.com");
+        assertThat(found.total()).isEqualTo(Money.parse("92233720368547758.07"));
+        assertThat(restored.findById(small.id()).toCompletableFuture().join()).isPresent();
+        assertThat(restored.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Startet leer, wenn noch kein Snapshot existiert")
+    void restoreFrom_missingFile_isNoOp(@TempDir Path dir) throws Exception {
+        assertThat(repository.restoreFrom(dir.resolve("missing.snapshot"))).isZero();
+        assertThat(repository.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Ordnet IDs vorzeichenlos wie der BINARY(16)-Schlüssel, erst nach den oberen, dann den unteren Bits")
+    void unsignedOrder_comparesHalvesAsUnsigned() {
+        var low = new UUID(0x7fffffffffffffffL, -1L);
+        var high = new UUID(0x8000000000000000L, 0L);
+        var highLater = new UUID(0x8000000000000000L, -1L);
+
+        assertThat(List.of(low, high, highLater)).isSortedAccordingTo(InMemoryOrderRepository.UNSIGNED_ORDER);
+        assertThat(InMemoryOrderRepository.UNSIGNED_ORDER.compare(highLater, high)).isPositive();
+        assertThat(InMemoryOrderRepository.UNSIGNED_ORDER.compare(high, new UUID(high.getMostSignificantBits(), 0L)))
+                .isZero();
+    }
+
+    private Order find(OrderId id) {
+        return repository.findById(id).toCompletableFuture().join().orElseThrow();
+    }
+
+    private static Order placed(String email, String total) {
+        var order = new Order(email, Money.parse(total));
+        order.place();
+        return order;
+    }
+}
@@ -0,0 +1,63 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times {@link ConnectionFactory#create()}. In front of a connection pool that is the acquire time: near zero while
+ * idle connections are available, and the queueing delay once the pool is exhausted. The in-flight gauge then equals
+ * the number of callers waiting for a connection.
+ *
+ * <p>Implements {@link Wrapped} so pool-aware code (health, pool gauges) still finds the pool behind it.
+ */
+public class MeteredConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Disposable {
+
+    static final String PORT = "ConnectionFactory";
+
+    private final ConnectionFactory delegate;
+    private final PortMetrics acquire;
+
+    public MeteredConnectionFactory(ConnectionFactory delegate, MeterRegistry registry) {
+        this(delegate, registry, PORT);
+    }
+
+    /** For a second pool next to the primary one, reported under its own {@code port} tag. */
+    public MeteredConnectionFactory(ConnectionFactory delegate, MeterRegistry registry, String port) {
+        this.delegate = delegate;
+        this.acquire = new PortMetrics(registry, port, "acquire");
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return acquire.timeMono(() -> Mono.from(delegate.create()));
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    /** The pool bean is declared with {@code destroyMethod = "dispose"}, which now resolves to this wrapper. */
+    @Override
+    public void dispose() {
+        if (delegate instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate instanceof Disposable disposable && disposable.isDisposed();
+    }
+}
@@ -0,0 +1,25 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import reactor.core.publisher.Mono;
+
+/** Times every {@link DomainEventPublisherPort#publish}, inline from the use case or from the outbox relay. */
+public class MeteredDomainEventPublisher implements DomainEventPublisherPort {
+
+    static final String PORT = "DomainEventPublisherPort";
+
+    private final DomainEventPublisherPort delegate;
+    private final PortMetrics publish;
+
+    public MeteredDomainEventPublisher(DomainEventPublisherPort delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.publish = new PortMetrics(registry, PORT, "publish");
+    }
+
+    @Override
+    public Mono<Void> publish(DomainEvent event) {
+        return publish.timeMono(() -> delegate.publish(event));
+    }
+}
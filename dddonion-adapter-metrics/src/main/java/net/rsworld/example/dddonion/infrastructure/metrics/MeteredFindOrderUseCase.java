@@ -0,0 +1,26 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.order.usecase.FindOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Mono;
+
+/** Times {@link FindOrderUseCase}; a lookup that completes empty counts as a success. */
+public class MeteredFindOrderUseCase implements FindOrderUseCase {
+
+    static final String PORT = "FindOrderUseCase";
+
+    private final FindOrderUseCase delegate;
+    private final PortMetrics handle;
+
+    public MeteredFindOrderUseCase(FindOrderUseCase delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.handle = new PortMetrics(registry, PORT, "handle");
+    }
+
+    @Override
+    public Mono<Order> handle(OrderId id) {
+        return handle.timeMono(() -> delegate.handle(id));
+    }
+}
@@ -0,0 +1,39 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+/** Times {@link IdempotencyKeyPort}; {@code find} completing empty (unknown key) counts as a success. */
+public class MeteredIdempotencyKeyPort implements IdempotencyKeyPort {
+
+    static final String PORT = "IdempotencyKeyPort";
+
+    private final IdempotencyKeyPort delegate;
+    private final PortMetrics find;
+    private final PortMetrics remember;
+    private final PortMetrics purgeExpired;
+
+    public MeteredIdempotencyKeyPort(IdempotencyKeyPort delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.find = new PortMetrics(registry, PORT, "find");
+        this.remember = new PortMetrics(registry, PORT, "remember");
+        this.purgeExpired = new PortMetrics(registry, PORT, "purgeExpired");
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String key) {
+        return find.timeMono(() -> delegate.find(key));
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> remember(String key, IdempotencyRecord placement) {
+        return remember.timeMono(() -> delegate.remember(key, placement));
+    }
+
+    @Override
+    public Mono<Integer> purgeExpired(int limit) {
+        return purgeExpired.timeMono(() -> delegate.purgeExpired(limit));
+    }
+}
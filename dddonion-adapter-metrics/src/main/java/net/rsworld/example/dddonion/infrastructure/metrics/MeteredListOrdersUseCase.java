@@ -0,0 +1,26 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.application.order.usecase.ListOrdersUseCase;
+import reactor.core.publisher.Flux;
+
+/** Times {@link ListOrdersUseCase} per page, from subscription until the last order was emitted. */
+public class MeteredListOrdersUseCase implements ListOrdersUseCase {
+
+    static final String PORT = "ListOrdersUseCase";
+
+    private final ListOrdersUseCase delegate;
+    private final PortMetrics handle;
+
+    public MeteredListOrdersUseCase(ListOrdersUseCase delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.handle = new PortMetrics(registry, PORT, "handle");
+    }
+
+    @Override
+    public Flux<OrderSummary> handle(OrderListQuery query) {
+        return handle.timeFlux(() -> delegate.handle(query));
+    }
+}
@@ -0,0 +1,26 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import reactor.core.publisher.Flux;
+
+/** Times {@link OrderQueryPort#list} per page, i.e. the query plus streaming its rows. */
+public class MeteredOrderQueryPort implements OrderQueryPort {
+
+    static final String PORT = "OrderQueryPort";
+
+    private final OrderQueryPort delegate;
+    private final PortMetrics list;
+
+    public MeteredOrderQueryPort(OrderQueryPort delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.list = new PortMetrics(registry, PORT, "list");
+    }
+
+    @Override
+    public Flux<OrderSummary> list(OrderListQuery query) {
+        return list.timeFlux(() -> delegate.list(query));
+    }
+}
@@ -0,0 +1,41 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+
+/** Times the outermost {@link OrderRepository}, i.e. what the use cases see including cache, batching or outbox. */
+public class MeteredOrderRepository implements OrderRepository {
+
+    static final String PORT = "OrderRepository";
+
+    private final OrderRepository delegate;
+    private final PortMetrics save;
+    private final PortMetrics findById;
+    private final PortMetrics pay;
+
+    public MeteredOrderRepository(OrderRepository delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.save = new PortMetrics(registry, PORT, "save");
+        this.findById = new PortMetrics(registry, PORT, "findById");
+        this.pay = new PortMetrics(registry, PORT, "pay");
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        return save.timeStage(() -> delegate.save(order));
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        return findById.timeStage(() -> delegate.findById(id));
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> pay(OrderId id) {
+        return pay.timeStage(() -> delegate.pay(id));
+    }
+}
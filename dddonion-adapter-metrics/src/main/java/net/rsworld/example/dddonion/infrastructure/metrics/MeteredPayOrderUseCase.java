@@ -0,0 +1,30 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.order.usecase.PayOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times {@link PayOrderUseCase} including its retries. Calls that gave up under contention are counted with
+ * {@code exception=ConcurrentOrderUpdateException}; the individual lost attempts show up in the {@code OrderRepository}
+ * {@code save} series.
+ */
+public class MeteredPayOrderUseCase implements PayOrderUseCase {
+
+    static final String PORT = "PayOrderUseCase";
+
+    private final PayOrderUseCase delegate;
+    private final PortMetrics handle;
+
+    public MeteredPayOrderUseCase(PayOrderUseCase delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.handle = new PortMetrics(registry, PORT, "handle");
+    }
+
+    @Override
+    public Mono<Order> handle(OrderId id) {
+        return handle.timeMono(() -> delegate.handle(id));
+    }
+}
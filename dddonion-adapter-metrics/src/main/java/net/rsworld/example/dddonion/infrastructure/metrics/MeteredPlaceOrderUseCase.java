@@ -0,0 +1,43 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Times {@link PlaceOrderUseCase}. {@code handleAll} is timed per stream; the orders inside a batch show up in the
+ * {@code OrderRepository} and {@code DomainEventPublisherPort} series instead.
+ */
+public class MeteredPlaceOrderUseCase implements PlaceOrderUseCase {
+
+    static final String PORT = "PlaceOrderUseCase";
+
+    private final PlaceOrderUseCase delegate;
+    private final PortMetrics handle;
+    private final PortMetrics handleAll;
+
+    public MeteredPlaceOrderUseCase(PlaceOrderUseCase delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.handle = new PortMetrics(registry, PORT, "handle");
+        this.handleAll = new PortMetrics(registry, PORT, "handleAll");
+    }
+
+    @Override
+    public Mono<OrderId> handle(PlaceOrderCommand cmd) {
+        return handle.timeMono(() -> delegate.handle(cmd));
+    }
+
+    @Override
+    public Mono<OrderId> handle(PlaceOrderCommand cmd, String idempotencyKey) {
+        return handle.timeMono(() -> delegate.handle(cmd, idempotencyKey));
+    }
+
+    @Override
+    public Flux<PlaceOrderResult> handleAll(Flux<PlaceOrderCommand> commands) {
+        return handleAll.timeFlux(() -> delegate.handleAll(commands));
+    }
+}
@@ -0,0 +1,145 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Meters of one port operation, shared by all decorators in this package so every port reports the same three series,
+ * tagged {@code port} and {@code operation}:
+ *
+ * <ul>
+ *   <li>{@value #LATENCY}: timer with a percentile histogram (successes and failures alike)
+ *   <li>{@value #IN_FLIGHT}: gauge of calls started but not yet terminated
+ *   <li>{@value #ERRORS}: counter per failure, additionally tagged with the simple name of the exception
+ * </ul>
+ *
+ * A cancelled call leaves the in-flight gauge but is neither timed nor counted as an error.
+ */
+public final class PortMetrics {
+
+    public static final String LATENCY = "dddonion.port.latency";
+    public static final String IN_FLIGHT = "dddonion.port.in.flight";
+    public static final String ERRORS = "dddonion.port.errors";
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Tags tags;
+    private final Timer latency;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ConcurrentMap<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+    public PortMetrics(MeterRegistry registry, String port, String operation) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+        this.tags = Tags.of("port", port, "operation", operation);
+        this.latency = Timer.builder(LATENCY)
+                .description("Latency of port calls until their result is known")
+                .tags(tags)
+                .publishPercentileHistogram()
+                // bounds the bucket count; sub-100µs calls are heap lookups, anything past 10s is an outage
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        Gauge.builder(IN_FLIGHT, inFlight, AtomicInteger::get)
+                .description("Port calls started but not yet terminated")
+                .tags(tags)
+                .register(registry);
+    }
+
+    /** Times the stage returned by {@code call}, including a synchronous throw of {@code call} itself. */
+    public <T> CompletionStage<T> timeStage(Supplier<? extends CompletionStage<T>> call) {
+        var started = start();
+        CompletionStage<T> stage;
+        try {
+            stage = call.get();
+        } catch (RuntimeException e) {
+            started.stop(e);
+            throw e;
+        }
+        return stage.whenComplete((result, error) -> started.stop(error));
+    }
+
+    /**
+     * Times every subscription from the moment {@code call} assembles the {@link Mono} until its value (or empty
+     * completion) is known. Deferred, so work a port does while assembling is inside the measurement.
+     */
+    public <T> Mono<T> timeMono(Supplier<? extends Mono<T>> call) {
+        return Mono.defer(() -> {
+            var started = start();
+            return call.get()
+                    .doOnSuccess(value -> started.stop(null))
+                    .doOnError(started::stop)
+                    .doOnCancel(started::cancel);
+        });
+    }
+
+    /** Like {@link #timeMono}, but until completion of the whole stream. */
+    public <T> Flux<T> timeFlux(Supplier<? extends Flux<T>> call) {
+        return Flux.defer(() -> {
+            var started = start();
+            return call.get()
+                    .doOnComplete(() -> started.stop(null))
+                    .doOnError(started::stop)
+                    .doOnCancel(started::cancel);
+        });
+    }
+
+    private Call start() {
+        inFlight.incrementAndGet();
+        return new Call(clock.monotonicTime());
+    }
+
+    private Counter errorCounter(Class<?> type) {
+        return errors.computeIfAbsent(type, t -> Counter.builder(ERRORS)
+                .description("Port calls that failed, by exception type")
+                .tags(tags)
+                .tag("exception", t.getSimpleName())
+                .register(registry));
+    }
+
+    /**
+     * One started call; the first terminal signal wins, so a cancel racing a completion is not counted twice. Extends
+     * {@link AtomicBoolean} (the "finished" flag) to keep it at one allocation per call.
+     */
+    @SuppressWarnings("serial")
+    private final class Call extends AtomicBoolean {
+        private final long startNanos;
+
+        Call(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        void stop(Throwable error) {
+            if (!compareAndSet(false, true)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            latency.record(clock.monotonicTime() - startNanos, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                errorCounter(cause.getClass()).increment();
+            }
+        }
+
+        void cancel() {
+            if (compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+}
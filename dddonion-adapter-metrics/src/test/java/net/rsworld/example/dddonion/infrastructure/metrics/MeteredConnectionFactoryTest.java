@@ -0,0 +1,71 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+class MeteredConnectionFactoryTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("Misst das Beziehen einer Verbindung als operation=acquire")
+    void create_isTimedAsAcquire() {
+        var connection = mock(Connection.class);
+        var pool = mock(ConnectionFactory.class);
+        when(pool.create()).thenAnswer(invocation -> Mono.just(connection));
+        var factory = new MeteredConnectionFactory(pool, registry);
+
+        assertThat(Mono.from(factory.create()).block()).isSameAs(connection);
+
+        assertThat(registry.get(PortMetrics.LATENCY)
+                        .tags("port", MeteredConnectionFactory.PORT, "operation", "acquire")
+                        .timer()
+                        .count())
+                .isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Meldet einen zweiten Pool unter eigenem port-Tag")
+    void create_secondPoolHasOwnPortTag() {
+        var pool = mock(ConnectionFactory.class);
+        when(pool.create()).thenAnswer(invocation -> Mono.just(mock(Connection.class)));
+        new MeteredConnectionFactory(pool, registry);
+        var replica = new MeteredConnectionFactory(pool, registry, "ReplicaConnectionFactory");
+
+        Mono.from(replica.create()).block();
+
+        assertThat(registry.get(PortMetrics.LATENCY)
+                        .tags("port", "ReplicaConnectionFactory", "operation", "acquire")
+                        .timer()
+                        .count())
+                .isEqualTo(1L);
+        assertThat(registry.get(PortMetrics.LATENCY)
+                        .tags("port", MeteredConnectionFactory.PORT, "operation", "acquire")
+                        .timer()
+                        .count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("Gibt den Pool über unwrap() preis und reicht dispose() an ihn weiter")
+    void unwrapsAndDisposesThePool() {
+        var pool = mock(ConnectionFactory.class, withSettings().extraInterfaces(Disposable.class));
+        var factory = new MeteredConnectionFactory(pool, registry);
+
+        factory.dispose();
+
+        assertThat(factory.unwrap()).isSameAs(pool);
+        verify((Disposable) pool).dispose();
+    }
+}
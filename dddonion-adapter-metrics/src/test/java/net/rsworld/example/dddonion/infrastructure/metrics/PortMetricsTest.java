@@ -0,0 +1,149 @@
+package net.rsworld.example.dddonion.infrastructure.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class PortMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PortMetrics metrics = new PortMetrics(registry, "TestPort", "call");
+
+    @Test
+    @DisplayName("Misst erfolgreiche Aufrufe und zählt sie während der Laufzeit als in-flight")
+    void success_isTimedAndTrackedInFlight() {
+        var pending = new CompletableFuture<String>();
+
+        CompletionStage<String> stage = metrics.timeStage(() -> pending);
+        assertThat(inFlight()).isEqualTo(1.0);
+        assertThat(latencyCount()).isZero();
+
+        pending.complete("ok");
+        assertThat(stage.toCompletableFuture().join()).isEqualTo("ok");
+        assertThat(inFlight()).isZero();
+        assertThat(latencyCount()).isEqualTo(1L);
+        assertThat(registry.find(PortMetrics.ERRORS).counters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Zählt Fehler je Exception-Typ, auch wenn sie in einer CompletionException stecken")
+    void failures_areCountedByExceptionType() {
+        metrics.timeStage(() -> CompletableFuture.supplyAsync(() -> {
+                    throw new IllegalStateException("boom");
+                }))
+                .handle((value, error) -> null)
+                .toCompletableFuture()
+                .join();
+        StepVerifier.create(metrics.timeMono(() -> Mono.error(new IllegalStateException("boom"))))
+                .verifyError(IllegalStateException.class);
+        StepVerifier.create(metrics.timeFlux(() -> Flux.error(new IllegalArgumentException("bad"))))
+                .verifyError(IllegalArgumentException.class);
+
+        assertThat(errors("IllegalStateException")).isEqualTo(2.0);
+        assertThat(errors("IllegalArgumentException")).isEqualTo(1.0);
+        assertThat(latencyCount()).isEqualTo(3L);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Erfasst auch synchron geworfene Exceptions des Delegates")
+    void synchronousThrow_isCountedAndRethrown() {
+        assertThatThrownBy(() -> metrics.timeStage(() -> {
+                    throw new IllegalArgumentException("not a UUID");
+                }))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(errors("IllegalArgumentException")).isEqualTo(1.0);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Ein abgebrochenes Abonnement verlässt in-flight, wird aber weder gemessen noch als Fehler gezählt")
+    void cancel_leavesInFlightWithoutTiming() {
+        var never = Sinks.<String>one();
+
+        StepVerifier.create(metrics.timeMono(never::asMono))
+                .expectSubscription()
+                .then(() -> assertThat(inFlight()).isEqualTo(1.0))
+                .thenCancel()
+                .verify();
+
+        assertThat(inFlight()).isZero();
+        assertThat(latencyCount()).isZero();
+        assertThat(registry.find(PortMetrics.ERRORS).counters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Misst jedes Abonnement eines Mono einzeln")
+    void everySubscription_isTimed() {
+        var mono = metrics.timeMono(() -> Mono.just(1));
+
+        mono.block();
+        mono.block();
+
+        assertThat(latencyCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Der Repository-Decorator meldet save und findById getrennt unter port=OrderRepository")
+    void repositoryDecorator_tagsPortAndOperation() {
+        OrderRepository store = new OrderRepository() {
+            @Override
+            public CompletionStage<Order> save(Order order) {
+                return CompletableFuture.completedFuture(order);
+            }
+
+            @Override
+            public CompletionStage<Optional<Order>> findById(OrderId id) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+        };
+        var repository = new MeteredOrderRepository(store, registry);
+        var order = new Order("a@b.com", Money.parse("1.00"));
+
+        repository.save(order).toCompletableFuture().join();
+        repository.findById(order.id()).toCompletableFuture().join();
+        repository.findById(order.id()).toCompletableFuture().join();
+
+        assertThat(registry.get(PortMetrics.LATENCY)
+                        .tags("port", MeteredOrderRepository.PORT, "operation", "save")
+                        .timer()
+                        .count())
+                .isEqualTo(1L);
+        assertThat(registry.get(PortMetrics.LATENCY)
+                        .tags("port", MeteredOrderRepository.PORT, "operation", "findById")
+                        .timer()
+                        .count())
+                .isEqualTo(2L);
+    }
+
+    private double inFlight() {
+        return registry.get(PortMetrics.IN_FLIGHT).tags("port", "TestPort").gauge().value();
+    }
+
+    private long latencyCount() {
+        return registry.get(PortMetrics.LATENCY).tags("port", "TestPort").timer().count();
+    }
+
+    private double errors(String exception) {
+        return registry.get(PortMetrics.ERRORS)
+                .tags("port", "TestPort", "exception", exception)
+                .counter()
+                .count();
+    }
+}
@@ -0,0 +1,60 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+/**
+ * Local cache of completed keys in front of the shared {@link IdempotencyKeyPort}, so a client retrying against the
+ * same instance is answered without a database round trip. Bounded by size and by a time-to-live after the key was
+ * recorded or loaded; a key loaded shortly before it expires in the store may therefore stay valid here for up to one
+ * more {@code ttl}. Unknown keys are not cached, the store stays the authority for them.
+ */
+public class CachingIdempotencyKeyStore implements IdempotencyKeyPort {
+
+    private final IdempotencyKeyPort delegate;
+    private final Cache<String, IdempotencyRecord> cache;
+
+    public CachingIdempotencyKeyStore(IdempotencyKeyPort delegate, Settings settings, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfterWrite(settings.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "idempotency-keys");
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String key) {
+        IdempotencyRecord hit = cache.getIfPresent(key);
+        if (hit != null) {
+            return Mono.just(hit);
+        }
+        return delegate.find(key).doOnNext(recorded -> cache.put(key, recorded));
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> remember(String key, IdempotencyRecord placement) {
+        return delegate.remember(key, placement).doOnNext(recorded -> cache.put(key, recorded));
+    }
+
+    @Override
+    public Mono<Integer> purgeExpired(int limit) {
+        // local entries expire on their own
+        return delegate.purgeExpired(limit);
+    }
+
+    /** Cache bounds: at most {@code maximumSize} keys, each for at most {@code ttl} after it was recorded or loaded. */
+    public record Settings(long maximumSize, Duration ttl) {
+        public Settings {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be >= 1");
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+
+/**
+ * Read-through cache in front of any {@link OrderRepository}. Bounded by size (Caffeine's W-TinyLFU eviction) and by
+ * a time-to-live after write.
+ *
+ * <p>Aggregates are mutable, so the cache keeps immutable snapshots and hands out a fresh {@link Order} per hit. A
+ * successful save or payment refreshes the entry; an entry is only ever replaced by a snapshot with an equal or higher
+ * version, so a slow read cannot overwrite a newer write.
+ */
+public class CachingOrderRepository implements OrderRepository {
+
+    private final OrderRepository delegate;
+    private final Cache<String, Snapshot> cache;
+
+    public CachingOrderRepository(OrderRepository delegate, Settings settings, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(settings.maximumSize())
+                .expireAfterWrite(settings.ttl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "orders");
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        return delegate.save(order)
+                .whenComplete((saved, error) -> {
+                    if (error != null) {
+                        // state in the store is unknown now (e.g. optimistic-lock conflict), reload on next read
+                        cache.invalidate(order.id().value());
+                    } else {
+                        remember(saved);
+                    }
+                });
+    }
+
+    /** Goes to the store, which checks the status itself; a cached order may be stale. */
+    @Override
+    public CompletionStage<Optional<Order>> pay(OrderId id) {
+        return delegate.pay(id).whenComplete((paid, error) -> {
+            if (error != null) {
+                cache.invalidate(id.value());
+            } else {
+                paid.ifPresent(this::remember);
+            }
+        });
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        Snapshot hit = cache.getIfPresent(id.value());
+        if (hit != null) {
+            return CompletableFuture.completedFuture(Optional.of(hit.toOrder()));
+        }
+        return delegate.findById(id).thenApply(found -> {
+            found.ifPresent(this::remember);
+            return found;
+        });
+    }
+
+    private void remember(Order order) {
+        Snapshot snapshot = Snapshot.of(order);
+        cache.asMap()
+                .merge(order.id().value(), snapshot, (old, fresh) -> fresh.version() >= old.version() ? fresh : old);
+    }
+
+    /** Cache bounds: at most {@code maximumSize} orders, each for at most {@code ttl} after it was loaded or saved. */
+    public record Settings(long maximumSize, Duration ttl) {
+        public Settings {
+            if (maximumSize < 1) throw new IllegalArgumentException("maximumSize must be >= 1");
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        }
+    }
+
+    private record Snapshot(String id, String customerEmail, Money total, long version, OrderStatus status) {
+        static Snapshot of(Order order) {
+            return new Snapshot(
+                    order.id().value(), order.customerEmail(), order.total(), order.version(), order.status());
+        }
+
+        Order toOrder() {
+            return new Order(new OrderId(id), customerEmail, total, version, status);
+        }
+    }
+}
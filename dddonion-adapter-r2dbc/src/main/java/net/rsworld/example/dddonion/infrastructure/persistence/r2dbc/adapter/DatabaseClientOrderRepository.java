@@ -0,0 +1,129 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.UnaryOperator;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code orders} table access with plain R2DBC statements instead of the Spring Data repository: parameters are bound
+ * straight from the {@link Order} and rows are read into it by column index, with no {@code OrderRow} in between and
+ * no entity conversion or named parameter expansion. The SQL strings are constants, so every call sends the same
+ * statement text. Connections come from {@link DatabaseClient}, so writes join a surrounding reactive transaction and
+ * driver errors are translated to Spring's {@code DataAccessException}s like in {@link OrderRepositoryAdapter}.
+ */
+public class DatabaseClientOrderRepository implements ReactiveOrderRepository {
+
+    static final String INSERT_SQL = BatchingOrderRepository.INSERT_SQL;
+    static final String UPDATE_SQL = "UPDATE orders SET status = ?, version = ? WHERE id = ? AND version = ?";
+    static final String PAY_SQL =
+            "UPDATE orders SET status = 'PAID', version = version + 1 WHERE id = ? AND status = 'PLACED'";
+    static final String SELECT_BY_ID_SQL = "SELECT customer_email, total, status, version FROM orders WHERE id = ?";
+
+    private final DatabaseClient db;
+
+    public DatabaseClientOrderRepository(DatabaseClient db) {
+        this.db = db;
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        return write(order).toFuture();
+    }
+
+    @Override
+    public Mono<Order> write(Order order) {
+        if (order.isNew()) {
+            return rowsUpdated(INSERT_SQL, statement -> statement
+                            .bind(0, OrderMapper.toBinaryId(order.id()))
+                            .bind(1, order.customerEmail())
+                            .bind(2, order.total().toDecimal())
+                            .bind(3, order.status().name())
+                            .bind(4, order.version()))
+                    .thenReturn(persisted(order));
+        }
+        if (order.version() == order.persistedVersion()) {
+            // nothing changed since load; an UPDATE would not touch a row and look like a lost update
+            return Mono.just(order);
+        }
+
+        return rowsUpdated(UPDATE_SQL, statement -> statement
+                        .bind(0, order.status().name())
+                        .bind(1, order.version())
+                        .bind(2, OrderMapper.toBinaryId(order.id()))
+                        .bind(3, order.persistedVersion()))
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new OptimisticLockingFailureException(
+                                "Order %s was modified concurrently (expected version %d)"
+                                        .formatted(order.id().value(), order.persistedVersion())))
+                        : Mono.just(persisted(order)));
+    }
+
+    @Override
+    public Mono<Order> writePayment(OrderId id) {
+        byte[] key;
+        try {
+            key = OrderMapper.toBinaryId(id);
+        } catch (IllegalArgumentException e) {
+            return Mono.empty();
+        }
+        // both statements on one connection, so the read sees the update even outside a transaction
+        return db.inConnection(conn -> Mono.from(conn.createStatement(PAY_SQL).bind(0, key).execute())
+                .flatMap(result -> Mono.from(result.getRowsUpdated()))
+                .flatMap(updated -> Mono.from(conn.createStatement(SELECT_BY_ID_SQL)
+                                .bind(0, key)
+                                .execute())
+                        .flatMap(result -> Mono.from(result.map(row -> toOrder(id, row))))
+                        .flatMap(stored -> updated == 0
+                                ? Mono.error(new OrderNotPayableException(id, stored.status()))
+                                : Mono.just(OrderMapper.paid(stored)))));
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        byte[] key;
+        try {
+            key = OrderMapper.toBinaryId(id);
+        } catch (IllegalArgumentException e) {
+            // only UUIDs are ever stored, anything else cannot exist
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return db.inConnection(conn -> Mono.from(conn.createStatement(SELECT_BY_ID_SQL).bind(0, key).execute())
+                        .flatMap(result -> Mono.from(result.map(row -> toOrder(id, row)))))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    /** Columns in the order of {@link #SELECT_BY_ID_SQL}; the id is the one looked up, not decoded again. */
+    static Order toOrder(OrderId id, Readable row) {
+        return new Order(
+                id,
+                row.get(0, String.class),
+                Money.of(row.get(1, BigDecimal.class)),
+                row.get(3, Long.class),
+                OrderStatus.valueOf(row.get(2, String.class)));
+    }
+
+    /** The aggregate as a later load would return it: persisted at its current version, no pending events. */
+    private static Order persisted(Order order) {
+        return new Order(order.id(), order.customerEmail(), order.total(), order.version(), order.status());
+    }
+
+    private Mono<Long> rowsUpdated(String sql, UnaryOperator<Statement> binder) {
+        return db.inConnection(conn -> Mono.from(binder.apply(conn.createStatement(sql)).execute())
+                .flatMap(result -> Mono.from(result.getRowsUpdated())));
+    }
+}
@@ -0,0 +1,89 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.eventstore.EventStoreR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxR2dbcAdapter;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+/**
+ * Event-sourced persistence: a save appends the pending events (drained via {@link Order#pullEvents()}) to the event
+ * store and to the outbox in one transaction. The {@code orders} row is only a projection written in that transaction
+ * for {@code GET /orders}; it is never read back here. Loading replays the events recorded
+ * after the latest snapshot, and a new snapshot is written whenever a save crosses a multiple of
+ * {@code snapshotEvery}, so a load never replays more than {@code snapshotEvery - 1} events however long the history.
+ *
+ * <p>Two writers of the same version collide on the {@code (aggregate_id, sequence)} key; the loser sees an
+ * {@link OptimisticLockingFailureException} like with the row store. Other integrity violations (of the snapshot, the
+ * projection or the outbox) are passed on unchanged, so they are not retried as lost races.
+ */
+public class EventSourcedOrderRepository implements OrderRepository {
+
+    private final EventStoreR2dbcAdapter store;
+    private final OutboxR2dbcAdapter outbox;
+    private final TransactionalOperator transactions;
+    private final int snapshotEvery;
+
+    public EventSourcedOrderRepository(
+            EventStoreR2dbcAdapter store,
+            OutboxR2dbcAdapter outbox,
+            TransactionalOperator transactions,
+            int snapshotEvery) {
+        if (snapshotEvery < 1) throw new IllegalArgumentException("snapshotEvery must be >= 1");
+        this.store = store;
+        this.outbox = outbox;
+        this.transactions = transactions;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        var events = order.pullEvents();
+        var saved = new Order(order.id(), order.customerEmail(), order.total(), order.version(), order.status());
+        if (events.isEmpty()) {
+            // the history is the state: without events there is nothing to record
+            return CompletableFuture.completedFuture(saved);
+        }
+        long previousVersion = order.version() - events.size();
+        Mono<Void> snapshot = snapshotDue(previousVersion, order.version()) ? store.snapshot(saved) : Mono.empty();
+
+        // only the event key says "someone else wrote this version"; any other violation is a real error
+        Mono<Void> append = store.append(events)
+                .onErrorMap(
+                        DuplicateKeyException.class,
+                        e -> new OptimisticLockingFailureException(
+                                "Order %s was modified concurrently (expected version %d)"
+                                        .formatted(order.id().value(), previousVersion),
+                                e));
+
+        return append.then(snapshot)
+                .then(store.project(saved))
+                .then(outbox.append(events))
+                .as(transactions::transactional)
+                .thenReturn(saved)
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        Mono<Order> loaded;
+        try {
+            loaded = store.load(id);
+        } catch (IllegalArgumentException e) {
+            // only UUIDs are ever stored, anything else cannot exist
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return loaded.map(Optional::of).defaultIfEmpty(Optional.empty()).toFuture();
+    }
+
+    private boolean snapshotDue(long fromVersion, long toVersion) {
+        return Math.floorDiv(toVersion, snapshotEvery) > Math.floorDiv(fromVersion, snapshotEvery);
+    }
+}
@@ -1,16 +1,19 @@
 package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import net.rsworld.example.dddonion.domain.order.model.Order;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
-import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.dto.OrderRow;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo.OrderR2dbcRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
 import reactor.core.publisher.Mono;
 
-public class OrderRepositoryAdapter implements OrderRepository {
+/** {@code orders} table access through the Spring Data repository and its {@link OrderRow} entity. */
+public class OrderRepositoryAdapter implements ReactiveOrderRepository {
 
     private final OrderR2dbcRepository repo;
 
@@ -20,27 +23,57 @@ public class OrderRepositoryAdapter implements OrderRepository {
 
     @Override
     public CompletionStage<Order> save(Order order) {
+        return write(order).toFuture();
+    }
+
+    /** The domain version is stored as-is, so row and aggregate never diverge. */
+    @Override
+    public Mono<Order> write(Order order) {
         OrderRow row = OrderMapper.toRow(order);
 
-        // Check existence by ID; insert path => force version to null
-        Mono<Order> result = repo.findById(row.getId())
-                .flatMap(existing -> {
-                    // UPDATE path: adopt version from DB (avoids OptimisticLocking on first save)
-                    row.setVersion(existing.getVersion());
-                    return repo.save(row).map(OrderMapper::toDomain);
-                })
-                .switchIfEmpty(Mono.defer(() -> {
-                    // INSERT path: Version null -> Spring Data does INSERT + initial version (DEFAULT 0)
-                    row.setVersion(null);
-                    return repo.save(row).map(OrderMapper::toDomain);
-                }));
-
-        return result.toFuture();
+        if (order.isNew()) {
+            return repo.insert(row.getId(), row.getCustomerEmail(), row.getTotal(), row.getStatus(), order.version())
+                    .thenReturn(row)
+                    .map(OrderMapper::toDomain);
+        }
+        if (order.version() == order.persistedVersion()) {
+            // nothing changed since load; an UPDATE would not touch a row and look like a lost update
+            return Mono.just(order);
+        }
+
+        return repo.update(row.getId(), row.getStatus(), order.version(), order.persistedVersion())
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new OptimisticLockingFailureException(
+                                "Order %s was modified concurrently (expected version %d)"
+                                        .formatted(order.id().value(), order.persistedVersion())))
+                        : Mono.just(OrderMapper.toDomain(row)));
+    }
+
+    @Override
+    public Mono<Order> writePayment(OrderId id) {
+        byte[] key;
+        try {
+            key = OrderMapper.toBinaryId(id);
+        } catch (IllegalArgumentException e) {
+            return Mono.empty();
+        }
+        return repo.pay(key).flatMap(updated -> repo.findById(key)
+                .map(OrderMapper::toDomain)
+                .flatMap(stored -> updated == 0
+                        ? Mono.error(new OrderNotPayableException(id, stored.status()))
+                        : Mono.just(OrderMapper.paid(stored))));
     }
 
     @Override
     public CompletionStage<Optional<Order>> findById(OrderId id) {
-        return repo.findById(id.value())
+        byte[] key;
+        try {
+            key = OrderMapper.toBinaryId(id);
+        } catch (IllegalArgumentException e) {
+            // only UUIDs are ever stored, anything else cannot exist
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return repo.findById(key)
                 .map(OrderMapper::toDomain)
                 .map(Optional::of)
                 .defaultIfEmpty(Optional.empty())
@@ -0,0 +1,52 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxR2dbcAdapter;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+/**
+ * Writes the aggregate row and its pending events (drained via {@link Order#pullEvents()}) into the {@code outbox}
+ * table in one transaction. Callers therefore see no events left on the aggregate; delivery is done by the relay.
+ */
+public class OutboxOrderRepository implements OrderRepository {
+
+    private final ReactiveOrderRepository delegate;
+    private final OutboxR2dbcAdapter outbox;
+    private final TransactionalOperator transactions;
+
+    public OutboxOrderRepository(
+            ReactiveOrderRepository delegate, OutboxR2dbcAdapter outbox, TransactionalOperator transactions) {
+        this.delegate = delegate;
+        this.outbox = outbox;
+        this.transactions = transactions;
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        var events = order.pullEvents();
+        return delegate.write(order)
+                .flatMap(saved -> outbox.append(events).thenReturn(saved))
+                .as(transactions::transactional)
+                .toFuture();
+    }
+
+    /** The status-guarded UPDATE and the {@code OrderPaid} event in one transaction. */
+    @Override
+    public CompletionStage<Optional<Order>> pay(OrderId id) {
+        return delegate.writePayment(id)
+                .flatMap(paid -> outbox.append(paid.pullEvents()).thenReturn(paid))
+                .as(transactions::transactional)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        return delegate.findById(id);
+    }
+}
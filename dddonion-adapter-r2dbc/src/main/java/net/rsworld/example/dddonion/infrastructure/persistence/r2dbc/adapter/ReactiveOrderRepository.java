@@ -0,0 +1,35 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * An {@code orders} table store whose write is a lazy {@link Mono}, so decorators can run it inside their own
+ * transaction ({@link OutboxOrderRepository}) or retry it ({@link BatchingOrderRepository}).
+ */
+public interface ReactiveOrderRepository extends OrderRepository {
+
+    /**
+     * Single round trip per save: new aggregates go out as one INSERT, reconstituted ones as one UPDATE guarded by
+     * the version they were loaded with. Fails with {@code OptimisticLockingFailureException} if that version is gone.
+     */
+    Mono<Order> write(Order order);
+
+    /**
+     * Pays the order with one UPDATE guarded by {@code status = 'PLACED'} instead of a load and a version-guarded
+     * save, then reads the row back for the result, so there is no version to lose to a concurrent writer. Empty if
+     * the order does not exist, {@link OrderNotPayableException} if it is not placed; the returned aggregate carries
+     * its {@code OrderPaid} event.
+     */
+    Mono<Order> writePayment(OrderId id);
+
+    @Override
+    default CompletionStage<Optional<Order>> pay(OrderId id) {
+        return writePayment(id).map(Optional::of).defaultIfEmpty(Optional.empty()).toFuture();
+    }
+}
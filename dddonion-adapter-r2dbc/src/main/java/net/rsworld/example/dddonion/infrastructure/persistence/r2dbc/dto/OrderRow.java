@@ -17,7 +17,7 @@ import org.springframework.data.relational.core.mapping.Table;
 public class OrderRow {
 
     @Id
-    private String id;
+    private byte[] id; // BINARY(16), see OrderMapper#toBinaryId
 
     @Column("customer_email")
     private String customerEmail;
@@ -0,0 +1,138 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.eventstore;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxEventCodec;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC side of the event store: {@code domain_events} holds every event of an order under
+ * {@code (aggregate_id, sequence)}, {@code order_snapshots} the latest state snapshot per order, and the
+ * {@code orders} row is kept as a read model for listings. Writes use the connection bound to the current reactive
+ * transaction.
+ */
+public class EventStoreR2dbcAdapter {
+
+    static final String INSERT_EVENT_SQL = "INSERT INTO domain_events (aggregate_id, sequence, event_type, payload, "
+            + "occurred_at) VALUES (?, ?, ?, ?, ?)";
+    static final String UPSERT_SNAPSHOT_SQL = """
+            INSERT INTO order_snapshots (aggregate_id, version, customer_email, total, status)
+            VALUES (:id, :version, :email, :total, :status)
+            ON DUPLICATE KEY UPDATE version = VALUES(version), status = VALUES(status), taken_at = CURRENT_TIMESTAMP(6)
+            """;
+    static final String UPSERT_ORDER_SQL = """
+            INSERT INTO orders (id, customer_email, total, status, version)
+            VALUES (:id, :email, :total, :status, :version)
+            ON DUPLICATE KEY UPDATE status = VALUES(status), version = VALUES(version)
+            """;
+    static final String SELECT_SNAPSHOT_SQL =
+            "SELECT version, customer_email, total, status FROM order_snapshots WHERE aggregate_id = :id";
+    static final String SELECT_EVENTS_SQL = """
+            SELECT event_type, payload FROM domain_events
+            WHERE aggregate_id = :id AND sequence > :after ORDER BY sequence
+            """;
+
+    private final DatabaseClient db;
+    private final OutboxEventCodec codec;
+    private final DistributionSummary replayed;
+
+    public EventStoreR2dbcAdapter(DatabaseClient db, OutboxEventCodec codec, MeterRegistry registry) {
+        this.db = db;
+        this.codec = codec;
+        this.replayed = DistributionSummary.builder("dddonion.eventstore.replayed.events")
+                .description("Events replayed on top of the latest snapshot per order load")
+                .register(registry);
+    }
+
+    /** Appends all events with one batched statement; a sequence number that is already taken fails the batch. */
+    public Mono<Void> append(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        return db.inConnectionMany(conn -> {
+                    Statement statement = conn.createStatement(INSERT_EVENT_SQL);
+                    for (int i = 0; i < events.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        DomainEvent event = events.get(i);
+                        statement
+                                .bind(0, OrderMapper.toBinaryId(new OrderId(event.aggregateId())))
+                                .bind(1, event.sequence())
+                                .bind(2, event.type())
+                                .bind(3, codec.encode(event))
+                                .bind(4, event.occurredAt().atOffset(ZoneOffset.UTC).toLocalDateTime());
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                })
+                .then();
+    }
+
+    /** Replaces the snapshot of {@code order} with its current state. */
+    public Mono<Void> snapshot(Order order) {
+        return db.sql(UPSERT_SNAPSHOT_SQL)
+                .bind("id", OrderMapper.toBinaryId(order.id()))
+                .bind("version", order.version())
+                .bind("email", order.customerEmail())
+                .bind("total", order.total().toDecimal())
+                .bind("status", order.status().name())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /**
+     * Writes the current state of {@code order} to its {@code orders} row, which only listings read. Concurrent saves
+     * are already serialised by the event keys, so the row is overwritten without a version check.
+     */
+    public Mono<Void> project(Order order) {
+        return db.sql(UPSERT_ORDER_SQL)
+                .bind("id", OrderMapper.toBinaryId(order.id()))
+                .bind("email", order.customerEmail())
+                .bind("total", order.total().toDecimal())
+                .bind("status", order.status().name())
+                .bind("version", order.version())
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    /** Latest snapshot plus the events recorded after it, replayed; empty if the order has no history. */
+    public Mono<Order> load(OrderId id) {
+        byte[] key = OrderMapper.toBinaryId(id);
+        return db.sql(SELECT_SNAPSHOT_SQL)
+                .bind("id", key)
+                .map(row -> new Order(
+                        id,
+                        row.get("customer_email", String.class),
+                        Money.of(row.get("total", BigDecimal.class)),
+                        row.get("version", Long.class),
+                        OrderStatus.valueOf(row.get("status", String.class))))
+                .one()
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(snapshot -> db.sql(SELECT_EVENTS_SQL)
+                        .bind("id", key)
+                        .bind("after", snapshot.map(Order::version).orElse(0L))
+                        .map(row -> codec.decode(row.get("event_type", String.class), row.get("payload", String.class)))
+                        .all()
+                        .collectList()
+                        .filter(events -> snapshot.isPresent() || !events.isEmpty())
+                        .doOnNext(events -> replayed.record(events.size()))
+                        .map(events -> Order.replay(id, snapshot.orElse(null), events)));
+    }
+}
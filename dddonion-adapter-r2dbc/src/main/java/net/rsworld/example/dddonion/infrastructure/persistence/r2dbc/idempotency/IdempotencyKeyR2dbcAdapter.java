@@ -0,0 +1,67 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.idempotency;
+
+import java.time.Duration;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code idempotency_keys} table shared by all instances. Expiry is computed and compared with the database clock
+ * ({@code UTC_TIMESTAMP(6)}), so instances with drifting clocks agree on which keys are live. The primary key on
+ * {@code idempotency_key} decides races: the first live entry wins, an expired one is taken over. Order id and
+ * request fingerprint are always taken over together.
+ */
+public class IdempotencyKeyR2dbcAdapter implements IdempotencyKeyPort {
+
+    static final String SELECT_SQL = "SELECT order_id, request_fingerprint FROM idempotency_keys "
+            + "WHERE idempotency_key = :key AND expires_at > UTC_TIMESTAMP(6)";
+    // order_id and request_fingerprint are assigned first, so all IFs still see the old expires_at
+    static final String UPSERT_SQL = """
+            INSERT INTO idempotency_keys (idempotency_key, order_id, request_fingerprint, expires_at)
+            VALUES (:key, :orderId, :fingerprint, TIMESTAMPADD(MICROSECOND, :ttlMicros, UTC_TIMESTAMP(6)))
+            ON DUPLICATE KEY UPDATE
+              order_id = IF(expires_at > UTC_TIMESTAMP(6), order_id, VALUES(order_id)),
+              request_fingerprint = IF(expires_at > UTC_TIMESTAMP(6), request_fingerprint, VALUES(request_fingerprint)),
+              expires_at = IF(expires_at > UTC_TIMESTAMP(6), expires_at, VALUES(expires_at))""";
+    static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at <= UTC_TIMESTAMP(6) LIMIT :limit";
+
+    private final DatabaseClient db;
+    private final long ttlMicros;
+
+    public IdempotencyKeyR2dbcAdapter(DatabaseClient db, Duration ttl) {
+        if (ttl == null || ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("ttl must be > 0");
+        this.db = db;
+        this.ttlMicros = ttl.toNanos() / 1_000;
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(String key) {
+        return db.sql(SELECT_SQL)
+                .bind("key", key)
+                .map(row -> new IdempotencyRecord(
+                        OrderMapper.toOrderId(row.get("order_id", byte[].class)),
+                        row.get("request_fingerprint", String.class)))
+                .one();
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> remember(String key, IdempotencyRecord placement) {
+        return db.sql(UPSERT_SQL)
+                .bind("key", key)
+                .bind("orderId", OrderMapper.toBinaryId(placement.orderId()))
+                .bind("fingerprint", placement.fingerprint())
+                .bind("ttlMicros", ttlMicros)
+                .fetch()
+                .rowsUpdated()
+                .then(find(key))
+                // expired again between the two statements (ttl shorter than a round trip): the caller's order stands
+                .defaultIfEmpty(placement);
+    }
+
+    @Override
+    public Mono<Integer> purgeExpired(int limit) {
+        return db.sql(PURGE_SQL).bind("limit", limit).fetch().rowsUpdated().map(Long::intValue);
+    }
+}
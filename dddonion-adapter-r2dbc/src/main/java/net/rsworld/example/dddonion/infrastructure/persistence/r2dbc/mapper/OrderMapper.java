@@ -1,5 +1,8 @@
 package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper;
 
+import java.nio.ByteBuffer;
+import java.util.UUID;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.model.Order;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
 import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
@@ -11,21 +14,55 @@ public final class OrderMapper {
 
     public static OrderRow toRow(Order o) {
         OrderRow r = new OrderRow();
-        r.setId(o.id().value());
+        r.setId(toBinaryId(o.id()));
         r.setCustomerEmail(o.customerEmail());
-        r.setTotal(o.total());
+        r.setTotal(o.total().toDecimal()); // exact: two decimal places like DECIMAL(19,2)
         r.setStatus(o.status().name());
-        r.setVersion(o.version()); // will be set to null in the adapter if necessary (INSERT)
+        r.setVersion(o.version()); // domain version is persisted verbatim
         return r;
     }
 
     public static Order toDomain(OrderRow r) {
         long version = r.getVersion() == null ? 0L : r.getVersion();
         return new Order(
-                new OrderId(r.getId()),
+                toOrderId(r.getId()),
                 r.getCustomerEmail(),
-                r.getTotal(),
+                Money.of(r.getTotal()),
                 version,
                 OrderStatus.valueOf(r.getStatus()));
     }
+
+    /**
+     * The aggregate a status-guarded pay UPDATE produced, rebuilt from the row read back afterwards: placed at the
+     * version before and then paid, so it carries the {@code OrderPaid} event with the stored version as sequence.
+     */
+    public static Order paid(Order stored) {
+        Order order = new Order(
+                stored.id(), stored.customerEmail(), stored.total(), stored.version() - 1, OrderStatus.PLACED);
+        order.pay();
+        return order;
+    }
+
+    /**
+     * {@code orders.id} is {@code BINARY(16)}: the UUID's 16 bytes in big-endian order, so the byte order of the key
+     * is the order in which time-ordered ids were created.
+     *
+     * @throws IllegalArgumentException if the id is not a UUID in canonical 36 character form
+     */
+    public static byte[] toBinaryId(OrderId id) {
+        String value = id.value();
+        if (value.length() != 36) {
+            throw new IllegalArgumentException("Order id is not a UUID: " + value);
+        }
+        UUID uuid = UUID.fromString(value);
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    public static OrderId toOrderId(byte[] binaryId) {
+        ByteBuffer bytes = ByteBuffer.wrap(binaryId);
+        return new OrderId(new UUID(bytes.getLong(), bytes.getLong()).toString());
+    }
 }
@@ -0,0 +1,63 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox;
+
+import java.util.Map;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.databind.DeserializationContext;
+import tools.jackson.databind.DeserializationFeature;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueDeserializer;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * Serializes domain events to the JSON payload column of the outbox (and of the event store) and back, keyed by
+ * {@link DomainEvent#type()}. {@link Money} is written as a plain decimal number ({@code "total": 42.50}), the format
+ * the stored payloads had before amounts were kept in minor units.
+ */
+public final class OutboxEventCodec {
+
+    private static final Map<String, Class<? extends DomainEvent>> TYPES =
+            Map.of("OrderPlaced", OrderPlaced.class, "OrderPaid", OrderPaid.class);
+
+    private final JsonMapper json = JsonMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .addModule(new SimpleModule("money")
+                    .addSerializer(Money.class, new MoneySerializer())
+                    .addDeserializer(Money.class, new MoneyDeserializer()))
+            .build();
+
+    public String encode(DomainEvent event) {
+        if (!TYPES.containsKey(event.type())) {
+            throw new IllegalArgumentException("Unsupported outbox event type: " + event.type());
+        }
+        return json.writeValueAsString(event);
+    }
+
+    public DomainEvent decode(String type, String payload) {
+        Class<? extends DomainEvent> target = TYPES.get(type);
+        if (target == null) {
+            throw new IllegalArgumentException("Unsupported outbox event type: " + type);
+        }
+        return json.readValue(payload, target);
+    }
+
+    private static final class MoneySerializer extends ValueSerializer<Money> {
+        @Override
+        public void serialize(Money value, JsonGenerator gen, SerializationContext ctxt) {
+            gen.writeNumber(value.toDecimal());
+        }
+    }
+
+    private static final class MoneyDeserializer extends ValueDeserializer<Money> {
+        @Override
+        public Money deserialize(JsonParser p, DeserializationContext ctxt) {
+            return Money.of(p.getDecimalValue());
+        }
+    }
+}
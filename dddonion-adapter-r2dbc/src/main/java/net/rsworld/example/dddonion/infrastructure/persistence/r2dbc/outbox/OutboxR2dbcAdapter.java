@@ -0,0 +1,143 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.outbox.OutboxEntry;
+import net.rsworld.example.dddonion.application.outbox.OutboxEntryException;
+import net.rsworld.example.dddonion.application.outbox.OutboxPort;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC side of the outbox: batched appends inside the caller's transaction, bulk reads and deletes for the relay. A
+ * relay's claim is a transaction in which the read locks its rows with {@code FOR UPDATE SKIP LOCKED}: other relays
+ * read past them, and the delete commits together with the claim.
+ *
+ * <p>Failed attempts are counted per row in {@code failed_attempts}; a row that reaches {@code maxAttempts} is parked
+ * (no longer read) and counted in {@value #PARKED}, every failed attempt in {@value #FAILED}.
+ */
+@Slf4j
+public class OutboxR2dbcAdapter implements OutboxPort {
+
+    public static final String FAILED = "dddonion.outbox.failed";
+    public static final String PARKED = "dddonion.outbox.parked";
+
+    static final String INSERT_SQL =
+            "INSERT INTO outbox (aggregate_id, sequence, event_type, payload, occurred_at) VALUES (?, ?, ?, ?, ?)";
+    static final String SELECT_PENDING_SQL =
+            """
+            SELECT id, event_type, payload FROM outbox WHERE failed_attempts < :maxAttempts
+            ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED
+            """;
+    static final String DELETE_SQL = "DELETE FROM outbox WHERE id IN (:ids)";
+    static final String COUNT_FAILURE_SQL = "UPDATE outbox SET failed_attempts = failed_attempts + 1 WHERE id = :id";
+    static final String SELECT_FAILURES_SQL = "SELECT failed_attempts FROM outbox WHERE id = :id";
+
+    private final DatabaseClient db;
+    private final OutboxEventCodec codec;
+    private final int maxAttempts;
+    private final TransactionalOperator claims;
+    private final Counter failed;
+    private final Counter parked;
+
+    public OutboxR2dbcAdapter(DatabaseClient db, OutboxEventCodec codec, int maxAttempts, MeterRegistry registry) {
+        if (maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be >= 1");
+        this.db = db;
+        this.codec = codec;
+        this.maxAttempts = maxAttempts;
+        this.claims = TransactionalOperator.create(new R2dbcTransactionManager(db.getConnectionFactory()));
+        this.failed = Counter.builder(FAILED)
+                .description("Outbox entries that could not be read or delivered, per attempt")
+                .register(registry);
+        this.parked = Counter.builder(PARKED)
+                .description("Outbox entries given up on after the maximum of failed attempts")
+                .register(registry);
+    }
+
+    /**
+     * Appends all events with one batched statement. Uses the connection bound to the current reactive transaction,
+     * so it commits or rolls back together with the aggregate row.
+     */
+    public Mono<Void> append(List<DomainEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.empty();
+        }
+        return db.inConnectionMany(conn -> {
+                    Statement statement = conn.createStatement(INSERT_SQL);
+                    for (int i = 0; i < events.size(); i++) {
+                        if (i > 0) {
+                            statement.add();
+                        }
+                        DomainEvent event = events.get(i);
+                        statement
+                                .bind(0, event.aggregateId())
+                                .bind(1, event.sequence())
+                                .bind(2, event.type())
+                                .bind(3, codec.encode(event))
+                                .bind(4, event.occurredAt().atOffset(ZoneOffset.UTC).toLocalDateTime());
+                    }
+                    return Flux.from(statement.execute()).flatMap(Result::getRowsUpdated);
+                })
+                .then();
+    }
+
+    @Override
+    public Flux<OutboxEntry> fetchPending(int limit) {
+        return db.sql(SELECT_PENDING_SQL)
+                .bind("maxAttempts", maxAttempts)
+                .bind("limit", limit)
+                .map(row -> {
+                    long id = row.get("id", Long.class);
+                    try {
+                        var event = codec.decode(row.get("event_type", String.class), row.get("payload", String.class));
+                        return new OutboxEntry(id, event);
+                    } catch (RuntimeException e) {
+                        throw new OutboxEntryException(id, e);
+                    }
+                })
+                .all();
+    }
+
+    @Override
+    public Mono<Void> markFailed(long id) {
+        return db.sql(COUNT_FAILURE_SQL)
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .then(db.sql(SELECT_FAILURES_SQL)
+                        .bind("id", id)
+                        .map(row -> row.get("failed_attempts", Integer.class))
+                        .one())
+                .doOnNext(attempts -> {
+                    failed.increment();
+                    if (attempts >= maxAttempts) {
+                        parked.increment();
+                        log.error("Outbox entry {} parked after {} failed attempts, left in the table", id, attempts);
+                    }
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Void> markDispatched(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Mono.empty();
+        }
+        return db.sql(DELETE_SQL).bind("ids", ids).fetch().rowsUpdated().then();
+    }
+
+    @Override
+    public <T> Mono<T> claiming(Mono<T> relay) {
+        return claims.transactional(relay);
+    }
+}
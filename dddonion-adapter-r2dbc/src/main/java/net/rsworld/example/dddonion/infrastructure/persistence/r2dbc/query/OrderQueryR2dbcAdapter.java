@@ -0,0 +1,77 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Keyset (seek) pagination over {@code orders}: a page starts right after the {@code (created_at, id)} of the cursor
+ * and reads {@code limit} rows along one of the {@code idx_orders_*_created_id} indexes, so page 10,000 touches as
+ * many rows as page 1. Rows are emitted as the driver delivers them; nothing is collected.
+ *
+ * <p>{@code created_at} is converted between {@code LocalDateTime} and {@code Instant} at UTC in both directions, so
+ * a cursor always seeks to exactly the value it was built from.
+ */
+public class OrderQueryR2dbcAdapter implements OrderQueryPort {
+
+    static final String SELECT_SQL = "SELECT id, customer_email, total, status, version, created_at FROM orders";
+    // expanded form of (created_at, id) > (:createdAt, :id), which the range optimizer turns into one index seek
+    static final String AFTER_CURSOR = "(created_at > :createdAt OR (created_at = :createdAt AND id > :id))";
+    static final String ORDER_BY = " ORDER BY created_at, id LIMIT :limit";
+
+    private final DatabaseClient db;
+
+    public OrderQueryR2dbcAdapter(DatabaseClient db) {
+        this.db = db;
+    }
+
+    @Override
+    public Flux<OrderSummary> list(OrderListQuery query) {
+        var spec = db.sql(sql(query)).bind("limit", query.limit());
+        if (query.status() != null) {
+            spec = spec.bind("status", query.status().name());
+        }
+        if (query.customerEmail() != null) {
+            spec = spec.bind("customer", query.customerEmail());
+        }
+        OrderCursor after = query.after();
+        if (after != null) {
+            spec = spec.bind("createdAt", LocalDateTime.ofInstant(after.createdAt(), ZoneOffset.UTC))
+                    .bind("id", OrderMapper.toBinaryId(after.id()));
+        }
+        return spec.map(row -> new OrderSummary(
+                        OrderMapper.toOrderId(row.get("id", byte[].class)),
+                        row.get("customer_email", String.class),
+                        row.get("total", BigDecimal.class),
+                        OrderStatus.valueOf(row.get("status", String.class)),
+                        row.get("version", Long.class),
+                        row.get("created_at", LocalDateTime.class).toInstant(ZoneOffset.UTC)))
+                .all();
+    }
+
+    static String sql(OrderListQuery query) {
+        List<String> conditions = new ArrayList<>(3);
+        if (query.status() != null) {
+            conditions.add("status = :status");
+        }
+        if (query.customerEmail() != null) {
+            conditions.add("customer_email = :customer");
+        }
+        if (query.after() != null) {
+            conditions.add(AFTER_CURSOR);
+        }
+        return conditions.isEmpty()
+                ? SELECT_SQL + ORDER_BY
+                : SELECT_SQL + " WHERE " + String.join(" AND ", conditions) + ORDER_BY;
+    }
+}
@@ -0,0 +1,223 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decides per read whether it goes to the replica or the primary; writes always go to the primary.
+ *
+ * <p>A read stays on the primary while
+ *
+ * <ul>
+ *   <li>its key (order id or customer email) was written less than {@link Settings#readYourWrites()} ago on this
+ *       instance ({@link #pin(String)}), so a caller never reads a state older than its own save, or
+ *   <li>the replica is marked down: by a failed {@link #checkReplica() health check} or by a connection-level failure
+ *       of a replica read, including one that gets no answer within {@link Settings#readTimeout()}, which is then
+ *       retried on the primary. Only a passing health check marks it up again.
+ * </ul>
+ *
+ * Every routed read is counted in {@value #READS}, tagged with the {@code pool} it was sent to and the
+ * {@code reason}, so a read retried on the primary counts twice; {@value #REPLICA_UP} is 1 while the replica takes
+ * reads. Owns the replica's connection factory and disposes it on {@link #close()}.
+ */
+@Slf4j
+public class ReadRouting implements AutoCloseable {
+
+    public static final String READS = "dddonion.persistence.reads";
+    public static final String REPLICA_UP = "dddonion.persistence.replica.up";
+
+    private final ConnectionFactory replicaFactory;
+    private final DatabaseClient replica;
+    private final Settings settings;
+    private final Cache<String, Boolean> pinned;
+    private final AtomicBoolean replicaUp = new AtomicBoolean(true);
+
+    private final Counter replicaRouted;
+    private final Counter primaryReadYourWrites;
+    private final Counter primaryReplicaDown;
+    private final Counter primaryReplicaError;
+    private final Counter primaryReplicaMiss;
+
+    public ReadRouting(ConnectionFactory replicaFactory, Settings settings, MeterRegistry registry) {
+        this.replicaFactory = replicaFactory;
+        this.replica = DatabaseClient.create(replicaFactory);
+        this.settings = settings;
+        this.pinned = Caffeine.newBuilder()
+                .maximumSize(settings.maxPinned())
+                .expireAfterWrite(settings.readYourWrites())
+                .build();
+        this.replicaRouted = reads(registry, "replica", "routed");
+        this.primaryReadYourWrites = reads(registry, "primary", "read-your-writes");
+        this.primaryReplicaDown = reads(registry, "primary", "replica-down");
+        this.primaryReplicaError = reads(registry, "primary", "replica-error");
+        this.primaryReplicaMiss = reads(registry, "primary", "replica-miss");
+        Gauge.builder(REPLICA_UP, replicaUp, up -> up.get() ? 1 : 0)
+                .description("1 while reads are routed to the replica, 0 while it is marked down")
+                .register(registry);
+    }
+
+    /** The replica's client, for the read adapters behind the routing decorators. */
+    public DatabaseClient replica() {
+        return replica;
+    }
+
+    public boolean isReplicaUp() {
+        return replicaUp.get();
+    }
+
+    /** Keeps reads of {@code key} on the primary for the read-your-writes window, counted from now. */
+    public void pin(String key) {
+        if (key != null) {
+            pinned.put(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Routes a single-value read, decided per subscription; {@code key} may be {@code null} if the read is not tied to
+     * one writer.
+     */
+    public <T> Mono<T> read(String key, Supplier<Mono<T>> primary, Supplier<Mono<T>> fromReplica) {
+        return Mono.defer(() -> {
+            Counter primaryReason = primaryReason(key);
+            if (primaryReason != null) {
+                primaryReason.increment();
+                return primary.get();
+            }
+            replicaRouted.increment();
+            return fromReplica
+                    .get()
+                    .timeout(settings.readTimeout())
+                    .onErrorResume(ReadRouting::isConnectionFailure, e -> {
+                        markDown(e);
+                        primaryReplicaError.increment();
+                        return primary.get();
+                    });
+        });
+    }
+
+    /**
+     * Routes a multi-row read. A replica failure falls back to the primary only before the first row was emitted;
+     * after that the error is passed on, as a retry would deliver rows twice. The read timeout applies to every row.
+     */
+    public <T> Flux<T> readMany(String key, Supplier<Flux<T>> primary, Supplier<Flux<T>> fromReplica) {
+        return Flux.defer(() -> {
+            Counter primaryReason = primaryReason(key);
+            if (primaryReason != null) {
+                primaryReason.increment();
+                return primary.get();
+            }
+            replicaRouted.increment();
+            var emitted = new AtomicBoolean();
+            return fromReplica
+                    .get()
+                    .timeout(settings.readTimeout())
+                    .doOnNext(row -> emitted.set(true))
+                    .onErrorResume(e -> !emitted.get() && isConnectionFailure(e), e -> {
+                        markDown(e);
+                        primaryReplicaError.increment();
+                        return primary.get();
+                    });
+        });
+    }
+
+    /**
+     * Repeats a replica read on the primary because the replica did not find what was asked for, e.g. an order saved
+     * by another instance or in a batch that has not been replicated yet.
+     */
+    public <T> Mono<T> afterReplicaMiss(Supplier<Mono<T>> primary) {
+        primaryReplicaMiss.increment();
+        return Mono.defer(primary);
+    }
+
+    /** Probes the replica with {@code SELECT 1}; marks it up on success and down on failure or timeout. */
+    public Mono<Boolean> checkReplica() {
+        return replica.sql("SELECT 1")
+                .map(row -> Boolean.TRUE)
+                .first()
+                .timeout(settings.healthCheckTimeout())
+                .map(ok -> {
+                    if (replicaUp.compareAndSet(false, true)) {
+                        log.info("Replica is reachable again, routing reads to it");
+                    }
+                    return true;
+                })
+                .onErrorResume(e -> {
+                    markDown(e);
+                    return Mono.just(false);
+                });
+    }
+
+    @Override
+    public void close() {
+        if (replicaFactory instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+
+    private Counter primaryReason(String key) {
+        if (!replicaUp.get()) {
+            return primaryReplicaDown;
+        }
+        if (key != null && pinned.getIfPresent(key) != null) {
+            return primaryReadYourWrites;
+        }
+        return null;
+    }
+
+    private void markDown(Throwable cause) {
+        if (replicaUp.compareAndSet(true, false)) {
+            log.warn("Replica marked down, reading from the primary until a health check passes", cause);
+        }
+    }
+
+    /** Failures of the replica as a resource; anything else (e.g. bad SQL) would fail on the primary just as well. */
+    static boolean isConnectionFailure(Throwable e) {
+        return e instanceof DataAccessResourceFailureException
+                || e instanceof TransientDataAccessException
+                || e instanceof R2dbcException
+                || e instanceof TimeoutException;
+    }
+
+    private static Counter reads(MeterRegistry registry, String pool, String reason) {
+        return Counter.builder(READS)
+                .description("Reads of the orders table by the pool they were sent to and why")
+                .tags("pool", pool, "reason", reason)
+                .register(registry);
+    }
+
+    /**
+     * Routing limits: reads of a key stay on the primary for {@code readYourWrites} after its save, for at most
+     * {@code maxPinned} keys at a time; a health check that takes longer than {@code healthCheckTimeout} fails, a
+     * replica read that waits longer than {@code readTimeout} for its (next) row falls back to the primary.
+     */
+    public record Settings(Duration readYourWrites, long maxPinned, Duration healthCheckTimeout, Duration readTimeout) {
+        public Settings {
+            if (readYourWrites == null || readYourWrites.isNegative() || readYourWrites.isZero()) {
+                throw new IllegalArgumentException("readYourWrites must be > 0");
+            }
+            if (maxPinned < 1) throw new IllegalArgumentException("maxPinned must be >= 1");
+            if (healthCheckTimeout == null || healthCheckTimeout.isNegative() || healthCheckTimeout.isZero()) {
+                throw new IllegalArgumentException("healthCheckTimeout must be > 0");
+            }
+            if (readTimeout == null || readTimeout.isNegative() || readTimeout.isZero()) {
+                throw new IllegalArgumentException("readTimeout must be > 0");
+            }
+        }
+    }
+}
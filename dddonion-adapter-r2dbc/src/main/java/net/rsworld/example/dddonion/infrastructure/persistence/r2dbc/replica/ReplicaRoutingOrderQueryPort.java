@@ -0,0 +1,28 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica;
+
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import reactor.core.publisher.Flux;
+
+/**
+ * Lists orders from the replica through {@link ReadRouting}. A listing filtered by customer stays on the primary
+ * while that customer has a fresh save; unfiltered listings may trail the primary by the replication lag.
+ */
+public class ReplicaRoutingOrderQueryPort implements OrderQueryPort {
+
+    private final OrderQueryPort primary;
+    private final OrderQueryPort replica;
+    private final ReadRouting routing;
+
+    public ReplicaRoutingOrderQueryPort(OrderQueryPort primary, OrderQueryPort replica, ReadRouting routing) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+    }
+
+    @Override
+    public Flux<OrderSummary> list(OrderListQuery query) {
+        return routing.readMany(query.customerEmail(), () -> primary.list(query), () -> replica.list(query));
+    }
+}
@@ -0,0 +1,73 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica;
+
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.ReactiveOrderRepository;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+
+/**
+ * Writes through the primary store and reads through {@link ReadRouting}: a successful save or payment pins the order
+ * id and the customer for the read-your-writes window, {@code findById} goes to the replica otherwise. An order the
+ * replica does not know (yet) is looked up on the primary before the read reports it missing.
+ *
+ * <p>{@code findById} may lag behind the primary, which is harmless for display but not for read-modify-write. Payments
+ * therefore do not load at all ({@link #writePayment} is one conditional update on the primary), and a save that loses
+ * its optimistic lock pins the order id as well: the loaded version was stale, possibly because the replica lagged, so
+ * the caller's reload before a retry goes to the primary instead of reading the same stale row again.
+ */
+public class ReplicaRoutingOrderRepository implements ReactiveOrderRepository {
+
+    private final ReactiveOrderRepository primary;
+    private final OrderRepository replica;
+    private final ReadRouting routing;
+
+    public ReplicaRoutingOrderRepository(
+            ReactiveOrderRepository primary, OrderRepository replica, ReadRouting routing) {
+        this.primary = primary;
+        this.replica = replica;
+        this.routing = routing;
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        return write(order).toFuture();
+    }
+
+    @Override
+    public Mono<Order> write(Order order) {
+        return primary.write(order)
+                .doOnNext(saved -> {
+                    routing.pin(saved.id().value());
+                    routing.pin(saved.customerEmail());
+                })
+                .doOnError(OptimisticLockingFailureException.class, e -> routing.pin(order.id().value()));
+    }
+
+    @Override
+    public Mono<Order> writePayment(OrderId id) {
+        return primary.writePayment(id).doOnNext(paid -> {
+            routing.pin(paid.id().value());
+            routing.pin(paid.customerEmail());
+        });
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        return routing.read(id.value(), () -> fromPrimary(id), () -> fromReplica(id))
+                .toFuture();
+    }
+
+    private Mono<Optional<Order>> fromPrimary(OrderId id) {
+        return Mono.fromCompletionStage(() -> primary.findById(id));
+    }
+
+    private Mono<Optional<Order>> fromReplica(OrderId id) {
+        return Mono.fromCompletionStage(() -> replica.findById(id))
+                .flatMap(found ->
+                        found.isPresent() ? Mono.just(found) : routing.afterReplicaMiss(() -> fromPrimary(id)));
+    }
+}
@@ -1,6 +1,35 @@
 package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo;
 
+import java.math.BigDecimal;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.dto.OrderRow;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Mono;
 
-public interface OrderR2dbcRepository extends ReactiveCrudRepository<OrderRow, String> {}
+public interface OrderR2dbcRepository extends ReactiveCrudRepository<OrderRow, byte[]> {
+
+    /** Plain INSERT without the existence probe Spring Data would need to decide between insert and update. */
+    @Modifying
+    @Query("""
+            INSERT INTO orders (id, customer_email, total, status, version)
+            VALUES (:id, :customerEmail, :total, :status, :version)
+            """)
+    Mono<Long> insert(byte[] id, String customerEmail, BigDecimal total, String status, long version);
+
+    /** Conditional UPDATE; returns 0 if the row is missing or was modified concurrently. */
+    @Modifying
+    @Query("""
+            UPDATE orders SET status = :status, version = :version
+            WHERE id = :id AND version = :expectedVersion
+            """)
+    Mono<Long> update(byte[] id, String status, long version, long expectedVersion);
+
+    /** Pays a placed order; returns 0 if the row is missing or not placed. */
+    @Modifying
+    @Query("""
+            UPDATE orders SET status = 'PAID', version = version + 1
+            WHERE id = :id AND status = 'PLACED'
+            """)
+    Mono<Long> pay(byte[] id);
+}
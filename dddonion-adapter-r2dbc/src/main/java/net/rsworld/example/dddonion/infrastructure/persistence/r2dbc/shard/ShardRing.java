@@ -0,0 +1,74 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * Consistent hashing of keys onto named shards. Every shard owns {@code virtualNodes} points on a 64-bit ring derived
+ * from its name; a key belongs to the shard of the first point at or after the key's hash.
+ *
+ * <p>Placement depends only on the set of shard names, not on their order or count, so reordering the configuration
+ * moves nothing, and adding a shard moves only the keys it takes over (about {@code 1/n} of them), all from the
+ * existing shards to the new one. The hash is fixed (FNV-1a with a MurmurHash3 finalizer), so every instance and
+ * every release computes the same placement.
+ */
+public final class ShardRing {
+
+    private final List<String> shards;
+    private final long[] points;
+    private final String[] owners;
+
+    public ShardRing(Collection<String> shards, int virtualNodes) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("at least one shard is required");
+        if (virtualNodes < 1) throw new IllegalArgumentException("virtualNodes must be >= 1");
+        if (new HashSet<>(shards).size() != shards.size()) {
+            throw new IllegalArgumentException("shard names must be unique: " + shards);
+        }
+        this.shards = List.copyOf(shards);
+
+        record Point(long hash, String shard) {}
+        List<Point> ring = new ArrayList<>(shards.size() * virtualNodes);
+        for (String shard : shards) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.add(new Point(hash(shard + "#" + i), shard));
+            }
+        }
+        // the name breaks ties between equal hashes, so colliding points do not depend on the configuration order
+        ring.sort(Comparator.comparingLong(Point::hash).thenComparing(Point::shard));
+        this.points = ring.stream().mapToLong(Point::hash).toArray();
+        this.owners = ring.stream().map(Point::shard).toArray(String[]::new);
+    }
+
+    /** The shard names, in the order they were given. */
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardOf(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        // FNV-1a alone clusters keys with a common prefix; the finalizer spreads them over the whole ring
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
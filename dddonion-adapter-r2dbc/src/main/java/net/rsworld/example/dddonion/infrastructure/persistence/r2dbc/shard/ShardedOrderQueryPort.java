@@ -0,0 +1,42 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import reactor.core.publisher.Flux;
+
+/**
+ * Scatter-gather listing: the same query goes to every shard, and the shards' pages, each already sorted by
+ * {@code (created_at, id)}, are merged in that order and cut at the limit. A cursor is a position in that global order,
+ * so every shard seeks past it on its own index and paging works as on a single table. Each shard reads at most
+ * {@code limit} rows; the shards are cancelled once the merged page is full.
+ */
+public class ShardedOrderQueryPort implements OrderQueryPort {
+
+    /** The order of {@code ORDER BY created_at, id}, with the id compared as the stored {@code BINARY(16)}. */
+    public static final Comparator<OrderSummary> LISTING_ORDER = Comparator.comparing(OrderSummary::createdAt)
+            .thenComparing(
+                    (a, b) -> Arrays.compareUnsigned(OrderMapper.toBinaryId(a.id()), OrderMapper.toBinaryId(b.id())));
+
+    private final List<OrderQueryPort> shards;
+
+    public ShardedOrderQueryPort(List<OrderQueryPort> shards) {
+        if (shards.isEmpty()) throw new IllegalArgumentException("at least one shard is required");
+        this.shards = List.copyOf(shards);
+    }
+
+    @Override
+    public Flux<OrderSummary> list(OrderListQuery query) {
+        if (shards.size() == 1) {
+            return shards.getFirst().list(query);
+        }
+        @SuppressWarnings("unchecked")
+        Flux<OrderSummary>[] pages =
+                shards.stream().map(shard -> shard.list(query)).toArray(Flux[]::new);
+        return Flux.mergeComparing(LISTING_ORDER, pages).take(query.limit());
+    }
+}
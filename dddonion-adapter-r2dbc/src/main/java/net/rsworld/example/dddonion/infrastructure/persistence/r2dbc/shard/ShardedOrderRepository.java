@@ -0,0 +1,142 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Stores each order on the shard its id hashes to on the {@link ShardRing}; every shard has its own complete write
+ * path (table adapter, outbox or batching, transactions), so an order and its events stay in one database.
+ *
+ * <p>While shards are added, {@code previous} is the ring before the change: an order whose owner changed may still
+ * be on its previous shard until it is moved. Such an order is looked up on the new owner first and then on the
+ * previous one, and an update or payment goes to whichever of the two holds its row. New orders always go to the new
+ * owner. Every routed call is counted in {@value #ROUTED}, tagged with {@code shard}, {@code operation} and
+ * {@code ring}.
+ */
+public class ShardedOrderRepository implements OrderRepository {
+
+    public static final String ROUTED = "dddonion.persistence.shard.routed";
+
+    private final ShardRing ring;
+    private final ShardRing previous;
+    private final Map<String, Route> current = new HashMap<>();
+    private final Map<String, Route> moving = new HashMap<>();
+
+    /**
+     * @param shards one store per shard name of {@code ring} and {@code previous}
+     * @param previous the ring before the last change, or {@code null} if no orders are being moved
+     */
+    public ShardedOrderRepository(
+            Map<String, OrderRepository> shards, ShardRing ring, ShardRing previous, MeterRegistry registry) {
+        this.ring = ring;
+        this.previous = previous;
+        for (String shard : ring.shards()) {
+            current.put(shard, new Route(store(shards, shard), shard, "current", registry));
+        }
+        if (previous != null) {
+            for (String shard : previous.shards()) {
+                moving.put(shard, new Route(store(shards, shard), shard, "previous", registry));
+            }
+        }
+    }
+
+    @Override
+    public CompletionStage<Order> save(Order order) {
+        Route owner = current.get(ring.shardOf(order.id().value()));
+        Route before = previousOwner(order.id(), owner);
+        if (order.isNew() || before == null) {
+            return owner.save(order);
+        }
+        return Mono.fromCompletionStage(() -> owner.store.findById(order.id()))
+                .flatMap(found -> Mono.fromCompletionStage(
+                        found.isPresent() ? owner.save(order) : before.save(order)))
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> pay(OrderId id) {
+        Route owner = current.get(ring.shardOf(id.value()));
+        Route before = previousOwner(id, owner);
+        if (before == null) {
+            return owner.pay(id);
+        }
+        // a payment finds no row where the order is not, so it needs no separate lookup
+        return Mono.fromCompletionStage(() -> owner.pay(id))
+                .flatMap(paid -> paid.isPresent() ? Mono.just(paid) : Mono.fromCompletionStage(before.pay(id)))
+                .toFuture();
+    }
+
+    @Override
+    public CompletionStage<Optional<Order>> findById(OrderId id) {
+        Route owner = current.get(ring.shardOf(id.value()));
+        Route before = previousOwner(id, owner);
+        if (before == null) {
+            return owner.findById(id);
+        }
+        return Mono.fromCompletionStage(() -> owner.findById(id))
+                .flatMap(found -> found.isPresent() ? Mono.just(found) : Mono.fromCompletionStage(before.findById(id)))
+                .toFuture();
+    }
+
+    /** The previous ring's owner if it differs from {@code owner}, i.e. the order may not have been moved yet. */
+    private Route previousOwner(OrderId id, Route owner) {
+        if (previous == null) {
+            return null;
+        }
+        String shard = previous.shardOf(id.value());
+        return shard.equals(owner.shard) ? null : moving.get(shard);
+    }
+
+    private static OrderRepository store(Map<String, OrderRepository> shards, String shard) {
+        OrderRepository store = shards.get(shard);
+        if (store == null) throw new IllegalArgumentException("no store for shard " + shard);
+        return store;
+    }
+
+    private static final class Route {
+
+        final OrderRepository store;
+        final String shard;
+        final Counter saves;
+        final Counter pays;
+        final Counter finds;
+
+        Route(OrderRepository store, String shard, String ring, MeterRegistry registry) {
+            this.store = store;
+            this.shard = shard;
+            this.saves = routed(registry, shard, "save", ring);
+            this.pays = routed(registry, shard, "pay", ring);
+            this.finds = routed(registry, shard, "findById", ring);
+        }
+
+        CompletionStage<Order> save(Order order) {
+            saves.increment();
+            return store.save(order);
+        }
+
+        CompletionStage<Optional<Order>> pay(OrderId id) {
+            pays.increment();
+            return store.pay(id);
+        }
+
+        CompletionStage<Optional<Order>> findById(OrderId id) {
+            finds.increment();
+            return store.findById(id);
+        }
+
+        private static Counter routed(MeterRegistry registry, String shard, String operation, String ring) {
+            return Counter.builder(ROUTED)
+                    .description("Order repository calls by the shard they were sent to")
+                    .tags("shard", shard, "operation", operation, "ring", ring)
+                    .register(registry);
+        }
+    }
+}
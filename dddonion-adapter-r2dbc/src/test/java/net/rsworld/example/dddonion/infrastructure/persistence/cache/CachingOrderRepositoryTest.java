@@ -0,0 +1,139 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CachingOrderRepositoryTest {
+
+    private final OrderId id = new OrderId("ord-1");
+    private OrderRepository delegate;
+    private SimpleMeterRegistry meters;
+    private CachingOrderRepository cache;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(OrderRepository.class);
+        meters = new SimpleMeterRegistry();
+        cache = new CachingOrderRepository(
+                delegate, new CachingOrderRepository.Settings(100, Duration.ofMinutes(1)), meters);
+    }
+
+    private Order stored(long version, OrderStatus status) {
+        return new Order(id, "a@b.ce", Money.parse("1.00"), version, status);
+    }
+
+    private static CompletableFuture<Optional<Order>> found(Order order) {
+        return CompletableFuture.completedFuture(Optional.of(order));
+    }
+
+    @Test
+    @DisplayName("Liest eine Order nur einmal aus dem Delegate und liefert danach Kopien aus dem Cache")
+    void findById_readsThrough() {
+        when(delegate.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+
+        Order first = cache.findById(id).toCompletableFuture().join().orElseThrow();
+        Order second = cache.findById(id).toCompletableFuture().join().orElseThrow();
+
+        verify(delegate, times(1)).findById(id);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.version()).isEqualTo(1L);
+        assertThat(meters.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(meters.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Mutationen eines ausgelieferten Aggregats verändern den Cache nicht")
+    void findById_isolatesCallers() {
+        when(delegate.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+
+        cache.findById(id).toCompletableFuture().join().orElseThrow().pay();
+
+        assertThat(cache.findById(id).toCompletableFuture().join().orElseThrow().status())
+                .isEqualTo(OrderStatus.PLACED);
+    }
+
+    @Test
+    @DisplayName("Aktualisiert den Eintrag nach erfolgreichem Speichern einer neueren Version")
+    void save_refreshesEntry() {
+        when(delegate.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+        when(delegate.save(any())).thenReturn(CompletableFuture.completedFuture(stored(2, OrderStatus.PAID)));
+
+        Order loaded = cache.findById(id).toCompletableFuture().join().orElseThrow();
+        loaded.pay();
+        cache.save(loaded).toCompletableFuture().join();
+
+        Order reread = cache.findById(id).toCompletableFuture().join().orElseThrow();
+        assertThat(reread.status()).isEqualTo(OrderStatus.PAID);
+        assertThat(reread.version()).isEqualTo(2L);
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Verwirft den Eintrag, wenn das Speichern fehlschlägt")
+    void save_failureInvalidates() {
+        when(delegate.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+        when(delegate.save(any())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("conflict")));
+
+        Order loaded = cache.findById(id).toCompletableFuture().join().orElseThrow();
+        loaded.pay();
+        cache.save(loaded).toCompletableFuture().exceptionally(e -> null).join();
+        cache.findById(id).toCompletableFuture().join();
+
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Übernimmt die vom Delegate bezahlte Order in den Cache")
+    void pay_refreshesEntry() {
+        when(delegate.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+        when(delegate.pay(id)).thenReturn(found(stored(2, OrderStatus.PAID)));
+
+        cache.findById(id).toCompletableFuture().join();
+        cache.pay(id).toCompletableFuture().join();
+
+        Order reread = cache.findById(id).toCompletableFuture().join().orElseThrow();
+        assertThat(reread.status()).isEqualTo(OrderStatus.PAID);
+        assertThat(reread.version()).isEqualTo(2L);
+        verify(delegate, times(1)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Verwirft den Eintrag, wenn die Zahlung fehlschlägt")
+    void pay_failureInvalidates() {
+        when(delegate.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+        when(delegate.pay(id))
+                .thenReturn(CompletableFuture.failedFuture(new OrderNotPayableException(id, OrderStatus.PAID)));
+
+        cache.findById(id).toCompletableFuture().join();
+        cache.pay(id).toCompletableFuture().exceptionally(e -> null).join();
+        cache.findById(id).toCompletableFuture().join();
+
+        verify(delegate, times(2)).findById(id);
+    }
+
+    @Test
+    @DisplayName("Cacht keine Negativ-Treffer")
+    void findById_doesNotCacheMisses() {
+        when(delegate.findById(id)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertThat(cache.findById(id).toCompletableFuture().join()).isEmpty();
+        assertThat(cache.findById(id).toCompletableFuture().join()).isEmpty();
+
+        verify(delegate, times(2)).findById(id);
+    }
+}
@@ -0,0 +1,136 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.BatchingOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OrderRepositoryAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo.OrderR2dbcRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+
+@Testcontainers
+class BatchingOrderRepositoryIT {
+
+    @Container
+    static MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    static DatabaseClient db;
+    static SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    static BatchingOrderRepository batching;
+
+    @BeforeAll
+    static void init() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+
+        ConnectionFactory cf = ConnectionFactories.get(options);
+
+        db = DatabaseClient.create(cf);
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS orders (
+              id BINARY(16) PRIMARY KEY,
+              customer_email VARCHAR(255) NOT NULL,
+              total DECIMAL(19,2) NOT NULL,
+              status VARCHAR(32) NOT NULL,
+              version BIGINT NOT NULL DEFAULT 0,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            );
+        """).fetch().rowsUpdated().block();
+
+        OrderR2dbcRepository repo =
+                new R2dbcRepositoryFactory(new R2dbcEntityTemplate(cf)).getRepository(OrderR2dbcRepository.class);
+        batching = new BatchingOrderRepository(
+                new OrderRepositoryAdapter(repo),
+                db,
+                new BatchingOrderRepository.Settings(32, Duration.ofMillis(20), 2, Duration.ofSeconds(5)),
+                meters);
+    }
+
+    @AfterAll
+    static void stop() {
+        batching.close();
+        maria.stop();
+    }
+
+    @Test
+    @DisplayName("Schreibt viele gleichzeitige Inserts gebündelt und beantwortet jeden Aufrufer einzeln")
+    void concurrentSaves_areGroupCommitted() {
+        List<Order> orders = IntStream.range(0, 100)
+                .mapToObj(i -> placed("user" + i + "@example.com"))
+                .toList();
+
+        List<CompletableFuture<Order>> results = orders.stream()
+                .map(o -> batching.save(o).toCompletableFuture())
+                .toList();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(results).allSatisfy(f -> assertThat(f.join().status()).isEqualTo(OrderStatus.PLACED));
+        assertThat(countRows()).isGreaterThanOrEqualTo(100L);
+
+        var batchSize = meters.get("dddonion.orders.batch.size").summary();
+        assertThat(batchSize.count()).isLessThan(100L);
+        assertThat(batchSize.max()).isGreaterThan(1.0);
+        assertThat(meters.get("dddonion.orders.batch.queue.delay").timer().count())
+                .isGreaterThanOrEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("Ein Duplikat im Batch schlägt nur für den eigenen Aufrufer fehl")
+    void duplicateInBatch_failsOnlyItsCaller() {
+        Order first = placed("dup@example.com");
+        batching.save(first).toCompletableFuture().join();
+
+        // the in-memory aggregate is still flagged as new, so saving it again collides on the primary key
+        var failing = batching.save(first).toCompletableFuture();
+        Order healthy = placed("healthy@example.com");
+        var ok = batching.save(healthy).toCompletableFuture();
+
+        assertThat(ok.join().id()).isEqualTo(healthy.id());
+        assertThatThrownBy(failing::join).hasCauseInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static Order placed(String email) {
+        var o = new Order(email, Money.parse("9.99"));
+        o.place();
+        return o;
+    }
+
+    private static long countRows() {
+        return db.sql("SELECT COUNT(*) AS c FROM orders")
+                .map(row -> row.get("c", Long.class))
+                .one()
+                .block();
+    }
+}
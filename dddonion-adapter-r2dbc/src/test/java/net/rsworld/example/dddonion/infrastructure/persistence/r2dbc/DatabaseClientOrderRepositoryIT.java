@@ -0,0 +1,176 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.DatabaseClientOrderRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@Testcontainers
+class DatabaseClientOrderRepositoryIT {
+
+    @Container
+    static MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    static DatabaseClient db;
+    static DatabaseClientOrderRepository adapter;
+    static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void init() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+
+        ConnectionFactory cf = ConnectionFactories.get(options);
+
+        db = DatabaseClient.create(cf);
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS orders (
+              id BINARY(16) PRIMARY KEY,
+              customer_email VARCHAR(255) NOT NULL,
+              total DECIMAL(19,2) NOT NULL,
+              status VARCHAR(32) NOT NULL,
+              version BIGINT NOT NULL DEFAULT 0,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            );
+        """).fetch().rowsUpdated().block();
+
+        // record every statement the adapter sends over the wire
+        ConnectionFactory counting = ProxyConnectionFactory.builder(cf)
+                .onAfterQuery(exec -> exec.getQueries().stream()
+                        .map(QueryInfo::getQuery)
+                        .forEach(statements::add))
+                .build();
+
+        adapter = new DatabaseClientOrderRepository(DatabaseClient.create(counting));
+    }
+
+    @BeforeEach
+    void resetStatements() {
+        statements.clear();
+    }
+
+    @AfterAll
+    static void stop() {
+        maria.stop();
+    }
+
+    @Test
+    @DisplayName("Speichert eine platzierte Order und liest sie anschließend über findById wieder ein")
+    void saveAndFind_optionalNotEmpty() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place(); // domain transition first, then persist – mirrors production flow
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(o))
+                        .then(Mono.fromCompletionStage(adapter.findById(o.id())))
+                        .map(opt -> opt.orElseThrow(() -> new AssertionError("Order not found via adapter.findById"))))
+                .expectNextMatches(found -> found.id().value().equals(o.id().value()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Liest alle Spalten ohne Umweg über OrderRow so, wie sie gespeichert wurden")
+    void find_mapsRowToAggregate() {
+        var o = new Order("c@d.com", Money.parse("1234567.89"));
+        o.place();
+        Order saved = Mono.fromCompletionStage(adapter.save(o)).block();
+        saved.pay();
+        Mono.fromCompletionStage(adapter.save(saved)).block();
+
+        Order found = Mono.fromCompletionStage(adapter.findById(o.id())).block().orElseThrow();
+
+        assertThat(found.id()).isEqualTo(o.id());
+        assertThat(found.customerEmail()).isEqualTo("c@d.com");
+        assertThat(found.total()).isEqualTo(Money.parse("1234567.89"));
+        assertThat(found.status()).isEqualTo(OrderStatus.PAID);
+        assertThat(found.version()).isEqualTo(2L);
+        assertThat(found.isNew()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Schreibt eine neue Order mit genau einem INSERT ohne vorherigen SELECT")
+    void saveNew_issuesSingleInsert() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place();
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(o)))
+                .expectNextMatches(saved -> saved.version() == 1L && !saved.isNew())
+                .verifyComplete();
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.getFirst()).containsIgnoringCase("INSERT INTO orders");
+    }
+
+    @Test
+    @DisplayName("Aktualisiert eine geladene Order mit genau einem bedingten UPDATE")
+    void saveLoaded_issuesSingleConditionalUpdate() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place();
+        Order loaded = Mono.fromCompletionStage(adapter.save(o)).block();
+        statements.clear();
+
+        loaded.pay();
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(loaded)))
+                .expectNextMatches(saved -> saved.status() == OrderStatus.PAID && saved.version() == 2L)
+                .verifyComplete();
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.getFirst()).containsIgnoringCase("UPDATE orders").containsIgnoringCase("version =");
+    }
+
+    @Test
+    @DisplayName("Lehnt ein Update mit veralteter Version ab")
+    void saveStale_failsWithOptimisticLock() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place();
+        Mono.fromCompletionStage(adapter.save(o)).block();
+
+        var stale = new Order(o.id(), "a@b.com", Money.parse("12.34"), 0L, OrderStatus.PLACED);
+        stale.pay();
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(stale)))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Liefert Optional.empty für unbekannte IDs")
+    void findUnknown_isEmpty() {
+        StepVerifier.create(Mono.fromCompletionStage(adapter.findById(new OrderId("does-not-exist"))))
+                .expectNextMatches(opt -> opt.isEmpty())
+                .verifyComplete();
+    }
+}
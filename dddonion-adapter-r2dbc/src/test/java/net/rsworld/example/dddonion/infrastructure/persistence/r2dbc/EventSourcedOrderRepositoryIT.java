@@ -0,0 +1,199 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.util.concurrent.CompletionException;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.EventSourcedOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.eventstore.EventStoreR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxEventCodec;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxR2dbcAdapter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+
+@Testcontainers
+class EventSourcedOrderRepositoryIT {
+
+    @Container
+    static MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    static DatabaseClient db;
+    static OutboxR2dbcAdapter outbox;
+    static EventSourcedOrderRepository repository;
+
+    @BeforeAll
+    static void init() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+
+        ConnectionFactory cf = ConnectionFactories.get(options);
+
+        db = DatabaseClient.create(cf);
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS domain_events (
+              aggregate_id BINARY(16) NOT NULL,
+              sequence BIGINT NOT NULL,
+              event_type VARCHAR(64) NOT NULL,
+              payload TEXT NOT NULL,
+              occurred_at TIMESTAMP(6) NOT NULL,
+              PRIMARY KEY (aggregate_id, sequence)
+            );
+        """).fetch().rowsUpdated().block();
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS order_snapshots (
+              aggregate_id BINARY(16) PRIMARY KEY,
+              version BIGINT NOT NULL,
+              customer_email VARCHAR(255) NOT NULL,
+              total DECIMAL(19,2) NOT NULL,
+              status VARCHAR(32) NOT NULL,
+              taken_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+            );
+        """).fetch().rowsUpdated().block();
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS orders (
+              id BINARY(16) PRIMARY KEY,
+              customer_email VARCHAR(255) NOT NULL,
+              total DECIMAL(19,2) NOT NULL,
+              status VARCHAR(32) NOT NULL,
+              version BIGINT NOT NULL DEFAULT 0,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            );
+        """).fetch().rowsUpdated().block();
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS outbox (
+              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+              aggregate_id VARCHAR(64) NOT NULL,
+              sequence BIGINT NOT NULL,
+              event_type VARCHAR(64) NOT NULL,
+              payload TEXT NOT NULL,
+              occurred_at TIMESTAMP(6) NOT NULL,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              failed_attempts INT NOT NULL DEFAULT 0
+            );
+        """).fetch().rowsUpdated().block();
+
+        var codec = new OutboxEventCodec();
+        outbox = new OutboxR2dbcAdapter(db, codec, 3, new SimpleMeterRegistry());
+        repository = new EventSourcedOrderRepository(
+                new EventStoreR2dbcAdapter(db, codec, new SimpleMeterRegistry()),
+                outbox,
+                TransactionalOperator.create(new R2dbcTransactionManager(cf)),
+                2);
+    }
+
+    @BeforeEach
+    void clearOutbox() {
+        db.sql("DELETE FROM outbox").fetch().rowsUpdated().block();
+    }
+
+    @AfterAll
+    static void stop() {
+        maria.stop();
+    }
+
+    @Test
+    @DisplayName("Baut eine Order aus ihren Events wieder auf und schreibt an der Snapshot-Grenze einen Snapshot")
+    void save_appendsEvents_andLoadReplaysFromSnapshot() {
+        var order = new Order("a@b.com", Money.parse("12.34"));
+        order.place();
+        repository.save(order).toCompletableFuture().join();
+
+        Order placed = repository.findById(order.id()).toCompletableFuture().join().orElseThrow();
+        assertThat(placed.status()).isEqualTo(OrderStatus.PLACED);
+        assertThat(placed.version()).isEqualTo(1L);
+        assertThat(snapshotVersion(order.id())).isZero();
+
+        placed.pay();
+        repository.save(placed).toCompletableFuture().join();
+
+        Order paid = repository.findById(order.id()).toCompletableFuture().join().orElseThrow();
+        assertThat(paid.status()).isEqualTo(OrderStatus.PAID);
+        assertThat(paid.customerEmail()).isEqualTo("a@b.com");
+        assertThat(paid.total()).isEqualTo(Money.parse("12.34"));
+        assertThat(paid.version()).isEqualTo(2L);
+        assertThat(snapshotVersion(order.id())).isEqualTo(2L);
+        assertThat(projectedStatus(order.id())).isEqualTo("PAID");
+        assertThat(outbox.fetchPending(10).collectList().block())
+                .extracting(entry -> entry.event().type())
+                .containsExactly("OrderPlaced", "OrderPaid");
+    }
+
+    @Test
+    @DisplayName("Lässt von zwei Schreibern derselben Version nur einen gewinnen, ohne Event im Outbox")
+    void concurrentWriters_secondFailsWithOptimisticLock() {
+        var order = new Order("a@b.com", Money.parse("12.34"));
+        order.place();
+        repository.save(order).toCompletableFuture().join();
+        Order first = repository.findById(order.id()).toCompletableFuture().join().orElseThrow();
+        Order second = repository.findById(order.id()).toCompletableFuture().join().orElseThrow();
+        first.pay();
+        second.pay();
+        repository.save(first).toCompletableFuture().join();
+        clearOutbox();
+
+        assertThatThrownBy(() -> repository.save(second).toCompletableFuture().join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(OptimisticLockingFailureException.class);
+        assertThat(outbox.fetchPending(10).collectList().block()).isEmpty();
+        assertThat(repository.findById(order.id()).toCompletableFuture().join())
+                .hasValueSatisfying(o -> assertThat(o.version()).isEqualTo(2L));
+        assertThat(projectedStatus(order.id())).isEqualTo("PAID");
+    }
+
+    @Test
+    @DisplayName("Findet für unbekannte oder ungültige IDs nichts")
+    void findById_unknownOrInvalidId_isEmpty() {
+        assertThat(repository.findById(OrderId.newId()).toCompletableFuture().join())
+                .isEmpty();
+        assertThat(repository.findById(new OrderId("no-uuid")).toCompletableFuture().join())
+                .isEmpty();
+    }
+
+    /** Status in the {@code orders} projection read by listings, or {@code null} without a row. */
+    private static String projectedStatus(OrderId id) {
+        return db.sql("SELECT status FROM orders WHERE id = :id")
+                .bind("id", OrderMapper.toBinaryId(id))
+                .map(row -> row.get("status", String.class))
+                .one()
+                .block();
+    }
+
+    private static long snapshotVersion(OrderId id) {
+        return db.sql("SELECT version FROM order_snapshots WHERE aggregate_id = :id")
+                .bind("id", OrderMapper.toBinaryId(id))
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .defaultIfEmpty(0L)
+                .block();
+    }
+}
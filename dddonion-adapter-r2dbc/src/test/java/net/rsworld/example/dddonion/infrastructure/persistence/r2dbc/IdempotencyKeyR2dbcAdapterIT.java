@@ -0,0 +1,106 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.idempotency.IdempotencyKeyR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+import reactor.test.StepVerifier;
+
+@Testcontainers
+class IdempotencyKeyR2dbcAdapterIT {
+
+    @Container
+    static MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    static DatabaseClient db;
+
+    @BeforeAll
+    static void init() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+        db = DatabaseClient.create(ConnectionFactories.get(options));
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS idempotency_keys (
+              idempotency_key VARCHAR(255) PRIMARY KEY,
+              order_id BINARY(16) NOT NULL,
+              request_fingerprint CHAR(64) NULL,
+              expires_at DATETIME(6) NOT NULL,
+              INDEX idx_idempotency_keys_expires (expires_at)
+            );
+        """).fetch().rowsUpdated().block();
+    }
+
+    private static IdempotencyRecord placement(String fingerprint) {
+        return new IdempotencyRecord(OrderId.newId(), fingerprint);
+    }
+
+    @Test
+    @DisplayName("Der erste gemerkte Schlüssel gewinnt, zweite OrderId und Fingerabdruck werden nicht übernommen")
+    void firstRememberWins() {
+        var adapter = new IdempotencyKeyR2dbcAdapter(db, Duration.ofHours(1));
+        var first = placement("a".repeat(64));
+
+        StepVerifier.create(adapter.find("first-wins")).verifyComplete();
+        StepVerifier.create(adapter.remember("first-wins", first)).expectNext(first).verifyComplete();
+        StepVerifier.create(adapter.remember("first-wins", placement("b".repeat(64))))
+                .expectNext(first)
+                .verifyComplete();
+        StepVerifier.create(adapter.find("first-wins")).expectNext(first).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Zeilen von vor der Migration werden ohne Fingerabdruck gelesen")
+    void legacyRow_hasNoFingerprint() {
+        var adapter = new IdempotencyKeyR2dbcAdapter(db, Duration.ofHours(1));
+        var orderId = OrderId.newId();
+        db.sql("INSERT INTO idempotency_keys (idempotency_key, order_id, expires_at) "
+                        + "VALUES ('legacy', :orderId, TIMESTAMPADD(HOUR, 1, UTC_TIMESTAMP(6)))")
+                .bind("orderId", OrderMapper.toBinaryId(orderId))
+                .fetch()
+                .rowsUpdated()
+                .block();
+
+        StepVerifier.create(adapter.find("legacy"))
+                .expectNext(new IdempotencyRecord(orderId, null))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Abgelaufene Schlüssel werden übernommen und in Batches gelöscht")
+    void expiredKeys_areTakenOverAndPurged() throws InterruptedException {
+        var adapter = new IdempotencyKeyR2dbcAdapter(db, Duration.ofMillis(50));
+        for (int i = 0; i < 3; i++) {
+            adapter.remember("expired-" + i, placement("a".repeat(64))).block();
+        }
+        Thread.sleep(100);
+        var second = placement("b".repeat(64));
+
+        StepVerifier.create(adapter.find("expired-0")).verifyComplete();
+        StepVerifier.create(adapter.remember("expired-0", second)).expectNext(second).verifyComplete();
+        Thread.sleep(100);
+        StepVerifier.create(adapter.purgeExpired(2)).expectNext(2).verifyComplete();
+        StepVerifier.create(adapter.purgeExpired(2)).expectNext(1).verifyComplete();
+        StepVerifier.create(adapter.purgeExpired(2)).expectNext(0).verifyComplete();
+    }
+}
@@ -0,0 +1,194 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.query.OrderQueryR2dbcAdapter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+import reactor.test.StepVerifier;
+
+/**
+ * Seeds {@value #ROWS} orders (ten per second of {@code created_at}, so the id tie-breaker matters) and checks that
+ * the listing walks them correctly and that a page deep into the table is as fast as the first one.
+ */
+@Testcontainers
+class OrderQueryR2dbcAdapterIT {
+
+    static final int ROWS = 200_000; // seeded from seq_1_to_200000
+    static final int LIMIT = 20;
+    static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Container
+    static MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    static DatabaseClient db;
+    static OrderQueryR2dbcAdapter adapter;
+
+    @BeforeAll
+    static void init() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+
+        ConnectionFactory cf = ConnectionFactories.get(options);
+
+        db = DatabaseClient.create(cf);
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS orders (
+              id BINARY(16) PRIMARY KEY,
+              customer_email VARCHAR(255) NOT NULL,
+              total DECIMAL(19,2) NOT NULL,
+              status VARCHAR(32) NOT NULL,
+              version BIGINT NOT NULL DEFAULT 0,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+              INDEX idx_orders_created_id (created_at, id),
+              INDEX idx_orders_status_created_id (status, created_at, id),
+              INDEX idx_orders_customer_created_id (customer_email, created_at, id)
+            );
+        """).fetch().rowsUpdated().block();
+        // seq_1_to_N comes from MariaDB's SEQUENCE engine; row n gets id n and created_at EPOCH + n/10 seconds
+        db.sql("""
+            INSERT INTO orders (id, customer_email, total, status, version, created_at)
+            SELECT UNHEX(LPAD(HEX(seq), 32, '0')),
+                   CONCAT('customer', seq % 100, '@example.com'),
+                   seq % 1000,
+                   IF(seq % 2 = 0, 'PAID', 'PLACED'),
+                   1,
+                   TIMESTAMP '2025-01-01 00:00:00' + INTERVAL (seq DIV 10) SECOND
+            FROM seq_1_to_200000
+        """).fetch().rowsUpdated().block(Duration.ofMinutes(2));
+        db.sql("ANALYZE TABLE orders").fetch().all().blockLast();
+
+        adapter = new OrderQueryR2dbcAdapter(db);
+    }
+
+    @AfterAll
+    static void stop() {
+        maria.stop();
+    }
+
+    @Test
+    @DisplayName("Blättert lückenlos und ohne Dubletten über Seiten, die mitten in einer Sekunde enden")
+    void pagesFollowEachOtherWithoutGapsOrDuplicates() {
+        var seen = new ArrayList<Long>();
+        OrderCursor after = null;
+        for (int page = 0; page < 5; page++) {
+            List<OrderSummary> orders = adapter.list(new OrderListQuery(null, null, after, 7))
+                    .collectList()
+                    .block();
+            assertThat(orders).hasSize(7);
+            orders.forEach(order -> seen.add(seq(order.id())));
+            after = orders.getLast().cursor();
+        }
+
+        // seq 1..9 share the first second with nothing before it, so the listing starts at 1
+        assertThat(seen).containsExactlyElementsOf(range(1, 35));
+    }
+
+    @Test
+    @DisplayName("Filtert nach Status und Kunde und setzt den Cursor innerhalb des Filters fort")
+    void filtersByStatusAndCustomer() {
+        var query = new OrderListQuery(OrderStatus.PAID, "customer42@example.com", null, 3);
+
+        List<OrderSummary> first = adapter.list(query).collectList().block();
+        List<OrderSummary> second = adapter.list(new OrderListQuery(
+                        OrderStatus.PAID, "customer42@example.com", first.getLast().cursor(), 3))
+                .collectList()
+                .block();
+
+        assertThat(first).extracting(o -> seq(o.id())).containsExactly(42L, 142L, 242L);
+        assertThat(second).extracting(o -> seq(o.id())).containsExactly(342L, 442L, 542L);
+        assertThat(second).allSatisfy(o -> assertThat(o.status()).isEqualTo(OrderStatus.PAID));
+    }
+
+    @Test
+    @DisplayName("Seite 10.000 ist so schnell wie Seite 1 und wird über den (created_at, id)-Index gesucht")
+    void page10000_isAsFastAsPage1() {
+        // the cursor a client holds after 9,999 pages of LIMIT rows
+        long lastSeen = 9_999L * LIMIT;
+        var deep = new OrderCursor(EPOCH.plusSeconds(lastSeen / 10), id(lastSeen));
+        var firstPage = new OrderListQuery(null, null, null, LIMIT);
+        var page10000 = new OrderListQuery(null, null, deep, LIMIT);
+
+        StepVerifier.create(adapter.list(page10000).map(o -> seq(o.id())))
+                .expectNext(lastSeen + 1)
+                .expectNextCount(LIMIT - 1)
+                .verifyComplete();
+
+        long first = medianNanos(firstPage);
+        long deepest = medianNanos(page10000);
+        assertThat(Duration.ofNanos(deepest))
+                .as("page 10,000 (%d µs) vs. page 1 (%d µs)", deepest / 1000, first / 1000)
+                .isLessThan(Duration.ofNanos(Math.max(3 * first, first + 5_000_000)));
+
+        String key = db.sql("""
+                EXPLAIN SELECT id, customer_email, total, status, version, created_at FROM orders
+                WHERE (created_at > '2025-01-01 05:33:18' OR (created_at = '2025-01-01 05:33:18' AND id > 0x0))
+                ORDER BY created_at, id LIMIT 20
+                """)
+                .map(row -> row.get("key", String.class))
+                .one()
+                .block();
+        assertThat(key).isEqualTo("idx_orders_created_id");
+    }
+
+    private static long medianNanos(OrderListQuery query) {
+        for (int i = 0; i < 10; i++) {
+            adapter.list(query).blockLast();
+        }
+        long[] samples = new long[31];
+        for (int i = 0; i < samples.length; i++) {
+            long start = System.nanoTime();
+            adapter.list(query).blockLast();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[samples.length / 2];
+    }
+
+    private static OrderId id(long seq) {
+        return new OrderId(new UUID(0, seq).toString());
+    }
+
+    private static long seq(OrderId id) {
+        return UUID.fromString(id.value()).getLeastSignificantBits();
+    }
+
+    private static List<Long> range(long from, long to) {
+        var values = new ArrayList<Long>();
+        for (long v = from; v <= to; v++) {
+            values.add(v);
+        }
+        return values;
+    }
+}
@@ -1,18 +1,27 @@
 package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
 
 import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
 
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.proxy.core.QueryInfo;
 import io.r2dbc.spi.ConnectionFactories;
 import io.r2dbc.spi.ConnectionFactory;
 import io.r2dbc.spi.ConnectionFactoryOptions;
-import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OrderRepositoryAdapter;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo.OrderR2dbcRepository;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.r2dbc.core.DatabaseClient;
 import org.testcontainers.junit.jupiter.Container;
@@ -32,6 +41,7 @@ class OrderRepositoryAdapterIT {
 
     static DatabaseClient db;
     static OrderRepositoryAdapter adapter;
+    static final List<String> statements = new CopyOnWriteArrayList<>();
 
     @BeforeAll
     static void init() {
@@ -49,7 +59,7 @@ class OrderRepositoryAdapterIT {
         db = DatabaseClient.create(cf);
         db.sql("""
             CREATE TABLE IF NOT EXISTS orders (
-              id VARCHAR(64) PRIMARY KEY,
+              id BINARY(16) PRIMARY KEY,
               customer_email VARCHAR(255) NOT NULL,
               total DECIMAL(19,2) NOT NULL,
               status VARCHAR(32) NOT NULL,
@@ -59,12 +69,24 @@ class OrderRepositoryAdapterIT {
             );
         """).fetch().rowsUpdated().block();
 
-        var template = new R2dbcEntityTemplate(cf);
+        // record every statement the adapter sends over the wire
+        ConnectionFactory counting = ProxyConnectionFactory.builder(cf)
+                .onAfterQuery(exec -> exec.getQueries().stream()
+                        .map(QueryInfo::getQuery)
+                        .forEach(statements::add))
+                .build();
+
+        var template = new R2dbcEntityTemplate(counting);
         var factory = new org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory(template);
         OrderR2dbcRepository repo = factory.getRepository(OrderR2dbcRepository.class);
         adapter = new OrderRepositoryAdapter(repo);
     }
 
+    @BeforeEach
+    void resetStatements() {
+        statements.clear();
+    }
+
     @AfterAll
     static void stop() {
         maria.stop();
@@ -73,7 +95,7 @@ class OrderRepositoryAdapterIT {
     @Test
     @DisplayName("Speichert eine platzierte Order und liest sie anschließend über findById wieder ein")
     void saveAndFind_optionalNotEmpty() {
-        var o = new Order("a@b.com", new BigDecimal("12.34"));
+        var o = new Order("a@b.com", Money.parse("12.34"));
         o.place(); // domain transition first, then persist – mirrors production flow
 
         StepVerifier.create(Mono.fromCompletionStage(adapter.save(o))
@@ -82,4 +104,59 @@ class OrderRepositoryAdapterIT {
                 .expectNextMatches(found -> found.id().value().equals(o.id().value()))
                 .verifyComplete();
     }
+
+    @Test
+    @DisplayName("Schreibt eine neue Order mit genau einem INSERT ohne vorherigen SELECT")
+    void saveNew_issuesSingleInsert() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place();
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(o)))
+                .expectNextMatches(saved -> saved.version() == 1L && !saved.isNew())
+                .verifyComplete();
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.getFirst()).containsIgnoringCase("INSERT INTO orders");
+    }
+
+    @Test
+    @DisplayName("Aktualisiert eine geladene Order mit genau einem bedingten UPDATE")
+    void saveLoaded_issuesSingleConditionalUpdate() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place();
+        Order loaded = Mono.fromCompletionStage(adapter.save(o)).block();
+        statements.clear();
+
+        loaded.pay();
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(loaded)))
+                .expectNextMatches(saved -> saved.status() == OrderStatus.PAID && saved.version() == 2L)
+                .verifyComplete();
+
+        assertThat(statements).hasSize(1);
+        assertThat(statements.getFirst()).containsIgnoringCase("UPDATE orders").containsIgnoringCase("version =");
+    }
+
+    @Test
+    @DisplayName("Lehnt ein Update mit veralteter Version ab")
+    void saveStale_failsWithOptimisticLock() {
+        var o = new Order("a@b.com", Money.parse("12.34"));
+        o.place();
+        Mono.fromCompletionStage(adapter.save(o)).block();
+
+        var stale = new Order(o.id(), "a@b.com", Money.parse("12.34"), 0L, OrderStatus.PLACED);
+        stale.pay();
+
+        StepVerifier.create(Mono.fromCompletionStage(adapter.save(stale)))
+                .expectError(OptimisticLockingFailureException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Liefert Optional.empty für unbekannte IDs")
+    void findUnknown_isEmpty() {
+        StepVerifier.create(Mono.fromCompletionStage(adapter.findById(new OrderId("does-not-exist"))))
+                .expectNextMatches(opt -> opt.isEmpty())
+                .verifyComplete();
+    }
 }
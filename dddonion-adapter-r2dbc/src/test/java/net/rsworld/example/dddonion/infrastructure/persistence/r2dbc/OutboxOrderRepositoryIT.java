@@ -0,0 +1,206 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.application.outbox.OutboxEntry;
+import net.rsworld.example.dddonion.application.outbox.OutboxRelayService;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OrderRepositoryAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OutboxOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxEventCodec;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo.OrderR2dbcRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+import reactor.core.publisher.Mono;
+
+@Testcontainers
+class OutboxOrderRepositoryIT {
+
+    @Container
+    static MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    static final int MAX_ATTEMPTS = 3;
+
+    static SimpleMeterRegistry meters = new SimpleMeterRegistry();
+    static DatabaseClient db;
+    static OutboxR2dbcAdapter outbox;
+    static OutboxOrderRepository repository;
+
+    @BeforeAll
+    static void init() {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+
+        ConnectionFactory cf = ConnectionFactories.get(options);
+
+        db = DatabaseClient.create(cf);
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS orders (
+              id BINARY(16) PRIMARY KEY,
+              customer_email VARCHAR(255) NOT NULL,
+              total DECIMAL(19,2) NOT NULL,
+              status VARCHAR(32) NOT NULL,
+              version BIGINT NOT NULL DEFAULT 0,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+            );
+        """).fetch().rowsUpdated().block();
+        db.sql("""
+            CREATE TABLE IF NOT EXISTS outbox (
+              id BIGINT AUTO_INCREMENT PRIMARY KEY,
+              aggregate_id VARCHAR(64) NOT NULL,
+              sequence BIGINT NOT NULL,
+              event_type VARCHAR(64) NOT NULL,
+              payload TEXT NOT NULL,
+              occurred_at TIMESTAMP(6) NOT NULL,
+              created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+              failed_attempts INT NOT NULL DEFAULT 0
+            );
+        """).fetch().rowsUpdated().block();
+
+        OrderR2dbcRepository repo =
+                new R2dbcRepositoryFactory(new R2dbcEntityTemplate(cf)).getRepository(OrderR2dbcRepository.class);
+        outbox = new OutboxR2dbcAdapter(db, new OutboxEventCodec(), MAX_ATTEMPTS, meters);
+        repository = new OutboxOrderRepository(
+                new OrderRepositoryAdapter(repo),
+                outbox,
+                TransactionalOperator.create(new R2dbcTransactionManager(cf)));
+    }
+
+    @BeforeEach
+    void clearOutbox() {
+        db.sql("DELETE FROM outbox").fetch().rowsUpdated().block();
+    }
+
+    @AfterAll
+    static void stop() {
+        maria.stop();
+    }
+
+    @Test
+    @DisplayName("Schreibt Order und OrderPlaced-Event gemeinsam; der Relay-Port liest und löscht es wieder")
+    void save_writesEventToOutbox() {
+        var order = new Order("a@b.com", Money.parse("12.34"));
+        order.place();
+
+        repository.save(order).toCompletableFuture().join();
+
+        assertThat(order.pullEvents()).isEmpty();
+        var pending = outbox.fetchPending(10).collectList().block();
+        assertThat(pending).singleElement().satisfies(entry -> {
+            assertThat(entry.event()).isInstanceOf(OrderPlaced.class);
+            assertThat(entry.event().aggregateId()).isEqualTo(order.id().value());
+            assertThat(entry.event().sequence()).isEqualTo(1L);
+        });
+
+        outbox.markDispatched(List.of(pending.getFirst().id())).block();
+        assertThat(outbox.fetchPending(10).collectList().block()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Hinterlässt kein Event, wenn das Speichern der Order fehlschlägt")
+    void failedSave_leavesNoEventBehind() {
+        var duplicate = new Order("a@b.com", Money.parse("12.34"));
+        duplicate.place();
+        // occupy the id up front so the order INSERT inside the outbox transaction hits a key violation
+        db.sql("""
+            INSERT INTO orders (id, customer_email, total, status, version)
+            VALUES (:id, 'x@y.ze', 1, 'PLACED', 1)
+        """)
+                .bind("id", OrderMapper.toBinaryId(duplicate.id()))
+                .fetch()
+                .rowsUpdated()
+                .block();
+
+        assertThatThrownBy(() -> repository.save(duplicate).toCompletableFuture().join());
+        assertThat(outbox.fetchPending(10).collectList().block()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Zwei gleichzeitige Claims bekommen disjunkte Events, keines wird doppelt zugestellt")
+    void concurrentClaims_skipEachOthersEntries() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            var order = new Order("claim" + i + "@b.com", Money.parse("1.00"));
+            order.place();
+            repository.save(order).toCompletableFuture().join();
+        }
+
+        var held = new CountDownLatch(1);
+        var first = outbox.claiming(outbox.fetchPending(4)
+                        .collectList()
+                        .doOnNext(entries -> held.countDown())
+                        .delayElement(Duration.ofMillis(500)))
+                .toFuture();
+        assertThat(held.await(5, TimeUnit.SECONDS)).isTrue();
+        var second = outbox.claiming(outbox.fetchPending(10).collectList()).block();
+
+        List<Long> firstIds = first.join().stream().map(OutboxEntry::id).toList();
+        List<Long> secondIds = second.stream().map(OutboxEntry::id).toList();
+        assertThat(firstIds).hasSize(4);
+        assertThat(secondIds).hasSize(6).doesNotContainAnyElementsOf(firstIds);
+    }
+
+    @Test
+    @DisplayName("Parkt einen unlesbaren Eintrag nach max-attempts Läufen; die Einträge dahinter werden zugestellt")
+    void unreadableEntry_isParkedAndDoesNotBlockTheOutbox() {
+        db.sql("""
+            INSERT INTO outbox (aggregate_id, sequence, event_type, payload, occurred_at)
+            VALUES ('poison', 1, 'OrderRefunded', '{}', CURRENT_TIMESTAMP(6))
+        """).fetch().rowsUpdated().block();
+        var order = new Order("behind@b.com", Money.parse("1.00"));
+        order.place();
+        repository.save(order).toCompletableFuture().join();
+        var delivered = new ArrayList<String>();
+        var relay = new OutboxRelayService(
+                outbox, event -> Mono.fromRunnable(() -> delivered.add(event.aggregateId())), 10);
+
+        for (int run = 0; run < MAX_ATTEMPTS; run++) {
+            assertThat(relay.relayBatch().block()).isZero();
+        }
+        assertThat(relay.relayBatch().block()).isEqualTo(1);
+
+        assertThat(delivered).containsExactly(order.id().value());
+        assertThat(meters.get(OutboxR2dbcAdapter.FAILED).counter().count()).isEqualTo(MAX_ATTEMPTS);
+        assertThat(meters.get(OutboxR2dbcAdapter.PARKED).counter().count()).isEqualTo(1.0);
+        assertThat(db.sql("SELECT failed_attempts FROM outbox WHERE aggregate_id = 'poison'")
+                        .map(row -> row.get("failed_attempts", Integer.class))
+                        .one()
+                        .block())
+                .isEqualTo(MAX_ATTEMPTS);
+    }
+}
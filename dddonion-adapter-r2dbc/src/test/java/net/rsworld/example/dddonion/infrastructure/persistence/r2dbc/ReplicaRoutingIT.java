@@ -0,0 +1,226 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.time.Duration;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.DatabaseClientOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.query.OrderQueryR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReadRouting;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReplicaRoutingOrderQueryPort;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReplicaRoutingOrderRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+
+/**
+ * Primary and replica as two independent MariaDB containers without replication between them, so every row shows
+ * where a statement went: a save must only reach the primary, a routed read must see what was put into the replica.
+ */
+@Testcontainers
+class ReplicaRoutingIT {
+
+    static final Duration READ_YOUR_WRITES = Duration.ofMillis(300);
+
+    @Container
+    static MariaDBContainer primaryDb = mariadb();
+
+    @Container
+    static MariaDBContainer replicaDb = mariadb();
+
+    static DatabaseClient primary;
+    static DatabaseClient replica;
+
+    SimpleMeterRegistry meters;
+    ReadRouting routing;
+    ReplicaRoutingOrderRepository repository;
+    ReplicaRoutingOrderQueryPort queries;
+
+    @BeforeAll
+    static void init() {
+        primary = DatabaseClient.create(connectionFactory(primaryDb, primaryDb.getFirstMappedPort()));
+        replica = DatabaseClient.create(connectionFactory(replicaDb, replicaDb.getFirstMappedPort()));
+        for (DatabaseClient db : new DatabaseClient[] {primary, replica}) {
+            db.sql("""
+                CREATE TABLE IF NOT EXISTS orders (
+                  id BINARY(16) PRIMARY KEY,
+                  customer_email VARCHAR(255) NOT NULL,
+                  total DECIMAL(19,2) NOT NULL,
+                  status VARCHAR(32) NOT NULL,
+                  version BIGINT NOT NULL DEFAULT 0,
+                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                  INDEX idx_orders_customer_created_id (customer_email, created_at, id)
+                );
+            """).fetch().rowsUpdated().block();
+        }
+    }
+
+    @AfterAll
+    static void stop() {
+        primaryDb.stop();
+        replicaDb.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        meters = new SimpleMeterRegistry();
+        routing = route(connectionFactory(replicaDb, replicaDb.getFirstMappedPort()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        routing.close();
+        primary.sql("DELETE FROM orders").then().block();
+        replica.sql("DELETE FROM orders").then().block();
+    }
+
+    @Test
+    @DisplayName("Speichert nur auf dem Primary und liest im Read-your-writes-Fenster auch von dort")
+    void save_goesToPrimary_andIsReadBackFromPrimaryWhilePinned() {
+        Order saved = repository.write(placed("pinned@example.com")).block();
+
+        assertThat(count(primary, saved.id())).isEqualTo(1);
+        assertThat(count(replica, saved.id())).isZero();
+        assertThat(repository.findById(saved.id()).toCompletableFuture().join())
+                .hasValueSatisfying(order -> assertThat(order.id()).isEqualTo(saved.id()));
+        assertThat(reads("primary", "read-your-writes")).isEqualTo(1.0);
+        assertThat(reads("replica", "routed")).isZero();
+    }
+
+    @Test
+    @DisplayName("Liest nach Ablauf des Fensters vom Replica und fällt bei fehlender Zeile auf den Primary zurück")
+    void findById_afterWindow_readsReplica_andFallsBackOnMiss() throws InterruptedException {
+        Order replicated = placed("replicated@example.com");
+        insert(replica, replicated, "PAID"); // only on the replica, and in a state the primary never had
+        Order lagging = repository.write(placed("lagging@example.com")).block();
+        Thread.sleep(READ_YOUR_WRITES.toMillis() * 2);
+
+        assertThat(repository.findById(replicated.id()).toCompletableFuture().join())
+                .hasValueSatisfying(order -> assertThat(order.status()).isEqualTo(OrderStatus.PAID));
+        assertThat(repository.findById(lagging.id()).toCompletableFuture().join())
+                .hasValueSatisfying(order -> assertThat(order.id()).isEqualTo(lagging.id()));
+        assertThat(reads("replica", "routed")).isEqualTo(2.0);
+        assertThat(reads("primary", "replica-miss")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Listet vom Replica, außer für einen Kunden mit frischer Bestellung")
+    void list_readsReplica_unlessCustomerJustOrdered() {
+        insert(replica, placed("listed@example.com"), "PLACED");
+        repository.write(placed("fresh@example.com")).block();
+
+        assertThat(queries.list(new OrderListQuery(null, "listed@example.com", null, 10))
+                        .collectList()
+                        .block())
+                .hasSize(1);
+        assertThat(queries.list(new OrderListQuery(null, "fresh@example.com", null, 10))
+                        .map(OrderSummary::customerEmail)
+                        .collectList()
+                        .block())
+                .containsExactly("fresh@example.com");
+        assertThat(reads("replica", "routed")).isEqualTo(1.0);
+        assertThat(reads("primary", "read-your-writes")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Fällt auf den Primary zurück, wenn das Replica nicht erreichbar ist, bis ein Health-Check gelingt")
+    void unreachableReplica_fallsBackToPrimary() {
+        routing.close();
+        meters = new SimpleMeterRegistry(); // the replica-up gauge would still report the closed routing
+        // nothing listens on the replica container's host at port 1
+        routing = route(connectionFactory(replicaDb, 1));
+        Order order = placed("fallback@example.com");
+        insert(primary, order, "PLACED");
+
+        assertThat(repository.findById(order.id()).toCompletableFuture().join()).isPresent();
+        assertThat(routing.isReplicaUp()).isFalse();
+        assertThat(repository.findById(order.id()).toCompletableFuture().join()).isPresent();
+        assertThat(routing.checkReplica().block()).isFalse();
+
+        assertThat(reads("primary", "replica-error")).isEqualTo(1.0);
+        assertThat(reads("primary", "replica-down")).isEqualTo(1.0);
+        assertThat(meters.get(ReadRouting.REPLICA_UP).gauge().value()).isZero();
+    }
+
+    private ReadRouting route(ConnectionFactory replicaFactory) {
+        var routing = new ReadRouting(
+                replicaFactory,
+                new ReadRouting.Settings(READ_YOUR_WRITES, 1_000, Duration.ofSeconds(2), Duration.ofSeconds(2)),
+                meters);
+        repository = new ReplicaRoutingOrderRepository(
+                new DatabaseClientOrderRepository(primary),
+                new DatabaseClientOrderRepository(routing.replica()),
+                routing);
+        queries = new ReplicaRoutingOrderQueryPort(
+                new OrderQueryR2dbcAdapter(primary), new OrderQueryR2dbcAdapter(routing.replica()), routing);
+        return routing;
+    }
+
+    private double reads(String pool, String reason) {
+        return meters.get(ReadRouting.READS)
+                .tags("pool", pool, "reason", reason)
+                .counter()
+                .count();
+    }
+
+    private static Order placed(String email) {
+        var order = new Order(email, Money.parse("10.00"));
+        order.place();
+        return order;
+    }
+
+    private static void insert(DatabaseClient db, Order order, String status) {
+        db.sql("INSERT INTO orders (id, customer_email, total, status, version) VALUES (:id, :email, 10, :status, 1)")
+                .bind("id", OrderMapper.toBinaryId(order.id()))
+                .bind("email", order.customerEmail())
+                .bind("status", status)
+                .then()
+                .block();
+    }
+
+    private static long count(DatabaseClient db, OrderId id) {
+        return db.sql("SELECT COUNT(*) FROM orders WHERE id = :id")
+                .bind("id", OrderMapper.toBinaryId(id))
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .block();
+    }
+
+    private static MariaDBContainer mariadb() {
+        return new MariaDBContainer("mariadb:11")
+                .withUsername("test")
+                .withPassword("test")
+                .withDatabaseName("test");
+    }
+
+    private static ConnectionFactory connectionFactory(MariaDBContainer maria, int port) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, port)
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+        return ConnectionFactories.get(options);
+    }
+}
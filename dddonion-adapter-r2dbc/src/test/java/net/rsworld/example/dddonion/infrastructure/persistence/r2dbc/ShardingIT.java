@@ -0,0 +1,183 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc;
+
+import static io.r2dbc.spi.ConnectionFactoryOptions.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.DatabaseClientOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.query.OrderQueryR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardRing;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardedOrderQueryPort;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardedOrderRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mariadb.MariaDBContainer;
+
+/** Two shards as two MariaDB containers: every order must land in, and be read from, the database its id hashes to. */
+@Testcontainers
+class ShardingIT {
+
+    static final int ORDERS = 200;
+
+    @Container
+    static MariaDBContainer shardA = mariadb();
+
+    @Container
+    static MariaDBContainer shardB = mariadb();
+
+    static Map<String, DatabaseClient> dbs;
+
+    @BeforeAll
+    static void init() {
+        dbs = Map.of("a", client(shardA), "b", client(shardB));
+        dbs.values().forEach(db -> db.sql("""
+                CREATE TABLE IF NOT EXISTS orders (
+                  id BINARY(16) PRIMARY KEY,
+                  customer_email VARCHAR(255) NOT NULL,
+                  total DECIMAL(19,2) NOT NULL,
+                  status VARCHAR(32) NOT NULL,
+                  version BIGINT NOT NULL DEFAULT 0,
+                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+                  INDEX idx_orders_created_id (created_at, id)
+                );
+            """).fetch().rowsUpdated().block());
+    }
+
+    @AfterAll
+    static void stop() {
+        shardA.stop();
+        shardB.stop();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dbs.values().forEach(db -> db.sql("DELETE FROM orders").then().block());
+    }
+
+    @Test
+    @DisplayName("Legt jede Order auf dem Shard ihres Hash ab und findet sie dort wieder")
+    void save_placesEachOrderOnItsShard() {
+        var ring = new ShardRing(List.of("a", "b"), 256);
+        var repository = sharded(ring, null);
+
+        List<Order> saved = new ArrayList<>();
+        for (int i = 0; i < ORDERS; i++) {
+            saved.add(repository.save(placed()).toCompletableFuture().join());
+        }
+
+        for (Order order : saved) {
+            String owner = ring.shardOf(order.id().value());
+            String other = owner.equals("a") ? "b" : "a";
+            assertThat(count(dbs.get(owner), order.id())).isEqualTo(1);
+            assertThat(count(dbs.get(other), order.id())).isZero();
+            assertThat(repository.findById(order.id()).toCompletableFuture().join()).isPresent();
+        }
+        assertThat(count(dbs.get("a"), null)).isBetween(ORDERS / 4L, ORDERS * 3 / 4L);
+    }
+
+    @Test
+    @DisplayName("Blättert über beide Shards lückenlos in (created_at, id)-Reihenfolge")
+    void list_pagesAcrossShards() {
+        var repository = sharded(new ShardRing(List.of("a", "b"), 256), null);
+        for (int i = 0; i < ORDERS; i++) {
+            repository.save(placed()).toCompletableFuture().join();
+        }
+        var port = new ShardedOrderQueryPort(List.of(
+                new OrderQueryR2dbcAdapter(dbs.get("a")), new OrderQueryR2dbcAdapter(dbs.get("b"))));
+
+        List<OrderSummary> seen = new ArrayList<>();
+        OrderCursor after = null;
+        for (int page = 0; page < ORDERS / 30 + 1; page++) {
+            List<OrderSummary> orders =
+                    port.list(new OrderListQuery(null, null, after, 30)).collectList().block();
+            if (orders.isEmpty()) {
+                break;
+            }
+            seen.addAll(orders);
+            after = orders.getLast().cursor();
+        }
+
+        assertThat(seen).hasSize(ORDERS).isSortedAccordingTo(ShardedOrderQueryPort.LISTING_ORDER);
+        assertThat(seen.stream().map(OrderSummary::id).distinct()).hasSize(ORDERS);
+    }
+
+    @Test
+    @DisplayName("Findet nach dem Hinzufügen eines Shards noch nicht verschobene Orders auf ihrem alten Shard")
+    void addingShard_keepsUnmovedOrdersReadable() {
+        var before = new ShardRing(List.of("a"), 256);
+        var after = new ShardRing(List.of("a", "b"), 256);
+        List<Order> saved = new ArrayList<>();
+        var single = sharded(before, null);
+        for (int i = 0; i < 50; i++) {
+            saved.add(single.save(placed()).toCompletableFuture().join());
+        }
+
+        var rebalancing = sharded(after, before);
+
+        assertThat(saved).allSatisfy(order -> assertThat(
+                        rebalancing.findById(order.id()).toCompletableFuture().join())
+                .isPresent());
+        assertThat(saved).anySatisfy(order -> assertThat(after.shardOf(order.id().value()))
+                .isEqualTo("b"));
+    }
+
+    private static OrderRepository sharded(ShardRing ring, ShardRing previous) {
+        Map<String, OrderRepository> stores = Map.of(
+                "a", new DatabaseClientOrderRepository(dbs.get("a")),
+                "b", new DatabaseClientOrderRepository(dbs.get("b")));
+        return new ShardedOrderRepository(stores, ring, previous, new SimpleMeterRegistry());
+    }
+
+    private static Order placed() {
+        var order = new Order("sharded@example.com", Money.parse("10.00"));
+        order.place();
+        return order;
+    }
+
+    /** Rows with {@code id}, or all rows if {@code id} is {@code null}. */
+    private static long count(DatabaseClient db, OrderId id) {
+        var spec = id == null
+                ? db.sql("SELECT COUNT(*) FROM orders")
+                : db.sql("SELECT COUNT(*) FROM orders WHERE id = :id").bind("id", OrderMapper.toBinaryId(id));
+        return spec.map(row -> row.get(0, Long.class)).one().block();
+    }
+
+    private static MariaDBContainer mariadb() {
+        return new MariaDBContainer("mariadb:11")
+                .withUsername("test")
+                .withPassword("test")
+                .withDatabaseName("test");
+    }
+
+    private static DatabaseClient client(MariaDBContainer maria) {
+        ConnectionFactoryOptions options = ConnectionFactoryOptions.builder()
+                .option(DRIVER, "mariadb")
+                .option(HOST, maria.getHost())
+                .option(PORT, maria.getFirstMappedPort())
+                .option(USER, maria.getUsername())
+                .option(PASSWORD, maria.getPassword())
+                .option(DATABASE, maria.getDatabaseName())
+                .build();
+        return DatabaseClient.create(ConnectionFactories.get(options));
+    }
+}
@@ -0,0 +1,93 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Mono;
+
+class BatchingOrderRepositoryTest {
+
+    private final ReactiveOrderRepository delegate = mock(ReactiveOrderRepository.class);
+    private final DatabaseClient db = mock(DatabaseClient.class);
+
+    private BatchingOrderRepository writer(Duration maxWait, Duration shutdownTimeout) {
+        return new BatchingOrderRepository(
+                delegate,
+                db,
+                new BatchingOrderRepository.Settings(64, maxWait, 1, shutdownTimeout),
+                new SimpleMeterRegistry());
+    }
+
+    private static Order placed() {
+        var order = new Order("a@b.ce", Money.parse("1.00"));
+        order.place();
+        return order;
+    }
+
+    private static List<CompletableFuture<Order>> saveAll(BatchingOrderRepository writer, int count) {
+        return Stream.generate(BatchingOrderRepositoryTest::placed)
+                .limit(count)
+                .map(order -> writer.save(order).toCompletableFuture())
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Schreibt beim Schließen die noch wartenden Inserts und lehnt danach neue ab")
+    void close_drainsQueuedInsertsAndRejectsNewOnes() {
+        when(db.inConnection(any())).thenAnswer(call -> Mono.delay(Duration.ofMillis(50)));
+        var writer = writer(Duration.ofSeconds(10), Duration.ofSeconds(5));
+        var queued = saveAll(writer, 3);
+
+        writer.close();
+
+        assertThat(queued).allSatisfy(result -> assertThat(result).isCompleted());
+        verify(db, times(1)).inConnection(any());
+        assertThat(writer.save(placed()).toCompletableFuture())
+                .isCompletedExceptionally()
+                .failsWithin(Duration.ZERO)
+                .withThrowableThat()
+                .withCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Lässt Inserts fehlschlagen, die bis zum Shutdown-Timeout nicht geschrieben wurden")
+    void close_failsInsertsStillRunningAfterTimeout() {
+        when(db.inConnection(any())).thenAnswer(call -> Mono.never());
+        var writer = writer(Duration.ofMillis(1), Duration.ofMillis(100));
+        var running = saveAll(writer, 2);
+
+        writer.close();
+
+        assertThat(running).allSatisfy(result -> assertThat(result)
+                .failsWithin(Duration.ZERO)
+                .withThrowableThat()
+                .withCauseInstanceOf(IllegalStateException.class));
+    }
+
+    @Test
+    @DisplayName("Lässt wartende und spätere Inserts fehlschlagen, wenn der Writer abbricht")
+    void brokenWriter_failsPendingAndLaterInserts() {
+        when(db.inConnection(any())).thenThrow(new IllegalArgumentException("broken"));
+        var writer = writer(Duration.ofMillis(1), Duration.ofSeconds(5));
+
+        var first = writer.save(placed()).toCompletableFuture();
+
+        assertThat(first)
+                .failsWithin(Duration.ofSeconds(5))
+                .withThrowableThat()
+                .havingRootCause()
+                .withMessage("broken");
+        assertThat(writer.save(placed()).toCompletableFuture()).isCompletedExceptionally();
+    }
+}
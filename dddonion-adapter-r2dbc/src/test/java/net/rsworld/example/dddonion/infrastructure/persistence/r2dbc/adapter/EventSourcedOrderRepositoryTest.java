@@ -0,0 +1,65 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.eventstore.EventStoreR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxR2dbcAdapter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+class EventSourcedOrderRepositoryTest {
+
+    private final EventStoreR2dbcAdapter store = mock(EventStoreR2dbcAdapter.class);
+    private final OutboxR2dbcAdapter outbox = mock(OutboxR2dbcAdapter.class);
+    private final TransactionalOperator transactions = mock(TransactionalOperator.class);
+    private EventSourcedOrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        when(transactions.transactional(any(Mono.class))).thenAnswer(call -> call.getArgument(0));
+        when(store.project(any())).thenReturn(Mono.empty());
+        when(store.snapshot(any())).thenReturn(Mono.empty());
+        when(outbox.append(any())).thenReturn(Mono.empty());
+        repository = new EventSourcedOrderRepository(store, outbox, transactions, 100);
+    }
+
+    private static Order placed() {
+        var order = new Order("a@b.ce", Money.parse("1.00"));
+        order.place();
+        return order;
+    }
+
+    @Test
+    @DisplayName("Meldet einen belegten Event-Schlüssel als verlorenes Rennen")
+    void duplicateEventKey_isOptimisticLockFailure() {
+        when(store.append(any())).thenReturn(Mono.error(new DuplicateKeyException("Duplicate entry")));
+
+        assertThat(repository.save(placed()).toCompletableFuture())
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableThat()
+                .withCauseInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    @DisplayName("Reicht andere Integritätsverletzungen unverändert durch, statt sie als Konflikt zu melden")
+    void otherIntegrityViolation_isNotAConflict() {
+        when(store.append(any())).thenReturn(Mono.empty());
+        when(store.project(any())).thenReturn(Mono.error(new DataIntegrityViolationException("Column cannot be null")));
+
+        assertThat(repository.save(placed()).toCompletableFuture())
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableThat()
+                .withCauseExactlyInstanceOf(DataIntegrityViolationException.class);
+    }
+}
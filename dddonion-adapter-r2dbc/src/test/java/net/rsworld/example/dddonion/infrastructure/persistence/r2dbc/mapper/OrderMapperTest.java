@@ -1,8 +1,11 @@
 package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.math.BigDecimal;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.model.Order;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
 import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
@@ -12,15 +15,21 @@ import org.junit.jupiter.api.Test;
 
 class OrderMapperTest {
 
+    private static final String ID = "0190f3a2-7c1e-7abc-8def-0123456789ab";
+    private static final byte[] BINARY_ID = {
+        0x01, (byte) 0x90, (byte) 0xf3, (byte) 0xa2, 0x7c, 0x1e, 0x7a, (byte) 0xbc,
+        (byte) 0x8d, (byte) 0xef, 0x01, 0x23, 0x45, 0x67, (byte) 0x89, (byte) 0xab
+    };
+
     @Test
     @DisplayName("Mappt alle Felder einer Domain-Order korrekt auf eine OrderRow")
     void toRow_maps_all_fields_from_domain_order() {
         Order order = new Order(
-                new OrderId("ord-123"), "john.doe@example.com", new BigDecimal("42.50"), 7L, OrderStatus.PLACED);
+                new OrderId(ID), "john.doe@example.com", Money.parse("42.5"), 7L, OrderStatus.PLACED);
 
         OrderRow row = OrderMapper.toRow(order);
 
-        assertEquals("ord-123", row.getId());
+        assertArrayEquals(BINARY_ID, row.getId());
         assertEquals("john.doe@example.com", row.getCustomerEmail());
         assertEquals(new BigDecimal("42.50"), row.getTotal());
         assertEquals("PLACED", row.getStatus());
@@ -30,14 +39,30 @@ class OrderMapperTest {
     @Test
     @DisplayName("Setzt beim Mapping auf Domain die Version auf 0, wenn sie in der Row null ist")
     void toDomain_defaults_null_row_version_to_zero() {
-        OrderRow row = new OrderRow("ord-456", "alice@example.com", new BigDecimal("15.00"), "NEW", null, null, null);
+        OrderRow row = new OrderRow(BINARY_ID, "alice@example.com", new BigDecimal("15.00"), "NEW", null, null, null);
 
         Order order = OrderMapper.toDomain(row);
 
-        assertEquals("ord-456", order.id().value());
+        assertEquals(ID, order.id().value());
         assertEquals("alice@example.com", order.customerEmail());
-        assertEquals(new BigDecimal("15.00"), order.total());
+        assertEquals(Money.ofMinor(1500), order.total());
         assertEquals(OrderStatus.NEW, order.status());
         assertEquals(0L, order.version());
     }
+
+    @Test
+    @DisplayName("Speichert die ID als 16 Bytes und liefert dieselbe String-Form zurück")
+    void binaryId_roundTripsCanonicalString() {
+        OrderId id = OrderId.newId();
+
+        assertEquals(16, OrderMapper.toBinaryId(id).length);
+        assertEquals(id, OrderMapper.toOrderId(OrderMapper.toBinaryId(id)));
+    }
+
+    @Test
+    @DisplayName("Lehnt IDs ab, die keine UUID in kanonischer Form sind")
+    void toBinaryId_rejects_non_uuid() {
+        assertThrows(IllegalArgumentException.class, () -> OrderMapper.toBinaryId(new OrderId("ord-123")));
+        assertThrows(IllegalArgumentException.class, () -> OrderMapper.toBinaryId(new OrderId("1-1-1-1-1")));
+    }
 }
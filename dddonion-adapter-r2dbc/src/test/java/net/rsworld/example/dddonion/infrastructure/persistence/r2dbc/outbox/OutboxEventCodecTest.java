@@ -0,0 +1,57 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OutboxEventCodecTest {
+
+    private final OutboxEventCodec codec = new OutboxEventCodec();
+
+    @Test
+    @DisplayName("Serialisiert ein OrderPlaced-Event verlustfrei nach JSON und zurück")
+    void roundTrip_orderPlaced() {
+        var event = new OrderPlaced(
+                "ord-1", 1L, Instant.parse("2025-01-02T03:04:05.123456Z"), "a@b.ce", Money.parse("42.50"));
+
+        DomainEvent decoded = codec.decode(event.type(), codec.encode(event));
+
+        assertThat(decoded).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Schreibt Beträge als Dezimalzahl und liest auch bestehende Payloads")
+    void money_isPlainDecimal() {
+        var event = new OrderPlaced("ord-1", 1L, Instant.parse("2025-01-02T03:04:05Z"), "a@b.ce", Money.parse("42.5"));
+
+        assertThat(codec.encode(event)).contains("\"total\":42.50");
+        var stored = codec.decode(
+                "OrderPlaced",
+                "{\"orderId\":\"ord-1\",\"sequence\":1,\"occurredAt\":\"2025-01-02T03:04:05Z\","
+                        + "\"customerEmail\":\"a@b.ce\",\"total\":42.5}");
+        assertThat(stored).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Serialisiert ein OrderPaid-Event verlustfrei nach JSON und zurück")
+    void roundTrip_orderPaid() {
+        var event = new OrderPaid("ord-1", 2L, Instant.parse("2025-01-02T03:04:05.123456Z"));
+
+        assertThat(codec.decode(event.type(), codec.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    @DisplayName("Lehnt unbekannte Event-Typen ab")
+    void decode_rejectsUnknownType() {
+        assertThatThrownBy(() -> codec.decode("OrderShipped", "{}"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("OrderShipped");
+    }
+}
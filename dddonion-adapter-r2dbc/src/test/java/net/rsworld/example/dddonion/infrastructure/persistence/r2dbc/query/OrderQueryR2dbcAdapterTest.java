@@ -0,0 +1,36 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class OrderQueryR2dbcAdapterTest {
+
+    @Test
+    @DisplayName("Liest die erste Seite ohne Bedingungen, nur sortiert und begrenzt")
+    void firstPage_withoutFilters() {
+        assertThat(OrderQueryR2dbcAdapter.sql(new OrderListQuery(null, null, null, 20)))
+                .isEqualTo("SELECT id, customer_email, total, status, version, created_at FROM orders"
+                        + " ORDER BY created_at, id LIMIT :limit");
+    }
+
+    @Test
+    @DisplayName("Setzt Filter und Cursor als Gleichheits- bzw. Seek-Bedingung vor die Sortierung, ohne OFFSET")
+    void laterPage_seeksAfterCursor() {
+        var cursor = new OrderCursor(Instant.parse("2025-01-01T00:00:00Z"), OrderId.newId());
+
+        String sql = OrderQueryR2dbcAdapter.sql(new OrderListQuery(OrderStatus.PAID, "a@b.ce", cursor, 20));
+
+        assertThat(sql)
+                .contains(" WHERE status = :status AND customer_email = :customer AND "
+                        + "(created_at > :createdAt OR (created_at = :createdAt AND id > :id))")
+                .endsWith(" ORDER BY created_at, id LIMIT :limit")
+                .doesNotContainIgnoringCase("offset");
+    }
+}
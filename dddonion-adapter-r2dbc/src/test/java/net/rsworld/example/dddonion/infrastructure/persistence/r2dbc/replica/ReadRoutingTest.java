@@ -0,0 +1,101 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcNonTransientResourceException;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReadRoutingTest {
+
+    private ConnectionFactory replicaFactory;
+    private ReadRouting routing;
+
+    @BeforeEach
+    void setUp() {
+        replicaFactory = mock(ConnectionFactory.class);
+        when(replicaFactory.getMetadata()).thenReturn(() -> "MariaDB");
+        routing = new ReadRouting(
+                replicaFactory,
+                new ReadRouting.Settings(Duration.ofMillis(50), 100, Duration.ofSeconds(1), Duration.ofMillis(100)),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("Liest einen Schlüssel nur bis zum Ende des Read-your-writes-Fensters vom Primary")
+    void pin_expiresAfterWindow() throws InterruptedException {
+        routing.pin("a@b.ce");
+
+        StepVerifier.create(routing.read("a@b.ce", () -> Mono.just("primary"), () -> Mono.just("replica")))
+                .expectNext("primary")
+                .verifyComplete();
+        StepVerifier.create(routing.read("c@d.ef", () -> Mono.just("primary"), () -> Mono.just("replica")))
+                .expectNext("replica")
+                .verifyComplete();
+
+        Thread.sleep(100);
+
+        StepVerifier.create(routing.read("a@b.ce", () -> Mono.just("primary"), () -> Mono.just("replica")))
+                .expectNext("replica")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Wiederholt eine Liste nur dann auf dem Primary, wenn das Replica noch keine Zeile geliefert hat")
+    void readMany_fallsBackOnlyBeforeFirstRow() {
+        var failure = new R2dbcNonTransientResourceException("connection reset");
+
+        StepVerifier.create(routing.readMany(
+                        null, () -> Flux.just(1, 2), () -> Flux.concat(Flux.just(1), Flux.error(failure))))
+                .expectNext(1)
+                .verifyErrorMatches(e -> e == failure);
+        assertThat(routing.isReplicaUp()).isTrue();
+
+        StepVerifier.create(routing.readMany(null, () -> Flux.just(1, 2), () -> Flux.error(failure)))
+                .expectNext(1, 2)
+                .verifyComplete();
+        assertThat(routing.isReplicaUp()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Liest vom Primary und markiert das Replica als down, wenn es im Read-Timeout nicht antwortet")
+    void read_fallsBackWhenReplicaHangs() {
+        StepVerifier.create(routing.read(null, () -> Mono.just("primary"), Mono::never))
+                .expectNext("primary")
+                .verifyComplete();
+        assertThat(routing.isReplicaUp()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Gibt Fehler, die nicht am Replica liegen, ohne Ausweichen weiter")
+    void read_passesOnQueryErrors() {
+        var failure = new IllegalStateException("bad query");
+
+        StepVerifier.create(routing.read(null, () -> Mono.just("primary"), () -> Mono.error(failure)))
+                .verifyErrorMatches(e -> e == failure);
+        assertThat(routing.isReplicaUp()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Markiert das Replica als down, wenn der Health-Check keine Verbindung bekommt")
+    void checkReplica_marksDown() {
+        doReturn(Mono.error(new R2dbcNonTransientResourceException("refused")))
+                .when(replicaFactory)
+                .create();
+
+        StepVerifier.create(routing.checkReplica()).expectNext(false).verifyComplete();
+
+        assertThat(routing.isReplicaUp()).isFalse();
+        StepVerifier.create(routing.read("a@b.ce", () -> Mono.just("primary"), () -> Mono.just("replica")))
+                .expectNext("primary")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,134 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.ReactiveOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import reactor.core.publisher.Mono;
+
+class ReplicaRoutingOrderRepositoryTest {
+
+    private final OrderId id = OrderId.newId();
+    private ReactiveOrderRepository primary;
+    private OrderRepository replica;
+    private SimpleMeterRegistry meters;
+    private ReadRouting routing;
+    private ReplicaRoutingOrderRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        primary = mock(ReactiveOrderRepository.class);
+        replica = mock(OrderRepository.class);
+        meters = new SimpleMeterRegistry();
+        var replicaFactory = mock(ConnectionFactory.class);
+        when(replicaFactory.getMetadata()).thenReturn(() -> "MariaDB");
+        routing = new ReadRouting(
+                replicaFactory,
+                new ReadRouting.Settings(Duration.ofMinutes(1), 100, Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                meters);
+        repository = new ReplicaRoutingOrderRepository(primary, replica, routing);
+        when(primary.findById(id)).thenReturn(found(stored(2, OrderStatus.PAID)));
+    }
+
+    private Order stored(long version, OrderStatus status) {
+        return new Order(id, "a@b.ce", Money.parse("1.00"), version, status);
+    }
+
+    private static CompletableFuture<Optional<Order>> found(Order order) {
+        return CompletableFuture.completedFuture(Optional.of(order));
+    }
+
+    private Optional<Order> find() {
+        return repository.findById(id).toCompletableFuture().join();
+    }
+
+    private double reads(String pool, String reason) {
+        return meters.get(ReadRouting.READS)
+                .tags("pool", pool, "reason", reason)
+                .counter()
+                .count();
+    }
+
+    @Test
+    @DisplayName("Liest ohne vorheriges Speichern vom Replica")
+    void findById_readsFromReplica() {
+        when(replica.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+
+        assertThat(find()).hasValueSatisfying(order -> assertThat(order.version()).isEqualTo(1L));
+
+        verify(primary, never()).findById(id);
+        assertThat(reads("replica", "routed")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Schreibt auf den Primary und liest die gespeicherte Order im Read-your-writes-Fenster von dort")
+    void save_pinsReadsToPrimary() {
+        var loaded = stored(1, OrderStatus.PLACED);
+        loaded.pay();
+        when(primary.write(loaded)).thenReturn(Mono.just(stored(2, OrderStatus.PAID)));
+
+        repository.save(loaded).toCompletableFuture().join();
+
+        assertThat(find()).hasValueSatisfying(order -> assertThat(order.status()).isEqualTo(OrderStatus.PAID));
+        verifyNoInteractions(replica);
+        assertThat(reads("primary", "read-your-writes")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Lädt eine Order nach verlorenem optimistischem Lock vom Primary statt erneut vom Replica")
+    void lostOptimisticLock_pinsReloadToPrimary() {
+        when(replica.findById(id)).thenReturn(found(stored(1, OrderStatus.PLACED)));
+        when(primary.findById(id)).thenReturn(found(stored(2, OrderStatus.PLACED)));
+        var stale = find().orElseThrow();
+        stale.pay();
+        when(primary.write(stale)).thenReturn(Mono.error(new OptimisticLockingFailureException("version 1 is gone")));
+
+        assertThat(repository.save(stale).toCompletableFuture()).isCompletedExceptionally();
+
+        assertThat(find()).hasValueSatisfying(order -> assertThat(order.version()).isEqualTo(2L));
+        verify(replica, times(1)).findById(id);
+        assertThat(reads("primary", "read-your-writes")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Fragt den Primary, wenn das Replica die Order (noch) nicht kennt")
+    void findById_replicaMiss_asksPrimary() {
+        when(replica.findById(id)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        assertThat(find()).isPresent();
+
+        assertThat(reads("primary", "replica-miss")).isEqualTo(1.0);
+        assertThat(routing.isReplicaUp()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Weicht bei Verbindungsfehlern des Replicas auf den Primary aus und bleibt dort bis zum Health-Check")
+    void findById_replicaFailure_fallsBackAndMarksDown() {
+        when(replica.findById(id))
+                .thenReturn(CompletableFuture.failedFuture(new DataAccessResourceFailureException("replica down")));
+
+        assertThat(find()).isPresent();
+        assertThat(find()).isPresent();
+
+        verify(replica, times(1)).findById(id);
+        assertThat(routing.isReplicaUp()).isFalse();
+        assertThat(reads("primary", "replica-error")).isEqualTo(1.0);
+        assertThat(reads("primary", "replica-down")).isEqualTo(1.0);
+        assertThat(meters.get(ReadRouting.REPLICA_UP).gauge().value()).isZero();
+    }
+}
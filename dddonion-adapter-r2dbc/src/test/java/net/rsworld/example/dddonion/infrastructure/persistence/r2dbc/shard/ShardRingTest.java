@@ -0,0 +1,72 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ShardRingTest {
+
+    private static final int KEYS = 100_000;
+
+    private static List<String> keys() {
+        var random = new Random(42);
+        return Stream.generate(() -> new UUID(random.nextLong(), random.nextLong()).toString())
+                .limit(KEYS)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Verteilt Order-IDs annähernd gleichmäßig auf die Shards")
+    void shardOf_spreadsKeysEvenly() {
+        var ring = new ShardRing(List.of("a", "b", "c", "d"), 256);
+
+        Map<String, Integer> counts = new HashMap<>();
+        keys().forEach(key -> counts.merge(ring.shardOf(key), 1, Integer::sum));
+
+        assertThat(counts).containsOnlyKeys("a", "b", "c", "d");
+        int fair = KEYS / 4;
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(fair * 85 / 100, fair * 115 / 100));
+    }
+
+    @Test
+    @DisplayName("Die Platzierung hängt nicht von der Reihenfolge der konfigurierten Shards ab")
+    void shardOf_ignoresConfigurationOrder() {
+        var ring = new ShardRing(List.of("a", "b", "c"), 64);
+        var reordered = new ShardRing(List.of("c", "a", "b"), 64);
+
+        assertThat(keys()).allSatisfy(key -> assertThat(reordered.shardOf(key)).isEqualTo(ring.shardOf(key)));
+    }
+
+    @Test
+    @DisplayName("Ein neuer Shard übernimmt etwa 1/n der Order-IDs, alle anderen bleiben, wo sie waren")
+    void addingShard_movesOnlyKeysToTheNewShard() {
+        var before = new ShardRing(List.of("a", "b", "c"), 256);
+        var after = new ShardRing(List.of("a", "b", "c", "d"), 256);
+
+        int moved = 0;
+        for (String key : keys()) {
+            String owner = after.shardOf(key);
+            if (!owner.equals(before.shardOf(key))) {
+                assertThat(owner).isEqualTo("d");
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(KEYS * 20 / 100, KEYS * 30 / 100);
+    }
+
+    @Test
+    @DisplayName("Lehnt doppelte Shard-Namen ab")
+    void rejectsDuplicateNames() {
+        assertThatThrownBy(() -> new ShardRing(List.of("a", "b", "a"), 16))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("unique");
+    }
+}
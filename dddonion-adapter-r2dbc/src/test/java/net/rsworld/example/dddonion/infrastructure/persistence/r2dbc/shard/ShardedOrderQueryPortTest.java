@@ -0,0 +1,66 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ShardedOrderQueryPortTest {
+
+    private static final Instant EPOCH = Instant.parse("2025-01-01T00:00:00Z");
+
+    /** Order {@code seq}, created {@code second}s after the epoch, with an id that sorts like {@code seq}. */
+    private static OrderSummary summary(long seq, long second) {
+        var id = new OrderId(new UUID(0, seq).toString());
+        return new OrderSummary(id, "a@b.ce", BigDecimal.ONE, OrderStatus.PLACED, 1, EPOCH.plusSeconds(second));
+    }
+
+    private static OrderQueryPort shard(OrderSummary... page) {
+        return query -> Flux.just(page).take(query.limit());
+    }
+
+    @Test
+    @DisplayName("Führt die Seiten der Shards nach (created_at, id) zusammen und schneidet am Limit ab")
+    void list_mergesShardPagesInListingOrder() {
+        var port = new ShardedOrderQueryPort(List.of(
+                shard(summary(1, 0), summary(4, 1), summary(6, 3)),
+                shard(summary(2, 0), summary(3, 1), summary(5, 2))));
+
+        var merged = port.list(new OrderListQuery(null, null, null, 5))
+                .map(ShardedOrderQueryPortTest::seq)
+                .collectList()
+                .block();
+
+        // seq 3 and 4 share a second; the id decides, as in ORDER BY created_at, id
+        assertThat(merged).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    @DisplayName("Bricht die übrigen Shards ab, sobald die Seite voll ist")
+    void list_cancelsShardsOnceThePageIsFull() {
+        var cancelled = new AtomicBoolean();
+        OrderQueryPort endless = query -> Flux.range(10, 1_000_000)
+                .map(second -> summary(second, second))
+                .doOnCancel(() -> cancelled.set(true));
+        var port = new ShardedOrderQueryPort(List.of(shard(summary(1, 0)), endless));
+
+        assertThat(port.list(new OrderListQuery(null, null, null, 3)).collectList().block())
+                .hasSize(3);
+        assertThat(cancelled).isTrue();
+    }
+
+    private static long seq(OrderSummary order) {
+        return UUID.fromString(order.id().value()).getLeastSignificantBits();
+    }
+}
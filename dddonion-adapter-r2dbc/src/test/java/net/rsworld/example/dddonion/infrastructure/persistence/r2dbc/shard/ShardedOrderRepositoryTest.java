@@ -0,0 +1,144 @@
+package net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ShardedOrderRepositoryTest {
+
+    private final ShardRing before = new ShardRing(List.of("a", "b"), 64);
+    private final ShardRing after = new ShardRing(List.of("a", "b", "c"), 64);
+    private Map<String, OrderRepository> stores;
+    private SimpleMeterRegistry meters;
+
+    @BeforeEach
+    void setUp() {
+        stores = Map.of(
+                "a", mock(OrderRepository.class), "b", mock(OrderRepository.class), "c", mock(OrderRepository.class));
+        meters = new SimpleMeterRegistry();
+        stores.values().forEach(store -> {
+            when(store.save(any())).thenAnswer(call -> CompletableFuture.completedFuture(call.getArgument(0)));
+            when(store.findById(any())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+            when(store.pay(any())).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        });
+    }
+
+    /** An id that {@link #after} places on the new shard {@code c}, so it may still be on its old shard. */
+    private OrderId movedToC() {
+        while (true) {
+            var id = OrderId.newId();
+            if (after.shardOf(id.value()).equals("c")) {
+                return id;
+            }
+        }
+    }
+
+    private static Order stored(OrderId id) {
+        return new Order(id, "a@b.ce", Money.parse("1.00"), 1, OrderStatus.PLACED);
+    }
+
+    private double routed(String shard, String operation, String ring) {
+        return meters.get(ShardedOrderRepository.ROUTED)
+                .tags("shard", shard, "operation", operation, "ring", ring)
+                .counter()
+                .count();
+    }
+
+    @Test
+    @DisplayName("Speichert und lädt jede Order nur auf dem Shard, auf den ihre ID fällt")
+    void routesByRing() {
+        var repository = new ShardedOrderRepository(stores, after, null, meters);
+        var order = new Order("a@b.ce", Money.parse("1.00"));
+        String owner = after.shardOf(order.id().value());
+
+        repository.save(order).toCompletableFuture().join();
+        repository.findById(order.id()).toCompletableFuture().join();
+
+        stores.forEach((shard, store) -> {
+            int calls = shard.equals(owner) ? 1 : 0;
+            verify(store, times(calls)).save(order);
+            verify(store, times(calls)).findById(order.id());
+        });
+        assertThat(routed(owner, "save", "current")).isEqualTo(1.0);
+        assertThat(routed(owner, "findById", "current")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Findet eine noch nicht verschobene Order auf ihrem bisherigen Shard")
+    void findById_fallsBackToPreviousOwner() {
+        var repository = new ShardedOrderRepository(stores, after, before, meters);
+        var id = movedToC();
+        String previousOwner = before.shardOf(id.value());
+        when(stores.get(previousOwner).findById(id))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of(stored(id))));
+
+        assertThat(repository.findById(id).toCompletableFuture().join()).isPresent();
+
+        verify(stores.get("c")).findById(id);
+        assertThat(routed(previousOwner, "findById", "previous")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Aktualisiert eine noch nicht verschobene Order auf dem Shard, der ihre Zeile hält")
+    void update_goesToShardHoldingTheRow() {
+        var repository = new ShardedOrderRepository(stores, after, before, meters);
+        var id = movedToC();
+        String previousOwner = before.shardOf(id.value());
+        var order = stored(id);
+        order.pay();
+
+        repository.save(order).toCompletableFuture().join();
+
+        verify(stores.get(previousOwner)).save(order);
+        verify(stores.get("c"), never()).save(any());
+        assertThat(routed(previousOwner, "save", "previous")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Bezahlt eine noch nicht verschobene Order auf ihrem bisherigen Shard, ohne sie vorher zu laden")
+    void pay_fallsBackToPreviousOwner() {
+        var repository = new ShardedOrderRepository(stores, after, before, meters);
+        var id = movedToC();
+        String previousOwner = before.shardOf(id.value());
+        var paid = stored(id);
+        paid.pay();
+        when(stores.get(previousOwner).pay(id)).thenReturn(CompletableFuture.completedFuture(Optional.of(paid)));
+
+        assertThat(repository.pay(id).toCompletableFuture().join()).contains(paid);
+
+        verify(stores.get("c")).pay(id);
+        stores.values().forEach(store -> verify(store, never()).findById(any()));
+        assertThat(routed("c", "pay", "current")).isEqualTo(1.0);
+        assertThat(routed(previousOwner, "pay", "previous")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Legt neue Orders immer auf ihrem neuen Shard an, ohne nachzusehen")
+    void insert_alwaysGoesToCurrentOwner() {
+        var repository = new ShardedOrderRepository(stores, after, before, meters);
+        var order = new Order("a@b.ce", Money.parse("1.00"));
+        while (!after.shardOf(order.id().value()).equals("c")) {
+            order = new Order("a@b.ce", Money.parse("1.00"));
+        }
+        order.place();
+
+        repository.save(order).toCompletableFuture().join();
+
+        verify(stores.get("c")).save(order);
+        stores.values().forEach(store -> verify(store, never()).findById(any()));
+    }
+}
@@ -0,0 +1,13 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+/** Per-line response of {@code POST /orders/batch}: {@code line} is 1-based, exactly one of the others is set. */
+public record BatchLineResult(long line, String orderId, String error) {
+
+    static BatchLineResult placed(long line, String orderId) {
+        return new BatchLineResult(line, orderId, null);
+    }
+
+    static BatchLineResult rejected(long line, String error) {
+        return new BatchLineResult(line, null, error);
+    }
+}
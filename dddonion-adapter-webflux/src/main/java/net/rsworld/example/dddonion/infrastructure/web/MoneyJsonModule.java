@@ -0,0 +1,24 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import net.rsworld.example.dddonion.domain.common.Money;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.SerializationContext;
+import tools.jackson.databind.ValueSerializer;
+import tools.jackson.databind.module.SimpleModule;
+
+/**
+ * Writes {@link Money} as a plain decimal number, e.g. {@code "total": 42.50} in the {@code OrderPlaced} events of
+ * {@code GET /orders/events}, the same JSON the API produced while amounts were {@code BigDecimal}s.
+ */
+public class MoneyJsonModule extends SimpleModule {
+
+    public MoneyJsonModule() {
+        super("dddonion-money");
+        addSerializer(Money.class, new ValueSerializer<>() {
+            @Override
+            public void serialize(Money value, JsonGenerator gen, SerializationContext ctxt) {
+                gen.writeNumber(value.toDecimal());
+            }
+        });
+    }
+}
@@ -1,29 +1,218 @@
 package net.rsworld.example.dddonion.infrastructure.web;
 
-import java.math.BigDecimal;
+import java.util.Locale;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.usecase.ConcurrentOrderUpdateException;
+import net.rsworld.example.dddonion.application.order.usecase.FindOrderUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.IdempotencyKeyReusedException;
+import net.rsworld.example.dddonion.application.order.usecase.ListOrdersUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.OrderPlacementRejectedException;
+import net.rsworld.example.dddonion.application.order.usecase.PayOrderUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
 import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
+    /** An order is two short values; anything much longer is not a place-order request. */
+    static final int MAX_JSON_BODY_BYTES = 4 * 1024;
+
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    /** Matches the {@code idempotency_keys} column; clients typically send a UUID. */
+    static final int MAX_IDEMPOTENCY_KEY_LENGTH = 255;
+
     private final PlaceOrderUseCase placeOrder;
+    private final FindOrderUseCase findOrder;
+    private final PayOrderUseCase payOrder;
+    private final ListOrdersUseCase listOrders;
 
-    public OrderController(PlaceOrderUseCase placeOrder) {
+    public OrderController(
+            PlaceOrderUseCase placeOrder,
+            FindOrderUseCase findOrder,
+            PayOrderUseCase payOrder,
+            ListOrdersUseCase listOrders) {
         this.placeOrder = placeOrder;
+        this.findOrder = findOrder;
+        this.payOrder = payOrder;
+        this.listOrders = listOrders;
+    }
+
+    /**
+     * One page of orders in creation order, streamed as a JSON array or as NDJSON while the rows are read. The
+     * {@code cursor} of the last item continues the listing via {@code after}; a short page is the last one.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<OrderListItem> list(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        OrderListQuery query;
+        try {
+            query = new OrderListQuery(
+                    status == null ? null : OrderStatus.valueOf(status.toUpperCase(Locale.ROOT)),
+                    customer,
+                    after == null ? null : OrderCursor.parse(after),
+                    limit);
+        } catch (IllegalArgumentException e) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+        }
+        return listOrders.handle(query).map(OrderListItem::of);
     }
 
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OrderView> get(@PathVariable String id) {
+        return findOrder
+                .handle(new OrderId(id))
+                .map(OrderView::of)
+                .switchIfEmpty(
+                        Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found: " + id)));
+    }
+
+    /** 409 if the order is not payable (any more) or stayed contended through all retries. */
+    @PostMapping(path = "/{id}/pay", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<OrderView> pay(@PathVariable String id) {
+        return payOrder.handle(new OrderId(id))
+                .map(OrderView::of)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Order not found: " + id)))
+                .onErrorMap(
+                        e -> e instanceof OrderNotPayableException || e instanceof ConcurrentOrderUpdateException,
+                        e -> new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage(), e));
+    }
+
+    /**
+     * A repeated request with the same {@code Idempotency-Key} answers with the order id of the first one instead of
+     * placing another order; the same key with a different customer or total is refused with 422.
+     */
     @PostMapping(produces = "text/plain")
-    public Mono<String> create(@RequestParam String email, @RequestParam BigDecimal total) {
+    public Mono<String> create(
+            @RequestParam String email,
+            @RequestParam String total,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
         try {
-            return placeOrder.handle(new PlaceOrderCommand(email, total)).map(OrderId::value);
+            return place(new PlaceOrderCommand(email, Money.parse(total)), idempotencyKey).map(OrderId::value);
         } catch (IllegalArgumentException e) {
             return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
         }
     }
+
+    /**
+     * JSON variant of {@link #create}: {@code {"email": "...", "total": 12.34}}, at most {@value #MAX_JSON_BODY_BYTES}
+     * bytes. The body is decoded chunk by chunk by {@link PlaceOrderJsonReader} instead of Spring's generic
+     * {@code @RequestBody} binding.
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = "text/plain")
+    public Mono<String> createFromJson(
+            ServerHttpRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        try {
+            checkIdempotencyKey(idempotencyKey);
+        } catch (IllegalArgumentException e) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+        }
+        return PlaceOrderJsonReader.read(
+                        request.getBody(), request.getHeaders().getContentLength(), MAX_JSON_BODY_BYTES)
+                .flatMap(cmd -> place(cmd, idempotencyKey))
+                .map(OrderId::value);
+    }
+
+    private Mono<OrderId> place(PlaceOrderCommand cmd, String idempotencyKey) {
+        checkIdempotencyKey(idempotencyKey);
+        if (idempotencyKey == null) {
+            return placeOrder.handle(cmd);
+        }
+        return placeOrder
+                .handle(cmd, idempotencyKey)
+                .onErrorMap(
+                        IdempotencyKeyReusedException.class,
+                        e -> new ResponseStatusException(HttpStatus.UNPROCESSABLE_CONTENT, e.getMessage(), e));
+    }
+
+    private static void checkIdempotencyKey(String idempotencyKey) {
+        if (idempotencyKey != null
+                && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            throw new IllegalArgumentException(
+                    IDEMPOTENCY_KEY + " must be 1 to " + MAX_IDEMPOTENCY_KEY_LENGTH + " non-blank characters");
+        }
+    }
+
+    /** Shed load: 503 right away, with a {@code Retry-After} in whole seconds (at least one). */
+    @ExceptionHandler(OrderPlacementRejectedException.class)
+    public ResponseEntity<String> rejected(OrderPlacementRejectedException e) {
+        long seconds = Math.max(1, (e.retryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(e.getMessage());
+    }
+
+    /**
+     * Streams NDJSON in and out: every input line yields one result line as soon as it is known, so neither side is
+     * buffered in full. Invalid lines are answered immediately, valid ones in input order once placed. The body is
+     * taken as text lines, each decoded on its own by {@link PlaceOrderJsonReader}, so a malformed line is rejected
+     * like an invalid order instead of ending the response; blank lines are skipped but keep their number.
+     */
+    @PostMapping(
+            path = "/batch",
+            consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<BatchLineResult> createAll(@RequestBody Flux<String> lines) {
+        return lines.index((index, line) -> ParsedLine.of(index + 1, line))
+                .filter(line -> !line.isBlank())
+                .publish(shared -> {
+                    Flux<ParsedLine> valid = shared.filter(ParsedLine::isValid);
+                    Flux<BatchLineResult> rejected = shared.filter(line -> !line.isValid())
+                            .map(line -> BatchLineResult.rejected(line.number(), line.error()));
+                    // handleAll preserves order, so zipping with the valid lines restores the line numbers
+                    Flux<BatchLineResult> placed = Flux.zip(
+                            valid,
+                            placeOrder.handleAll(valid.map(ParsedLine::command)),
+                            OrderController::toLineResult);
+                    return Flux.merge(rejected, placed);
+                });
+    }
+
+    private static BatchLineResult toLineResult(ParsedLine line, PlaceOrderResult result) {
+        return result.isPlaced()
+                ? BatchLineResult.placed(line.number(), result.orderId().value())
+                : BatchLineResult.rejected(line.number(), result.error());
+    }
+
+    private record ParsedLine(long number, PlaceOrderCommand command, String error) {
+        private static final ParsedLine BLANK = new ParsedLine(0, null, null);
+
+        static ParsedLine of(long number, String line) {
+            if (line.isBlank()) {
+                return BLANK;
+            }
+            try {
+                return new ParsedLine(number, PlaceOrderJsonReader.parse(line, MAX_JSON_BODY_BYTES), null);
+            } catch (ResponseStatusException e) {
+                return new ParsedLine(number, null, e.getReason());
+            }
+        }
+
+        boolean isBlank() {
+            return this == BLANK;
+        }
+
+        boolean isValid() {
+            return command != null;
+        }
+    }
 }
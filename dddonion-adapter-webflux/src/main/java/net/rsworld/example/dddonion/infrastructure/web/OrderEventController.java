@@ -0,0 +1,43 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+@RestController
+@RequestMapping("/orders")
+public class OrderEventController {
+    private final OrderEventStream events;
+
+    public OrderEventController(OrderEventStream events) {
+        this.events = events;
+    }
+
+    /**
+     * Domain events as Server-Sent Events: {@code event} is the event type, {@code id} its position in the stream and
+     * {@code data} the event as JSON. Browsers reconnect with {@code Last-Event-ID} and get what they missed, as far
+     * as the replay window reaches.
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<DomainEvent>> events(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        Long after;
+        try {
+            after = lastEventId == null || lastEventId.isBlank() ? null : Long.valueOf(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Last-Event-ID", e));
+        }
+        return events.subscribe(after)
+                .map(e -> ServerSentEvent.builder(e.event())
+                        .id(Long.toString(e.id()))
+                        .event(e.event().type())
+                        .build());
+    }
+}
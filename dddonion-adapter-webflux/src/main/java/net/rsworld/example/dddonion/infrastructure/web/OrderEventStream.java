@@ -0,0 +1,169 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import org.springframework.context.event.EventListener;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Live fan-out of published domain events to the {@code GET /orders/events} subscribers. Every event gets a stream id
+ * and goes through one multicast sink; each subscriber drains it through its own buffer of {@code bufferSize}
+ * events, so a slow client loses events ({@link Overflow#DROP_OLDEST}) or its connection ({@link Overflow#DISCONNECT})
+ * instead of holding back the publisher. The last {@code replayWindow} events are kept to resume a subscriber from
+ * its {@code Last-Event-ID}; older ids resume at the oldest event still kept.
+ *
+ * <p>The publishing thread only assigns the id and writes the window under the lock, then queues the event; whichever
+ * publisher finds the queue idle emits it in id order into the subscribers' buffers. Encoding and writing to a client
+ * happen on {@link Schedulers#parallel()} after that buffer, never on the thread that placed the order. One event per
+ * subscriber is handed on at a time, so a subscriber holds at most {@code bufferSize} events plus the one in flight.
+ */
+@Slf4j
+public class OrderEventStream {
+
+    private final Settings settings;
+    private final Sinks.Many<StreamedEvent> sink = Sinks.many().multicast().directBestEffort();
+    private final Scheduler delivery = Schedulers.parallel();
+    private final StreamedEvent[] window;
+    private long nextId = 1;
+
+    private final Queue<StreamedEvent> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger emitting = new AtomicInteger();
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+    private final LongAdder droppedOldest = new LongAdder();
+    private final LongAdder disconnected = new LongAdder();
+
+    public OrderEventStream(Settings settings) {
+        this.settings = settings;
+        this.window = new StreamedEvent[settings.replayWindow()];
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        publish(event);
+    }
+
+    /** Assigns the next stream id and hands {@code event} to every subscriber's buffer; never blocks on a client. */
+    public void publish(DomainEvent event) {
+        synchronized (this) {
+            var streamed = new StreamedEvent(nextId++, event);
+            if (window.length > 0) {
+                window[(int) (streamed.id() % window.length)] = streamed;
+            }
+            // queued under the lock, so the queue is in id order
+            pending.offer(streamed);
+        }
+        emitPending();
+    }
+
+    /** Emits queued events; one thread at a time, the others leave their events to it. */
+    private void emitPending() {
+        if (emitting.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            StreamedEvent next;
+            while ((next = pending.poll()) != null) {
+                // emissions are serialized by the emitting counter, so the only possible failure is "no subscribers"
+                sink.tryEmitNext(next);
+            }
+            missed = emitting.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * Events after {@code lastEventId} still in the replay window, then live events. {@code null} starts with the next
+     * live event.
+     */
+    public Flux<StreamedEvent> subscribe(Long lastEventId) {
+        Flux<StreamedEvent> events = Flux.create(out -> {
+            // replay and live subscription under the publish lock: no event is missed. Events below nextId may still be
+            // queued for emission, those already replayed are skipped when they arrive live.
+            synchronized (this) {
+                long replayed = 0;
+                if (lastEventId != null) {
+                    for (StreamedEvent event : replayAfter(lastEventId)) {
+                        out.next(event);
+                        replayed = event.id();
+                    }
+                }
+                long skipUpTo = replayed;
+                var live = sink.asFlux().filter(e -> e.id() > skipUpTo).subscribe(out::next);
+                out.onDispose(live);
+            }
+        });
+        Flux<StreamedEvent> buffered =
+                switch (settings.overflow()) {
+                    case DROP_OLDEST -> events.onBackpressureBuffer(
+                            settings.bufferSize(),
+                            dropped -> droppedOldest.increment(),
+                            BufferOverflowStrategy.DROP_OLDEST);
+                    // detaches from the sink at once; the client still reads its buffer, then the stream ends
+                    case DISCONNECT -> events.onBackpressureBuffer(settings.bufferSize(), dropped -> {
+                                disconnected.increment();
+                                log.debug("Disconnecting a subscriber {} events behind", settings.bufferSize());
+                            })
+                            .onErrorResume(Exceptions::isOverflow, e -> Flux.empty());
+                };
+        return buffered.publishOn(delivery, 1)
+                .doOnSubscribe(s -> subscribers.incrementAndGet())
+                .doFinally(signal -> subscribers.decrementAndGet());
+    }
+
+    private List<StreamedEvent> replayAfter(long lastEventId) {
+        var replay = new ArrayList<StreamedEvent>();
+        for (long id = Math.max(lastEventId + 1, nextId - window.length); id < nextId; id++) {
+            replay.add(window[(int) (id % window.length)]);
+        }
+        return replay;
+    }
+
+    public int subscribers() {
+        return subscribers.get();
+    }
+
+    /** Events a subscriber lost to {@link Overflow#DROP_OLDEST}. */
+    public long droppedOldest() {
+        return droppedOldest.sum();
+    }
+
+    /** Subscribers detached by {@link Overflow#DISCONNECT}. */
+    public long disconnected() {
+        return disconnected.sum();
+    }
+
+    /** A domain event with its position in this stream, sent as the SSE {@code id}. */
+    public record StreamedEvent(long id, DomainEvent event) {}
+
+    /** What happens to a subscriber whose buffer is full. */
+    public enum Overflow {
+        /** Discard the oldest buffered event; the subscriber sees a gap in the ids. */
+        DROP_OLDEST,
+        /** End the subscriber's stream; it reconnects with {@code Last-Event-ID} and resumes from the window. */
+        DISCONNECT
+    }
+
+    /**
+     * Per-subscriber buffer (not counting the event being written), overflow behaviour and replay depth
+     * ({@code dddonion.orders.events.*}).
+     */
+    public record Settings(int bufferSize, Overflow overflow, int replayWindow) {
+        public Settings {
+            if (bufferSize < 1) throw new IllegalArgumentException("bufferSize must be >= 1");
+            if (overflow == null) throw new IllegalArgumentException("overflow must not be null");
+            if (replayWindow < 0) throw new IllegalArgumentException("replayWindow must be >= 0");
+        }
+    }
+}
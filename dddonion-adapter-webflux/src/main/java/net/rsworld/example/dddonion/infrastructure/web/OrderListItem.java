@@ -0,0 +1,27 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+
+/** One order of {@code GET /orders}; {@code cursor} of the last item is the {@code after} of the next page. */
+public record OrderListItem(
+        String id,
+        String customerEmail,
+        BigDecimal total,
+        String status,
+        long version,
+        Instant createdAt,
+        String cursor) {
+
+    static OrderListItem of(OrderSummary order) {
+        return new OrderListItem(
+                order.id().value(),
+                order.customerEmail(),
+                order.total(),
+                order.status().name(),
+                order.version(),
+                order.createdAt(),
+                order.cursor().encode());
+    }
+}
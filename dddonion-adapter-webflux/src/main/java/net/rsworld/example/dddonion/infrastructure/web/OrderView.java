@@ -0,0 +1,17 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import java.math.BigDecimal;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+
+/** JSON representation of an order for {@code GET /orders/{id}} and {@code POST /orders/{id}/pay}. */
+public record OrderView(String id, String customerEmail, BigDecimal total, String status, long version) {
+
+    static OrderView of(Order order) {
+        return new OrderView(
+                order.id().value(),
+                order.customerEmail(),
+                order.total().toDecimal(),
+                order.status().name(),
+                order.version());
+    }
+}
@@ -0,0 +1,163 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import java.nio.charset.StandardCharsets;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.ObjectReadContext;
+import tools.jackson.core.async.ByteArrayFeeder;
+import tools.jackson.core.json.JsonFactory;
+
+/**
+ * Decodes a {@code {"email": "...", "total": 12.34}} request body into a {@link PlaceOrderCommand} with Jackson's
+ * non-blocking parser: every chunk is tokenized as it arrives and the two values are picked straight off the token
+ * stream, without a tree model, a map or data binding. Unknown properties are skipped. Bodies longer than
+ * {@code maxBytes} are refused with 413, from the {@code Content-Length} header before reading or while counting.
+ */
+final class PlaceOrderJsonReader {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonParser parser = JSON.createNonBlockingByteArrayParser(ObjectReadContext.empty());
+    private final ByteArrayFeeder feeder = (ByteArrayFeeder) parser.nonBlockingInputFeeder();
+    private final int maxBytes;
+    private int bytesRead;
+
+    private int depth;
+    private String property;
+    private boolean complete;
+    private String email;
+    private Money total;
+
+    private PlaceOrderJsonReader(int maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /** {@code contentLength} is the declared body size, -1 if unknown (chunked). */
+    static Mono<PlaceOrderCommand> read(Flux<DataBuffer> body, long contentLength, int maxBytes) {
+        if (contentLength > maxBytes) {
+            return Mono.error(tooLarge(maxBytes));
+        }
+        return Mono.using(
+                () -> new PlaceOrderJsonReader(maxBytes),
+                // handle() consumes each buffer without emitting it: then() would hand it to the discard hook, which
+                // releases it a second time after feed()
+                reader -> body.<Void>handle((buffer, sink) -> reader.feed(buffer))
+                        .then(Mono.fromCallable(reader::finish)),
+                PlaceOrderJsonReader::close);
+    }
+
+    /** Decodes one complete JSON object, e.g. a line of an NDJSON body, with the checks and errors of {@link #read}. */
+    static PlaceOrderCommand parse(String json, int maxBytes) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > maxBytes) {
+            throw tooLarge(maxBytes);
+        }
+        var reader = new PlaceOrderJsonReader(maxBytes);
+        try {
+            reader.feeder.feedInput(bytes, 0, bytes.length);
+            reader.drain();
+            return reader.finish();
+        } finally {
+            reader.close();
+        }
+    }
+
+    private void feed(DataBuffer buffer) {
+        byte[] chunk;
+        try {
+            bytesRead += buffer.readableByteCount();
+            if (bytesRead > maxBytes) {
+                throw tooLarge(maxBytes);
+            }
+            chunk = new byte[buffer.readableByteCount()];
+            buffer.read(chunk);
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+        feeder.feedInput(chunk, 0, chunk.length);
+        drain();
+    }
+
+    private PlaceOrderCommand finish() {
+        feeder.endOfInput();
+        drain();
+        if (!complete) {
+            throw badRequest("Incomplete JSON object", null);
+        }
+        try {
+            return new PlaceOrderCommand(email, total);
+        } catch (IllegalArgumentException e) {
+            throw badRequest(e.getMessage(), e);
+        }
+    }
+
+    private void drain() {
+        try {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                accept(token);
+            }
+        } catch (JacksonException e) {
+            throw badRequest("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private void accept(JsonToken token) {
+        if (complete) {
+            throw badRequest("Unexpected content after the JSON object", null);
+        }
+        if (depth == 0 && token != JsonToken.START_OBJECT) {
+            throw badRequest("Expected a JSON object", null);
+        }
+        switch (token) {
+            case START_OBJECT, START_ARRAY -> depth++;
+            case END_OBJECT, END_ARRAY -> complete = --depth == 0;
+            case PROPERTY_NAME -> property = depth == 1 ? parser.currentName() : property;
+            default -> {
+                if (depth == 1) {
+                    value(token);
+                }
+            }
+        }
+    }
+
+    private void value(JsonToken token) {
+        switch (property) {
+            case "email" -> email = token == JsonToken.VALUE_STRING ? parser.getString() : null;
+            case "total" -> {
+                if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                    throw badRequest("total must be a number", null);
+                }
+                try {
+                    // measured cheaper than Money.parse(getString()), which first copies the number into a String
+                    total = Money.of(parser.getDecimalValue());
+                } catch (IllegalArgumentException e) {
+                    throw badRequest(e.getMessage(), e);
+                }
+            }
+            default -> {}
+        }
+    }
+
+    private void close() {
+        parser.close();
+    }
+
+    private static ResponseStatusException badRequest(String reason, Throwable cause) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, reason, cause);
+    }
+
+    private static ResponseStatusException tooLarge(int maxBytes) {
+        return new ResponseStatusException(
+                HttpStatus.CONTENT_TOO_LARGE, "Order request body exceeds " + maxBytes + " bytes");
+    }
+}
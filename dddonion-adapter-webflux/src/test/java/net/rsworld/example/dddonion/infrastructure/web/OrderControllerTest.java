@@ -4,9 +4,26 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import net.rsworld.example.dddonion.application.order.query.OrderCursor;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.application.order.usecase.ConcurrentOrderUpdateException;
+import net.rsworld.example.dddonion.application.order.usecase.FindOrderUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.IdempotencyKeyReusedException;
+import net.rsworld.example.dddonion.application.order.usecase.ListOrdersUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.OrderPlacementRejectedException;
+import net.rsworld.example.dddonion.application.order.usecase.PayOrderUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
 import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.Order;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,18 +31,26 @@ import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /** WebFlux slice test for OrderController. Uses WebTestClient bound to the controller with a mocked UseCase. */
 class OrderControllerTest {
 
     private PlaceOrderUseCase placeOrderUseCase;
+    private FindOrderUseCase findOrderUseCase;
+    private PayOrderUseCase payOrderUseCase;
+    private ListOrdersUseCase listOrdersUseCase;
     private WebTestClient webTestClient;
 
     @BeforeEach
     void setUp() {
         placeOrderUseCase = mock(PlaceOrderUseCase.class);
-        OrderController controller = new OrderController(placeOrderUseCase);
+        findOrderUseCase = mock(FindOrderUseCase.class);
+        payOrderUseCase = mock(PayOrderUseCase.class);
+        listOrdersUseCase = mock(ListOrdersUseCase.class);
+        OrderController controller =
+                new OrderController(placeOrderUseCase, findOrderUseCase, payOrderUseCase, listOrdersUseCase);
         this.webTestClient = WebTestClient.bindToController(controller).build();
     }
 
@@ -34,7 +59,7 @@ class OrderControllerTest {
     void createReturnsOrderId() {
         // Arrange
         String email = "test@example.com";
-        BigDecimal total = new BigDecimal("12.34");
+        String total = "12.34";
         OrderId returnedId = new OrderId("ORD-123");
         when(placeOrderUseCase.handle(any(PlaceOrderCommand.class))).thenReturn(Mono.just(returnedId));
 
@@ -63,7 +88,7 @@ class OrderControllerTest {
         verify(placeOrderUseCase, times(1)).handle(cmdCaptor.capture());
         PlaceOrderCommand usedCmd = cmdCaptor.getValue();
         assertThat(usedCmd.customerEmail()).isEqualTo(email);
-        assertThat(usedCmd.total()).isEqualByComparingTo(total);
+        assertThat(usedCmd.total()).isEqualTo(Money.ofMinor(1234));
     }
 
     @Test
@@ -96,7 +121,7 @@ class OrderControllerTest {
     }
 
     @Test
-    @DisplayName("POST /orders maps BigDecimal and returns 400 on invalid numeric value")
+    @DisplayName("POST /orders returns 400 on a total that is no number or has more than two decimal places")
     void createRejectsInvalidTotal() {
         webTestClient
                 .post()
@@ -109,6 +134,18 @@ class OrderControllerTest {
                 .expectStatus()
                 .isBadRequest();
 
+        // a cent amount is exact; a tenth of a cent would have been rounded away by the DECIMAL(19,2) column
+        webTestClient
+                .post()
+                .uri(uriBuilder -> uriBuilder
+                        .path("/orders")
+                        .queryParam("email", "test@example.com")
+                        .queryParam("total", "12.345")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+
         verifyNoInteractions(placeOrderUseCase);
     }
 
@@ -148,6 +185,428 @@ class OrderControllerTest {
         verify(placeOrderUseCase, times(1)).handle(any());
     }
 
+    @Test
+    @DisplayName("POST /orders answers 503 with Retry-After when placement is shed at the concurrency limit")
+    void createReturnsServiceUnavailableWhenShed() {
+        when(placeOrderUseCase.handle(any(PlaceOrderCommand.class)))
+                .thenReturn(Mono.error(new OrderPlacementRejectedException("at limit", Duration.ofMillis(1500))));
+
+        webTestClient
+                .post()
+                .uri("/orders?email=a@b.ce&total=1")
+                .exchange()
+                .expectStatus()
+                .isEqualTo(503)
+                .expectHeader()
+                .valueEquals("Retry-After", "2");
+    }
+
+    @Nested
+    @DisplayName("Order lookup")
+    class OrderLookup {
+
+        @Test
+        @DisplayName("GET /orders/{id} returns the order as JSON")
+        void getReturnsOrder() {
+            OrderId id = new OrderId("ORD-7");
+            when(findOrderUseCase.handle(id))
+                    .thenReturn(Mono.just(new Order(id, "a@b.ce", Money.parse("12.34"), 1L, OrderStatus.PLACED)));
+
+            webTestClient
+                    .get()
+                    .uri("/orders/{id}", "ORD-7")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(OrderView.class)
+                    .isEqualTo(new OrderView("ORD-7", "a@b.ce", new BigDecimal("12.34"), "PLACED", 1L));
+        }
+
+        @Test
+        @DisplayName("GET /orders/{id} returns 404 for unknown ids")
+        void getReturnsNotFound() {
+            when(findOrderUseCase.handle(any())).thenReturn(Mono.empty());
+
+            webTestClient.get().uri("/orders/{id}", "nope").exchange().expectStatus().isNotFound();
+        }
+    }
+
+    @Nested
+    @DisplayName("Payment")
+    class Payment {
+
+        @Test
+        @DisplayName("POST /orders/{id}/pay returns the paid order as JSON")
+        void payReturnsPaidOrder() {
+            OrderId id = new OrderId("ORD-7");
+            when(payOrderUseCase.handle(id))
+                    .thenReturn(Mono.just(new Order(id, "a@b.ce", Money.parse("12.34"), 2L, OrderStatus.PAID)));
+
+            webTestClient
+                    .post()
+                    .uri("/orders/{id}/pay", "ORD-7")
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(OrderView.class)
+                    .isEqualTo(new OrderView("ORD-7", "a@b.ce", new BigDecimal("12.34"), "PAID", 2L));
+        }
+
+        @Test
+        @DisplayName("POST /orders/{id}/pay returns 404 for unknown ids")
+        void payReturnsNotFound() {
+            when(payOrderUseCase.handle(any())).thenReturn(Mono.empty());
+
+            webTestClient.post().uri("/orders/{id}/pay", "nope").exchange().expectStatus().isNotFound();
+        }
+
+        @Test
+        @DisplayName("POST /orders/{id}/pay returns 409 for orders that are not payable or stay contended")
+        void payReturnsConflict() {
+            when(payOrderUseCase.handle(new OrderId("paid")))
+                    .thenReturn(Mono.error(new OrderNotPayableException(new OrderId("paid"), OrderStatus.PAID)));
+            when(payOrderUseCase.handle(new OrderId("hot")))
+                    .thenReturn(Mono.error(new ConcurrentOrderUpdateException("contended", null)));
+
+            webTestClient.post().uri("/orders/{id}/pay", "paid").exchange().expectStatus().isEqualTo(409);
+            webTestClient.post().uri("/orders/{id}/pay", "hot").exchange().expectStatus().isEqualTo(409);
+        }
+
+        @Test
+        @DisplayName("POST /orders/{id}/pay does not turn other IllegalStateExceptions into 409")
+        void payReturnsServerErrorForCorruptState() {
+            when(payOrderUseCase.handle(any()))
+                    .thenReturn(Mono.error(new IllegalStateException("History of order x has a gap")));
+
+            webTestClient.post().uri("/orders/{id}/pay", "x").exchange().expectStatus().is5xxServerError();
+        }
+    }
+
+    @Nested
+    @DisplayName("Listing")
+    class Listing {
+
+        @Test
+        @DisplayName("GET /orders passes filters, cursor and limit to the use case and returns items with cursors")
+        void listReturnsPageWithCursors() {
+            Instant createdAt = Instant.parse("2026-01-02T03:04:05.123456Z");
+            OrderCursor after = new OrderCursor(
+                    Instant.parse("2026-01-01T00:00:00Z"), new OrderId("0194b1a4-7e00-7000-8000-000000000001"));
+            OrderSummary order = new OrderSummary(
+                    new OrderId("0194b1a4-7e00-7000-8000-000000000002"),
+                    "a@b.ce",
+                    new BigDecimal("12.34"),
+                    OrderStatus.PAID,
+                    2L,
+                    createdAt);
+            when(listOrdersUseCase.handle(any())).thenReturn(Flux.just(order));
+
+            List<OrderListItem> items = webTestClient
+                    .get()
+                    .uri(uriBuilder -> uriBuilder
+                            .path("/orders")
+                            .queryParam("status", "paid")
+                            .queryParam("customer", "a@b.ce")
+                            .queryParam("after", after.encode())
+                            .queryParam("limit", 20)
+                            .build())
+                    .accept(MediaType.APPLICATION_JSON)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBodyList(OrderListItem.class)
+                    .returnResult()
+                    .getResponseBody();
+
+            var expected = new OrderListItem(
+                    order.id().value(),
+                    "a@b.ce",
+                    new BigDecimal("12.34"),
+                    "PAID",
+                    2L,
+                    createdAt,
+                    order.cursor().encode());
+            assertThat(items).containsExactly(expected);
+            verify(listOrdersUseCase).handle(new OrderListQuery(OrderStatus.PAID, "a@b.ce", after, 20));
+        }
+
+        @Test
+        @DisplayName("GET /orders without parameters asks for the first page of 50")
+        void listDefaultsToFirstPage() {
+            when(listOrdersUseCase.handle(any())).thenReturn(Flux.empty());
+
+            webTestClient.get().uri("/orders").exchange().expectStatus().isOk();
+
+            verify(listOrdersUseCase).handle(new OrderListQuery(null, null, null, 50));
+        }
+
+        @Test
+        @DisplayName("GET /orders returns 400 for an unknown status, a broken cursor or a limit below 1")
+        void listRejectsInvalidParameters() {
+            webTestClient.get().uri("/orders?status=shipped").exchange().expectStatus().isBadRequest();
+            webTestClient.get().uri("/orders?after=not-a-cursor").exchange().expectStatus().isBadRequest();
+            webTestClient.get().uri("/orders?limit=0").exchange().expectStatus().isBadRequest();
+            verifyNoInteractions(listOrdersUseCase);
+        }
+    }
+
+    @Nested
+    @DisplayName("Placement via JSON body")
+    class JsonPlacement {
+
+        @Test
+        @DisplayName("POST /orders with a JSON body places the order and returns its id as plain text")
+        void createFromJsonReturnsOrderId() {
+            when(placeOrderUseCase.handle(any(PlaceOrderCommand.class)))
+                    .thenReturn(Mono.just(new OrderId("ORD-9")));
+
+            webTestClient
+                    .post()
+                    .uri("/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.TEXT_PLAIN)
+                    .bodyValue("{\"email\":\"json@example.com\",\"total\":12.34}")
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(String.class)
+                    .isEqualTo("ORD-9");
+
+            verify(placeOrderUseCase).handle(new PlaceOrderCommand("json@example.com", Money.parse("12.34")));
+        }
+
+        @Test
+        @DisplayName("POST /orders returns 400 for malformed JSON, a string total or an invalid email")
+        void createFromJsonRejectsInvalidBody() {
+            for (String body : List.of(
+                    "{\"email\":\"a@b.ce\",\"total\":",
+                    "{\"email\":\"a@b.ce\",\"total\":\"1\"}",
+                    "{\"email\":\"x\",\"total\":1}")) {
+                webTestClient
+                        .post()
+                        .uri("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(body)
+                        .exchange()
+                        .expectStatus()
+                        .isBadRequest();
+            }
+            verifyNoInteractions(placeOrderUseCase);
+        }
+
+        @Test
+        @DisplayName("POST /orders returns 413 when the declared body exceeds the limit")
+        void createFromJsonRejectsOversizedBody() {
+            String padding = "x".repeat(OrderController.MAX_JSON_BODY_BYTES);
+
+            webTestClient
+                    .post()
+                    .uri("/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue("{\"email\":\"a@b.ce\",\"total\":1,\"note\":\"" + padding + "\"}")
+                    .exchange()
+                    .expectStatus()
+                    .isEqualTo(413);
+            verifyNoInteractions(placeOrderUseCase);
+        }
+    }
+
+    @Nested
+    @DisplayName("Idempotency-Key")
+    class IdempotencyKey {
+
+        @Test
+        @DisplayName("POST /orders passes the Idempotency-Key header to the use case, for params and JSON alike")
+        void createPassesIdempotencyKey() {
+            when(placeOrderUseCase.handle(any(PlaceOrderCommand.class), eq("key-1")))
+                    .thenReturn(Mono.just(new OrderId("ORD-1")));
+
+            webTestClient
+                    .post()
+                    .uri(uri -> uri.path("/orders")
+                            .queryParam("email", "a@b.ce")
+                            .queryParam("total", "1.00")
+                            .build())
+                    .header("Idempotency-Key", "key-1")
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(String.class)
+                    .isEqualTo("ORD-1");
+            webTestClient
+                    .post()
+                    .uri("/orders")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("Idempotency-Key", "key-1")
+                    .bodyValue("{\"email\":\"a@b.ce\",\"total\":1.00}")
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectBody(String.class)
+                    .isEqualTo("ORD-1");
+
+            verify(placeOrderUseCase, times(2))
+                    .handle(new PlaceOrderCommand("a@b.ce", Money.parse("1.00")), "key-1");
+            verify(placeOrderUseCase, never()).handle(any(PlaceOrderCommand.class));
+        }
+
+        @Test
+        @DisplayName("POST /orders returns 400 for a blank or overlong Idempotency-Key")
+        void createRejectsInvalidIdempotencyKey() {
+            for (String key : List.of(" ", "k".repeat(OrderController.MAX_IDEMPOTENCY_KEY_LENGTH + 1))) {
+                webTestClient
+                        .post()
+                        .uri("/orders?email=a@b.ce&total=1")
+                        .header("Idempotency-Key", key)
+                        .exchange()
+                        .expectStatus()
+                        .isBadRequest();
+                webTestClient
+                        .post()
+                        .uri("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", key)
+                        .bodyValue("{\"email\":\"a@b.ce\",\"total\":1}")
+                        .exchange()
+                        .expectStatus()
+                        .isBadRequest();
+            }
+            verifyNoInteractions(placeOrderUseCase);
+        }
+
+        @Test
+        @DisplayName("POST /orders returns 422 when the Idempotency-Key was used for a different request")
+        void createRejectsReusedIdempotencyKey() {
+            when(placeOrderUseCase.handle(any(PlaceOrderCommand.class), eq("key-1")))
+                    .thenReturn(Mono.error(new IdempotencyKeyReusedException("key-1")));
+
+            webTestClient
+                    .post()
+                    .uri("/orders?email=a@b.ce&total=2.00")
+                    .header("Idempotency-Key", "key-1")
+                    .exchange()
+                    .expectStatus()
+                    .isEqualTo(422);
+        }
+    }
+
+    @Nested
+    @DisplayName("Batch placement via NDJSON")
+    class BatchPlacement {
+
+        @Test
+        @DisplayName("POST /orders/batch streams one result per line and rejects invalid lines individually")
+        void createAllReturnsResultPerLine() {
+            when(placeOrderUseCase.handleAll(any())).thenAnswer(inv -> {
+                Flux<PlaceOrderCommand> commands = inv.getArgument(0);
+                return commands.map(cmd -> cmd.customerEmail().startsWith("fail")
+                        ? PlaceOrderResult.failed("db unavailable")
+                        : PlaceOrderResult.placed(new OrderId("ORD-" + cmd.customerEmail())));
+            });
+
+            String body = """
+                    {"email":"a@b.ce","total":1.00}
+                    {"email":"not-an-email","total":2.00}
+                    {"email":"fail@b.ce","total":3.00}
+                    {"email":"c@d.ef","total":-1}
+                    {"email":"e@f.gh","total":4.00}
+                    """;
+
+            List<BatchLineResult> results = webTestClient
+                    .post()
+                    .uri("/orders/batch")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(body)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .expectHeader()
+                    .contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                    .returnResult(BatchLineResult.class)
+                    .getResponseBody()
+                    .collectList()
+                    .block();
+
+            assertThat(results)
+                    .extracting(BatchLineResult::line)
+                    .containsExactlyInAnyOrder(1L, 2L, 3L, 4L, 5L);
+            assertThat(results)
+                    .filteredOn(r -> r.orderId() != null)
+                    .extracting(BatchLineResult::orderId)
+                    .containsExactly("ORD-a@b.ce", "ORD-e@f.gh");
+            assertThat(results)
+                    .filteredOn(r -> r.line() == 2L)
+                    .singleElement()
+                    .extracting(BatchLineResult::error)
+                    .asString()
+                    .contains("valid email");
+            assertThat(results)
+                    .filteredOn(r -> r.line() == 3L)
+                    .singleElement()
+                    .extracting(BatchLineResult::error)
+                    .isEqualTo("db unavailable");
+            assertThat(results)
+                    .filteredOn(r -> r.line() == 4L)
+                    .singleElement()
+                    .extracting(BatchLineResult::error)
+                    .asString()
+                    .contains("Total must be >= 0");
+        }
+
+        @Test
+        @DisplayName("POST /orders/batch rejects malformed JSON lines individually and keeps streaming")
+        void createAllRejectsMalformedLines() {
+            when(placeOrderUseCase.handleAll(any())).thenAnswer(inv -> {
+                Flux<PlaceOrderCommand> commands = inv.getArgument(0);
+                return commands.map(cmd -> PlaceOrderResult.placed(new OrderId("ORD-" + cmd.customerEmail())));
+            });
+
+            String body = """
+                    {"email":"a@b.ce","total":1.00}
+                    {"email":"x@y.ze","total":
+                    {"email":"x@y.ze","total":"abc"}
+
+                    {"email":"e@f.gh","total":4.00}
+                    """;
+
+            List<BatchLineResult> results = webTestClient
+                    .post()
+                    .uri("/orders/batch")
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .accept(MediaType.APPLICATION_NDJSON)
+                    .bodyValue(body)
+                    .exchange()
+                    .expectStatus()
+                    .isOk()
+                    .returnResult(BatchLineResult.class)
+                    .getResponseBody()
+                    .collectList()
+                    .block();
+
+            assertThat(results)
+                    .extracting(BatchLineResult::line)
+                    .containsExactlyInAnyOrder(1L, 2L, 3L, 5L);
+            assertThat(results)
+                    .filteredOn(r -> r.orderId() != null)
+                    .extracting(BatchLineResult::orderId)
+                    .containsExactly("ORD-a@b.ce", "ORD-e@f.gh");
+            assertThat(results)
+                    .filteredOn(r -> r.line() == 2L)
+                    .singleElement()
+                    .extracting(BatchLineResult::error)
+                    .asString()
+                    .contains("JSON");
+            assertThat(results)
+                    .filteredOn(r -> r.line() == 3L)
+                    .singleElement()
+                    .extracting(BatchLineResult::error)
+                    .isEqualTo("total must be a number");
+        }
+    }
+
     @Nested
     @DisplayName("Content negotiation")
     class ContentNegotiation {
@@ -0,0 +1,82 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import java.time.Duration;
+import java.time.Instant;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.codec.json.JacksonJsonEncoder;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+import tools.jackson.databind.json.JsonMapper;
+
+/** WebFlux slice test for the SSE endpoint, bound to a real {@link OrderEventStream}. */
+class OrderEventControllerTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> SSE =
+            new ParameterizedTypeReference<>() {};
+
+    private OrderEventStream stream;
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        stream = new OrderEventStream(new OrderEventStream.Settings(16, OrderEventStream.Overflow.DROP_OLDEST, 16));
+        var json = JsonMapper.builder().addModule(new MoneyJsonModule()).build();
+        webTestClient = WebTestClient.bindToController(new OrderEventController(stream))
+                .httpMessageCodecs(codecs -> codecs.defaultCodecs().jacksonJsonEncoder(new JacksonJsonEncoder(json)))
+                .build()
+                .mutate()
+                .responseTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @Test
+    @DisplayName("GET /orders/events replays after Last-Event-ID and sends id, type and JSON payload per event")
+    void streamsEventsAsServerSentEvents() {
+        stream.publish(
+                new OrderPlaced("ORD-1", 1, Instant.parse("2026-01-01T00:00:00Z"), "a@b.ce", Money.ofMinor(1000)));
+        stream.publish(new OrderPaid("ORD-1", 2, Instant.parse("2026-01-01T00:01:00Z")));
+
+        var events = webTestClient
+                .get()
+                .uri("/orders/events")
+                .header("Last-Event-ID", "1")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(SSE)
+                .getResponseBody();
+
+        StepVerifier.create(events.take(2))
+                .expectNextMatches(e -> "2".equals(e.id())
+                        && "OrderPaid".equals(e.event())
+                        && e.data().contains("\"orderId\":\"ORD-1\"")
+                        && e.data().contains("\"sequence\":2"))
+                .then(() -> stream.publish(new OrderPlaced("ORD-2", 1, Instant.now(), "c@d.ef", Money.ofMinor(100))))
+                .expectNextMatches(e -> "3".equals(e.id())
+                        && "OrderPlaced".equals(e.event())
+                        && e.data().contains("\"total\":1.00"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("GET /orders/events rejects a Last-Event-ID that this stream never issued")
+    void rejectsInvalidLastEventId() {
+        webTestClient
+                .get()
+                .uri("/orders/events")
+                .header("Last-Event-ID", "abc")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                .isBadRequest();
+    }
+}
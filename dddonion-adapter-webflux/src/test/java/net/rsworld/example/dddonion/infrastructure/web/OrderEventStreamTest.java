@@ -0,0 +1,146 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import net.rsworld.example.dddonion.infrastructure.web.OrderEventStream.Overflow;
+import net.rsworld.example.dddonion.infrastructure.web.OrderEventStream.Settings;
+import net.rsworld.example.dddonion.infrastructure.web.OrderEventStream.StreamedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class OrderEventStreamTest {
+
+    @Test
+    @DisplayName("Every subscriber receives live events in publication order with increasing ids")
+    void fansOutLiveEvents() {
+        var stream = new OrderEventStream(new Settings(16, Overflow.DROP_OLDEST, 16));
+        var first = stream.subscribe(null).map(StreamedEvent::id).take(2);
+        var second = stream.subscribe(null).map(e -> e.event().type()).take(2);
+
+        StepVerifier.create(first)
+                .then(() -> StepVerifier.create(second)
+                        .then(() -> {
+                            stream.publish(placed(1));
+                            stream.publish(paid(2));
+                        })
+                        .expectNext("OrderPlaced", "OrderPaid")
+                        .verifyComplete())
+                .expectNext(1L, 2L)
+                .verifyComplete();
+        assertThat(stream.subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Last-Event-ID resumes from the replay window, then continues live without duplicates")
+    void resumesFromReplayWindow() {
+        var stream = new OrderEventStream(new Settings(16, Overflow.DROP_OLDEST, 4));
+        LongStream.rangeClosed(1, 6).forEach(seq -> stream.publish(placed(seq)));
+
+        StepVerifier.create(stream.subscribe(4L).map(StreamedEvent::id).take(3))
+                .expectNext(5L, 6L)
+                .then(() -> stream.publish(placed(7)))
+                .expectNext(7L)
+                .verifyComplete();
+        // ids 1 and 2 fell out of the four-event window: resume at the oldest kept event
+        StepVerifier.create(stream.subscribe(0L).map(StreamedEvent::id).take(4))
+                .expectNext(4L, 5L, 6L, 7L)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST keeps a slow subscriber's buffer bounded and counts what it lost")
+    void dropOldest_boundsSlowSubscriber() {
+        var stream = new OrderEventStream(new Settings(4, Overflow.DROP_OLDEST, 0));
+
+        StepVerifier.create(stream.subscribe(null).map(StreamedEvent::id), 0)
+                .then(() -> LongStream.rangeClosed(1, 10).forEach(seq -> stream.publish(placed(seq))))
+                .thenRequest(5)
+                // event 1 was already handed on for writing, the buffer of four kept the newest
+                .expectNext(1L, 7L, 8L, 9L, 10L)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+        assertThat(stream.droppedOldest()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("DISCONNECT detaches a subscriber that falls behind and ends its stream after the buffered events")
+    void disconnect_endsSlowSubscriber() {
+        var stream = new OrderEventStream(new Settings(4, Overflow.DISCONNECT, 16));
+        var fast = new CopyOnWriteArrayList<Long>();
+        var fastSubscription = stream.subscribe(null).map(StreamedEvent::id).subscribe(fast::add);
+
+        StepVerifier.create(stream.subscribe(null).map(StreamedEvent::id), 0)
+                .then(() -> LongStream.rangeClosed(1, 10).forEach(seq -> {
+                    stream.publish(placed(seq));
+                    // delivery is asynchronous: pace the burst so only the subscriber requesting nothing falls behind
+                    awaitSize(fast, (int) seq);
+                }))
+                .then(() -> assertThat(stream.disconnected()).isEqualTo(1))
+                .thenRequest(Long.MAX_VALUE)
+                // event 1 was already handed on for writing, then the buffer of four
+                .expectNext(1L, 2L, 3L, 4L, 5L)
+                .verifyComplete();
+        assertThat(fast).hasSize(10);
+        fastSubscription.dispose();
+        assertThat(stream.subscribers()).isZero();
+    }
+
+    @Test
+    @DisplayName("Subscribers are served off the publishing thread, which only hands the event on")
+    void deliversOffThePublishingThread() {
+        var stream = new OrderEventStream(new Settings(16, Overflow.DROP_OLDEST, 16));
+        var publisher = Thread.currentThread();
+
+        StepVerifier.create(stream.subscribe(null).map(e -> Thread.currentThread()).take(1))
+                .then(() -> stream.publish(placed(1)))
+                .assertNext(thread -> assertThat(thread).isNotSameAs(publisher))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("Concurrent publishers reach a subscriber in id order without gaps")
+    void concurrentPublishers_keepIdOrder() {
+        var stream = new OrderEventStream(new Settings(4096, Overflow.DROP_OLDEST, 0));
+        var ids = stream.subscribe(null).map(StreamedEvent::id).take(2000).collectList();
+
+        StepVerifier.create(ids)
+                .then(() -> IntStream.range(0, 4)
+                        .mapToObj(t -> CompletableFuture.runAsync(
+                                () -> LongStream.rangeClosed(1, 500).forEach(seq -> stream.publish(placed(seq)))))
+                        .forEach(CompletableFuture::join))
+                .assertNext(list -> assertThat(list).isEqualTo(LongStream.rangeClosed(1, 2000)
+                        .boxed()
+                        .toList()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    private static void awaitSize(List<?> list, int size) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(list).hasSizeGreaterThanOrEqualTo(size);
+    }
+
+    private static DomainEvent placed(long sequence) {
+        return new OrderPlaced("order-" + sequence, 1, Instant.now(), "a@b.ce", Money.ofMinor(100));
+    }
+
+    private static DomainEvent paid(long sequence) {
+        return new OrderPaid("order-" + sequence, 2, Instant.now());
+    }
+}
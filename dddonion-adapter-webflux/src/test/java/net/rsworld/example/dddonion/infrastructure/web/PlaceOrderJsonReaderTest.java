@@ -0,0 +1,72 @@
+package net.rsworld.example.dddonion.infrastructure.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class PlaceOrderJsonReaderTest {
+
+    private static final DefaultDataBufferFactory BUFFERS = DefaultDataBufferFactory.sharedInstance;
+
+    @Test
+    @DisplayName("Decodes a body split at arbitrary byte positions, skipping unknown and nested properties")
+    void decodesChunkedBody() {
+        String json = "{\"note\":{\"tags\":[\"äöü€\",{\"email\":\"nested@x.y\"}]},\"email\":\"json@example.com\","
+                + "\"total\":12.340,\"extra\":null}";
+
+        StepVerifier.create(PlaceOrderJsonReader.read(chunks(json, 3), -1, 4096))
+                .expectNext(new PlaceOrderCommand("json@example.com", Money.parse("12.340")))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Refuses a body without Content-Length as soon as it grows past the limit")
+    void refusesOversizedStream() {
+        String json = "{\"email\":\"a@b.ce\",\"total\":1,\"note\":\"" + "x".repeat(200) + "\"}";
+
+        StepVerifier.create(PlaceOrderJsonReader.read(chunks(json, 16), -1, 64))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.CONTENT_TOO_LARGE))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Reads the total exactly in cents, also in exponent notation, and rejects fractions of a cent")
+    void readsTotalInMinorUnits() {
+        StepVerifier.create(PlaceOrderJsonReader.read(chunks("{\"email\":\"a@b.ce\",\"total\":1.25e1}", 5), -1, 4096))
+                .expectNext(new PlaceOrderCommand("a@b.ce", Money.ofMinor(1250)))
+                .verifyComplete();
+        StepVerifier.create(PlaceOrderJsonReader.read(chunks("{\"email\":\"a@b.ce\",\"total\":0.001}", 5), -1, 4096))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("Rejects a second JSON value after the order object")
+    void rejectsTrailingContent() {
+        StepVerifier.create(PlaceOrderJsonReader.read(chunks("{\"email\":\"a@b.ce\",\"total\":1} {}", 8), -1, 4096))
+                .expectErrorSatisfies(e -> assertThat(((ResponseStatusException) e).getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST))
+                .verify();
+    }
+
+    private static Flux<DataBuffer> chunks(String json, int size) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return Flux.range(0, (bytes.length + size - 1) / size).map(i -> {
+            int from = i * size;
+            return BUFFERS.wrap(Arrays.copyOfRange(bytes, from, Math.min(bytes.length, from + size)));
+        });
+    }
+}
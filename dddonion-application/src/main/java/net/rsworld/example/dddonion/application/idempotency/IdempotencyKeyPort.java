@@ -0,0 +1,19 @@
+package net.rsworld.example.dddonion.application.idempotency;
+
+import reactor.core.publisher.Mono;
+
+/** Port to the store of completed {@code Idempotency-Key}s, with the order and the request fingerprint of each. */
+public interface IdempotencyKeyPort {
+
+    /** The placement recorded under {@code key}; empty if the key is unknown or expired. */
+    Mono<IdempotencyRecord> find(String key);
+
+    /**
+     * Records {@code placement} under {@code key}, unless a live entry exists already. Emits the placement now recorded
+     * for the key: {@code placement}, or the one of whoever recorded the key first.
+     */
+    Mono<IdempotencyRecord> remember(String key, IdempotencyRecord placement);
+
+    /** Deletes expired keys, at most {@code limit}; emits how many were deleted. */
+    Mono<Integer> purgeExpired(int limit);
+}
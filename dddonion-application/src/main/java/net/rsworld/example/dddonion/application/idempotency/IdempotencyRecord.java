@@ -0,0 +1,18 @@
+package net.rsworld.example.dddonion.application.idempotency;
+
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+
+/**
+ * What an {@code Idempotency-Key} stands for: the order it placed and the fingerprint of the request that placed it.
+ * Entries recorded before fingerprints were stored have none and match any request.
+ */
+public record IdempotencyRecord(OrderId orderId, String fingerprint) {
+
+    public IdempotencyRecord {
+        if (orderId == null) throw new IllegalArgumentException("orderId must not be null");
+    }
+
+    public boolean matches(String requestFingerprint) {
+        return fingerprint == null || fingerprint.equals(requestFingerprint);
+    }
+}
@@ -0,0 +1,40 @@
+package net.rsworld.example.dddonion.application.order.query;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+
+/**
+ * Seek position in the order listing: the {@code (createdAt, id)} key of the last order a client has seen. Handed out
+ * as an opaque URL-safe token so clients cannot come to rely on its layout.
+ */
+public record OrderCursor(Instant createdAt, OrderId id) {
+
+    public OrderCursor {
+        if (createdAt == null || id == null) throw new IllegalArgumentException("createdAt and id are required");
+    }
+
+    public String encode() {
+        String plain = createdAt.getEpochSecond() + "." + createdAt.getNano() + "." + id.value();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(plain.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()} */
+    public static OrderCursor parse(String token) {
+        try {
+            String plain = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            String[] parts = plain.split("\\.", 3);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            Instant createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            String id = UUID.fromString(parts[2]).toString();
+            return new OrderCursor(createdAt, new OrderId(id));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package net.rsworld.example.dddonion.application.order.query;
+
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+
+/**
+ * One page of the order listing in {@code (createdAt, id)} order: at most {@code limit} orders after {@code after}
+ * ({@code null} for the first page), optionally restricted to a {@code status} and/or {@code customerEmail}.
+ */
+public record OrderListQuery(OrderStatus status, String customerEmail, OrderCursor after, int limit) {
+
+    public OrderListQuery {
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+    }
+
+    public OrderListQuery withLimit(int limit) {
+        return new OrderListQuery(status, customerEmail, after, limit);
+    }
+}
@@ -0,0 +1,13 @@
+package net.rsworld.example.dddonion.application.order.query;
+
+import reactor.core.publisher.Flux;
+
+/** Read-side port for listing orders, implemented next to the store that holds them. */
+public interface OrderQueryPort {
+
+    /**
+     * Emits the orders of one page in {@code (createdAt, id)} order as they are read. Implementations seek to
+     * {@link OrderListQuery#after()} instead of skipping rows, so every page costs the same.
+     */
+    Flux<OrderSummary> list(OrderListQuery query);
+}
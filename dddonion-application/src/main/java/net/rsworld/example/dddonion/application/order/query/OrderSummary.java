@@ -0,0 +1,16 @@
+package net.rsworld.example.dddonion.application.order.query;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+
+/** Read model of one listed order; not an aggregate, nothing can be changed through it. */
+public record OrderSummary(
+        OrderId id, String customerEmail, BigDecimal total, OrderStatus status, long version, Instant createdAt) {
+
+    /** Position right after this order, to continue the listing from. */
+    public OrderCursor cursor() {
+        return new OrderCursor(createdAt, id);
+    }
+}
@@ -0,0 +1,106 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrency limit that follows the observed latency (gradient algorithm): a long-term average of the call latency
+ * serves as the unloaded baseline, and every finished call moves the limit towards
+ * {@code limit * min(1, tolerance * baseline / latency) + sqrt(limit)}. While calls take no longer than
+ * {@code rttTolerance} times the baseline the limit grows by the square-root headroom; once they queue up in the
+ * connection pool the gradient drops below 1 and the limit shrinks until latency recovers. {@code smoothing} damps each
+ * step, {@code minLimit}/{@code maxLimit} bound it.
+ *
+ * <p>Calls beyond the limit are not queued: {@link #tryAcquire()} fails at once, so callers can shed the load
+ * instead of waiting for a timeout.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /** Samples over which the baseline latency is averaged. */
+    static final int BASELINE_WINDOW = 500;
+
+    private final Settings settings;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private volatile double limit;
+    private double baselineNanos; // guarded by this
+
+    public AdaptiveConcurrencyLimiter(Settings settings) {
+        this.settings = settings;
+        this.limit = settings.initialLimit();
+    }
+
+    /** Admits a call if fewer than {@link #limit()} are in flight; every admitted call must {@link #release} once. */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /** Ends an admitted call that took {@code latencyNanos} and adjusts the limit. */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        update(Math.max(1, latencyNanos), inFlightBefore);
+    }
+
+    /** Ends an admitted call without a usable latency, e.g. a cancelled one. */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void update(long latencyNanos, int inFlightBefore) {
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) / BASELINE_WINDOW;
+        }
+        // latency fell well below the baseline (load dropped or the database recovered): let the baseline catch up
+        if (baselineNanos > 2.0 * latencyNanos) {
+            baselineNanos *= 0.95;
+        }
+        double current = limit;
+        // a mostly idle limiter learns nothing about the limit from fast calls
+        if (inFlightBefore < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, settings.rttTolerance() * baselineNanos / latencyNanos));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - settings.smoothing()) + target * settings.smoothing();
+        limit = Math.max(settings.minLimit(), Math.min(settings.maxLimit(), next));
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /** Calls refused by {@link #tryAcquire()} so far. */
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public Settings settings() {
+        return settings;
+    }
+
+    /** Bounds and dynamics of the limit ({@code dddonion.orders.place.limiter.*}). */
+    public record Settings(int initialLimit, int minLimit, int maxLimit, double rttTolerance, double smoothing) {
+        public Settings {
+            if (minLimit < 1) throw new IllegalArgumentException("minLimit must be >= 1");
+            if (maxLimit < minLimit) throw new IllegalArgumentException("maxLimit must be >= minLimit");
+            if (initialLimit < minLimit || initialLimit > maxLimit)
+                throw new IllegalArgumentException("initialLimit must be between minLimit and maxLimit");
+            if (rttTolerance < 1) throw new IllegalArgumentException("rttTolerance must be >= 1");
+            if (smoothing <= 0 || smoothing > 1) throw new IllegalArgumentException("smoothing must be in (0, 1]");
+        }
+    }
+}
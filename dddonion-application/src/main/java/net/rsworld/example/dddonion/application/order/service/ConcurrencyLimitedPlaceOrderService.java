@@ -0,0 +1,55 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import java.time.Duration;
+import net.rsworld.example.dddonion.application.order.usecase.OrderPlacementRejectedException;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Load shedding in front of the placement: admits a call only within the {@link AdaptiveConcurrencyLimiter}'s current
+ * limit and feeds its latency back, which is dominated by {@code OrderRepository.save}. Calls beyond the limit fail
+ * immediately with {@link OrderPlacementRejectedException} instead of queueing for a pool connection.
+ *
+ * <p>{@link #handleAll} passes through: a batch stream is already bounded by its own concurrency.
+ */
+public class ConcurrencyLimitedPlaceOrderService implements PlaceOrderUseCase {
+
+    private final PlaceOrderUseCase delegate;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Duration retryAfter;
+
+    public ConcurrencyLimitedPlaceOrderService(
+            PlaceOrderUseCase delegate, AdaptiveConcurrencyLimiter limiter, Duration retryAfter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    public Mono<OrderId> handle(PlaceOrderCommand cmd) {
+        return Mono.defer(() -> {
+            if (!limiter.tryAcquire()) {
+                return Mono.error(new OrderPlacementRejectedException(
+                        "Order placement at its concurrency limit of " + limiter.limit(), retryAfter));
+            }
+            long start = System.nanoTime();
+            return delegate.handle(cmd).doFinally(signal -> {
+                if (signal == SignalType.CANCEL) {
+                    limiter.release();
+                } else {
+                    limiter.release(System.nanoTime() - start);
+                }
+            });
+        });
+    }
+
+    @Override
+    public Flux<PlaceOrderResult> handleAll(Flux<PlaceOrderCommand> commands) {
+        return delegate.handleAll(commands);
+    }
+}
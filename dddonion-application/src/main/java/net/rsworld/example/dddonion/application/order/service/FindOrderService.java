@@ -0,0 +1,22 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import net.rsworld.example.dddonion.application.order.usecase.FindOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import reactor.core.publisher.Mono;
+
+/** Application-Service for the read path; maps the Optional of the port to an empty Mono. */
+public class FindOrderService implements FindOrderUseCase {
+
+    private final OrderRepository orders;
+
+    public FindOrderService(OrderRepository orders) {
+        this.orders = orders;
+    }
+
+    @Override
+    public Mono<Order> handle(OrderId id) {
+        return Mono.fromCompletionStage(() -> orders.findById(id)).flatMap(Mono::justOrEmpty);
+    }
+}
@@ -0,0 +1,89 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import net.rsworld.example.dddonion.application.order.usecase.IdempotencyKeyReusedException;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorator that places at most one order per {@code Idempotency-Key}. Concurrent requests with the same key on this
+ * instance share one placement (single-flight); a key seen before answers from the {@link IdempotencyKeyPort} without
+ * placing anything. A failed placement records nothing, so the client's retry places the order again.
+ *
+ * <p>Each key is recorded with a fingerprint of the command it placed. A request that reuses a key with a different
+ * command (another customer or total) fails with {@link IdempotencyKeyReusedException} instead of being answered with
+ * an order it did not ask for.
+ *
+ * <p>Across instances the store decides: two instances racing on a brand-new key may both place an order, but both
+ * answer with the one recorded first.
+ */
+@Slf4j
+public class IdempotentPlaceOrderService implements PlaceOrderUseCase {
+
+    private final PlaceOrderUseCase delegate;
+    private final IdempotencyKeyPort keys;
+    private final Map<String, Mono<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotentPlaceOrderService(PlaceOrderUseCase delegate, IdempotencyKeyPort keys) {
+        this.delegate = delegate;
+        this.keys = keys;
+    }
+
+    @Override
+    public Mono<OrderId> handle(PlaceOrderCommand cmd) {
+        return delegate.handle(cmd);
+    }
+
+    @Override
+    public Mono<OrderId> handle(PlaceOrderCommand cmd, String idempotencyKey) {
+        if (idempotencyKey == null) {
+            return delegate.handle(cmd);
+        }
+        String fingerprint = fingerprint(cmd);
+        // a request joining an in-flight placement is checked the same way as one replayed from the store
+        return Mono.defer(() -> inFlight.computeIfAbsent(idempotencyKey, key -> placeOnce(key, cmd, fingerprint)))
+                .flatMap(recorded -> recorded.matches(fingerprint)
+                        ? Mono.just(recorded.orderId())
+                        : Mono.error(new IdempotencyKeyReusedException(idempotencyKey)));
+    }
+
+    private Mono<IdempotencyRecord> placeOnce(String key, PlaceOrderCommand cmd, String fingerprint) {
+        return keys.find(key)
+                .doOnNext(recorded -> log.debug(
+                        "Idempotency-Key {} replayed order {}", key, recorded.orderId().value()))
+                .switchIfEmpty(Mono.defer(() -> delegate.handle(cmd)
+                        .flatMap(id -> keys.remember(key, new IdempotencyRecord(id, fingerprint)))))
+                // the entry is only replaced after it completed, so this always removes the own entry
+                .doFinally(signal -> inFlight.remove(key))
+                .cache();
+    }
+
+    /** SHA-256 over customer and total, as 64 hex digits; equal commands always get the same fingerprint. */
+    private static String fingerprint(PlaceOrderCommand cmd) {
+        String canonical = cmd.customerEmail() + '\n' + cmd.total().minorUnits() + ' '
+                + cmd.total().currency().getCurrencyCode();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public Flux<PlaceOrderResult> handleAll(Flux<PlaceOrderCommand> commands) {
+        return delegate.handleAll(commands);
+    }
+}
@@ -0,0 +1,31 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.application.order.usecase.ListOrdersUseCase;
+import reactor.core.publisher.Flux;
+
+/** Application-Service for the order listing; caps the page size so no client can ask for the whole table. */
+public class ListOrdersService implements ListOrdersUseCase {
+
+    public static final int DEFAULT_MAX_LIMIT = 1000;
+
+    private final OrderQueryPort orders;
+    private final int maxLimit;
+
+    public ListOrdersService(OrderQueryPort orders) {
+        this(orders, DEFAULT_MAX_LIMIT);
+    }
+
+    public ListOrdersService(OrderQueryPort orders, int maxLimit) {
+        if (maxLimit < 1) throw new IllegalArgumentException("maxLimit must be >= 1");
+        this.orders = orders;
+        this.maxLimit = maxLimit;
+    }
+
+    @Override
+    public Flux<OrderSummary> handle(OrderListQuery query) {
+        return orders.list(query.limit() > maxLimit ? query.withLimit(maxLimit) : query);
+    }
+}
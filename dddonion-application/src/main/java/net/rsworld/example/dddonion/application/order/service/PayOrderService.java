@@ -0,0 +1,84 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.application.order.usecase.ConcurrentOrderUpdateException;
+import net.rsworld.example.dddonion.application.order.usecase.PayOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+/**
+ * Application-Service for payments. One attempt is one {@link OrderRepository#pay} call: a single UPDATE guarded by
+ * the order's status on the R2DBC tables, a load and a version-guarded save on stores without such a statement (event
+ * store, in memory). No connection is held while backing off.
+ *
+ * <p>Losing the optimistic lock to a concurrent writer (as recognised by {@code isConflict}) is retried with jittered
+ * exponential backoff, at most {@link Settings#maxRetries()} times per call and only while the shared
+ * {@link RetryBudget} has tokens, so a burst on a hot order degrades into fast {@link ConcurrentOrderUpdateException}s
+ * instead of piling up retries.
+ */
+@Slf4j
+public class PayOrderService implements PayOrderUseCase {
+
+    private final OrderRepository orders;
+    private final DomainEventPublisherPort events;
+    private final Predicate<Throwable> isConflict;
+    private final RetryBudget budget;
+    private final Retry retry;
+
+    public PayOrderService(
+            OrderRepository orders,
+            DomainEventPublisherPort events,
+            Predicate<Throwable> isConflict,
+            Settings settings,
+            RetryBudget budget) {
+        this.orders = orders;
+        this.events = events;
+        this.isConflict = isConflict;
+        this.budget = budget;
+        this.retry = Retry.backoff(settings.maxRetries(), settings.minBackoff())
+                .maxBackoff(settings.maxBackoff())
+                .jitter(settings.jitter())
+                .filter(e -> isConflict.test(e) && budget.tryRetry())
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    @Override
+    public Mono<Order> handle(OrderId id) {
+        return Mono.defer(() -> {
+                    budget.onRequest();
+                    return attempt(id).retryWhen(retry);
+                })
+                .onErrorMap(
+                        isConflict,
+                        e -> new ConcurrentOrderUpdateException(
+                                "Order %s is being modified concurrently, try again later".formatted(id.value()), e));
+    }
+
+    private Mono<Order> attempt(OrderId id) {
+        return Mono.fromCompletionStage(() -> orders.pay(id))
+                .flatMap(Mono::justOrEmpty)
+                .flatMap(paid -> Flux.defer(() -> Flux.fromIterable(paid.pullEvents()))
+                        .concatMap(events::publish)
+                        .then(Mono.just(paid)))
+                .doOnNext(paid -> log.info("Order ({}) paid at version {}", paid.id().value(), paid.version()));
+    }
+
+    /** Per-call retry limits for lost optimistic locks; {@code jitter} is the random share (0..1) of each backoff. */
+    public record Settings(int maxRetries, Duration minBackoff, Duration maxBackoff, double jitter) {
+        public Settings {
+            if (maxRetries < 0) throw new IllegalArgumentException("maxRetries must be >= 0");
+            if (minBackoff == null || minBackoff.isNegative())
+                throw new IllegalArgumentException("minBackoff must be >= 0");
+            if (maxBackoff == null || maxBackoff.compareTo(minBackoff) < 0)
+                throw new IllegalArgumentException("maxBackoff must be >= minBackoff");
+            if (jitter < 0 || jitter > 1) throw new IllegalArgumentException("jitter must be between 0 and 1");
+        }
+    }
+}
@@ -2,6 +2,7 @@ package net.rsworld.example.dddonion.application.order.service;
 
 import lombok.extern.slf4j.Slf4j;
 import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
 import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
 import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
 import net.rsworld.example.dddonion.domain.order.model.Order;
@@ -14,12 +15,22 @@ import reactor.core.publisher.Mono;
 @Slf4j
 public class PlaceOrderService implements PlaceOrderUseCase {
 
+    /** Orders of one batch that may be in flight at the same time. */
+    public static final int DEFAULT_BATCH_CONCURRENCY = 16;
+
     private final OrderRepository orders;
     private final DomainEventPublisherPort events;
+    private final int batchConcurrency;
 
     public PlaceOrderService(OrderRepository orders, DomainEventPublisherPort events) {
+        this(orders, events, DEFAULT_BATCH_CONCURRENCY);
+    }
+
+    public PlaceOrderService(OrderRepository orders, DomainEventPublisherPort events, int batchConcurrency) {
+        if (batchConcurrency < 1) throw new IllegalArgumentException("batchConcurrency must be >= 1");
         this.orders = orders;
         this.events = events;
+        this.batchConcurrency = batchConcurrency;
     }
 
     @Override
@@ -33,4 +44,17 @@ public class PlaceOrderService implements PlaceOrderUseCase {
                 .then(Mono.just(order.id()))
                 .doOnNext(id -> log.info("DomainEvent with order id ({}) processed: {}", id.value(), cmd));
     }
+
+    @Override
+    public Flux<PlaceOrderResult> handleAll(Flux<PlaceOrderCommand> commands) {
+        // flatMapSequential keeps input order while at most batchConcurrency saves are outstanding; only the domain's
+        // own rejections become a result line, infrastructure failures must not surface as "every order failed"
+        return commands.flatMapSequential(
+                cmd -> handle(cmd)
+                        .map(PlaceOrderResult::placed)
+                        .onErrorResume(
+                                IllegalArgumentException.class,
+                                e -> Mono.just(PlaceOrderResult.failed(e.getMessage()))),
+                batchConcurrency);
+    }
 }
@@ -0,0 +1,47 @@
+package net.rsworld.example.dddonion.application.order.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket that caps retries at a fraction of the request rate: every request deposits {@code ratio} tokens, every
+ * retry withdraws one, and the bucket holds at most {@code maxTokens}. Under sustained contention retries therefore add
+ * at most {@code ratio} extra attempts per request instead of multiplying the load by the per-call retry limit.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final long deposit;
+    private final long capacity;
+    private final AtomicLong tokens;
+
+    public RetryBudget(double ratio, int maxTokens) {
+        if (ratio < 0) throw new IllegalArgumentException("ratio must be >= 0");
+        if (maxTokens < 0) throw new IllegalArgumentException("maxTokens must be >= 0");
+        this.deposit = Math.round(ratio * SCALE);
+        this.capacity = maxTokens * SCALE;
+        // starts full, so a quiet service can still retry its first conflicts
+        this.tokens = new AtomicLong(capacity);
+    }
+
+    public void onRequest() {
+        tokens.accumulateAndGet(deposit, (current, add) -> Math.min(capacity, current + add));
+    }
+
+    /** Withdraws one token; {@code false} if the budget is spent and the caller must not retry. */
+    public boolean tryRetry() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+
+    /** Retries that could be spent right now. */
+    public double available() {
+        return (double) tokens.get() / SCALE;
+    }
+}
@@ -0,0 +1,9 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+/** An order could not be written because other writers kept changing it; the caller may try again later. */
+public class ConcurrentOrderUpdateException extends RuntimeException {
+
+    public ConcurrentOrderUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Mono;
+
+public interface FindOrderUseCase {
+    /** Completes empty if no order with this id exists. */
+    Mono<Order> handle(OrderId id);
+}
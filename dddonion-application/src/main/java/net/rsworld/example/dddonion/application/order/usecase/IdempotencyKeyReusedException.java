@@ -0,0 +1,9 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+/** An {@code Idempotency-Key} came back with a different request than the one it was first used for. */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String key) {
+        super("Idempotency-Key " + key + " was already used for a different request");
+    }
+}
@@ -0,0 +1,10 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import reactor.core.publisher.Flux;
+
+public interface ListOrdersUseCase {
+    /** Streams one page; the {@link OrderSummary#cursor() cursor} of the last element continues the listing. */
+    Flux<OrderSummary> handle(OrderListQuery query);
+}
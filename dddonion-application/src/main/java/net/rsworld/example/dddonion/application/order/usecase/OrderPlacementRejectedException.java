@@ -0,0 +1,18 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+import java.time.Duration;
+
+/** Placement was refused without trying because the service is at its concurrency limit; retry after a pause. */
+public class OrderPlacementRejectedException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public OrderPlacementRejectedException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
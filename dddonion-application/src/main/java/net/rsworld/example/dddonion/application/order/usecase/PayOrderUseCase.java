@@ -0,0 +1,15 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import reactor.core.publisher.Mono;
+
+public interface PayOrderUseCase {
+    /**
+     * Moves a placed order to PAID and returns it. Completes empty if no order with this id exists, fails with
+     * {@link OrderNotPayableException} if it cannot be paid (not placed, already paid) and with
+     * {@link ConcurrentOrderUpdateException} if concurrent writers kept winning.
+     */
+    Mono<Order> handle(OrderId id);
+}
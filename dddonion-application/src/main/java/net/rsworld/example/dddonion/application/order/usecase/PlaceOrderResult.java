@@ -0,0 +1,19 @@
+package net.rsworld.example.dddonion.application.order.usecase;
+
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+
+/** Outcome of placing one order of a batch: either the new id or the domain's reason for rejecting it. */
+public record PlaceOrderResult(OrderId orderId, String error) {
+
+    public static PlaceOrderResult placed(OrderId orderId) {
+        return new PlaceOrderResult(orderId, null);
+    }
+
+    public static PlaceOrderResult failed(String error) {
+        return new PlaceOrderResult(null, error);
+    }
+
+    public boolean isPlaced() {
+        return orderId != null;
+    }
+}
@@ -2,8 +2,24 @@ package net.rsworld.example.dddonion.application.order.usecase;
 
 import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public interface PlaceOrderUseCase {
     Mono<OrderId> handle(PlaceOrderCommand cmd);
+
+    /**
+     * Places the order once per {@code idempotencyKey}: a repeated call with the same key answers with the order of the
+     * first one. Without an idempotent decorator in the chain the key is ignored.
+     */
+    default Mono<OrderId> handle(PlaceOrderCommand cmd, String idempotencyKey) {
+        return handle(cmd);
+    }
+
+    /**
+     * Places a stream of orders with bounded concurrency. Emits exactly one result per command, in input order; an
+     * order the domain rejects does not terminate the stream. Any other failure (e.g. the database is unavailable)
+     * does, so it is not reported as a rejection of every remaining order.
+     */
+    Flux<PlaceOrderResult> handleAll(Flux<PlaceOrderCommand> commands);
 }
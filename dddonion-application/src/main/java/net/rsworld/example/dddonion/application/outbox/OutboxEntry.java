@@ -0,0 +1,6 @@
+package net.rsworld.example.dddonion.application.outbox;
+
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+
+/** A domain event persisted in the outbox, identified by its store-assigned, monotonically increasing id. */
+public record OutboxEntry(long id, DomainEvent event) {}
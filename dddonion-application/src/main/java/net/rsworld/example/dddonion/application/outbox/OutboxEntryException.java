@@ -0,0 +1,16 @@
+package net.rsworld.example.dddonion.application.outbox;
+
+/** An outbox entry that could not be read or delivered, with its id so the relay can record the failed attempt. */
+public class OutboxEntryException extends RuntimeException {
+
+    private final long entryId;
+
+    public OutboxEntryException(long entryId, Throwable cause) {
+        super("Outbox entry " + entryId + " failed: " + cause.getMessage(), cause);
+        this.entryId = entryId;
+    }
+
+    public long entryId() {
+        return entryId;
+    }
+}
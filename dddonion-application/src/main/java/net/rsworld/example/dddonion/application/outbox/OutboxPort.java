@@ -0,0 +1,31 @@
+package net.rsworld.example.dddonion.application.outbox;
+
+import java.util.Collection;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** Port to the transactional outbox written together with the aggregate. */
+public interface OutboxPort {
+
+    /**
+     * Oldest undelivered entries first, at most {@code limit}, skipping entries another relay has claimed and parked
+     * ones ({@link #markFailed}). Within {@link #claiming} the returned entries stay claimed until it ends. An entry
+     * that cannot be read ends the stream with an {@link OutboxEntryException}.
+     */
+    Flux<OutboxEntry> fetchPending(int limit);
+
+    /** Removes delivered entries in one bulk statement. */
+    Mono<Void> markDispatched(Collection<Long> ids);
+
+    /**
+     * Counts a failed attempt to read or deliver entry {@code id}. After the store's maximum of attempts the entry is
+     * parked: it stays in the outbox for inspection but is no longer fetched, so it cannot hold up those behind it.
+     */
+    Mono<Void> markFailed(long id);
+
+    /**
+     * Runs {@code relay} as one claim, so concurrent relays (one per instance) never deliver the same entry: entries
+     * fetched inside are held until {@code relay} ends, and those it did not mark as dispatched are released again.
+     */
+    <T> Mono<T> claiming(Mono<T> relay);
+}
@@ -0,0 +1,61 @@
+package net.rsworld.example.dddonion.application.outbox;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import reactor.core.publisher.Mono;
+
+/**
+ * Drains the outbox in batches and hands the events to the {@link DomainEventPublisherPort}. Delivery is
+ * at-least-once: an entry is only removed after it was published, and a failing event stops the batch so order per
+ * outbox id is kept. The failing entry gets a {@link OutboxPort#markFailed failed attempt} recorded, so one that can
+ * never be read or delivered is eventually parked instead of blocking the outbox. Each batch is one
+ * {@link OutboxPort#claiming claim}, so relays on several instances split the outbox between them instead of each
+ * delivering every event.
+ */
+@Slf4j
+public class OutboxRelayService {
+
+    private final OutboxPort outbox;
+    private final DomainEventPublisherPort events;
+    private final int batchSize;
+
+    public OutboxRelayService(OutboxPort outbox, DomainEventPublisherPort events, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        this.outbox = outbox;
+        this.events = events;
+        this.batchSize = batchSize;
+    }
+
+    /** Relays one batch; emits the number of entries delivered. */
+    public Mono<Integer> relayBatch() {
+        return outbox.claiming(Mono.defer(() -> {
+            List<Long> delivered = new ArrayList<>();
+            return outbox.fetchPending(batchSize)
+                    .concatMap(entry -> events.publish(entry.event())
+                            .onErrorMap(e -> new OutboxEntryException(entry.id(), e))
+                            .then(Mono.fromRunnable(() -> delivered.add(entry.id()))))
+                    .then(Mono.<Long>empty())
+                    .onErrorResume(OutboxEntryException.class, e -> {
+                        log.warn("Outbox relay stopped at entry {}, it is retried on the next run", e.entryId(), e);
+                        return Mono.just(e.entryId());
+                    })
+                    .onErrorResume(e -> {
+                        log.warn("Outbox relay stopped early, remaining events are retried on the next run", e);
+                        return Mono.empty();
+                    })
+                    .flatMap(outbox::markFailed)
+                    .then(Mono.defer(() -> delivered.isEmpty()
+                            ? Mono.just(0)
+                            : outbox.markDispatched(delivered).thenReturn(delivered.size())));
+        }));
+    }
+
+    /** Relays batches until the outbox is drained (or a batch comes back short); emits the total delivered. */
+    public Mono<Long> relayPending() {
+        return relayBatch()
+                .expand(delivered -> delivered == batchSize ? relayBatch() : Mono.empty())
+                .reduce(0L, (total, delivered) -> total + delivered);
+    }
+}
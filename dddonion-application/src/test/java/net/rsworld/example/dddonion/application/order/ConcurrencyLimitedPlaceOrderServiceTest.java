@@ -0,0 +1,114 @@
+package net.rsworld.example.dddonion.application.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import net.rsworld.example.dddonion.application.order.service.AdaptiveConcurrencyLimiter;
+import net.rsworld.example.dddonion.application.order.service.ConcurrencyLimitedPlaceOrderService;
+import net.rsworld.example.dddonion.application.order.usecase.OrderPlacementRejectedException;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class ConcurrencyLimitedPlaceOrderServiceTest {
+
+    private static final long MILLI = 1_000_000;
+
+    private final PlaceOrderCommand cmd = new PlaceOrderCommand("a@b.ce", Money.ofMinor(1000));
+
+    @Test
+    @DisplayName("Weist Platzierungen über dem Limit sofort mit Retry-After ab und gibt Plätze am Ende wieder frei")
+    void rejectsBeyondLimit_andReleasesOnCompletion() {
+        var limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(1, 1, 1, 1.5, 0.2));
+        var delegate = mock(PlaceOrderUseCase.class);
+        Sinks.One<OrderId> slow = Sinks.one();
+        when(delegate.handle(cmd)).thenReturn(slow.asMono()).thenReturn(Mono.just(new OrderId("ORD-2")));
+        var service = new ConcurrencyLimitedPlaceOrderService(delegate, limiter, Duration.ofSeconds(2));
+
+        StepVerifier.create(service.handle(cmd))
+                .then(() -> StepVerifier.create(service.handle(cmd))
+                        .expectErrorSatisfies(e -> assertThat(e)
+                                .isInstanceOf(OrderPlacementRejectedException.class)
+                                .extracting(ex -> ((OrderPlacementRejectedException) ex).retryAfter())
+                                .isEqualTo(Duration.ofSeconds(2)))
+                        .verify())
+                .then(() -> slow.tryEmitValue(new OrderId("ORD-1")))
+                .expectNext(new OrderId("ORD-1"))
+                .verifyComplete();
+        StepVerifier.create(service.handle(cmd)).expectNext(new OrderId("ORD-2")).verifyComplete();
+
+        assertThat(limiter.rejected()).isEqualTo(1);
+        assertThat(limiter.inFlight()).isZero();
+        verify(delegate, times(2)).handle(cmd);
+    }
+
+    @Test
+    @DisplayName("Ein abgebrochener Aufruf gibt seinen Platz frei")
+    void cancelledCall_releasesPermit() {
+        var limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(1, 1, 1, 1.5, 0.2));
+        var delegate = mock(PlaceOrderUseCase.class);
+        when(delegate.handle(cmd)).thenReturn(Mono.never());
+
+        new ConcurrencyLimitedPlaceOrderService(delegate, limiter, Duration.ofSeconds(1))
+                .handle(cmd)
+                .subscribe()
+                .dispose();
+
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("Hebt das Limit, solange die Latenz unter Last bei der Basislinie bleibt")
+    void limitGrows_whileLatencyStaysAtBaseline() {
+        var limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(10, 2, 100, 1.5, 0.2));
+
+        saturate(limiter, MILLI, 20);
+
+        assertThat(limiter.limit()).isGreaterThan(10).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("Senkt das Limit bis zur Untergrenze, wenn die Latenz deutlich über die Basislinie steigt")
+    void limitShrinks_whenLatencyRises() {
+        var limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(50, 4, 100, 1.5, 0.2));
+        saturate(limiter, MILLI, 5);
+        int before = limiter.limit();
+
+        saturate(limiter, 20 * MILLI, 30);
+
+        assertThat(limiter.limit()).isLessThan(before / 4).isGreaterThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Schnelle Aufrufe eines kaum ausgelasteten Limiters verändern das Limit nicht")
+    void idleLimiter_keepsLimit() {
+        var limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(10, 2, 100, 1.5, 0.2));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(MILLI);
+        }
+
+        assertThat(limiter.limit()).isEqualTo(10);
+    }
+
+    /** Fills the limit {@code rounds} times and lets every call finish after {@code latencyNanos}. */
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, long latencyNanos, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (limiter.tryAcquire()) {
+                admitted++;
+            }
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(latencyNanos);
+            }
+        }
+    }
+}
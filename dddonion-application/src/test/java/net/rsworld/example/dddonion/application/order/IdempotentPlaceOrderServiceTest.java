@@ -0,0 +1,165 @@
+package net.rsworld.example.dddonion.application.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyRecord;
+import net.rsworld.example.dddonion.application.order.service.IdempotentPlaceOrderService;
+import net.rsworld.example.dddonion.application.order.usecase.IdempotencyKeyReusedException;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class IdempotentPlaceOrderServiceTest {
+
+    private final PlaceOrderCommand cmd = new PlaceOrderCommand("a@b.ce", Money.ofMinor(1000));
+    private final PlaceOrderCommand otherTotal = new PlaceOrderCommand("a@b.ce", Money.ofMinor(2000));
+    private final OrderId placed = new OrderId("ORD-1");
+    private PlaceOrderUseCase delegate;
+    private IdempotencyKeyPort keys;
+    private IdempotentPlaceOrderService service;
+
+    @BeforeEach
+    void setUp() {
+        delegate = mock(PlaceOrderUseCase.class);
+        keys = mock(IdempotencyKeyPort.class);
+        when(keys.find(any())).thenReturn(Mono.empty());
+        when(keys.remember(any(), any())).thenAnswer(inv -> Mono.just(inv.getArgument(1)));
+        service = new IdempotentPlaceOrderService(delegate, keys);
+    }
+
+    @Test
+    @DisplayName("Gleichzeitige Anfragen mit demselben Schlüssel platzieren genau eine Order")
+    void concurrentRequests_shareOnePlacement() {
+        Sinks.One<OrderId> placement = Sinks.one();
+        when(delegate.handle(cmd)).thenReturn(placement.asMono());
+
+        StepVerifier.create(service.handle(cmd, "k"))
+                .then(() -> StepVerifier.create(service.handle(cmd, "k"))
+                        .then(() -> placement.tryEmitValue(placed))
+                        .expectNext(placed)
+                        .verifyComplete())
+                .expectNext(placed)
+                .verifyComplete();
+
+        verify(delegate, times(1)).handle(cmd);
+        verify(keys, times(1)).remember(eq("k"), any());
+    }
+
+    /** What the service recorded for its first placement, to replay it like the store would. */
+    private IdempotencyRecord recordedFor(PlaceOrderCommand command) {
+        when(delegate.handle(command)).thenReturn(Mono.just(placed));
+        service.handle(command, "recorded").block();
+        var recorded = ArgumentCaptor.forClass(IdempotencyRecord.class);
+        verify(keys).remember(eq("recorded"), recorded.capture());
+        clearInvocations(delegate, keys);
+        return recorded.getValue();
+    }
+
+    @Test
+    @DisplayName("Ein bekannter Schlüssel liefert die gespeicherte OrderId, ohne erneut zu platzieren")
+    void knownKey_replaysStoredOrderId() {
+        var recorded = recordedFor(cmd);
+        when(keys.find("k")).thenReturn(Mono.just(recorded));
+
+        StepVerifier.create(service.handle(cmd, "k")).expectNext(placed).verifyComplete();
+
+        verify(delegate, never()).handle(any());
+    }
+
+    @Test
+    @DisplayName("Ein bekannter Schlüssel mit anderer Anfrage wird abgelehnt, ohne zu platzieren")
+    void knownKey_withDifferentRequest_isRejected() {
+        var recorded = recordedFor(cmd);
+        when(keys.find("k")).thenReturn(Mono.just(recorded));
+
+        StepVerifier.create(service.handle(otherTotal, "k"))
+                .expectError(IdempotencyKeyReusedException.class)
+                .verify();
+
+        verify(delegate, never()).handle(any());
+    }
+
+    @Test
+    @DisplayName("Eine gleichzeitige Anfrage mit anderem Inhalt teilt die laufende Platzierung nicht")
+    void concurrentRequest_withDifferentRequest_isRejected() {
+        Sinks.One<OrderId> placement = Sinks.one();
+        when(delegate.handle(cmd)).thenReturn(placement.asMono());
+
+        StepVerifier.create(service.handle(cmd, "k"))
+                .then(() -> StepVerifier.create(service.handle(otherTotal, "k"))
+                        .then(() -> placement.tryEmitValue(placed))
+                        .expectError(IdempotencyKeyReusedException.class)
+                        .verify())
+                .expectNext(placed)
+                .verifyComplete();
+
+        verify(delegate, never()).handle(otherTotal);
+    }
+
+    @Test
+    @DisplayName("Gleiche Anfragen ergeben denselben Fingerabdruck, verschiedene verschiedene")
+    void fingerprint_dependsOnTheRequest() {
+        var first = recordedFor(cmd);
+        var same = recordedFor(new PlaceOrderCommand("a@b.ce", Money.ofMinor(1000)));
+        var other = recordedFor(otherTotal);
+
+        assertThat(first.fingerprint()).hasSize(64).isEqualTo(same.fingerprint());
+        assertThat(other.fingerprint()).isNotEqualTo(first.fingerprint());
+    }
+
+    @Test
+    @DisplayName("Ein vor den Fingerabdrücken gemerkter Schlüssel passt zu jeder Anfrage")
+    void legacyEntry_withoutFingerprint_matchesAnyRequest() {
+        when(keys.find("k")).thenReturn(Mono.just(new IdempotencyRecord(placed, null)));
+
+        StepVerifier.create(service.handle(otherTotal, "k")).expectNext(placed).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Verliert das Rennen gegen eine andere Instanz, antwortet mit der zuerst gespeicherten OrderId")
+    void lostRace_answersWithRecordedOrderId() {
+        var winner = new OrderId("ORD-0");
+        when(delegate.handle(cmd)).thenReturn(Mono.just(placed));
+        doAnswer(inv -> Mono.just(new IdempotencyRecord(winner, inv.<IdempotencyRecord>getArgument(1).fingerprint())))
+                .when(keys)
+                .remember(eq("k"), any());
+
+        StepVerifier.create(service.handle(cmd, "k")).expectNext(winner).verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Eine fehlgeschlagene Platzierung merkt nichts, die Wiederholung platziert erneut")
+    void failedPlacement_isRetried() {
+        when(delegate.handle(cmd))
+                .thenReturn(Mono.error(new IllegalStateException("db down")))
+                .thenReturn(Mono.just(placed));
+
+        StepVerifier.create(service.handle(cmd, "k")).expectError(IllegalStateException.class).verify();
+        StepVerifier.create(service.handle(cmd, "k")).expectNext(placed).verifyComplete();
+
+        verify(delegate, times(2)).handle(cmd);
+        verify(keys, times(1)).remember(eq("k"), any());
+    }
+
+    @Test
+    @DisplayName("Ohne Schlüssel wird direkt delegiert")
+    void withoutKey_delegates() {
+        when(delegate.handle(cmd)).thenReturn(Mono.just(placed));
+
+        StepVerifier.create(service.handle(cmd, null)).expectNext(placed).verifyComplete();
+
+        verifyNoInteractions(keys);
+    }
+}
@@ -0,0 +1,50 @@
+package net.rsworld.example.dddonion.application.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import net.rsworld.example.dddonion.application.order.query.OrderListQuery;
+import net.rsworld.example.dddonion.application.order.query.OrderSummary;
+import net.rsworld.example.dddonion.application.order.service.ListOrdersService;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class ListOrdersServiceTest {
+
+    private final List<OrderListQuery> queries = new ArrayList<>();
+
+    @Test
+    @DisplayName("Reicht Abfragen innerhalb des Limits unverändert an den Port weiter")
+    void passesQueryWithinLimit() {
+        var query = new OrderListQuery(OrderStatus.PAID, "a@b.ce", null, 20);
+
+        new ListOrdersService(this::record, 100).handle(query).blockLast();
+
+        assertThat(queries).containsExactly(query);
+    }
+
+    @Test
+    @DisplayName("Begrenzt zu große Seiten auf maxLimit und behält Filter und Cursor bei")
+    void clampsLimit() {
+        new ListOrdersService(this::record, 100)
+                .handle(new OrderListQuery(OrderStatus.PLACED, null, null, 5000))
+                .blockLast();
+
+        assertThat(queries).containsExactly(new OrderListQuery(OrderStatus.PLACED, null, null, 100));
+    }
+
+    @Test
+    @DisplayName("Lehnt ein maxLimit unter 1 ab")
+    void rejectsInvalidMaxLimit() {
+        assertThatThrownBy(() -> new ListOrdersService(this::record, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Flux<OrderSummary> record(OrderListQuery query) {
+        queries.add(query);
+        return Flux.empty();
+    }
+}
@@ -0,0 +1,169 @@
+package net.rsworld.example.dddonion.application.order;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.application.order.service.PayOrderService;
+import net.rsworld.example.dddonion.application.order.service.RetryBudget;
+import net.rsworld.example.dddonion.application.order.usecase.ConcurrentOrderUpdateException;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class PayOrderServiceTest {
+
+    private static final PayOrderService.Settings RETRY =
+            new PayOrderService.Settings(3, Duration.ofMillis(1), Duration.ofMillis(5), 0.5);
+
+    private final OrderId id = OrderId.newId();
+    private OrderRepository orders;
+    private DomainEventPublisherPort publisher;
+
+    @BeforeEach
+    void setUp() {
+        orders = mock(OrderRepository.class);
+        publisher = mock(DomainEventPublisherPort.class);
+        when(orders.findById(id)).thenAnswer(inv -> CompletableFuture.completedFuture(Optional.of(placed())));
+        // the port's load-then-save payment, as used by the event store and the in-memory store
+        when(orders.pay(any())).thenCallRealMethod();
+        when(publisher.publish(any())).thenReturn(Mono.empty());
+    }
+
+    @Test
+    @DisplayName("Bezahlt eine platzierte Order mit einem Speichervorgang und publiziert OrderPaid")
+    void paysPlacedOrder_andPublishesOrderPaid() {
+        when(orders.save(any(Order.class)))
+                .thenAnswer(inv -> CompletableFuture.completedFuture((Order) inv.getArgument(0)));
+
+        StepVerifier.create(service(new RetryBudget(0.1, 10)).handle(id))
+                .assertNext(order -> {
+                    assertThat(order.status()).isEqualTo(OrderStatus.PAID);
+                    assertThat(order.version()).isEqualTo(2L);
+                })
+                .verifyComplete();
+
+        verify(orders, times(1)).save(any(Order.class));
+        verify(publisher).publish(any(OrderPaid.class));
+    }
+
+    @Test
+    @DisplayName("Bezahlt über die bedingte Zahlung des Stores ohne separates Laden und Speichern")
+    void usesTheStoresConditionalPayment() {
+        Order paid = placed();
+        paid.pay();
+        doReturn(CompletableFuture.completedFuture(Optional.of(paid))).when(orders).pay(id);
+
+        StepVerifier.create(service(new RetryBudget(0.1, 10)).handle(id))
+                .expectNextMatches(order -> order.status() == OrderStatus.PAID && order.version() == 2L)
+                .verifyComplete();
+
+        verify(orders, never()).findById(any());
+        verify(orders, never()).save(any(Order.class));
+        verify(publisher).publish(any(OrderPaid.class));
+    }
+
+    @Test
+    @DisplayName("Wiederholt verlorene optimistische Sperren mit frisch geladener Order, bis das Speichern gelingt")
+    void retriesConflicts_untilSaveSucceeds() {
+        var attempts = new AtomicInteger();
+        when(orders.save(any(Order.class))).thenAnswer(inv -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.failedFuture(new Conflict())
+                : CompletableFuture.completedFuture((Order) inv.getArgument(0)));
+
+        StepVerifier.create(service(new RetryBudget(0.1, 10)).handle(id))
+                .expectNextMatches(order -> order.status() == OrderStatus.PAID)
+                .verifyComplete();
+
+        verify(orders, times(3)).findById(id);
+        verify(orders, times(3)).save(any(Order.class));
+        verify(publisher, times(1)).publish(any());
+    }
+
+    @Test
+    @DisplayName("Gibt nach ausgeschöpften Wiederholungen mit ConcurrentOrderUpdateException auf")
+    void givesUpAfterMaxRetries() {
+        when(orders.save(any(Order.class))).thenAnswer(inv -> CompletableFuture.failedFuture(new Conflict()));
+
+        StepVerifier.create(service(new RetryBudget(0.1, 10)).handle(id))
+                .expectError(ConcurrentOrderUpdateException.class)
+                .verify();
+
+        verify(orders, times(4)).save(any(Order.class));
+        verifyNoInteractions(publisher);
+    }
+
+    @Test
+    @DisplayName("Wiederholt nicht mehr, sobald das gemeinsame Retry-Budget aufgebraucht ist")
+    void stopsRetrying_whenBudgetIsSpent() {
+        when(orders.save(any(Order.class))).thenAnswer(inv -> CompletableFuture.failedFuture(new Conflict()));
+        var budget = new RetryBudget(0.0, 1);
+
+        StepVerifier.create(service(budget).handle(id))
+                .expectError(ConcurrentOrderUpdateException.class)
+                .verify();
+
+        verify(orders, times(2)).save(any(Order.class));
+        assertThat(budget.available()).isZero();
+    }
+
+    @Test
+    @DisplayName("Wiederholt keine fachlichen Fehler und liefert nichts für unbekannte Orders")
+    void doesNotRetryDomainErrors_andCompletesEmptyWhenMissing() {
+        Order paid = new Order(id, "a@b.com", Money.ofMinor(1000), 2L, OrderStatus.PAID);
+        when(orders.findById(id)).thenReturn(CompletableFuture.completedFuture(Optional.of(paid)));
+        OrderId missing = OrderId.newId();
+        when(orders.findById(missing)).thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+        var service = service(new RetryBudget(0.1, 10));
+
+        StepVerifier.create(service.handle(id))
+                .expectErrorSatisfies(e -> assertThat(e)
+                        .isExactlyInstanceOf(OrderNotPayableException.class)
+                        .hasMessageContaining("placed"))
+                .verify();
+        StepVerifier.create(service.handle(missing)).verifyComplete();
+
+        verify(orders, times(1)).findById(id);
+        verify(orders, never()).save(any(Order.class));
+    }
+
+    @Test
+    @DisplayName("Füllt das Retry-Budget anteilig je Anfrage bis zur Obergrenze auf")
+    void retryBudget_refillsPerRequestUpToCap() {
+        var budget = new RetryBudget(0.5, 1);
+
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+        budget.onRequest();
+        assertThat(budget.tryRetry()).isFalse();
+        budget.onRequest();
+        budget.onRequest();
+        assertThat(budget.available()).isEqualTo(1.0);
+        assertThat(budget.tryRetry()).isTrue();
+    }
+
+    private PayOrderService service(RetryBudget budget) {
+        return new PayOrderService(orders, publisher, Conflict.class::isInstance, RETRY, budget);
+    }
+
+    private Order placed() {
+        return new Order(id, "a@b.com", Money.ofMinor(1000), 1L, OrderStatus.PLACED);
+    }
+
+    /** Stands in for the persistence adapter's optimistic-lock exception. */
+    private static final class Conflict extends RuntimeException {}
+}
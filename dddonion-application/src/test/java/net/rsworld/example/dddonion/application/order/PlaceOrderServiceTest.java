@@ -3,11 +3,12 @@ package net.rsworld.example.dddonion.application.order;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
-import java.math.BigDecimal;
 import java.util.concurrent.CompletableFuture;
 import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
 import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
 import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
 import net.rsworld.example.dddonion.domain.order.model.Order;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
@@ -15,6 +16,7 @@ import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
@@ -33,7 +35,7 @@ class PlaceOrderServiceTest {
 
         PlaceOrderService service = new PlaceOrderService(orders, publisher);
 
-        PlaceOrderCommand cmd = new PlaceOrderCommand("john.doe@example.com", new BigDecimal("42.50"));
+        PlaceOrderCommand cmd = new PlaceOrderCommand("john.doe@example.com", Money.parse("42.50"));
 
         // act
         Mono<OrderId> result = service.handle(cmd);
@@ -64,7 +66,7 @@ class PlaceOrderServiceTest {
         when(orders.save(any(Order.class))).thenReturn(CompletableFuture.failedFuture(boom));
 
         PlaceOrderService service = new PlaceOrderService(orders, publisher);
-        PlaceOrderCommand cmd = new PlaceOrderCommand("john.doe@example.com", new BigDecimal("42.50"));
+        PlaceOrderCommand cmd = new PlaceOrderCommand("john.doe@example.com", Money.parse("42.50"));
 
         StepVerifier.create(service.handle(cmd))
                 .expectErrorMatches(err -> err == boom)
@@ -74,4 +76,53 @@ class PlaceOrderServiceTest {
         verifyNoInteractions(publisher);
         verifyNoMoreInteractions(orders);
     }
+
+    @Test
+    @DisplayName("Platziert einen Strom von Orders und liefert je Command ein Ergebnis in Eingabereihenfolge")
+    void handleAllEmitsOneResultPerCommandInOrder() {
+        OrderRepository orders = mock(OrderRepository.class);
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+
+        when(orders.save(any(Order.class))).thenAnswer(inv -> {
+            Order order = inv.getArgument(0);
+            return order.customerEmail().startsWith("fail")
+                    ? CompletableFuture.failedFuture(new IllegalArgumentException("Order id is not a UUID"))
+                    : CompletableFuture.completedFuture(order);
+        });
+        when(publisher.publish(any())).thenReturn(Mono.empty());
+
+        PlaceOrderService service = new PlaceOrderService(orders, publisher, 2);
+
+        var commands = Flux.just(
+                new PlaceOrderCommand("a@example.com", Money.ofMinor(100)),
+                new PlaceOrderCommand("fail@example.com", Money.ofMinor(100)),
+                new PlaceOrderCommand("b@example.com", Money.ofMinor(100)));
+
+        StepVerifier.create(service.handleAll(commands))
+                .expectNextMatches(PlaceOrderResult::isPlaced)
+                .expectNextMatches(r -> !r.isPlaced() && r.error().equals("Order id is not a UUID"))
+                .expectNextMatches(PlaceOrderResult::isPlaced)
+                .verifyComplete();
+
+        verify(orders, times(3)).save(any(Order.class));
+        verify(publisher, times(2)).publish(any());
+    }
+
+    @Test
+    @DisplayName("Beendet den Strom bei einem Infrastrukturfehler, statt ihn als Ablehnung jeder Order zu melden")
+    void handleAllFailsOnInfrastructureError() {
+        OrderRepository orders = mock(OrderRepository.class);
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+        var boom = new RuntimeException("Connection refused: db.internal:3306");
+        when(orders.save(any(Order.class))).thenReturn(CompletableFuture.failedFuture(boom));
+
+        PlaceOrderService service = new PlaceOrderService(orders, publisher, 2);
+
+        var commands = Flux.just(
+                new PlaceOrderCommand("a@example.com", Money.ofMinor(100)),
+                new PlaceOrderCommand("b@example.com", Money.ofMinor(100)));
+
+        StepVerifier.create(service.handleAll(commands)).verifyErrorMatches(e -> e == boom);
+        verifyNoInteractions(publisher);
+    }
 }
@@ -0,0 +1,190 @@
+package net.rsworld.example.dddonion.application.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class OutboxRelayServiceTest {
+
+    private static OutboxEntry entry(long id) {
+        return new OutboxEntry(
+                id, new OrderPlaced("agg-" + id, 1L, Instant.now(), "a@b.ce", Money.parse("1.00")));
+    }
+
+    /** An outbox whose claim simply runs the relay. */
+    private static OutboxPort outbox() {
+        OutboxPort outbox = mock(OutboxPort.class);
+        when(outbox.claiming(any())).thenAnswer(call -> call.getArgument(0));
+        return outbox;
+    }
+
+    @Test
+    @DisplayName("Publiziert einen Batch und markiert alle Einträge mit einem Aufruf als zugestellt")
+    void relayBatch_publishesAndMarksInBulk() {
+        OutboxPort outbox = outbox();
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+        when(outbox.fetchPending(10)).thenReturn(Flux.just(entry(1), entry(2), entry(3)));
+        when(outbox.markDispatched(any())).thenReturn(Mono.empty());
+        when(publisher.publish(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(new OutboxRelayService(outbox, publisher, 10).relayBatch())
+                .expectNext(3)
+                .verifyComplete();
+
+        verify(publisher, times(3)).publish(any());
+        verify(outbox, times(1)).markDispatched(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    @DisplayName("Markiert bei einem Publish-Fehler nur die bereits zugestellten Einträge")
+    void relayBatch_stopsAtFirstFailure() {
+        OutboxPort outbox = outbox();
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+        when(outbox.fetchPending(10)).thenReturn(Flux.just(entry(1), entry(2), entry(3)));
+        when(outbox.markDispatched(any())).thenReturn(Mono.empty());
+        when(outbox.markFailed(anyLong())).thenReturn(Mono.empty());
+        when(publisher.publish(any()))
+                .thenReturn(Mono.empty())
+                .thenReturn(Mono.error(new IllegalStateException("listener down")));
+
+        StepVerifier.create(new OutboxRelayService(outbox, publisher, 10).relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(outbox, times(1)).markDispatched(List.of(1L));
+        verify(outbox, times(1)).markFailed(2L);
+    }
+
+    @Test
+    @DisplayName("Zählt einen unlesbaren Eintrag als Fehlversuch und markiert die Einträge davor als zugestellt")
+    void relayBatch_countsUnreadableEntry() {
+        OutboxPort outbox = outbox();
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+        when(outbox.fetchPending(10))
+                .thenReturn(Flux.concat(
+                        Flux.just(entry(1)),
+                        Flux.error(new OutboxEntryException(2, new IllegalArgumentException("unknown type")))));
+        when(outbox.markDispatched(any())).thenReturn(Mono.empty());
+        when(outbox.markFailed(anyLong())).thenReturn(Mono.empty());
+        when(publisher.publish(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(new OutboxRelayService(outbox, publisher, 10).relayBatch())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(outbox, times(1)).markFailed(2L);
+        verify(outbox, times(1)).markDispatched(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("Ein dauerhaft fehlschlagendes Event blockiert die Einträge dahinter nur bis zum Parken")
+    void poisonEntry_isParkedAndDoesNotBlockTheEntriesBehindIt() {
+        var outbox = new ParkingOutbox(3, entry(1), entry(2), entry(3));
+        var delivered = new ArrayList<String>();
+        DomainEventPublisherPort publisher = event -> event.aggregateId().equals("agg-1")
+                ? Mono.error(new IllegalStateException("no listener for this event"))
+                : Mono.fromRunnable(() -> delivered.add(event.aggregateId()));
+        var relay = new OutboxRelayService(outbox, publisher, 10);
+
+        for (int run = 0; run < 3; run++) {
+            StepVerifier.create(relay.relayBatch()).expectNext(0).verifyComplete();
+        }
+        StepVerifier.create(relay.relayPending()).expectNext(2L).verifyComplete();
+
+        assertThat(delivered).containsExactly("agg-2", "agg-3");
+        assertThat(outbox.pending).containsOnlyKeys(1L);
+        assertThat(outbox.failures).containsEntry(1L, 3);
+    }
+
+    /** Outbox in memory that parks an entry after {@code maxAttempts} failures, like the R2DBC adapter. */
+    private static final class ParkingOutbox implements OutboxPort {
+
+        private final int maxAttempts;
+        private final Map<Long, DomainEvent> pending = new TreeMap<>();
+        private final Map<Long, Integer> failures = new HashMap<>();
+
+        ParkingOutbox(int maxAttempts, OutboxEntry... entries) {
+            this.maxAttempts = maxAttempts;
+            for (OutboxEntry entry : entries) {
+                pending.put(entry.id(), entry.event());
+            }
+        }
+
+        @Override
+        public Flux<OutboxEntry> fetchPending(int limit) {
+            return Flux.fromIterable(List.copyOf(pending.entrySet()))
+                    .filter(entry -> failures.getOrDefault(entry.getKey(), 0) < maxAttempts)
+                    .take(limit)
+                    .map(entry -> new OutboxEntry(entry.getKey(), entry.getValue()));
+        }
+
+        @Override
+        public Mono<Void> markDispatched(Collection<Long> ids) {
+            return Mono.fromRunnable(() -> ids.forEach(pending::remove));
+        }
+
+        @Override
+        public Mono<Void> markFailed(long id) {
+            return Mono.fromRunnable(() -> failures.merge(id, 1, Integer::sum));
+        }
+
+        @Override
+        public <T> Mono<T> claiming(Mono<T> relay) {
+            return relay;
+        }
+    }
+
+    @Test
+    @DisplayName("Leert das Outbox in mehreren Batches, bis ein Batch nicht mehr voll ist")
+    void relayPending_drainsUntilShortBatch() {
+        OutboxPort outbox = outbox();
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+        when(outbox.fetchPending(2))
+                .thenReturn(Flux.just(entry(1), entry(2)))
+                .thenReturn(Flux.just(entry(3)));
+        when(outbox.markDispatched(any())).thenReturn(Mono.empty());
+        when(publisher.publish(any())).thenReturn(Mono.empty());
+
+        StepVerifier.create(new OutboxRelayService(outbox, publisher, 2).relayPending())
+                .expectNext(3L)
+                .verifyComplete();
+
+        verify(outbox, times(2)).fetchPending(2);
+        verify(outbox, never()).markDispatched(List.of());
+    }
+
+    @Test
+    @DisplayName("Liest und markiert jeden Batch nur innerhalb eines eigenen Claims")
+    void relayBatch_runsInsideClaim() {
+        OutboxPort outbox = mock(OutboxPort.class);
+        DomainEventPublisherPort publisher = mock(DomainEventPublisherPort.class);
+        when(outbox.fetchPending(10)).thenReturn(Flux.just(entry(1)));
+        when(outbox.claiming(any())).thenReturn(Mono.just(0));
+
+        StepVerifier.create(new OutboxRelayService(outbox, publisher, 10).relayBatch())
+                .expectNext(0)
+                .verifyComplete();
+
+        verify(outbox, times(1)).claiming(any());
+        verifyNoInteractions(publisher);
+        verify(outbox, never()).markDispatched(any());
+    }
+}
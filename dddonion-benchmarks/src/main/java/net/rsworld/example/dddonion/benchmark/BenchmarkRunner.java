@@ -0,0 +1,43 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}. Accepts the usual JMH command line; unless overridden it runs every
+ * in-memory benchmark of this module with the GC profiler (allocations per operation) and writes JSON results to
+ * {@code target/jmh-result.json} so runs of different releases can be compared.
+ */
+public final class BenchmarkRunner {
+
+    private static final Path DEFAULT_RESULT = Path.of("target", "jmh-result.json");
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (cli.getIncludes().isEmpty()) {
+            options.include(BenchmarkRunner.class.getPackageName() + ".*");
+            // database benchmarks need a running MariaDB and only run when selected explicitly
+            options.exclude(".*DbBenchmark.*");
+        }
+        if (cli.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!cli.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!cli.getResult().hasValue()) {
+            Files.createDirectories(DEFAULT_RESULT.getParent());
+            options.result(DEFAULT_RESULT.toString());
+        }
+        new Runner(options.build()).run();
+    }
+}
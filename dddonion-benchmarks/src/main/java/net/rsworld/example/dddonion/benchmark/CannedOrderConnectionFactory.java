@@ -0,0 +1,345 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import io.r2dbc.spi.Batch;
+import io.r2dbc.spi.ColumnMetadata;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionMetadata;
+import io.r2dbc.spi.IsolationLevel;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.TransactionDefinition;
+import io.r2dbc.spi.Type;
+import io.r2dbc.spi.ValidationDepth;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * An R2DBC driver without a database: every INSERT or UPDATE reports one row, every SELECT on {@code orders} returns
+ * one canned row with the selected columns (by name and index). Lets the benchmarks measure what an adapter does
+ * around the driver call, i.e. binding, entity conversion and mapping, without network or storage costs.
+ *
+ * <p>With a {@code writeTime}, writes instead complete one after the other on a thread of their own, each after that
+ * time, like a database bound by its log flush: the factory then takes at most {@code 1 / writeTime} writes per
+ * second, however many callers there are, while the time waited costs the caller no CPU.
+ */
+final class CannedOrderConnectionFactory implements ConnectionFactory, AutoCloseable {
+
+    private final List<Column> table;
+    private final Map<String, CannedRow> rows = new ConcurrentHashMap<>();
+    private final long writeNanos;
+    private final Scheduler writer;
+
+    CannedOrderConnectionFactory(byte[] id, String customerEmail, BigDecimal total, String status, long version) {
+        this(id, customerEmail, total, status, version, Duration.ZERO);
+    }
+
+    CannedOrderConnectionFactory(
+            byte[] id, String customerEmail, BigDecimal total, String status, long version, Duration writeTime) {
+        this.writeNanos = writeTime.toNanos();
+        this.writer = writeTime.isZero() ? null : Schedulers.newSingle("canned-writer", true);
+        LocalDateTime now = LocalDateTime.now();
+        this.table = List.of(
+                new Column("id", id),
+                new Column("customer_email", customerEmail),
+                new Column("total", total),
+                new Column("status", status),
+                new Column("version", version),
+                new Column("created_at", now),
+                new Column("updated_at", now));
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.just(new CannedConnection());
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return () -> "MariaDB";
+    }
+
+    @Override
+    public void close() {
+        if (writer != null) {
+            writer.dispose();
+        }
+    }
+
+    /** The columns between {@code SELECT} and {@code FROM}, in statement order; {@code *} selects all. */
+    private List<Column> selected(String sql) {
+        String upper = sql.toUpperCase(Locale.ROOT);
+        String list = sql.substring(upper.indexOf("SELECT") + 6, upper.indexOf(" FROM ")).trim();
+        List<Column> columns = new ArrayList<>();
+        for (String name : list.split(",")) {
+            String column = name.trim();
+            column = column.substring(column.lastIndexOf('.') + 1).replace("`", "");
+            if (column.equals("*")) {
+                return table;
+            }
+            for (Column candidate : table) {
+                if (candidate.getName().equalsIgnoreCase(column)) {
+                    columns.add(candidate);
+                }
+            }
+        }
+        return columns;
+    }
+
+    private record Column(String name, Object value) implements ColumnMetadata, Type {
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public Type getType() {
+            return this;
+        }
+
+        @Override
+        public Class<?> getJavaType() {
+            return value.getClass();
+        }
+    }
+
+    private record CannedRow(List<Column> columns) implements Row, RowMetadata {
+
+        @Override
+        public <T> T get(int index, Class<T> type) {
+            return type.cast(columns.get(index).value());
+        }
+
+        @Override
+        public <T> T get(String name, Class<T> type) {
+            return type.cast(getColumnMetadata(name).value());
+        }
+
+        @Override
+        public RowMetadata getMetadata() {
+            return this;
+        }
+
+        @Override
+        public Column getColumnMetadata(int index) {
+            return columns.get(index);
+        }
+
+        @Override
+        public Column getColumnMetadata(String name) {
+            for (Column column : columns) {
+                if (column.getName().equalsIgnoreCase(name)) {
+                    return column;
+                }
+            }
+            throw new NoSuchElementException(name);
+        }
+
+        @Override
+        public List<Column> getColumnMetadatas() {
+            return columns;
+        }
+
+        @Override
+        public boolean contains(String name) {
+            return columns.stream().anyMatch(column -> column.getName().equalsIgnoreCase(name));
+        }
+    }
+
+    /** One row for a SELECT, one updated row for anything else. */
+    private record CannedResult(CannedRow row) implements Result {
+
+        @Override
+        public Publisher<Long> getRowsUpdated() {
+            return Mono.just(row == null ? 1L : 0L);
+        }
+
+        @Override
+        public <T> Publisher<T> map(BiFunction<Row, RowMetadata, ? extends T> mappingFunction) {
+            return row == null ? Mono.empty() : Mono.fromSupplier(() -> mappingFunction.apply(row, row));
+        }
+
+        @Override
+        public Result filter(Predicate<Segment> filter) {
+            return this;
+        }
+
+        @Override
+        public <T> Publisher<T> flatMap(Function<Segment, ? extends Publisher<? extends T>> mappingFunction) {
+            Segment segment = row == null ? (UpdateCount) () -> 1L : (RowSegment) () -> row;
+            return Flux.from(mappingFunction.apply(segment));
+        }
+    }
+
+    private final class CannedStatement implements Statement {
+
+        private final String sql;
+
+        CannedStatement(String sql) {
+            this.sql = sql;
+        }
+
+        @Override
+        public Statement add() {
+            return this;
+        }
+
+        @Override
+        public Statement bind(int index, Object value) {
+            return this;
+        }
+
+        @Override
+        public Statement bind(String name, Object value) {
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(int index, Class<?> type) {
+            return this;
+        }
+
+        @Override
+        public Statement bindNull(String name, Class<?> type) {
+            return this;
+        }
+
+        @Override
+        public Publisher<? extends Result> execute() {
+            boolean select = sql.stripLeading().regionMatches(true, 0, "SELECT", 0, 6);
+            if (!select && writer != null) {
+                return Mono.fromCallable(() -> {
+                            LockSupport.parkNanos(writeNanos);
+                            return new CannedResult(null);
+                        })
+                        .subscribeOn(writer);
+            }
+            // rows are parsed once per statement text, so the stub costs the same for every adapter
+            return Mono.fromSupplier(() -> new CannedResult(
+                    select ? rows.computeIfAbsent(sql, text -> new CannedRow(selected(text))) : null));
+        }
+    }
+
+    private final class CannedConnection implements Connection, ConnectionMetadata {
+
+        @Override
+        public Statement createStatement(String sql) {
+            return new CannedStatement(sql);
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> beginTransaction(TransactionDefinition definition) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> commitTransaction() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransaction() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> close() {
+            return Mono.empty();
+        }
+
+        @Override
+        public Batch createBatch() {
+            throw new UnsupportedOperationException("batch");
+        }
+
+        @Override
+        public Publisher<Void> createSavepoint(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> releaseSavepoint(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> rollbackTransactionToSavepoint(String name) {
+            return Mono.empty();
+        }
+
+        @Override
+        public boolean isAutoCommit() {
+            return true;
+        }
+
+        @Override
+        public Publisher<Void> setAutoCommit(boolean autoCommit) {
+            return Mono.empty();
+        }
+
+        @Override
+        public ConnectionMetadata getMetadata() {
+            return this;
+        }
+
+        @Override
+        public String getDatabaseProductName() {
+            return "MariaDB";
+        }
+
+        @Override
+        public String getDatabaseVersion() {
+            return "11";
+        }
+
+        @Override
+        public IsolationLevel getTransactionIsolationLevel() {
+            return IsolationLevel.REPEATABLE_READ;
+        }
+
+        @Override
+        public Publisher<Void> setTransactionIsolationLevel(IsolationLevel level) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> setLockWaitTimeout(Duration timeout) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Void> setStatementTimeout(Duration timeout) {
+            return Mono.empty();
+        }
+
+        @Override
+        public Publisher<Boolean> validate(ValidationDepth depth) {
+            return Mono.just(true);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import net.rsworld.example.dddonion.domain.order.command.EmailValidator;
+import org.openjdk.jmh.annotations.*;
+
+/** {@link EmailValidator} against the regular expression it replaced, on typical and on backtracking-prone input. */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailValidationBenchmark {
+
+    private static final Pattern FORMER_PATTERN = Pattern.compile(
+            "^[A-Za-z0-9][A-Za-z0-9+._-]*[A-Za-z0-9]@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*\\.[A-Za-z]{2,}$|^[A-Za-z0-9]@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*\\.[A-Za-z]{2,}$");
+
+    public enum Input {
+        TYPICAL("john.doe@example.com"),
+        LONG("a.very.long.email.address.with.many.dots@sub.domain.example.com"),
+        HOSTILE("a@" + "a-a.".repeat(60) + "a!");
+
+        final String email;
+
+        Input(String email) {
+            this.email = email;
+        }
+    }
+
+    @Param
+    public Input input;
+
+    private String email;
+
+    @Setup
+    public void setUp() {
+        email = input.email;
+    }
+
+    @Benchmark
+    public boolean handwritten() {
+        return EmailValidator.isValid(email);
+    }
+
+    @Benchmark
+    public boolean regex() {
+        return FORMER_PATTERN.matcher(email).matches();
+    }
+}
@@ -0,0 +1,80 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxEventCodec;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Reconstitution cost of an event-sourced order with {@code historyLength} events: decoding every stored payload and
+ * replaying it, against starting from the latest snapshot (taken every {@code snapshotEvery} events) and replaying
+ * only the tail. The history lengths leave the worst-case tail of {@code snapshotEvery - 1} events. The first grows with
+ * the history, the second stays flat. Today's order lifecycle has two events; the synthetic history repeats
+ * {@code OrderPaid} to stand in for longer ones.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventReplayBenchmark {
+
+    @Param({"49", "499", "4999"})
+    public int historyLength;
+
+    @Param("50")
+    public int snapshotEvery;
+
+    private final OutboxEventCodec codec = new OutboxEventCodec();
+    private final OrderId id = OrderId.newId();
+    private List<StoredEvent> history;
+    private List<StoredEvent> tail;
+    private long snapshotVersion;
+
+    private record StoredEvent(String type, String payload) {}
+
+    @Setup
+    public void setUp() {
+        history = new ArrayList<>(historyLength);
+        Instant now = Instant.now();
+        for (long seq = 1; seq <= historyLength; seq++) {
+            DomainEvent event = seq == 1
+                    ? new OrderPlaced(id.value(), seq, now, "john.doe@example.com", Money.parse("42.50"))
+                    : new OrderPaid(id.value(), seq, now);
+            history.add(new StoredEvent(event.type(), codec.encode(event)));
+        }
+        snapshotVersion = (long) historyLength / snapshotEvery * snapshotEvery;
+        tail = history.subList((int) snapshotVersion, historyLength);
+    }
+
+    @Benchmark
+    public Order replayWithoutSnapshot() {
+        return Order.replay(id, null, decode(history));
+    }
+
+    @Benchmark
+    public Order replayFromSnapshot() {
+        Order snapshot = snapshotVersion == 0
+                ? null
+                : new Order(id, "john.doe@example.com", Money.parse("42.50"), snapshotVersion, OrderStatus.PAID);
+        return Order.replay(id, snapshot, decode(tail));
+    }
+
+    private List<DomainEvent> decode(List<StoredEvent> stored) {
+        List<DomainEvent> events = new ArrayList<>(stored.size());
+        for (StoredEvent event : stored) {
+            events.add(codec.decode(event.type(), event.payload()));
+        }
+        return events;
+    }
+}
@@ -0,0 +1,58 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.benchmark.PlaceOrderPipelineBenchmark.InMemoryOrderRepositoryStub;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredDomainEventPublisher;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredPlaceOrderUseCase;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cost of the {@code Metered*} decorators on the place-order hot path: the same I/O-free pipeline as
+ * {@link PlaceOrderPipelineBenchmark}, once bare and once wired like the application (use case, repository and event
+ * publisher each metered) against the Prometheus registry that backs {@code /actuator/prometheus}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationOverheadBenchmark {
+
+    private PlaceOrderUseCase plain;
+    private PlaceOrderUseCase metered;
+    private final Money total = Money.parse("42.50");
+
+    @Setup
+    public void setUp() {
+        DomainEventPublisherPort noOp = event -> Mono.empty();
+        plain = new PlaceOrderService(new InMemoryOrderRepositoryStub(), noOp);
+
+        var registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        metered = new MeteredPlaceOrderUseCase(
+                new PlaceOrderService(
+                        new MeteredOrderRepository(new InMemoryOrderRepositoryStub(), registry),
+                        new MeteredDomainEventPublisher(noOp, registry)),
+                registry);
+    }
+
+    @Benchmark
+    public OrderId plain() {
+        return plain.handle(new PlaceOrderCommand("john.doe@example.com", total)).block();
+    }
+
+    @Benchmark
+    public OrderId metered() {
+        return metered.handle(new PlaceOrderCommand("john.doe@example.com", total)).block();
+    }
+}
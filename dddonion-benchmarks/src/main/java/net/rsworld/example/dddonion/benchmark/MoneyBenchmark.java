@@ -0,0 +1,46 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.Money;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * The order total on the placement path: from the request's text to the validated value that command, aggregate and
+ * {@code OrderPlaced} carry, as {@link BigDecimal} (former) against {@link Money}; {@code moneyToColumn} adds the
+ * {@code DECIMAL(19,2)} bind value the R2DBC adapter creates from it.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    @Param({"42.50", "1234567.89"})
+    public String text;
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        BigDecimal total = new BigDecimal(text);
+        if (total.compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalArgumentException("Total must be >= 0");
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money money() {
+        Money total = Money.parse(text);
+        if (total.isNegative()) {
+            throw new IllegalArgumentException("Total must be >= 0");
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal moneyToColumn() {
+        return money().toDecimal();
+    }
+}
@@ -0,0 +1,27 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import org.openjdk.jmh.annotations.*;
+
+/** Aggregate creation, the {@code place()} transition and draining the resulting events. */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    private final Money total = Money.parse("42.50");
+
+    @Benchmark
+    public List<DomainEvent> placeAndPullEvents() {
+        var order = new Order("john.doe@example.com", total);
+        order.place();
+        return order.pullEvents();
+    }
+}
@@ -0,0 +1,83 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.infrastructure.web.OrderController;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@code POST /orders} through the WebFlux server chain (filters, routing, argument resolution, codecs, response
+ * writing): the query parameter variant against the JSON body decoded by the streaming parser. Requests are handed
+ * to the {@link HttpHandler} in memory, without a socket or an HTTP client, and the same {@link PlaceOrderService}
+ * without I/O stands behind both, so the difference is the request decoding.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// the WebFlux chain is a lot of code for the JIT; shorter warm-ups measure the compiler, not the request
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderCreationWebBenchmark {
+
+    private static final String JSON = "{\"email\":\"john.doe@example.com\",\"total\":42.50}";
+
+    private AnnotationConfigApplicationContext context;
+    private HttpHandler handler;
+
+    @Setup
+    public void setUp() {
+        var orders = new PlaceOrderPipelineBenchmark.InMemoryOrderRepositoryStub();
+        var placeOrder = new PlaceOrderService(orders, event -> Mono.empty());
+        var controller = new OrderController(placeOrder, id -> Mono.empty(), id -> Mono.empty(), query -> Flux.empty());
+        context = new AnnotationConfigApplicationContext();
+        context.register(WebFluxConfig.class);
+        context.registerBean(OrderController.class, () -> controller);
+        context.refresh();
+        handler = WebHttpHandlerBuilder.applicationContext(context).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String queryParams() {
+        return exchange(MockServerHttpRequest.post("/orders?email=john.doe@example.com&total=42.50")
+                .accept(MediaType.TEXT_PLAIN)
+                .build());
+    }
+
+    @Benchmark
+    public String jsonBody() {
+        return exchange(MockServerHttpRequest.post("/orders")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.TEXT_PLAIN)
+                .body(JSON));
+    }
+
+    private String exchange(MockServerHttpRequest request) {
+        var response = new MockServerHttpResponse();
+        handler.handle(request, response).block();
+        // no explicit status means 200
+        if (response.getStatusCode() != null && !response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("POST /orders answered " + response.getStatusCode());
+        }
+        return response.getBodyAsString().block();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @EnableWebFlux
+    static class WebFluxConfig {}
+}
@@ -0,0 +1,32 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of generating an order id: random UUIDv4 (former) against the time-ordered UUIDv7 of {@link OrderId}. */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderIdBenchmark {
+
+    @Benchmark
+    public OrderId randomV4() {
+        return new OrderId(UUID.randomUUID().toString());
+    }
+
+    @Benchmark
+    public OrderId timeOrderedV7() {
+        return OrderId.newId();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public OrderId timeOrderedV7Contended() {
+        return OrderId.newId();
+    }
+}
@@ -0,0 +1,38 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.dto.OrderRow;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import org.openjdk.jmh.annotations.*;
+
+/** Domain to row mapping and back, as done on every save and read of the R2DBC adapter. */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMapperBenchmark {
+
+    private Order order;
+    private OrderRow row;
+
+    @Setup
+    public void setUp() {
+        order = new Order("john.doe@example.com", Money.parse("42.50"));
+        order.place();
+        row = OrderMapper.toRow(order);
+    }
+
+    @Benchmark
+    public OrderRow toRow() {
+        return OrderMapper.toRow(order);
+    }
+
+    @Benchmark
+    public Order toDomain() {
+        return OrderMapper.toDomain(row);
+    }
+}
@@ -0,0 +1,88 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.DatabaseClientOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OrderRepositoryAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.ReactiveOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo.OrderR2dbcRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+/**
+ * The two {@code orders} table adapters, Spring Data repository with {@code OrderRow} against plain statements via
+ * {@link DatabaseClient}, on a driver that answers from memory ({@link CannedOrderConnectionFactory}). What is left
+ * is the adapters' own work per save and read: parameter binding, entity conversion, mapping and the reactive
+ * plumbing around the statement. For the same comparison against a MariaDB see {@link OrderRepositoryDbBenchmark}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+// Spring Data's query, conversion and proxy code takes about ten seconds of warm-up to reach steady state
+@Warmup(iterations = 10, time = 2)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderRepositoryAdapterBenchmark {
+
+    public enum Access {
+        SPRING_DATA {
+            @Override
+            ReactiveOrderRepository create(DatabaseClient db) {
+                var factory = new R2dbcRepositoryFactory(new R2dbcEntityTemplate(db.getConnectionFactory()));
+                return new OrderRepositoryAdapter(factory.getRepository(OrderR2dbcRepository.class));
+            }
+        },
+        DATABASE_CLIENT {
+            @Override
+            ReactiveOrderRepository create(DatabaseClient db) {
+                return new DatabaseClientOrderRepository(db);
+            }
+        };
+
+        abstract ReactiveOrderRepository create(DatabaseClient db);
+    }
+
+    @Param
+    public Access access;
+
+    private ReactiveOrderRepository repository;
+    private OrderId storedId;
+    private final Money total = Money.parse("42.50");
+
+    @Setup
+    public void setUp() {
+        storedId = OrderId.newId();
+        var driver = new CannedOrderConnectionFactory(
+                OrderMapper.toBinaryId(storedId), "john.doe@example.com", total.toDecimal(), "PLACED", 1L);
+        repository = access.create(DatabaseClient.create(driver));
+    }
+
+    /** Save of a newly placed order: one INSERT. */
+    @Benchmark
+    public Order insert() {
+        var order = new Order("john.doe@example.com", total);
+        order.place();
+        return repository.write(order).block();
+    }
+
+    /** Save of a loaded order after a transition: one conditional UPDATE. */
+    @Benchmark
+    public Order update() {
+        var order = new Order(storedId, "john.doe@example.com", total, 1L, OrderStatus.PLACED);
+        order.pay();
+        return repository.write(order).block();
+    }
+
+    /** Load by id: one SELECT, row to aggregate. */
+    @Benchmark
+    public Optional<Order> findById() {
+        return repository.findById(storedId).toCompletableFuture().join();
+    }
+}
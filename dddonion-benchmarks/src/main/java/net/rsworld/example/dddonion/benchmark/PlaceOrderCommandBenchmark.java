@@ -0,0 +1,26 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import org.openjdk.jmh.annotations.*;
+
+/** Cost of the command invariants (email pattern + total check) paid by every incoming order. */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaceOrderCommandBenchmark {
+
+    @Param({"john.doe@example.com", "a.very.long.email.address.with.many.dots@sub.domain.example.com"})
+    public String email;
+
+    private final Money total = Money.parse("42.50");
+
+    @Benchmark
+    public PlaceOrderCommand validate() {
+        return new PlaceOrderCommand(email, total);
+    }
+}
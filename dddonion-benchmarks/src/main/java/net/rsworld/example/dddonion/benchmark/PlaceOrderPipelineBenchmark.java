@@ -0,0 +1,67 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Full {@link PlaceOrderService#handle} pipeline (command, aggregate, save, event publishing, Reactor plumbing)
+ * without I/O: the repository is an in-memory stub and the publisher a no-op.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PlaceOrderPipelineBenchmark {
+
+    private PlaceOrderService service;
+    private final Money total = Money.parse("42.50");
+
+    @Setup
+    public void setUp() {
+        DomainEventPublisherPort noOp = event -> Mono.empty();
+        service = new PlaceOrderService(new InMemoryOrderRepositoryStub(), noOp);
+    }
+
+    @Benchmark
+    public OrderId handle() {
+        return service.handle(new PlaceOrderCommand("john.doe@example.com", total)).block();
+    }
+
+    /** Keeps the last 1024 saved orders so writes are observable while the heap stays flat over long runs. */
+    static final class InMemoryOrderRepositoryStub implements OrderRepository {
+        private final AtomicReferenceArray<Order> slots = new AtomicReferenceArray<>(1024);
+        private final AtomicLong writes = new AtomicLong();
+
+        @Override
+        public CompletionStage<Order> save(Order order) {
+            slots.set((int) (writes.getAndIncrement() & 1023), order);
+            return CompletableFuture.completedFuture(order);
+        }
+
+        @Override
+        public CompletionStage<Optional<Order>> findById(OrderId id) {
+            for (int i = 0; i < slots.length(); i++) {
+                Order order = slots.get(i);
+                if (order != null && order.id().equals(id)) {
+                    return CompletableFuture.completedFuture(Optional.of(order));
+                }
+            }
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+    }
+}
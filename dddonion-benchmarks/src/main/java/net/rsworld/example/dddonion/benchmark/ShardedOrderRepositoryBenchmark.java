@@ -0,0 +1,88 @@
+package net.rsworld.example.dddonion.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.DatabaseClientOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.mapper.OrderMapper;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardRing;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardedOrderRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Write throughput of {@link ShardedOrderRepository} by shard count. Each shard is a
+ * {@link CannedOrderConnectionFactory} that commits one write at a time, {@value #WRITE_MICROS} µs each, so one shard
+ * tops out near {@code 1 / write time} and each added shard should add as much again. {@value #CONCURRENCY} saves
+ * are kept in flight, enough to keep eight shards busy; what stays below linear is the client's own work per save
+ * (hashing, routing, binding) on the benchmark's CPU. Reported per saved order.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ShardedOrderRepositoryBenchmark {
+
+    static final int WRITE_MICROS = 500;
+    static final int ORDERS = 512;
+    static final int CONCURRENCY = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int shards;
+
+    private final List<CannedOrderConnectionFactory> drivers = new ArrayList<>();
+    private final Money total = Money.parse("42.50");
+    private OrderRepository repository;
+
+    @Setup
+    public void setUp() {
+        Map<String, OrderRepository> stores = new HashMap<>();
+        for (int i = 0; i < shards; i++) {
+            var driver = new CannedOrderConnectionFactory(
+                    OrderMapper.toBinaryId(OrderId.newId()),
+                    "john.doe@example.com",
+                    total.toDecimal(),
+                    "PLACED",
+                    1L,
+                    Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(WRITE_MICROS)));
+            drivers.add(driver);
+            stores.put("shard-" + i, new DatabaseClientOrderRepository(DatabaseClient.create(driver)));
+        }
+        var ring = new ShardRing(stores.keySet(), 256);
+        repository = new ShardedOrderRepository(stores, ring, null, new SimpleMeterRegistry());
+    }
+
+    @TearDown
+    public void tearDown() {
+        drivers.forEach(CannedOrderConnectionFactory::close);
+        drivers.clear();
+    }
+
+    /** {@value #ORDERS} newly placed orders saved with {@value #CONCURRENCY} in flight: one INSERT each. */
+    @Benchmark
+    @OperationsPerInvocation(ORDERS)
+    public Long placeOrders() {
+        return Flux.range(0, ORDERS)
+                .flatMap(
+                        i -> {
+                            var order = new Order("john.doe@example.com", total);
+                            order.place();
+                            return Mono.fromCompletionStage(() -> repository.save(order));
+                        },
+                        CONCURRENCY)
+                .count()
+                .block();
+    }
+}
@@ -0,0 +1,45 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.BatchingOrderRepository;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.SmartLifecycle;
+
+/**
+ * The group-commit writers of the order write path, one per database. They are created inside the composed
+ * {@code orderRepository} bean, so they are closed here: right after the web server has stopped taking requests, while
+ * every pool is still open, so what is queued is written before the pools are disposed.
+ */
+public class BatchingWriters implements SmartLifecycle {
+
+    private final List<BatchingOrderRepository> writers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    BatchingOrderRepository register(BatchingOrderRepository writer) {
+        writers.add(writer);
+        return writer;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        writers.forEach(BatchingOrderRepository::close);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Lifecycle beans stop in descending phase order, so this one stops after the web server. */
+    @Override
+    public int getPhase() {
+        return WebServerApplicationContext.START_STOP_LIFECYCLE_PHASE - 1;
+    }
+}
@@ -1,33 +1,642 @@
 package net.rsworld.example.dddonion.bootstrap;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
 import net.rsworld.example.dddonion.application.event.DomainEventPublisherPort;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import net.rsworld.example.dddonion.application.order.query.OrderQueryPort;
+import net.rsworld.example.dddonion.application.order.service.AdaptiveConcurrencyLimiter;
+import net.rsworld.example.dddonion.application.order.service.ConcurrencyLimitedPlaceOrderService;
+import net.rsworld.example.dddonion.application.order.service.FindOrderService;
+import net.rsworld.example.dddonion.application.order.service.IdempotentPlaceOrderService;
+import net.rsworld.example.dddonion.application.order.service.ListOrdersService;
+import net.rsworld.example.dddonion.application.order.service.PayOrderService;
 import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.application.order.service.RetryBudget;
+import net.rsworld.example.dddonion.application.order.usecase.FindOrderUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.ListOrdersUseCase;
+import net.rsworld.example.dddonion.application.order.usecase.PayOrderUseCase;
 import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.application.outbox.OutboxRelayService;
 import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredConnectionFactory;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredDomainEventPublisher;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredFindOrderUseCase;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredIdempotencyKeyPort;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredListOrdersUseCase;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredOrderQueryPort;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredPayOrderUseCase;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredPlaceOrderUseCase;
+import net.rsworld.example.dddonion.infrastructure.persistence.cache.CachingIdempotencyKeyStore;
+import net.rsworld.example.dddonion.infrastructure.persistence.cache.CachingOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.inmemory.InMemoryIdempotencyKeyStore;
+import net.rsworld.example.dddonion.infrastructure.persistence.inmemory.InMemoryOrderQueryAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.inmemory.InMemoryOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.BatchingOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.DatabaseClientOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.EventSourcedOrderRepository;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OrderRepositoryAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.OutboxOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.adapter.ReactiveOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.eventstore.EventStoreR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.idempotency.IdempotencyKeyR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxEventCodec;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.outbox.OutboxR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.query.OrderQueryR2dbcAdapter;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReadRouting;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReplicaRoutingOrderQueryPort;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReplicaRoutingOrderRepository;
 import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo.OrderR2dbcRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardRing;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardedOrderQueryPort;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardedOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.web.MoneyJsonModule;
+import net.rsworld.example.dddonion.infrastructure.web.OrderEventStream;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.logging.LoggingSystem;
+import org.springframework.boot.r2dbc.autoconfigure.R2dbcProperties;
+import org.springframework.boot.r2dbc.metrics.ConnectionPoolMetrics;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
 import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+import org.springframework.data.r2dbc.repository.support.R2dbcRepositoryFactory;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
 
 @Configuration
-@EnableR2dbcRepositories(basePackages = "net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo")
+@EnableConfigurationProperties({PersistenceProperties.class, OrdersProperties.class, WarmupProperties.class})
 public class BeansConfig {
 
+    /** Keeps orders on the heap instead of MariaDB; see {@code application-in-memory.yml}. */
+    public static final String IN_MEMORY_PROFILE = "in-memory";
+
+    static final String IDEMPOTENCY_ENABLED = "dddonion.orders.idempotency.enabled";
+    static final String REPLICA_ENABLED = "dddonion.persistence.replica.enabled";
+    static final String SHARDING_ENABLED = "dddonion.persistence.sharding.enabled";
+    static final String EVENT_STORE_ENABLED = "dddonion.persistence.event-store.enabled";
+
+    /** Default persistence: MariaDB via R2DBC. */
+    @Configuration(proxyBeanMethods = false)
+    @Profile("!" + IN_MEMORY_PROFILE)
+    @EnableR2dbcRepositories(basePackages = "net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.repo")
+    static class R2dbcPersistenceConfig {
+
+        @Bean
+        static ConnectionFactoryMetricsPostProcessor connectionFactoryMetricsPostProcessor(
+                ObjectProvider<MeterRegistry> meters) {
+            return new ConnectionFactoryMetricsPostProcessor(meters);
+        }
+
+        @Bean
+        public OrderRepository orderRepository(
+                OrderR2dbcRepository r2dbcRepo,
+                DatabaseClient db,
+                MeterRegistry meters,
+                ObjectProvider<OutboxR2dbcAdapter> outbox,
+                ReactiveTransactionManager txManager,
+                ObjectProvider<ReadRouting> readRouting,
+                ObjectProvider<OrderShards> orderShards,
+                BatchingWriters writers,
+                PersistenceProperties props) {
+            ReadRouting routing = readRouting.getIfAvailable();
+            OrderShards shards = orderShards.getIfAvailable();
+            OrderRepository store;
+            if (shards != null) {
+                if (routing != null) {
+                    throw new IllegalStateException(
+                            SHARDING_ENABLED + " and " + REPLICA_ENABLED + " cannot be enabled together");
+                }
+                // every shard gets the whole write path, so an order and its outbox events share one transaction
+                var stores = new HashMap<String, OrderRepository>();
+                for (var shard : shards.shards()) {
+                    var table = ordersTable(props.access(), shard.db(), () -> springDataRepository(shard.db()));
+                    Supplier<OutboxR2dbcAdapter> shardOutbox = () -> outboxOf(shard.db(), props, meters);
+                    stores.put(
+                            shard.name(),
+                            writePath(table, shard.db(), meters, shardOutbox, shard.transactions(), writers, props));
+                }
+                store = new ShardedOrderRepository(stores, shards.ring(), shards.previous(), meters);
+            } else {
+                ReactiveOrderRepository adapter = ordersTable(props.access(), db, () -> r2dbcRepo);
+                if (routing != null) {
+                    if (props.eventStore().enabled()) {
+                        // the event store reads its streams from the primary and never goes through the routing
+                        throw new IllegalStateException(
+                                EVENT_STORE_ENABLED + " and " + REPLICA_ENABLED + " cannot be enabled together");
+                    }
+                    var replica = routing.replica();
+                    var replicaTable = ordersTable(props.access(), replica, () -> springDataRepository(replica));
+                    adapter = new ReplicaRoutingOrderRepository(adapter, replicaTable, routing);
+                }
+                store = writePath(adapter, db, meters, outbox::getObject, txManager, writers, props);
+            }
+
+            var cache = props.cache();
+            if (cache.enabled()) {
+                store = new CachingOrderRepository(
+                        store, new CachingOrderRepository.Settings(cache.maximumSize(), cache.ttl()), meters);
+            }
+            return new MeteredOrderRepository(store, meters);
+        }
+
+        private static ReactiveOrderRepository ordersTable(
+                PersistenceProperties.Access access, DatabaseClient db, Supplier<OrderR2dbcRepository> repository) {
+            return access == PersistenceProperties.Access.DATABASE_CLIENT
+                    ? new DatabaseClientOrderRepository(db)
+                    : new OrderRepositoryAdapter(repository.get());
+        }
+
+        /** Spring Data repository on a client other than the auto-configured one, e.g. the replica's or a shard's. */
+        private static OrderR2dbcRepository springDataRepository(DatabaseClient db) {
+            return new R2dbcRepositoryFactory(new R2dbcEntityTemplate(db.getConnectionFactory()))
+                    .getRepository(OrderR2dbcRepository.class);
+        }
+
+        private static OrderRepository writePath(
+                ReactiveOrderRepository adapter,
+                DatabaseClient db,
+                MeterRegistry meters,
+                Supplier<OutboxR2dbcAdapter> outbox,
+                ReactiveTransactionManager txManager,
+                BatchingWriters writers,
+                PersistenceProperties props) {
+            var batching = props.batching();
+            if (props.eventStore().enabled()) {
+                if (!props.outbox().enabled() || batching.enabled()) {
+                    throw new IllegalStateException("dddonion.persistence.event-store needs dddonion.persistence.outbox"
+                            + " enabled and dddonion.persistence.batching disabled");
+                }
+                return new EventSourcedOrderRepository(
+                        new EventStoreR2dbcAdapter(db, new OutboxEventCodec(), meters),
+                        outbox.get(),
+                        TransactionalOperator.create(txManager),
+                        props.eventStore().snapshotEvery());
+            }
+            if (props.outbox().enabled()) {
+                if (batching.enabled()) {
+                    throw new IllegalStateException(
+                            "dddonion.persistence.batching and dddonion.persistence.outbox cannot be enabled together");
+                }
+                return new OutboxOrderRepository(adapter, outbox.get(), TransactionalOperator.create(txManager));
+            }
+            if (!batching.enabled()) {
+                return adapter;
+            }
+            return writers.register(new BatchingOrderRepository(
+                    adapter,
+                    db,
+                    new BatchingOrderRepository.Settings(
+                            batching.maxBatchSize(),
+                            batching.maxWait(),
+                            batching.maxConcurrentBatches(),
+                            batching.shutdownTimeout()),
+                    meters));
+        }
+
+        @Bean
+        public BatchingWriters batchingWriters() {
+            return new BatchingWriters();
+        }
+
+        /** Keys shared by all instances in {@code idempotency_keys}, fronted by a bounded local cache. */
+        @Bean
+        @ConditionalOnProperty(name = IDEMPOTENCY_ENABLED, havingValue = "true", matchIfMissing = true)
+        public IdempotencyKeyPort idempotencyKeyPort(DatabaseClient db, MeterRegistry meters, OrdersProperties props) {
+            var idempotency = props.idempotency();
+            var store = new IdempotencyKeyR2dbcAdapter(db, idempotency.ttl());
+            var settings = new CachingIdempotencyKeyStore.Settings(idempotency.cacheSize(), idempotency.ttl());
+            return new MeteredIdempotencyKeyPort(new CachingIdempotencyKeyStore(store, settings, meters), meters);
+        }
+
+        /** Reads the {@code orders} table directly, past repository decorators and cache. */
+        @Bean
+        public OrderQueryPort orderQueryPort(
+                DatabaseClient db,
+                MeterRegistry meters,
+                ObjectProvider<ReadRouting> readRouting,
+                ObjectProvider<OrderShards> orderShards) {
+            OrderShards shards = orderShards.getIfAvailable();
+            if (shards != null) {
+                List<OrderQueryPort> ports = shards.shards().stream()
+                        .map(shard -> (OrderQueryPort) new OrderQueryR2dbcAdapter(shard.db()))
+                        .toList();
+                return new MeteredOrderQueryPort(new ShardedOrderQueryPort(ports), meters);
+            }
+            OrderQueryPort port = new OrderQueryR2dbcAdapter(db);
+            ReadRouting routing = readRouting.getIfAvailable();
+            if (routing != null) {
+                port = new ReplicaRoutingOrderQueryPort(port, new OrderQueryR2dbcAdapter(routing.replica()), routing);
+            }
+            return new MeteredOrderQueryPort(port, meters);
+        }
+
+        /**
+         * The read replica behind its own pool, with acquire time ({@code port="ReplicaConnectionFactory"}) and pool
+         * gauges ({@code r2dbc.pool.*}, {@code name="replica"}) next to those of the primary.
+         */
+        @Bean
+        @ConditionalOnProperty(name = REPLICA_ENABLED, havingValue = "true")
+        public ReadRouting readRouting(PersistenceProperties props, MeterRegistry meters) {
+            var replica = props.replica();
+            if (replica.url() == null) {
+                throw new IllegalStateException(REPLICA_ENABLED + " needs dddonion.persistence.replica.url");
+            }
+            var pool = pool(
+                    "replica",
+                    replica.url(),
+                    replica.username(),
+                    replica.password(),
+                    replica.maxPoolSize(),
+                    replica.maxAcquireTime(),
+                    meters);
+            var settings = new ReadRouting.Settings(
+                    replica.readYourWrites(), replica.maxPinned(), replica.healthCheckTimeout(), replica.readTimeout());
+            var factory = new MeteredConnectionFactory(pool, meters, "ReplicaConnectionFactory");
+            return new ReadRouting(factory, settings, meters);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = REPLICA_ENABLED, havingValue = "true")
+        public ReplicaHealthJob replicaHealthJob(ReadRouting routing) {
+            return new ReplicaHealthJob(routing);
+        }
+
+        /**
+         * The order shards, each behind its own pool with gauges {@code r2dbc.pool.*}, {@code name="shard-<name>"}.
+         * Created after {@link ShardMigrations} has brought every shard's schema up to date.
+         */
+        @Bean
+        @DependsOn("shardMigrations")
+        @ConditionalOnProperty(name = SHARDING_ENABLED, havingValue = "true")
+        public OrderShards orderShards(PersistenceProperties props, MeterRegistry meters) {
+            var sharding = props.sharding();
+            List<String> names = sharding.shards().stream()
+                    .map(PersistenceProperties.Sharding.Shard::name)
+                    .toList();
+            if (!names.containsAll(sharding.previousShards())) {
+                throw new IllegalStateException("dddonion.persistence.sharding.previous-shards must stay configured as"
+                        + " shards until their orders have been moved");
+            }
+            var ring = new ShardRing(names, sharding.virtualNodes());
+            var previous = sharding.previousShards().isEmpty()
+                    ? null
+                    : new ShardRing(sharding.previousShards(), sharding.virtualNodes());
+            var shards = sharding.shards().stream()
+                    .map(shard -> {
+                        var pool = pool(
+                                "shard-" + shard.name(),
+                                shard.url(),
+                                shard.username(),
+                                shard.password(),
+                                shard.maxPoolSize(),
+                                shard.maxAcquireTime(),
+                                meters);
+                        return new OrderShards.Shard(
+                                shard.name(), pool, DatabaseClient.create(pool), new R2dbcTransactionManager(pool));
+                    })
+                    .toList();
+            return new OrderShards(shards, ring, previous);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = SHARDING_ENABLED, havingValue = "true")
+        public ShardMigrations shardMigrations(
+                PersistenceProperties props,
+                @Value("${spring.liquibase.change-log}") String changeLog,
+                ResourceLoader resourceLoader) {
+            return new ShardMigrations(props.sharding(), changeLog, resourceLoader);
+        }
+
+        /**
+         * A pool next to the auto-configured one, with its gauges {@code r2dbc.pool.*} tagged {@code name}. An acquire
+         * fails after {@code maxAcquireTime} instead of waiting for a connection indefinitely.
+         */
+        private static ConnectionPool pool(
+                String name,
+                String url,
+                String username,
+                String password,
+                int maxSize,
+                Duration maxAcquireTime,
+                MeterRegistry meters) {
+            if (url == null) {
+                throw new IllegalStateException("Pool " + name + " needs a url");
+            }
+            var options = ConnectionFactoryOptions.parse(url).mutate();
+            if (username != null) {
+                options.option(ConnectionFactoryOptions.USER, username);
+            }
+            if (password != null) {
+                options.option(ConnectionFactoryOptions.PASSWORD, password);
+            }
+            var pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                    .name(name)
+                    .maxSize(maxSize)
+                    .maxAcquireTime(maxAcquireTime)
+                    .build());
+            new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(meters);
+            return pool;
+        }
+
+        private static OutboxR2dbcAdapter outboxOf(
+                DatabaseClient db, PersistenceProperties props, MeterRegistry meters) {
+            return new OutboxR2dbcAdapter(db, new OutboxEventCodec(), props.outbox().maxAttempts(), meters);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "dddonion.persistence.outbox.enabled", havingValue = "true")
+        public OutboxR2dbcAdapter outboxAdapter(DatabaseClient db, PersistenceProperties props, MeterRegistry meters) {
+            return outboxOf(db, props, meters);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "dddonion.persistence.outbox.enabled", havingValue = "true")
+        public OutboxRelayJob outboxRelayJob(
+                OutboxR2dbcAdapter outbox,
+                ObjectProvider<OrderShards> orderShards,
+                DomainEventPublisherPort eventPublisher,
+                MeterRegistry meters,
+                PersistenceProperties props) {
+            int batchSize = props.outbox().relayBatchSize();
+            OrderShards shards = orderShards.getIfAvailable();
+            if (shards == null) {
+                return new OutboxRelayJob(List.of(new OutboxRelayService(outbox, eventPublisher, batchSize)));
+            }
+            // sharded orders append their events to the outbox of their own shard
+            return new OutboxRelayJob(shards.shards().stream()
+                    .map(shard ->
+                            new OutboxRelayService(outboxOf(shard.db(), props, meters), eventPublisher, batchSize))
+                    .toList());
+        }
+    }
+
+    /** Profile {@value #IN_MEMORY_PROFILE}: lock-free heap store, optionally snapshotted to a local file. */
+    @Slf4j
+    @Configuration(proxyBeanMethods = false)
+    @Profile(IN_MEMORY_PROFILE)
+    static class InMemoryPersistenceConfig {
+
+        @Bean
+        public InMemoryOrderRepository inMemoryOrderRepository(PersistenceProperties props) {
+            var settings = props.inMemory();
+            var repository = new InMemoryOrderRepository(settings.expectedOrders());
+            Path snapshot = settings.snapshotFile();
+            if (snapshot != null) {
+                try {
+                    log.info("Restored {} orders from {}", repository.restoreFrom(snapshot), snapshot);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Failed to restore orders from snapshot " + snapshot, e);
+                }
+            }
+            return repository;
+        }
+
+        @Bean
+        @Primary
+        public OrderRepository orderRepository(InMemoryOrderRepository store, MeterRegistry meters) {
+            return new MeteredOrderRepository(store, meters);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = IDEMPOTENCY_ENABLED, havingValue = "true", matchIfMissing = true)
+        public IdempotencyKeyPort idempotencyKeyPort(MeterRegistry meters, OrdersProperties props) {
+            return new MeteredIdempotencyKeyPort(new InMemoryIdempotencyKeyStore(props.idempotency().ttl()), meters);
+        }
+
+        @Bean
+        public OrderQueryPort orderQueryPort(InMemoryOrderRepository store, MeterRegistry meters) {
+            return new MeteredOrderQueryPort(new InMemoryOrderQueryAdapter(store), meters);
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "dddonion.persistence.in-memory.snapshot-file")
+        public InMemorySnapshotJob inMemorySnapshotJob(InMemoryOrderRepository orders, PersistenceProperties props) {
+            return new InMemorySnapshotJob(orders, props.inMemory().snapshotFile());
+        }
+    }
+
+    // every port and use case is wrapped once in a Metered* decorator: dddonion.port.* series tagged port/operation
+
+    @Bean
+    public DomainEventPublisherPort domainEventPublisherPort(
+            ApplicationEventPublisher applicationEventPublisher, MeterRegistry meters) {
+        DomainEventPublisherPort publisher =
+                event -> Mono.fromRunnable(() -> applicationEventPublisher.publishEvent(event));
+        return new MeteredDomainEventPublisher(publisher, meters);
+    }
+
+    /**
+     * Fan-out behind {@code GET /orders/events}, fed synchronously by every published domain event. Meters:
+     * {@code dddonion.orders.events.subscribers} and {@code dddonion.orders.events.dropped} (tagged
+     * {@code reason=drop-oldest|disconnect}).
+     */
+    @Bean
+    public OrderEventStream orderEventStream(MeterRegistry meters, OrdersProperties props) {
+        var events = props.events();
+        var stream = new OrderEventStream(
+                new OrderEventStream.Settings(events.bufferSize(), events.overflow(), events.replayWindow()));
+        Gauge.builder("dddonion.orders.events.subscribers", stream, OrderEventStream::subscribers)
+                .description("Clients connected to GET /orders/events")
+                .register(meters);
+        FunctionCounter.builder("dddonion.orders.events.dropped", stream, OrderEventStream::droppedOldest)
+                .description("Order events a slow SSE subscriber lost, or subscribers disconnected for being slow")
+                .tag("reason", "drop-oldest")
+                .register(meters);
+        FunctionCounter.builder("dddonion.orders.events.dropped", stream, OrderEventStream::disconnected)
+                .description("Order events a slow SSE subscriber lost, or subscribers disconnected for being slow")
+                .tag("reason", "disconnect")
+                .register(meters);
+        return stream;
+    }
+
+    /** Picked up by Spring Boot's {@code JsonMapper}: amounts in web responses stay plain decimal numbers. */
+    @Bean
+    public MoneyJsonModule moneyJsonModule() {
+        return new MoneyJsonModule();
+    }
+
+    /**
+     * With an {@link IdempotencyKeyPort} (the default), {@code Idempotency-Key} headers are honoured. The placement
+     * itself runs behind an {@link AdaptiveConcurrencyLimiter} (unless {@code dddonion.orders.place.limiter.enabled} is
+     * false); replays of known keys bypass it.
+     */
+    @Bean
+    public PlaceOrderUseCase placeOrderUseCase(
+            OrderRepository orders,
+            DomainEventPublisherPort eventPublisher,
+            ObjectProvider<IdempotencyKeyPort> idempotencyKeys,
+            ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+            MeterRegistry meters,
+            OrdersProperties props) {
+        return decoratePlacement(
+                new PlaceOrderService(orders, eventPublisher, props.batchConcurrency()),
+                limiter.getIfAvailable(),
+                idempotencyKeys.getIfAvailable(),
+                meters,
+                props.place().limiter().retryAfter());
+    }
+
+    /** The decorators around {@link PlaceOrderService}, shared with the warm-up so both run the same chain. */
+    private static PlaceOrderUseCase decoratePlacement(
+            PlaceOrderUseCase placeOrder,
+            AdaptiveConcurrencyLimiter limiter,
+            IdempotencyKeyPort keys,
+            MeterRegistry meters,
+            Duration retryAfter) {
+        if (limiter != null) {
+            placeOrder = new ConcurrencyLimitedPlaceOrderService(placeOrder, limiter, retryAfter);
+        }
+        if (keys != null) {
+            placeOrder = new IdempotentPlaceOrderService(placeOrder, keys);
+        }
+        return new MeteredPlaceOrderUseCase(placeOrder, meters);
+    }
+
+    /** Exposes the limit, the placements in flight and the rejected ones as {@code dddonion.orders.place.limiter.*}. */
+    @Bean
+    @ConditionalOnProperty(name = "dddonion.orders.place.limiter.enabled", havingValue = "true", matchIfMissing = true)
+    public AdaptiveConcurrencyLimiter placeOrderLimiter(MeterRegistry meters, OrdersProperties props) {
+        var settings = props.place().limiter();
+        var limiter = new AdaptiveConcurrencyLimiter(new AdaptiveConcurrencyLimiter.Settings(
+                settings.initialLimit(),
+                settings.minLimit(),
+                settings.maxLimit(),
+                settings.rttTolerance(),
+                settings.smoothing()));
+        Gauge.builder("dddonion.orders.place.limiter.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Concurrent order placements currently admitted")
+                .register(meters);
+        Gauge.builder("dddonion.orders.place.limiter.in-flight", limiter, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Order placements running right now")
+                .register(meters);
+        FunctionCounter.builder("dddonion.orders.place.limiter.rejected", limiter, AdaptiveConcurrencyLimiter::rejected)
+                .description("Order placements refused with 503 because the limit was reached")
+                .register(meters);
+        return limiter;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = IDEMPOTENCY_ENABLED, havingValue = "true", matchIfMissing = true)
+    public IdempotencyKeyPurgeJob idempotencyKeyPurgeJob(IdempotencyKeyPort keys, OrdersProperties props) {
+        return new IdempotencyKeyPurgeJob(keys, props.idempotency().purgeBatchSize());
+    }
+
+    /**
+     * Readiness contributor {@code warmup}: {@code OUT_OF_SERVICE} until the order path is warm. Its duration is
+     * exposed as {@code dddonion.warmup.duration}.
+     *
+     * <p>The synthetic placements get their own limiter and meter registry: their microsecond latencies would drag the
+     * live limiter's baseline down, and they are no placements to count.
+     */
+    @Bean
+    public StartupWarmup warmup(
+            ObjectProvider<ConnectionFactory> connectionFactory,
+            OrderRepository orders,
+            ObjectProvider<IdempotencyKeyPort> idempotencyKeys,
+            ObjectProvider<AdaptiveConcurrencyLimiter> limiter,
+            ObjectProvider<LoggingSystem> logging,
+            ObjectProvider<R2dbcProperties> r2dbc,
+            MeterRegistry meters,
+            OrdersProperties ordersProps,
+            WarmupProperties props) {
+        Duration retryAfter = ordersProps.place().limiter().retryAfter();
+        AdaptiveConcurrencyLimiter live = limiter.getIfAvailable();
+        IdempotencyKeyPort keys = idempotencyKeys.getIfAvailable();
+        UnaryOperator<PlaceOrderUseCase> decorators = placement -> decoratePlacement(
+                placement,
+                live == null ? null : new AdaptiveConcurrencyLimiter(live.settings()),
+                keys,
+                new SimpleMeterRegistry(),
+                retryAfter);
+        var warmup = new StartupWarmup(
+                connectionFactory.getIfAvailable(),
+                orders,
+                decorators,
+                logging.getIfAvailable(),
+                new StartupWarmup.Settings(
+                        props.enabled(),
+                        warmupConnections(props, r2dbc),
+                        props.probes(),
+                        props.iterations(),
+                        props.budget()));
+        TimeGauge.builder("dddonion.warmup.duration", warmup, TimeUnit.NANOSECONDS, w -> w.duration().toNanos())
+                .description("Time the startup warm-up took before the instance turned ready")
+                .register(meters);
+        return warmup;
+    }
+
+    /** {@code dddonion.warmup.connections}, by default the R2DBC pool's size; without a pool there is none to fill. */
+    private static int warmupConnections(WarmupProperties props, ObjectProvider<R2dbcProperties> r2dbc) {
+        if (props.connections() != null) {
+            return props.connections();
+        }
+        R2dbcProperties pool = r2dbc.getIfAvailable();
+        return pool == null ? 0 : pool.getPool().getMaxSize();
+    }
+
     @Bean
-    public OrderRepository orderRepository(OrderR2dbcRepository r2dbcRepo) {
-        return new OrderRepositoryAdapter(r2dbcRepo);
+    public FindOrderUseCase findOrderUseCase(OrderRepository orders, MeterRegistry meters) {
+        return new MeteredFindOrderUseCase(new FindOrderService(orders), meters);
     }
 
     @Bean
-    public DomainEventPublisherPort domainEventPublisherPort(ApplicationEventPublisher applicationEventPublisher) {
-        return event -> Mono.fromRunnable(() -> applicationEventPublisher.publishEvent(event));
+    public ListOrdersUseCase listOrdersUseCase(OrderQueryPort orders, MeterRegistry meters, OrdersProperties props) {
+        return new MeteredListOrdersUseCase(new ListOrdersService(orders, props.list().maxLimit()), meters);
     }
 
+    /**
+     * Every adapter reports a lost optimistic lock as {@link OptimisticLockingFailureException}; those are retried
+     * within the shared budget, whose remaining retries are exposed as {@code dddonion.orders.pay.retry.budget}.
+     */
     @Bean
-    public PlaceOrderUseCase placeOrderUseCase(OrderRepository orders, DomainEventPublisherPort eventPublisher) {
-        return new PlaceOrderService(orders, eventPublisher);
+    public PayOrderUseCase payOrderUseCase(
+            OrderRepository orders,
+            DomainEventPublisherPort eventPublisher,
+            MeterRegistry meters,
+            OrdersProperties props) {
+        var pay = props.pay();
+        var budget = new RetryBudget(pay.retryBudget().ratio(), pay.retryBudget().maxTokens());
+        Gauge.builder("dddonion.orders.pay.retry.budget", budget, RetryBudget::available)
+                .description("Payment retries that may be spent on optimistic-lock conflicts right now")
+                .register(meters);
+        var service = new PayOrderService(
+                orders,
+                eventPublisher,
+                OptimisticLockingFailureException.class::isInstance,
+                new PayOrderService.Settings(pay.maxRetries(), pay.minBackoff(), pay.maxBackoff(), pay.jitter()),
+                budget);
+        return new MeteredPayOrderUseCase(service, meters);
     }
 }
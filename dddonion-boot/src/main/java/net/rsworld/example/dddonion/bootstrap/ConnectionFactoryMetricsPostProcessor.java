@@ -0,0 +1,29 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Puts a {@link MeteredConnectionFactory} in front of the auto-configured connection pool. Boot builds the pool
+ * without a hook for its metrics recorder, so acquire time is measured at the factory instead.
+ */
+class ConnectionFactoryMetricsPostProcessor implements BeanPostProcessor {
+
+    // resolved lazily: post-processors are created before the registry exists
+    private final ObjectProvider<MeterRegistry> meters;
+
+    ConnectionFactoryMetricsPostProcessor(ObjectProvider<MeterRegistry> meters) {
+        this.meters = meters;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof ConnectionFactory factory && !(bean instanceof MeteredConnectionFactory)) {
+            return new MeteredConnectionFactory(factory, meters.getObject());
+        }
+        return bean;
+    }
+}
@@ -4,12 +4,18 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.bind.Binder;
 import org.springframework.context.ApplicationContextInitializer;
 import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.aot.AbstractAotProcessor;
 import org.springframework.core.env.Environment;
 
-/** Ensures the configured MariaDB database exists before Liquibase initializes. */
+/**
+ * Ensures the configured MariaDB database, and with {@code dddonion.persistence.sharding} every shard database, exists
+ * before Liquibase initializes.
+ */
 @Slf4j
 public class DatabaseBootstrapInitializer implements ApplicationContextInitializer<ConfigurableApplicationContext> {
 
@@ -17,24 +23,49 @@ public class DatabaseBootstrapInitializer implements ApplicationContextInitializ
 
     @Override
     public void initialize(ConfigurableApplicationContext applicationContext) {
+        // build-time AOT processing (profile aot-cache) only records bean definitions; there is no database to create
+        if (Boolean.getBoolean(AbstractAotProcessor.AOT_PROCESSING)) {
+            return;
+        }
         Environment env = applicationContext.getEnvironment();
 
         String jdbcUrl = env.getProperty("spring.liquibase.url");
-        if (jdbcUrl == null || jdbcUrl.isBlank()) {
-            return;
+        if (jdbcUrl != null && !jdbcUrl.isBlank()) {
+            String user =
+                    firstNonBlank(env.getProperty("spring.liquibase.user"), env.getProperty("spring.r2dbc.username"));
+            String password = firstNonBlank(
+                    env.getProperty("spring.liquibase.password"), env.getProperty("spring.r2dbc.password"), "");
+            ensureDatabase(jdbcUrl, user, password, "spring.liquibase.user");
+        }
+        for (var shard : shards(env)) {
+            if (shard.jdbcUrl() == null || shard.jdbcUrl().isBlank()) {
+                throw new IllegalStateException("Cannot bootstrap shard " + shard.name() + ": missing jdbc-url");
+            }
+            ensureDatabase(
+                    shard.jdbcUrl(),
+                    shard.username(),
+                    firstNonBlank(shard.password(), ""),
+                    "dddonion.persistence.sharding.shards[].username");
         }
+    }
+
+    /** The order shards to set up alongside the main database; none unless sharding is enabled. */
+    static List<PersistenceProperties.Sharding.Shard> shards(Environment env) {
+        var sharding = Binder.get(env)
+                .bind("dddonion.persistence.sharding", PersistenceProperties.Sharding.class)
+                .orElse(null);
+        return sharding != null && sharding.enabled() ? sharding.shards() : List.of();
+    }
+
+    private static void ensureDatabase(String jdbcUrl, String user, String password, String userProperty) {
         if (!jdbcUrl.startsWith(JDBC_MARIADB_PREFIX)) {
             log.debug("Skipping DB bootstrap for unsupported JDBC URL: {}", jdbcUrl);
             return;
         }
 
         DbTarget target = parse(jdbcUrl);
-        String user = firstNonBlank(env.getProperty("spring.liquibase.user"), env.getProperty("spring.r2dbc.username"));
-        String password = firstNonBlank(
-                env.getProperty("spring.liquibase.password"), env.getProperty("spring.r2dbc.password"), "");
-
         if (user == null || user.isBlank()) {
-            throw new IllegalStateException("Cannot bootstrap database: missing spring.liquibase.user");
+            throw new IllegalStateException("Cannot bootstrap database: missing " + userProperty);
         }
 
         String sql = "CREATE DATABASE IF NOT EXISTS `" + target.databaseName().replace("`", "``") + "`";
@@ -0,0 +1,35 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.idempotency.IdempotencyKeyPort;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Deletes expired idempotency keys on the scheduler thread, {@code batchSize} per statement so a large backlog never
+ * holds locks on the whole table; a run continues until a batch comes back short.
+ */
+@Slf4j
+public class IdempotencyKeyPurgeJob {
+
+    private final IdempotencyKeyPort keys;
+    private final int batchSize;
+
+    public IdempotencyKeyPurgeJob(IdempotencyKeyPort keys, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        this.keys = keys;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${dddonion.orders.idempotency.purge-interval:1m}")
+    public void purge() {
+        long purged = 0;
+        Integer batch;
+        do {
+            batch = keys.purgeExpired(batchSize).block();
+            purged += batch == null ? 0 : batch;
+        } while (batch != null && batch == batchSize);
+        if (purged > 0) {
+            log.debug("Purged {} expired idempotency keys", purged);
+        }
+    }
+}
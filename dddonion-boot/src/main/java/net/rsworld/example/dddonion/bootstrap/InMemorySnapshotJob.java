@@ -0,0 +1,40 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.infrastructure.persistence.inmemory.InMemoryOrderRepository;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/** Periodically writes the in-memory order store to disk, and once more on shutdown. */
+@Slf4j
+public class InMemorySnapshotJob implements DisposableBean {
+
+    private final InMemoryOrderRepository orders;
+    private final Path file;
+
+    public InMemorySnapshotJob(InMemoryOrderRepository orders, Path file) {
+        this.orders = orders;
+        this.file = file;
+    }
+
+    @Scheduled(
+            initialDelayString = "${dddonion.persistence.in-memory.snapshot-interval:60s}",
+            fixedDelayString = "${dddonion.persistence.in-memory.snapshot-interval:60s}")
+    public void snapshot() {
+        try {
+            long start = System.nanoTime();
+            int written = orders.snapshotTo(file);
+            log.debug("Wrote {} orders to {} in {} ms", written, file, (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            // keep serving; the previous snapshot is still intact thanks to the atomic move
+            log.warn("Failed to write order snapshot to {}", file, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        snapshot();
+    }
+}
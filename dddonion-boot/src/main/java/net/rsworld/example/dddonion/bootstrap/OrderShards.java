@@ -0,0 +1,22 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import io.r2dbc.pool.ConnectionPool;
+import java.util.List;
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.shard.ShardRing;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+
+/**
+ * The databases of {@code dddonion.persistence.sharding} with their rings: one pool, client and transaction manager
+ * per shard, in configuration order. {@code previous} is {@code null} unless orders are being moved. Disposes the
+ * pools on close.
+ */
+public record OrderShards(List<Shard> shards, ShardRing ring, ShardRing previous) implements AutoCloseable {
+
+    public record Shard(String name, ConnectionPool pool, DatabaseClient db, ReactiveTransactionManager transactions) {}
+
+    @Override
+    public void close() {
+        shards.forEach(shard -> shard.pool().dispose());
+    }
+}
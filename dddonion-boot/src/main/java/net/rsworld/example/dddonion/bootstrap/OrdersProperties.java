@@ -0,0 +1,61 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import java.time.Duration;
+import net.rsworld.example.dddonion.infrastructure.web.OrderEventStream;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/** Tuning knobs for the order use cases and their endpoints ({@code dddonion.orders.*}). */
+@ConfigurationProperties("dddonion.orders")
+public record OrdersProperties(
+        @DefaultValue("16") int batchConcurrency,
+        @DefaultValue Idempotency idempotency,
+        @DefaultValue Events events,
+        @DefaultValue Listing list,
+        @DefaultValue Place place,
+        @DefaultValue Pay pay) {
+
+    /**
+     * {@code Idempotency-Key} handling: a key is remembered for {@code ttl}, the last {@code cacheSize} completed keys
+     * also locally. Expired keys are purged every {@code purgeInterval}, {@code purgeBatchSize} rows per statement.
+     */
+    public record Idempotency(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("24h") Duration ttl,
+            @DefaultValue("10000") long cacheSize,
+            @DefaultValue("1m") Duration purgeInterval,
+            @DefaultValue("500") int purgeBatchSize) {}
+
+    /** Buffer and replay depth of {@code GET /orders/events}. */
+    public record Events(
+            @DefaultValue("256") int bufferSize,
+            @DefaultValue("DROP_OLDEST") OrderEventStream.Overflow overflow,
+            @DefaultValue("1024") int replayWindow) {}
+
+    /** {@code GET /orders}: pages hold at most {@code maxLimit} orders. */
+    public record Listing(@DefaultValue("1000") int maxLimit) {}
+
+    public record Place(@DefaultValue Limiter limiter) {
+
+        /** Concurrency limit of {@code POST /orders}; a rejected call is told to retry after {@code retryAfter}. */
+        public record Limiter(
+                @DefaultValue("true") boolean enabled,
+                @DefaultValue("20") int initialLimit,
+                @DefaultValue("4") int minLimit,
+                @DefaultValue("200") int maxLimit,
+                @DefaultValue("1.5") double rttTolerance,
+                @DefaultValue("0.2") double smoothing,
+                @DefaultValue("1s") Duration retryAfter) {}
+    }
+
+    /** Retries of {@code POST /orders/{id}/pay} after a lost optimistic lock, bounded by a shared retry budget. */
+    public record Pay(
+            @DefaultValue("3") int maxRetries,
+            @DefaultValue("5ms") Duration minBackoff,
+            @DefaultValue("100ms") Duration maxBackoff,
+            @DefaultValue("0.5") double jitter,
+            @DefaultValue Budget retryBudget) {
+
+        public record Budget(@DefaultValue("0.2") double ratio, @DefaultValue("50") int maxTokens) {}
+    }
+}
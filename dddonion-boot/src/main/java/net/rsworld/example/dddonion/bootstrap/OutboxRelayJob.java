@@ -0,0 +1,32 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.outbox.OutboxRelayService;
+import org.springframework.scheduling.annotation.Scheduled;
+import reactor.core.publisher.Flux;
+
+/**
+ * Drives the outbox relays on the scheduler thread, one per database holding an outbox (several when orders are
+ * sharded); a run drains them one after the other before the next delay starts.
+ */
+@Slf4j
+public class OutboxRelayJob {
+
+    private final List<OutboxRelayService> relays;
+
+    public OutboxRelayJob(List<OutboxRelayService> relays) {
+        this.relays = List.copyOf(relays);
+    }
+
+    @Scheduled(fixedDelayString = "${dddonion.persistence.outbox.relay-interval:200ms}")
+    public void relay() {
+        Long delivered = Flux.fromIterable(relays)
+                .concatMap(OutboxRelayService::relayPending)
+                .reduce(0L, Long::sum)
+                .block();
+        if (delivered != null && delivered > 0) {
+            log.debug("Relayed {} outbox events", delivered);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/** Tuning knobs for the {@code OrderRepository} wiring ({@code dddonion.persistence.*}). */
+@ConfigurationProperties("dddonion.persistence")
+public record PersistenceProperties(
+        @DefaultValue("spring-data") Access access,
+        @DefaultValue Batching batching,
+        @DefaultValue Outbox outbox,
+        @DefaultValue EventStore eventStore,
+        @DefaultValue Cache cache,
+        @DefaultValue Replica replica,
+        @DefaultValue Sharding sharding,
+        @DefaultValue InMemory inMemory) {
+
+    /**
+     * How the {@code orders} table is read and written: through the Spring Data repository and its entity, or with
+     * plain R2DBC statements bound from and mapped to the aggregate directly.
+     */
+    public enum Access {
+        SPRING_DATA,
+        DATABASE_CLIENT
+    }
+
+    /**
+     * Group-commit of new orders; off by default so every save is its own statement. On shutdown the queued inserts
+     * get {@code shutdownTimeout} to be written.
+     */
+    public record Batching(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("64") int maxBatchSize,
+            @DefaultValue("5ms") Duration maxWait,
+            @DefaultValue("4") int maxConcurrentBatches,
+            @DefaultValue("10s") Duration shutdownTimeout) {}
+
+    /**
+     * Transactional outbox: events are stored with the order and delivered by a scheduled relay. An entry that fails
+     * {@code maxAttempts} relay runs is parked in the table instead of blocking the entries behind it.
+     */
+    public record Outbox(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("100") int relayBatchSize,
+            @DefaultValue("200ms") Duration relayInterval,
+            @DefaultValue("10") int maxAttempts) {}
+
+    /**
+     * Event-sourced orders: events appended to {@code domain_events} instead of an {@code orders} row, with a snapshot
+     * every {@code snapshotEvery} events. Needs the outbox for delivery.
+     */
+    public record EventStore(@DefaultValue("false") boolean enabled, @DefaultValue("50") int snapshotEvery) {}
+
+    /** Read-through aggregate cache for status lookups; refreshed by every successful save. */
+    public record Cache(
+            @DefaultValue("true") boolean enabled,
+            @DefaultValue("10000") long maximumSize,
+            @DefaultValue("30s") Duration ttl) {}
+
+    /**
+     * Read replica for {@code findById} and listings; saves always go to {@code spring.r2dbc.url}. Reads of an order or
+     * customer saved less than {@code readYourWrites} ago stay on the primary, as do all reads while the replica is
+     * down. The replica's own pool holds at most {@code maxPoolSize} connections and fails an acquire after
+     * {@code maxAcquireTime}; a replica read without an answer after {@code readTimeout} is retried on the primary.
+     */
+    public record Replica(
+            @DefaultValue("false") boolean enabled,
+            String url,
+            String username,
+            String password,
+            @DefaultValue("10") int maxPoolSize,
+            @DefaultValue("500ms") Duration maxAcquireTime,
+            @DefaultValue("1s") Duration readTimeout,
+            @DefaultValue("2s") Duration readYourWrites,
+            @DefaultValue("100000") long maxPinned,
+            @DefaultValue("5s") Duration healthCheckInterval,
+            @DefaultValue("1s") Duration healthCheckTimeout) {}
+
+    /**
+     * Orders hash-sharded by id over several databases, each with its own pool and the full schema (bootstrapped and
+     * migrated at startup like {@code spring.r2dbc.url}, which keeps the idempotency keys). Placement follows a
+     * consistent-hash ring over the shard names with {@code virtualNodes} points per shard. After adding shards,
+     * {@code previousShards} lists the names of the ring before, until the orders that changed owner have been moved.
+     */
+    public record Sharding(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("256") int virtualNodes,
+            @DefaultValue List<Shard> shards,
+            @DefaultValue List<String> previousShards) {
+
+        /**
+         * One database: {@code url} for R2DBC and {@code jdbcUrl} for bootstrap and Liquibase. The {@code name} places
+         * the shard on the ring, so it must stay the same when the database moves to another host. Its pool fails an
+         * acquire after {@code maxAcquireTime}.
+         */
+        public record Shard(
+                String name,
+                String url,
+                String jdbcUrl,
+                String username,
+                String password,
+                @DefaultValue("10") int maxPoolSize,
+                @DefaultValue("2s") Duration maxAcquireTime) {}
+    }
+
+    /** Heap store of profile {@code in-memory}; snapshots are only taken when {@code snapshotFile} is set. */
+    public record InMemory(
+            @DefaultValue("1024") int expectedOrders,
+            Path snapshotFile,
+            @DefaultValue("60s") Duration snapshotInterval) {}
+}
@@ -0,0 +1,19 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import net.rsworld.example.dddonion.infrastructure.persistence.r2dbc.replica.ReadRouting;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/** Probes the read replica on the scheduler thread; the only way a replica marked down takes reads again. */
+public class ReplicaHealthJob {
+
+    private final ReadRouting routing;
+
+    public ReplicaHealthJob(ReadRouting routing) {
+        this.routing = routing;
+    }
+
+    @Scheduled(fixedDelayString = "${dddonion.persistence.replica.health-check-interval:5s}")
+    public void check() {
+        routing.checkReplica().block();
+    }
+}
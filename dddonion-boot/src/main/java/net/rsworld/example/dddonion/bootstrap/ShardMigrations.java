@@ -0,0 +1,41 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import liquibase.exception.LiquibaseException;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Runs the Liquibase changelog against every shard at startup, as Spring Boot does for {@code spring.liquibase.url}.
+ * The databases themselves are created beforehand by {@link DatabaseBootstrapInitializer}.
+ */
+@Slf4j
+public class ShardMigrations implements InitializingBean {
+
+    private final PersistenceProperties.Sharding sharding;
+    private final String changeLog;
+    private final ResourceLoader resourceLoader;
+
+    public ShardMigrations(PersistenceProperties.Sharding sharding, String changeLog, ResourceLoader resourceLoader) {
+        this.sharding = sharding;
+        this.changeLog = changeLog;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws LiquibaseException {
+        for (var shard : sharding.shards()) {
+            if (shard.jdbcUrl() == null) {
+                throw new IllegalStateException("Shard " + shard.name() + " needs a jdbc-url for its migrations");
+            }
+            var liquibase = new SpringLiquibase();
+            liquibase.setDataSource(new DriverManagerDataSource(shard.jdbcUrl(), shard.username(), shard.password()));
+            liquibase.setChangeLog(changeLog);
+            liquibase.setResourceLoader(resourceLoader);
+            liquibase.afterPropertiesSet();
+            log.info("Migrated shard {}", shard.name());
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Warms the order write path once the server is up and reports {@code OUT_OF_SERVICE} to the readiness group until it
+ * is done, so no traffic reaches a cold instance:
+ *
+ * <ol>
+ *   <li>opens {@code connections} pool connections at once (profile {@code in-memory} has no pool),
+ *   <li>runs {@code probes} lookups of unknown ids through the real {@link OrderRepository}, which prepares its
+ *       statements and exercises the repository decorators without writing anything,
+ *   <li>runs {@code iterations} synthetic placements through the real {@link PlaceOrderService} and the same
+ *       decorators as the live use case, against a repository that discards the order and a publisher that drops its
+ *       events, so the JIT compiles the hot path. {@code PlaceOrderService} logs at {@code WARN} meanwhile.
+ * </ol>
+ *
+ * Every step stops when the {@code budget} is spent; the instance then turns ready with what it has.
+ */
+@Slf4j
+public class StartupWarmup implements ApplicationRunner, HealthIndicator {
+
+    private static final OrderRepository DISCARDING_REPOSITORY = new OrderRepository() {
+        @Override
+        public CompletionStage<Order> save(Order order) {
+            return CompletableFuture.completedFuture(order);
+        }
+
+        @Override
+        public CompletionStage<Optional<Order>> findById(OrderId id) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+    };
+
+    private final ConnectionFactory connectionFactory;
+    private final OrderRepository orders;
+    private final UnaryOperator<PlaceOrderUseCase> decorators;
+    private final LoggingSystem logging;
+    private final Settings settings;
+    private volatile Result result;
+
+    /**
+     * {@code connectionFactory} is {@code null} without a database, {@code logging} if the log levels are not managed
+     * by Spring Boot. {@code decorators} wraps the synthetic {@link PlaceOrderService} like the live one; it must not
+     * share state with the live chain, e.g. its limiter.
+     */
+    public StartupWarmup(
+            ConnectionFactory connectionFactory,
+            OrderRepository orders,
+            UnaryOperator<PlaceOrderUseCase> decorators,
+            LoggingSystem logging,
+            Settings settings) {
+        this.connectionFactory = connectionFactory;
+        this.orders = orders;
+        this.decorators = decorators;
+        this.logging = logging;
+        this.settings = settings;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!settings.enabled()) {
+            result = new Result(Duration.ZERO, 0, 0, 0, false);
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + settings.budget().toNanos();
+        int connections = fillPool(deadline);
+        int probes = probeRepository(deadline);
+        int iterations = placeSynthetic(deadline);
+        result = new Result(
+                Duration.ofNanos(System.nanoTime() - start),
+                connections,
+                probes,
+                iterations,
+                System.nanoTime() - deadline >= 0);
+        log.info(
+                "Warm-up done in {} ms: {} connections, {} repository probes, {} synthetic placements{}",
+                result.duration().toMillis(),
+                connections,
+                probes,
+                iterations,
+                result.budgetExhausted() ? " (budget of " + settings.budget() + " exhausted)" : "");
+    }
+
+    private int fillPool(long deadline) {
+        if (connectionFactory == null || settings.connections() == 0) {
+            return 0;
+        }
+        // held all at once, so the pool has to open that many instead of handing out the same one again
+        Mono<Integer> opened = Flux.range(0, settings.connections())
+                .flatMap(i -> Mono.from(connectionFactory.create()), settings.connections())
+                .collectList()
+                .flatMap(held -> Flux.fromIterable(held)
+                        .flatMap(Connection::close)
+                        .then(Mono.just(held.size())));
+        return blockWithin(opened, deadline, "opening pool connections");
+    }
+
+    private int probeRepository(long deadline) {
+        if (settings.probes() == 0) {
+            return 0;
+        }
+        Mono<Integer> probed = Flux.range(0, settings.probes())
+                .flatMap(
+                        i -> Mono.fromCompletionStage(() -> orders.findById(OrderId.newId())),
+                        Math.max(1, settings.connections()))
+                .count()
+                .map(Long::intValue);
+        return blockWithin(probed, deadline, "probing the order repository");
+    }
+
+    private static int blockWithin(Mono<Integer> step, long deadline, String what) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+            return 0;
+        }
+        try {
+            return step.block(Duration.ofNanos(remaining));
+        } catch (RuntimeException e) {
+            // a warm-up that fails is no reason to stay unready; the r2dbc health check covers a missing database
+            log.warn("Warm-up step failed while {}: {}", what, e.toString());
+            return 0;
+        }
+    }
+
+    private int placeSynthetic(long deadline) {
+        if (settings.iterations() == 0 || System.nanoTime() - deadline >= 0) {
+            return 0;
+        }
+        PlaceOrderUseCase placement =
+                decorators.apply(new PlaceOrderService(DISCARDING_REPOSITORY, event -> Mono.empty(), 1));
+        // every placement is logged at INFO, which would bury the startup log under the synthetic ones
+        String logger = PlaceOrderService.class.getName();
+        LoggerConfiguration configured = logging == null ? null : logging.getLoggerConfiguration(logger);
+        if (logging != null) {
+            logging.setLogLevel(logger, LogLevel.WARN);
+        }
+        int iterations = 0;
+        try {
+            while (iterations < settings.iterations() && System.nanoTime() - deadline < 0) {
+                var cmd = new PlaceOrderCommand(
+                        "warmup" + iterations + "@example.com", Money.ofMinor(iterations % 10_000 + 1));
+                placement.handle(cmd).block();
+                iterations++;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Warm-up step failed while placing synthetic orders: {}", e.toString());
+        } finally {
+            if (logging != null) {
+                logging.setLogLevel(logger, configured == null ? null : configured.getConfiguredLevel());
+            }
+        }
+        return iterations;
+    }
+
+    @Override
+    public Health health() {
+        Result done = result;
+        if (done == null) {
+            return Health.outOfService().withDetail("warmup", "running").build();
+        }
+        return Health.up()
+                .withDetail("durationMs", done.duration().toMillis())
+                .withDetail("connections", done.connections())
+                .withDetail("probes", done.probes())
+                .withDetail("iterations", done.iterations())
+                .withDetail("budgetExhausted", done.budgetExhausted())
+                .build();
+    }
+
+    /** How long the warm-up took; zero while it is still running. */
+    public Duration duration() {
+        Result done = result;
+        return done == null ? Duration.ZERO : done.duration();
+    }
+
+    /** Amount of warm-up work and its time budget ({@code dddonion.warmup.*}). */
+    public record Settings(boolean enabled, int connections, int probes, int iterations, Duration budget) {
+        public Settings {
+            if (connections < 0) throw new IllegalArgumentException("connections must be >= 0");
+            if (probes < 0) throw new IllegalArgumentException("probes must be >= 0");
+            if (iterations < 0) throw new IllegalArgumentException("iterations must be >= 0");
+            if (budget == null || budget.isNegative()) throw new IllegalArgumentException("budget must be >= 0");
+        }
+    }
+
+    private record Result(Duration duration, int connections, int probes, int iterations, boolean budgetExhausted) {}
+}
@@ -0,0 +1,17 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Startup warm-up of {@link StartupWarmup} ({@code dddonion.warmup.*}). Without {@code connections} as many pool
+ * connections are opened as {@code spring.r2dbc.pool.max-size} allows.
+ */
+@ConfigurationProperties("dddonion.warmup")
+public record WarmupProperties(
+        @DefaultValue("true") boolean enabled,
+        Integer connections,
+        @DefaultValue("200") int probes,
+        @DefaultValue("20000") int iterations,
+        @DefaultValue("15s") Duration budget) {}
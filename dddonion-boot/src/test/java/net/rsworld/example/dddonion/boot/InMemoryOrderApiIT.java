@@ -0,0 +1,193 @@
+package net.rsworld.example.dddonion.boot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.r2dbc.spi.ConnectionFactory;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.stream.IntStream;
+import net.rsworld.example.dddonion.bootstrap.BeansConfig;
+import net.rsworld.example.dddonion.bootstrap.DddOnionApplication;
+import net.rsworld.example.dddonion.bootstrap.InMemorySnapshotJob;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import net.rsworld.example.dddonion.infrastructure.metrics.MeteredOrderRepository;
+import net.rsworld.example.dddonion.infrastructure.persistence.inmemory.InMemoryOrderRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+/** Runs the application with profile "in-memory": no database container needed. */
+@ActiveProfiles(BeansConfig.IN_MEMORY_PROFILE)
+@SpringBootTest(classes = DddOnionApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class InMemoryOrderApiIT {
+
+    @TempDir
+    static Path snapshots;
+
+    @Value("${local.server.port}")
+    int port;
+
+    @Autowired
+    ApplicationContext context;
+
+    @Autowired
+    InMemorySnapshotJob snapshotJob;
+
+    @DynamicPropertySource
+    static void registerProps(DynamicPropertyRegistry registry) {
+        registry.add(
+                "dddonion.persistence.in-memory.snapshot-file",
+                () -> snapshots.resolve("orders.snapshot").toString());
+    }
+
+    @Test
+    @DisplayName("Legt eine Order ohne Datenbank an, liest, bezahlt, listet und streamt sie und schreibt den Snapshot")
+    void createAndGetOrder_withoutDatabase() throws Exception {
+        assertThat(context.getBean(OrderRepository.class)).isInstanceOf(MeteredOrderRepository.class);
+        assertThat(context.getBean(InMemoryOrderRepository.class).size()).isZero();
+        assertThat(context.getBeanNamesForType(ConnectionFactory.class)).isEmpty();
+        var client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+        client.get()
+                .uri("/actuator/health/readiness")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.status")
+                .isEqualTo("UP");
+
+        String id = client.post()
+                .uri(uri -> uri.path("/orders")
+                        .queryParam("email", "test@example.com")
+                        .queryParam("total", "19.99")
+                        .build())
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        client.get()
+                .uri("/orders/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.id")
+                .isEqualTo(id)
+                .jsonPath("$.status")
+                .isEqualTo("PLACED");
+
+        assertThat(context.getBean(InMemoryOrderRepository.class).size()).isEqualTo(1);
+        client.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .contains("dddonion_port_latency_seconds_bucket{")
+                        .contains("dddonion_port_latency_seconds_count{operation=\"save\",port=\"OrderRepository\"} 1")
+                        .contains("dddonion_port_in_flight{operation=\"handle\",port=\"PlaceOrderUseCase\"} 0")
+                        .contains("dddonion_monitor_events_queue_depth")
+                        .contains("dddonion_monitor_events_dropped_total{reason=\"drop-oldest\"} 0"));
+
+        client.post()
+                .uri("/orders/{id}/pay", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.status")
+                .isEqualTo("PAID")
+                .jsonPath("$.version")
+                .isEqualTo(2);
+        client.post().uri("/orders/{id}/pay", id).exchange().expectStatus().isEqualTo(409);
+        client.get()
+                .uri("/actuator/prometheus")
+                .exchange()
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .contains("dddonion_orders_pay_retry_budget 50")
+                        .contains("dddonion_orders_events_subscribers 0")
+                        .contains("dddonion_orders_place_limiter_limit 20")
+                        .contains("dddonion_orders_place_limiter_rejected_total 0")
+                        .contains("dddonion_warmup_duration_seconds")
+                        .contains("port_latency_seconds_count{operation=\"handle\",port=\"PayOrderUseCase\"} 2")
+                        .contains("exception=\"OrderNotPayableException\","
+                                + "operation=\"handle\",port=\"PayOrderUseCase\""));
+
+        client.get()
+                .uri("/orders?status=paid&customer=test@example.com")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.length()")
+                .isEqualTo(1)
+                .jsonPath("$[0].id")
+                .isEqualTo(id)
+                .jsonPath("$[0].cursor")
+                .isNotEmpty();
+        client.get()
+                .uri("/orders?status=placed")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.length()")
+                .isEqualTo(0);
+
+        var events = client.get()
+                .uri("/orders/events")
+                .header("Last-Event-ID", "0")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {})
+                .getResponseBody()
+                .take(2)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(events)
+                .extracting(ServerSentEvent::event)
+                .containsExactly("OrderPlaced", "OrderPaid");
+        assertThat(events).allSatisfy(e -> assertThat(e.data()).contains(id));
+
+        snapshotJob.snapshot();
+        assertThat(new InMemoryOrderRepository().restoreFrom(snapshots.resolve("orders.snapshot")))
+                .isEqualTo(1);
+
+        // a retried request with the same Idempotency-Key answers with the first order instead of placing another
+        var retried = IntStream.range(0, 2)
+                .mapToObj(attempt -> client.post()
+                        .uri("/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Idempotency-Key", "it-retry-1")
+                        .bodyValue("{\"email\":\"retry@example.com\",\"total\":5}")
+                        .exchange()
+                        .expectStatus()
+                        .isOk()
+                        .expectBody(String.class)
+                        .returnResult()
+                        .getResponseBody())
+                .toList();
+        assertThat(retried.get(1)).isEqualTo(retried.get(0)).isNotEqualTo(id);
+        assertThat(context.getBean(InMemoryOrderRepository.class).size()).isEqualTo(2);
+    }
+}
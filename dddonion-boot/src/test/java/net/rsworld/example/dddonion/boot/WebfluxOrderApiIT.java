@@ -10,8 +10,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.mariadb.MariaDBContainer;
@@ -65,4 +67,34 @@ class WebfluxOrderApiIT {
                 .statusCode(200)
                 .body(notNullValue());
     }
+
+    @Test
+    @DisplayName("Liest eine angelegte Order über GET /orders/{id} und liefert 404 für unbekannte IDs")
+    void getOrder_shouldReturnCreatedOrder() {
+        String id = given().port(port)
+                .queryParam("email", "test@example.com")
+                .queryParam("total", "19.99")
+                .when()
+                .post("/orders")
+                .then()
+                .statusCode(200)
+                .extract()
+                .asString();
+
+        // RestAssured fails on JSON responses with only Jackson 3 on the classpath, so use WebTestClient here
+        var client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+        client.get()
+                .uri("/orders/{id}", id)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus()
+                .isOk()
+                .expectBody()
+                .jsonPath("$.id")
+                .isEqualTo(id)
+                .jsonPath("$.status")
+                .isEqualTo("PLACED");
+
+        client.get().uri("/orders/{id}", "unknown").exchange().expectStatus().isNotFound();
+    }
 }
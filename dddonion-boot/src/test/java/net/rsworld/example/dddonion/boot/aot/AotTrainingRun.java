@@ -0,0 +1,49 @@
+package net.rsworld.example.dddonion.boot.aot;
+
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Training run of build profile {@code aot-cache}: boots the extracted jar against a Testcontainers MariaDB with
+ * {@code -XX:AOTCacheOutput}, drives the order API and shuts down, at which point the JDK writes the AOT cache (loaded
+ * and linked classes, method profiles) next to the jar.
+ *
+ * <p>Arguments: the extracted jar, the cache file, optionally the number of orders to place (default 200).
+ */
+public final class AotTrainingRun {
+
+    private AotTrainingRun() {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path cache = Path.of(args[1]);
+        int orders = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        Files.deleteIfExists(cache);
+
+        try (var db = new TrainingDatabase();
+                var app = BootProcess.start(
+                        jar, List.of("-XX:AOTCacheOutput=" + cache, "-Dspring.aot.enabled=true"), db.appArgs())) {
+            System.out.println("Training: ready after " + app.awaitReady().toMillis() + " ms");
+            for (int n = 0; n < orders; n++) {
+                String id = app.placeOrder(n);
+                app.send(HttpRequest.newBuilder().GET(), "/orders/" + id);
+                if (n % 10 == 0) {
+                    var pay = HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.noBody());
+                    app.send(pay, "/orders/" + id + "/pay");
+                }
+            }
+            app.send(
+                    HttpRequest.newBuilder()
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString("{\"email\":\"json@example.com\",\"total\":1}")),
+                    "/orders");
+            app.send(HttpRequest.newBuilder().GET(), "/orders?limit=20");
+        }
+        if (!Files.exists(cache)) {
+            throw new IllegalStateException("Training run finished without writing " + cache);
+        }
+        System.out.println("Training: wrote " + cache + " (" + Files.size(cache) / (1024 * 1024) + " MB)");
+    }
+}
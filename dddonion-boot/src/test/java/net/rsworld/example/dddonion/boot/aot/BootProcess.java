@@ -0,0 +1,103 @@
+package net.rsworld.example.dddonion.boot.aot;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The extracted {@code dddonion-boot} jar in its own JVM, as it runs in production: started with the given JVM flags,
+ * polled until {@code /actuator/health/readiness} is UP and stopped with SIGTERM, so shutdown hooks (and with them a
+ * JDK AOT cache dump) run. Output goes to {@code <jar>.log}.
+ */
+final class BootProcess implements AutoCloseable {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient http =
+            HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    private final Process process;
+    private final long startedAt;
+    private final URI base;
+
+    private BootProcess(Process process, long startedAt, int port) {
+        this.process = process;
+        this.startedAt = startedAt;
+        this.base = URI.create("http://localhost:" + port);
+    }
+
+    static BootProcess start(Path jar, List<String> jvmArgs, List<String> appArgs) throws IOException {
+        int port;
+        try (var socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        var command = new ArrayList<String>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+        var log = jar.resolveSibling(jar.getFileName() + ".log").toFile();
+        long startedAt = System.nanoTime();
+        var process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log))
+                .start();
+        return new BootProcess(process, startedAt, port);
+    }
+
+    /** Blocks until the readiness group reports UP; returns the time since the JVM was launched. */
+    Duration awaitReady() throws IOException, InterruptedException {
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        var readiness = HttpRequest.newBuilder(base.resolve("/actuator/health/readiness"))
+                .timeout(Duration.ofSeconds(2))
+                .build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with " + process.exitValue() + " before ready");
+            }
+            try {
+                if (http.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - startedAt);
+                }
+            } catch (IOException notListeningYet) {
+                // server socket not bound yet
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("Application not ready within " + READY_TIMEOUT);
+    }
+
+    /** Sends the request and returns the response body; fails on anything but 2xx. */
+    String send(HttpRequest.Builder request, String path) throws IOException, InterruptedException {
+        var response = http.send(
+                request.uri(base.resolve(path)).timeout(Duration.ofSeconds(30)).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(path + " answered " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+
+    /** Places an order via query parameters and returns its id. */
+    String placeOrder(int n) throws IOException, InterruptedException {
+        String query = "email=training" + n + "@example.com&total=" + (n % 100 + 1) + ".50";
+        return send(HttpRequest.newBuilder().POST(HttpRequest.BodyPublishers.noBody()), "/orders?" + query);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(1, TimeUnit.MINUTES)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
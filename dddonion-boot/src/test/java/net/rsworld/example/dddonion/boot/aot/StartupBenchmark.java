@@ -0,0 +1,63 @@
+package net.rsworld.example.dddonion.boot.aot;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the extracted jar repeatedly against one Testcontainers MariaDB and reports time-to-ready (JVM launch until
+ * {@code /actuator/health/readiness} is UP, including the startup warm-up) and the latency of the first
+ * {@code POST /orders} after that: plain JVM, with Spring AOT, and with Spring AOT plus the JDK AOT cache.
+ *
+ * <p>Arguments: the extracted jar, the cache file, optionally the runs per variant (default 5).
+ */
+public final class StartupBenchmark {
+
+    private StartupBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path cache = Path.of(args[1]);
+        int runs = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        var variants = new LinkedHashMap<String, List<String>>();
+        variants.put("JVM", List.of());
+        variants.put("Spring AOT", List.of("-Dspring.aot.enabled=true"));
+        if (Files.exists(cache)) {
+            variants.put("Spring AOT + AOT cache", List.of("-Dspring.aot.enabled=true", "-XX:AOTCache=" + cache));
+        } else {
+            System.out.println("No AOT cache at " + cache + ", run the aot-cache build first");
+        }
+
+        var results = new LinkedHashMap<String, long[][]>();
+        try (var db = new TrainingDatabase()) {
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                long[][] samples = new long[2][runs];
+                for (int run = 0; run < runs; run++) {
+                    try (var app = BootProcess.start(jar, variant.getValue(), db.appArgs())) {
+                        samples[0][run] = app.awaitReady().toMillis();
+                        long start = System.nanoTime();
+                        app.placeOrder(run);
+                        samples[1][run] = Duration.ofNanos(System.nanoTime() - start).toMillis();
+                    }
+                }
+                results.put(variant.getKey(), samples);
+            }
+        }
+
+        System.out.printf("%-24s %22s %26s%n", "variant", "time-to-ready ms", "first POST /orders ms");
+        results.forEach((name, samples) ->
+                System.out.printf("%-24s %22s %26s%n", name, summary(samples[0]), summary(samples[1])));
+    }
+
+    /** Median with min and max. */
+    private static String summary(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2] + " (" + sorted[0] + "-" + sorted[sorted.length - 1] + ")";
+    }
+}
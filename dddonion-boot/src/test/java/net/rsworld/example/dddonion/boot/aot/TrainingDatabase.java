@@ -0,0 +1,33 @@
+package net.rsworld.example.dddonion.boot.aot;
+
+import java.util.List;
+import org.testcontainers.mariadb.MariaDBContainer;
+
+/** Throw-away MariaDB for training and benchmark runs, handed to the application as command line arguments. */
+final class TrainingDatabase implements AutoCloseable {
+
+    private final MariaDBContainer maria = new MariaDBContainer("mariadb:11")
+            .withUsername("test")
+            .withPassword("test")
+            .withDatabaseName("test");
+
+    TrainingDatabase() {
+        maria.start();
+    }
+
+    List<String> appArgs() {
+        String hostPortDb = maria.getHost() + ":" + maria.getFirstMappedPort() + "/" + maria.getDatabaseName();
+        return List.of(
+                "--spring.r2dbc.url=r2dbc:mariadb://" + hostPortDb,
+                "--spring.r2dbc.username=" + maria.getUsername(),
+                "--spring.r2dbc.password=" + maria.getPassword(),
+                "--spring.liquibase.url=jdbc:mariadb://" + hostPortDb,
+                "--spring.liquibase.user=" + maria.getUsername(),
+                "--spring.liquibase.password=" + maria.getPassword());
+    }
+
+    @Override
+    public void close() {
+        maria.stop();
+    }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
 
 class DatabaseBootstrapInitializerTest {
 
@@ -35,4 +36,21 @@ class DatabaseBootstrapInitializerTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("database name");
     }
+
+    @Test
+    @DisplayName("Richtet die Shard-Datenbanken nur bei aktivem Sharding mit ein")
+    void shardsOnlyWhenShardingIsEnabled() {
+        var env = new MockEnvironment()
+                .withProperty("dddonion.persistence.sharding.shards[0].name", "a")
+                .withProperty("dddonion.persistence.sharding.shards[0].jdbc-url", "jdbc:mariadb://db-a:3306/shop_a")
+                .withProperty("dddonion.persistence.sharding.shards[1].name", "b")
+                .withProperty("dddonion.persistence.sharding.shards[1].jdbc-url", "jdbc:mariadb://db-b:3306/shop_b");
+
+        assertThat(DatabaseBootstrapInitializer.shards(env)).isEmpty();
+
+        env.setProperty("dddonion.persistence.sharding.enabled", "true");
+        assertThat(DatabaseBootstrapInitializer.shards(env))
+                .extracting(PersistenceProperties.Sharding.Shard::jdbcUrl)
+                .containsExactly("jdbc:mariadb://db-a:3306/shop_a", "jdbc:mariadb://db-b:3306/shop_b");
+    }
 }
@@ -0,0 +1,138 @@
+package net.rsworld.example.dddonion.bootstrap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import net.rsworld.example.dddonion.application.order.service.PlaceOrderService;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderResult;
+import net.rsworld.example.dddonion.application.order.usecase.PlaceOrderUseCase;
+import net.rsworld.example.dddonion.domain.order.command.PlaceOrderCommand;
+import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.boot.logging.LogLevel;
+import org.springframework.boot.logging.LoggerConfiguration;
+import org.springframework.boot.logging.LoggingSystem;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+class StartupWarmupTest {
+
+    private ConnectionFactory connectionFactory;
+    private OrderRepository orders;
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = mock(ConnectionFactory.class);
+        orders = mock(OrderRepository.class);
+        when(orders.findById(any())).thenAnswer(inv -> CompletableFuture.completedFuture(Optional.empty()));
+    }
+
+    @Test
+    @DisplayName("Meldet OUT_OF_SERVICE, bis Pool, Repository und Platzierungspfad aufgewärmt sind, danach UP")
+    void readinessTurnsUp_afterWarmup() {
+        var connection = mock(Connection.class);
+        when(connection.close()).thenReturn(Mono.empty());
+        doReturn(Mono.just(connection)).when(connectionFactory).create();
+        var warmup = new StartupWarmup(
+                connectionFactory,
+                orders,
+                UnaryOperator.identity(),
+                null,
+                new StartupWarmup.Settings(true, 3, 5, 100, Duration.ofSeconds(30)));
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+        warmup.run(new DefaultApplicationArguments());
+
+        var health = warmup.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails())
+                .containsEntry("connections", 3)
+                .containsEntry("probes", 5)
+                .containsEntry("iterations", 100)
+                .containsEntry("budgetExhausted", false);
+        assertThat(warmup.duration()).isPositive();
+        verify(connectionFactory, times(3)).create();
+        verify(connection, times(3)).close();
+        verify(orders, times(5)).findById(any());
+    }
+
+    @Test
+    @DisplayName("Wird nach Ablauf des Budgets trotzdem bereit und meldet das ausgeschöpfte Budget")
+    void exhaustedBudget_stillTurnsReady() {
+        var settings = new StartupWarmup.Settings(true, 0, 5, 100, Duration.ZERO);
+        var warmup = new StartupWarmup(null, orders, UnaryOperator.identity(), null, settings);
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmup.health().getDetails())
+                .containsEntry("iterations", 0)
+                .containsEntry("budgetExhausted", true);
+        verifyNoInteractions(orders);
+    }
+
+    @Test
+    @DisplayName("Ein fehlgeschlagener Schritt verhindert die Bereitschaft nicht")
+    void failingStep_doesNotBlockReadiness() {
+        doReturn(Mono.error(new IllegalStateException("database down")))
+                .when(connectionFactory)
+                .create();
+        var warmup = new StartupWarmup(
+                connectionFactory,
+                orders,
+                UnaryOperator.identity(),
+                null,
+                new StartupWarmup.Settings(true, 2, 1, 10, Duration.ofSeconds(30)));
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(warmup.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(warmup.health().getDetails())
+                .containsEntry("connections", 0)
+                .containsEntry("iterations", 10);
+    }
+
+    @Test
+    @DisplayName("Platziert über die dekorierte Kette und setzt das Log-Level von PlaceOrderService danach zurück")
+    void syntheticPlacements_runThroughDecoratorsWithQuietLog() {
+        var logging = mock(LoggingSystem.class);
+        String logger = PlaceOrderService.class.getName();
+        when(logging.getLoggerConfiguration(logger))
+                .thenReturn(new LoggerConfiguration(logger, LogLevel.DEBUG, LogLevel.DEBUG));
+        var placed = new AtomicInteger();
+        UnaryOperator<PlaceOrderUseCase> counting = delegate -> new PlaceOrderUseCase() {
+            @Override
+            public Mono<OrderId> handle(PlaceOrderCommand cmd) {
+                return delegate.handle(cmd).doOnNext(id -> placed.incrementAndGet());
+            }
+
+            @Override
+            public Flux<PlaceOrderResult> handleAll(Flux<PlaceOrderCommand> commands) {
+                return delegate.handleAll(commands);
+            }
+        };
+        var warmup = new StartupWarmup(
+                null, orders, counting, logging, new StartupWarmup.Settings(true, 0, 0, 50, Duration.ofSeconds(30)));
+
+        warmup.run(new DefaultApplicationArguments());
+
+        assertThat(placed).hasValue(50);
+        var levels = inOrder(logging);
+        levels.verify(logging).setLogLevel(logger, LogLevel.WARN);
+        levels.verify(logging).setLogLevel(logger, LogLevel.DEBUG);
+        verifyNoInteractions(orders);
+    }
+}
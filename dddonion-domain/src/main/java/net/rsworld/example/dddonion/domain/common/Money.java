@@ -0,0 +1,176 @@
+package net.rsworld.example.dddonion.domain.common;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money as a {@code long} count of the currency's minor units (cents for EUR) plus its currency. Cheaper
+ * than a {@link BigDecimal} and exact by construction: conversions refuse amounts with more decimal places than the
+ * currency has, and arithmetic throws {@link ArithmeticException} instead of overflowing.
+ *
+ * <p>The order schema stores amounts as {@code DECIMAL(19,2)} without a currency column, so everything without an
+ * explicit currency is in {@link #EUR}.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final Currency EUR = Currency.getInstance("EUR");
+
+    /** {@link #parsePlain} result for input it leaves to {@code BigDecimal}; no plain decimal parses to it. */
+    private static final long NOT_PLAIN = Long.MIN_VALUE;
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+        if (currency.getDefaultFractionDigits() < 0) {
+            throw new IllegalArgumentException("Currency without minor units: " + currency.getCurrencyCode());
+        }
+    }
+
+    public static Money ofMinor(long minorUnits) {
+        return new Money(minorUnits, EUR);
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0L, currency);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return of(amount, EUR);
+    }
+
+    /**
+     * Exact conversion, e.g. from a {@code DECIMAL(19,2)} column.
+     *
+     * @throws IllegalArgumentException if {@code amount} has more decimal places than {@code currency} or does not fit
+     *     into a {@code long} of minor units
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        Objects.requireNonNull(amount, "amount");
+        int digits = currency.getDefaultFractionDigits();
+        try {
+            return new Money(amount.movePointRight(digits).longValueExact(), currency);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(
+                    "Amount %s is not a whole number of %s minor units in range"
+                            .formatted(amount.toPlainString(), currency.getCurrencyCode()),
+                    e);
+        }
+    }
+
+    public static Money parse(String amount) {
+        return parse(amount, EUR);
+    }
+
+    /**
+     * Same as {@code of(new BigDecimal(amount), currency)}, but plain decimals like {@code "12.34"} are read straight
+     * into minor units without creating a {@link BigDecimal}.
+     *
+     * @throws IllegalArgumentException if {@code amount} is no number or not exact in {@code currency}
+     */
+    public static Money parse(String amount, Currency currency) {
+        Objects.requireNonNull(amount, "amount");
+        long minorUnits = parsePlain(amount, currency.getDefaultFractionDigits());
+        if (minorUnits != NOT_PLAIN) {
+            return new Money(minorUnits, currency);
+        }
+        BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(amount);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Amount is not a number: " + amount, e);
+        }
+        return of(decimal, currency);
+    }
+
+    /**
+     * Minor units of {@code [+-]digits[.digits]}, or {@link #NOT_PLAIN} for anything else (exponent, too many decimal
+     * places, overflow, garbage), which the {@code BigDecimal} path then accepts or rejects with a proper message.
+     */
+    private static long parsePlain(String amount, int digits) {
+        int length = amount.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (amount.charAt(0) == '-' || amount.charAt(0) == '+')) {
+            negative = amount.charAt(0) == '-';
+            i++;
+        }
+        long units = 0L;
+        int decimals = -1; // -1 until the decimal point
+        boolean anyDigit = false;
+        for (; i < length; i++) {
+            char c = amount.charAt(i);
+            if (c == '.' && decimals < 0) {
+                decimals = 0;
+            } else if (c >= '0' && c <= '9') {
+                anyDigit = true;
+                if (decimals >= digits) {
+                    if (c != '0') {
+                        return NOT_PLAIN;
+                    }
+                    continue; // trailing zeros beyond the currency's precision
+                }
+                if (units > (Long.MAX_VALUE - 9) / 10) {
+                    return NOT_PLAIN;
+                }
+                units = units * 10 + (c - '0');
+                if (decimals >= 0) {
+                    decimals++;
+                }
+            } else {
+                return NOT_PLAIN;
+            }
+        }
+        if (!anyDigit) {
+            return NOT_PLAIN;
+        }
+        for (int scale = Math.max(decimals, 0); scale < digits; scale++) {
+            if (units > Long.MAX_VALUE / 10) {
+                return NOT_PLAIN;
+            }
+            units *= 10;
+        }
+        return negative ? -units : units;
+    }
+
+    /** The amount with exactly the currency's decimal places, e.g. for a {@code DECIMAL(19,2)} column. */
+    public BigDecimal toDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    /** @throws ArithmeticException on overflow */
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, sameCurrency(other).minorUnits), currency);
+    }
+
+    /** @throws ArithmeticException on overflow */
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, sameCurrency(other).minorUnits), currency);
+    }
+
+    /** @throws ArithmeticException on overflow */
+    public Money times(long factor) {
+        return new Money(Math.multiplyExact(minorUnits, factor), currency);
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, sameCurrency(other).minorUnits);
+    }
+
+    private Money sameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException(
+                    "Currency mismatch: " + currency.getCurrencyCode() + " and " + other.currency.getCurrencyCode());
+        }
+        return other;
+    }
+
+    @Override
+    public String toString() {
+        return toDecimal().toPlainString() + " " + currency.getCurrencyCode();
+    }
+}
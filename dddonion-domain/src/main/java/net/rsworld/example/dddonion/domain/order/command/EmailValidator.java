@@ -0,0 +1,86 @@
+package net.rsworld.example.dddonion.domain.order.command;
+
+/**
+ * Single-pass, allocation-free check for customer email addresses.
+ *
+ * <p>Accepts the same language as the former regular expression in {@link PlaceOrderCommand}:
+ *
+ * <ul>
+ *   <li>local part: ASCII letters/digits, inner characters may also be {@code + . _ -}; first and last must be a
+ *       letter or digit
+ *   <li>exactly one {@code @}
+ *   <li>domain: at least two dot-separated labels of letters, digits and inner hyphens; the last label consists of
+ *       at least two letters
+ * </ul>
+ *
+ * <p>Each character is looked at once, so the cost is linear in the input length; inputs longer than
+ * {@link #MAX_LENGTH} are rejected up front.
+ */
+public final class EmailValidator {
+
+    /** Upper bound for an address in an SMTP path (RFC 5321). */
+    public static final int MAX_LENGTH = 254;
+
+    private EmailValidator() {}
+
+    public static boolean isValid(CharSequence email) {
+        int length = email.length();
+        if (length == 0 || length > MAX_LENGTH || !isLetterOrDigit(email.charAt(0))) {
+            return false;
+        }
+
+        int i = 1;
+        char c = email.charAt(0);
+        char last = c;
+        while (i < length && (c = email.charAt(i)) != '@') {
+            if (!isLetterOrDigit(c) && c != '+' && c != '.' && c != '_' && c != '-') {
+                return false;
+            }
+            last = c;
+            i++;
+        }
+        if (i == length || !isLetterOrDigit(last)) {
+            return false;
+        }
+
+        int labels = 0;
+        int labelStart = ++i;
+        boolean lettersOnly = true;
+        for (; i <= length; i++) {
+            if (i == length || (c = email.charAt(i)) == '.') {
+                int labelLength = i - labelStart;
+                if (labelLength == 0 || email.charAt(i - 1) == '-') {
+                    return false;
+                }
+                labels++;
+                if (i == length) {
+                    return labels >= 2 && lettersOnly && labelLength >= 2;
+                }
+                labelStart = i + 1;
+                lettersOnly = true;
+            } else if (isDigit(c)) {
+                lettersOnly = false;
+            } else if (c == '-') {
+                if (i == labelStart) {
+                    return false;
+                }
+                lettersOnly = false;
+            } else if (!isLetter(c)) {
+                return false;
+            }
+        }
+        return false; // not reached: the loop returns at i == length
+    }
+
+    private static boolean isLetterOrDigit(char c) {
+        return isLetter(c) || isDigit(c);
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -1,22 +1,18 @@
 package net.rsworld.example.dddonion.domain.order.command;
 
-import java.math.BigDecimal;
-import java.util.regex.Pattern;
+import net.rsworld.example.dddonion.domain.common.Money;
 
-public record PlaceOrderCommand(String customerEmail, BigDecimal total) {
-
-    // More strict pattern: no leading/trailing dots in local part, no consecutive dots
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(
-            "^[A-Za-z0-9][A-Za-z0-9+._-]*[A-Za-z0-9]@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*\\.[A-Za-z]{2,}$|^[A-Za-z0-9]@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*\\.[A-Za-z]{2,}$");
+public record PlaceOrderCommand(String customerEmail, Money total) {
 
     public PlaceOrderCommand {
         if (customerEmail == null || customerEmail.isBlank()) {
             throw new IllegalArgumentException("Customer email must not be null or empty");
         }
-        if (!EMAIL_PATTERN.matcher(customerEmail).matches()) {
+        // no leading/trailing dots in the local part, see EmailValidator for the accepted language
+        if (!EmailValidator.isValid(customerEmail)) {
             throw new IllegalArgumentException("Customer email must be a valid email address");
         }
-        if (total == null || total.compareTo(BigDecimal.ZERO) < 0) {
+        if (total == null || total.isNegative()) {
             throw new IllegalArgumentException("Total must be >= 0");
         }
     }
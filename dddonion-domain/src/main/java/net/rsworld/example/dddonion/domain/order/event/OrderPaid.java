@@ -0,0 +1,16 @@
+package net.rsworld.example.dddonion.domain.order.event;
+
+import java.time.Instant;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+
+public record OrderPaid(String orderId, long sequence, Instant occurredAt) implements DomainEvent {
+    @Override
+    public String aggregateId() {
+        return orderId;
+    }
+
+    @Override
+    public String type() {
+        return "OrderPaid";
+    }
+}
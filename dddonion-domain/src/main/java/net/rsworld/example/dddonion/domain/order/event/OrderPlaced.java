@@ -1,10 +1,10 @@
 package net.rsworld.example.dddonion.domain.order.event;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
 
-public record OrderPlaced(String orderId, long sequence, Instant occurredAt, String customerEmail, BigDecimal total)
+public record OrderPlaced(String orderId, long sequence, Instant occurredAt, String customerEmail, Money total)
         implements DomainEvent {
     @Override
     public String aggregateId() {
@@ -1,33 +1,37 @@
 package net.rsworld.example.dddonion.domain.order.model;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
 import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
 
 public class Order {
     private final OrderId id;
     private OrderStatus status;
     private final String customerEmail;
-    private final BigDecimal total;
+    private final Money total;
     private long version; // domain version used as event sequence
+    private final long persistedVersion; // version last read from the store, -1 if never persisted
     private final List<DomainEvent> pendingEvents = new ArrayList<>();
 
-    public Order(String customerEmail, BigDecimal total) {
+    public Order(String customerEmail, Money total) {
         this.id = OrderId.newId();
         this.customerEmail = customerEmail;
         this.total = total;
         this.version = 0L;
+        this.persistedVersion = -1L;
         this.status = OrderStatus.NEW;
     }
 
-    public Order(OrderId id, String customerEmail, BigDecimal total, long version, OrderStatus status) {
+    public Order(OrderId id, String customerEmail, Money total, long version, OrderStatus status) {
         this.id = id;
         this.customerEmail = customerEmail;
         this.total = total;
         this.version = version;
+        this.persistedVersion = version;
         this.status = status;
     }
 
@@ -40,9 +44,46 @@ public class Order {
     }
 
     public void pay() {
-        if (status != OrderStatus.PLACED) throw new IllegalStateException("Only placed orders can be paid");
+        if (status != OrderStatus.PLACED) throw new OrderNotPayableException(id, status);
         status = OrderStatus.PAID;
-        version = version + 1;
+        long nextSeq = version + 1;
+        pendingEvents.add(new OrderPaid(id.value(), nextSeq, Instant.now()));
+        version = nextSeq;
+    }
+
+    /**
+     * Rebuilds an order from its history. {@code snapshot} is its state at some earlier version (or {@code null} to
+     * start from scratch), {@code events} everything recorded after that version in sequence order. The result counts
+     * as persisted at the version of the last event.
+     *
+     * @throws IllegalStateException if the history has a gap or an event this aggregate does not know
+     */
+    public static Order replay(OrderId id, Order snapshot, List<? extends DomainEvent> events) {
+        String customerEmail = snapshot == null ? null : snapshot.customerEmail;
+        Money total = snapshot == null ? null : snapshot.total;
+        OrderStatus status = snapshot == null ? OrderStatus.NEW : snapshot.status;
+        long version = snapshot == null ? 0L : snapshot.version;
+
+        for (DomainEvent event : events) {
+            if (event.sequence() != version + 1) {
+                throw new IllegalStateException("History of order %s expected sequence %d but found %d"
+                        .formatted(id.value(), version + 1, event.sequence()));
+            }
+            switch (event) {
+                case OrderPlaced placed -> {
+                    customerEmail = placed.customerEmail();
+                    total = placed.total();
+                    status = OrderStatus.PLACED;
+                }
+                case OrderPaid paid -> status = OrderStatus.PAID;
+                default -> throw new IllegalStateException("Unknown event type " + event.type());
+            }
+            version = event.sequence();
+        }
+        if (version == 0) {
+            throw new IllegalStateException("Order %s has no history".formatted(id.value()));
+        }
+        return new Order(id, customerEmail, total, version, status);
     }
 
     public List<DomainEvent> pullEvents() {
@@ -59,6 +100,16 @@ public class Order {
         return version;
     }
 
+    /** True if this aggregate was created in memory and has never been written to a repository. */
+    public boolean isNew() {
+        return persistedVersion < 0;
+    }
+
+    /** Version the aggregate had when it was reconstituted; repositories use it as optimistic-lock guard. */
+    public long persistedVersion() {
+        return persistedVersion;
+    }
+
     public OrderStatus status() {
         return status;
     }
@@ -67,7 +118,7 @@ public class Order {
         return customerEmail;
     }
 
-    public BigDecimal total() {
+    public Money total() {
         return total;
     }
 }
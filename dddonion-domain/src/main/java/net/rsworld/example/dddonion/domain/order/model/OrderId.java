@@ -1,9 +1,10 @@
 package net.rsworld.example.dddonion.domain.order.model;
 
-import java.util.UUID;
+import net.rsworld.example.dddonion.domain.common.TimeOrderedUuid;
 
 public record OrderId(String value) {
+    /** Time-ordered (UUIDv7) id in canonical string form, so new orders land at the end of the primary key index. */
     public static OrderId newId() {
-        return new OrderId(UUID.randomUUID().toString());
+        return new OrderId(TimeOrderedUuid.next().toString());
     }
 }
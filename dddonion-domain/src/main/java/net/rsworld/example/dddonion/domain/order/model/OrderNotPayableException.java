@@ -0,0 +1,9 @@
+package net.rsworld.example.dddonion.domain.order.model;
+
+/** Only a placed order can be paid; this one is still new or already paid. */
+public class OrderNotPayableException extends IllegalStateException {
+
+    public OrderNotPayableException(OrderId id, OrderStatus status) {
+        super("Only placed orders can be paid, order %s is %s".formatted(id.value(), status));
+    }
+}
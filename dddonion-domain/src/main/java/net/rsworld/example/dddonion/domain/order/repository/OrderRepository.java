@@ -1,14 +1,43 @@
 package net.rsworld.example.dddonion.domain.order.repository;
 
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import net.rsworld.example.dddonion.domain.order.model.Order;
 import net.rsworld.example.dddonion.domain.order.model.OrderId;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
 
 /** Domain-Port: framework-free (JDK types). Not-Found is signaled via Optional. */
 public interface OrderRepository {
 
+    /**
+     * Persists the aggregate. {@link Order#isNew() New} aggregates are inserted, reconstituted ones are updated
+     * guarded by {@link Order#persistedVersion()}; a concurrent modification fails the returned stage.
+     */
     CompletionStage<Order> save(Order order);
 
     CompletionStage<Optional<Order>> findById(OrderId id);
+
+    /**
+     * Moves a placed order to PAID. Empty if the order does not exist, fails with {@link OrderNotPayableException} if
+     * it is not placed. The returned aggregate is the paid one and still carries the events the store did not take
+     * over itself (e.g. into an outbox).
+     *
+     * <p>The default loads, pays and {@link #save saves} the order, so a concurrent writer fails the stage like a save.
+     * Stores that can check and change the status in one conditional write override it.
+     */
+    default CompletionStage<Optional<Order>> pay(OrderId id) {
+        return findById(id).thenCompose(found -> {
+            if (found.isEmpty()) {
+                return CompletableFuture.completedFuture(Optional.empty());
+            }
+            Order order = found.get();
+            try {
+                order.pay();
+            } catch (OrderNotPayableException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+            return save(order).thenApply(saved -> Optional.of(order));
+        });
+    }
 }
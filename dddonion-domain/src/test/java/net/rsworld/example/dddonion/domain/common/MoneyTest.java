@@ -0,0 +1,78 @@
+package net.rsworld.example.dddonion.domain.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MoneyTest {
+
+    @ParameterizedTest
+    @CsvSource({
+        "12.34, 1234",
+        "12.3, 1230",
+        "12, 1200",
+        "12., 1200",
+        ".5, 50",
+        "+7.00, 700",
+        "-0.01, -1",
+        "10.500, 1050",
+        "1.2e1, 1200",
+        "92233720368547758.07, 9223372036854775807"
+    })
+    @DisplayName("Liest Beträge exakt in Minor Units, mit und ohne BigDecimal-Umweg")
+    void parse_isExact(String amount, long minorUnits) {
+        assertThat(Money.parse(amount)).isEqualTo(Money.ofMinor(minorUnits));
+        assertThat(Money.parse(amount)).isEqualTo(Money.of(new BigDecimal(amount)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"12.345", "0.001", "92233720368547758.08", "", "-", ".", "1.2.3", "12,34", "abc"})
+    @DisplayName("Lehnt Beträge ab, die keine Zahl oder nicht exakt in Cent darstellbar sind")
+    void parse_rejectsInexactOrInvalid(String amount) {
+        assertThatThrownBy(() -> Money.parse(amount)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Wandelt verlustfrei in DECIMAL(19,2) und zurück")
+    void decimalRoundTrip() {
+        Money money = Money.parse("42.5");
+
+        assertThat(money.toDecimal()).isEqualTo(new BigDecimal("42.50"));
+        assertThat(Money.of(money.toDecimal())).isEqualTo(money);
+        assertThat(money.toString()).isEqualTo("42.50 EUR");
+    }
+
+    @Test
+    @DisplayName("Berücksichtigt die Nachkommastellen der Währung")
+    void usesCurrencyFractionDigits() {
+        Currency yen = Currency.getInstance("JPY");
+
+        assertThat(Money.parse("1500", yen).minorUnits()).isEqualTo(1500);
+        assertThat(Money.of(new BigDecimal("1500"), yen).toDecimal()).isEqualTo(new BigDecimal("1500"));
+        assertThatThrownBy(() -> Money.parse("1.5", yen)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Rechnet mit Überlaufprüfung und nur innerhalb einer Währung")
+    void checkedArithmetic() {
+        Money price = Money.parse("19.99");
+
+        assertThat(price.plus(Money.parse("0.01"))).isEqualTo(Money.ofMinor(2000));
+        assertThat(price.minus(Money.parse("20"))).isEqualTo(Money.ofMinor(-1));
+        assertThat(price.times(3)).isEqualTo(Money.parse("59.97"));
+        assertThat(price.compareTo(Money.parse("20"))).isNegative();
+        assertThatThrownBy(() -> Money.ofMinor(Long.MAX_VALUE).plus(Money.ofMinor(1)))
+                .isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> price.times(Long.MAX_VALUE)).isInstanceOf(ArithmeticException.class);
+        assertThatThrownBy(() -> price.plus(Money.zero(Currency.getInstance("USD"))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Currency mismatch");
+    }
+}
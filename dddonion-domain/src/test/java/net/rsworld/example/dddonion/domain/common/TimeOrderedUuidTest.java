@@ -0,0 +1,83 @@
+package net.rsworld.example.dddonion.domain.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedUuidTest {
+
+    @Test
+    @DisplayName("Erzeugt UUIDs der Version 7 mit RFC-Variante und eingebettetem Zeitstempel")
+    void next_hasVersion7LayoutAndTimestamp() {
+        long before = System.currentTimeMillis();
+        UUID uuid = TimeOrderedUuid.next();
+        long after = System.currentTimeMillis();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        // counter overflows (e.g. from bulk generation in other tests) may push the timestamp ahead, never behind
+        assertThat(TimeOrderedUuid.epochMillis(uuid)).isBetween(before, after + 1_000);
+    }
+
+    @Test
+    @DisplayName("Bleibt innerhalb derselben Millisekunde und über den Zählerüberlauf hinweg streng monoton")
+    void next_isMonotonicWithinOneMillisecond() {
+        long millis = System.currentTimeMillis();
+        String previous = TimeOrderedUuid.next(millis).toString();
+        for (int i = 0; i < 10_000; i++) {
+            String current = TimeOrderedUuid.next(millis).toString();
+            assertThat(current).isGreaterThan(previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    @DisplayName("Vergibt über Threads hinweg eindeutige, pro Thread aufsteigende IDs")
+    void next_isUniqueAndOrderedAcrossThreads() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        Callable<List<String>> generate = () -> {
+            List<String> ids = new ArrayList<>(perThread);
+            for (int i = 0; i < perThread; i++) {
+                ids.add(TimeOrderedUuid.next().toString());
+            }
+            return ids;
+        };
+
+        var all = new HashSet<String>();
+        try (var pool = Executors.newFixedThreadPool(threads)) {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(pool.submit(generate));
+            }
+            for (var result : results) {
+                List<String> ids = result.get();
+                assertThat(ids).isSorted();
+                all.addAll(ids);
+            }
+        }
+        assertThat(all).hasSize(threads * perThread);
+    }
+
+    @Test
+    @DisplayName("Zieht die Zufallsbits aus einem SecureRandom, damit spätere IDs nicht vorhersagbar sind")
+    void next_drawsRandomBitsFromSecureRandom() {
+        assertThat(TimeOrderedUuid.RANDOM).isExactlyInstanceOf(SecureRandom.class);
+
+        long millis = System.currentTimeMillis();
+        var randomBits = new HashSet<Long>();
+        for (int i = 0; i < 1_000; i++) {
+            randomBits.add(TimeOrderedUuid.next(millis).getLeastSignificantBits());
+        }
+        assertThat(randomBits).hasSize(1_000);
+    }
+}
@@ -4,11 +4,14 @@ import static org.assertj.core.api.Assertions.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPaid;
 import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
 import net.rsworld.example.dddonion.domain.order.model.Order;
+import net.rsworld.example.dddonion.domain.order.model.OrderNotPayableException;
 import net.rsworld.example.dddonion.domain.order.model.OrderStatus;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,7 +21,7 @@ class OrderTest {
     @Test
     @DisplayName("Setzt beim Place-Vorgang Status und Version und erzeugt genau ein OrderPlaced-Event")
     void place_shouldCreateEventAndBumpVersion() {
-        Order order = new Order("a@b.com", new BigDecimal("10.50"));
+        Order order = new Order("a@b.com", Money.parse("10.50"));
         order.place();
 
         List<DomainEvent> events = order.pullEvents();
@@ -33,28 +36,83 @@ class OrderTest {
     @Test
     @DisplayName("Verhindert ein erneutes Place auf einer bereits platzierten Order")
     void place_twiceShouldFail() {
-        Order order = new Order("a@b.com", new BigDecimal("10.50"));
+        Order order = new Order("a@b.com", Money.parse("10.50"));
         order.place();
         assertThatThrownBy(order::place).isInstanceOf(IllegalStateException.class);
     }
 
     @Test
-    @DisplayName("Setzt beim Pay-Vorgang Status auf PAID und erhöht die Version")
+    @DisplayName("Setzt beim Pay-Vorgang Status auf PAID, erhöht die Version und erzeugt ein OrderPaid-Event")
     void pay_shouldSetPaidStatusAndBumpVersion() {
-        Order order = new Order("a@b.com", new BigDecimal("10.50"));
+        Order order = new Order("a@b.com", Money.parse("10.50"));
         order.place();
         long versionAfterPlace = order.version();
+        order.pullEvents();
 
         order.pay();
 
         assertThat(order.status()).isEqualTo(OrderStatus.PAID);
         assertThat(order.version()).isEqualTo(versionAfterPlace + 1);
+        assertThat(order.pullEvents())
+                .singleElement()
+                .isInstanceOfSatisfying(OrderPaid.class, paid -> assertThat(paid.sequence())
+                        .isEqualTo(versionAfterPlace + 1));
     }
 
     @Test
     @DisplayName("Verhindert Pay auf einer Order die noch nicht placed wurde")
     void pay_onNewOrderShouldFail() {
-        Order order = new Order("a@b.com", new BigDecimal("10.50"));
-        assertThatThrownBy(order::pay).isInstanceOf(IllegalStateException.class);
+        Order order = new Order("a@b.com", Money.parse("10.50"));
+        assertThatThrownBy(order::pay).isInstanceOf(OrderNotPayableException.class);
+    }
+
+    @Test
+    @DisplayName("Kennzeichnet neu erzeugte Orders als neu und rekonstituierte mit ihrer geladenen Version")
+    void isNew_distinguishesCreatedFromReconstituted() {
+        Order created = new Order("a@b.com", Money.parse("10.50"));
+        created.place();
+        assertThat(created.isNew()).isTrue();
+
+        Order loaded = new Order(created.id(), "a@b.com", Money.parse("10.50"), 1L, OrderStatus.PLACED);
+        loaded.pay();
+        assertThat(loaded.isNew()).isFalse();
+        assertThat(loaded.persistedVersion()).isEqualTo(1L);
+        assertThat(loaded.version()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("Baut eine Order aus ihren Events wieder auf, mit und ohne Snapshot als Startpunkt")
+    void replay_rebuildsStateFromHistory() {
+        Order order = new Order("a@b.com", Money.parse("10.50"));
+        order.place();
+        order.pay();
+        List<DomainEvent> history = order.pullEvents();
+
+        Order full = Order.replay(order.id(), null, history);
+        Order fromSnapshot = Order.replay(
+                order.id(),
+                new Order(order.id(), "a@b.com", Money.parse("10.50"), 1L, OrderStatus.PLACED),
+                history.subList(1, 2));
+
+        for (Order replayed : List.of(full, fromSnapshot)) {
+            assertThat(replayed.status()).isEqualTo(OrderStatus.PAID);
+            assertThat(replayed.customerEmail()).isEqualTo("a@b.com");
+            assertThat(replayed.total()).isEqualTo(Money.parse("10.50"));
+            assertThat(replayed.version()).isEqualTo(2L);
+            assertThat(replayed.persistedVersion()).isEqualTo(2L);
+            assertThat(replayed.pullEvents()).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Verweigert den Wiederaufbau bei Lücken in der Historie oder ganz ohne Events")
+    void replay_rejectsGapsAndEmptyHistory() {
+        Order order = new Order("a@b.com", Money.parse("10.50"));
+        var paid = new OrderPaid(order.id().value(), 2L, Instant.now());
+
+        assertThatThrownBy(() -> Order.replay(order.id(), null, List.of(paid)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("expected sequence 1");
+        assertThatThrownBy(() -> Order.replay(order.id(), null, List.of())).isInstanceOf(IllegalStateException.class);
     }
 }
@@ -0,0 +1,92 @@
+package net.rsworld.example.dddonion.domain.order.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("EmailValidator")
+class EmailValidatorTest {
+
+    /** The regular expression PlaceOrderCommand used before; serves as the reference implementation. */
+    private static final Pattern REFERENCE = Pattern.compile(
+            "^[A-Za-z0-9][A-Za-z0-9+._-]*[A-Za-z0-9]@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*\\.[A-Za-z]{2,}$|^[A-Za-z0-9]@[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?(\\.[A-Za-z0-9]([A-Za-z0-9-]*[A-Za-z0-9])?)*\\.[A-Za-z]{2,}$");
+
+    // weighted towards the characters that matter for the grammar, plus a few that are never allowed
+    private static final String ALPHABET = "aaabbzZZ0099+._--..@@ äÅ\n!%";
+
+    private static final String[] SEEDS = {
+        "simple@example.com",
+        "user.name@example.com",
+        "user+tag@example.co.uk",
+        "user_name@sub.example.com",
+        "123@example.com",
+        "a@b.co",
+        "a-b@c-d.e-f.gh",
+        "x@1.2.ab",
+        "a..b@example.com"
+    };
+
+    @Test
+    @DisplayName("Should agree with the former regex on random inputs")
+    void shouldAgreeWithRegexOnRandomInputs() {
+        var random = new Random(20240611L);
+        for (int i = 0; i < 200_000; i++) {
+            var candidate = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int j = 0; j < length; j++) {
+                candidate.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+            assertAgrees(candidate.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree with the former regex on mutations of valid addresses")
+    void shouldAgreeWithRegexOnMutations() {
+        var random = new Random(42L);
+        for (int i = 0; i < 200_000; i++) {
+            var candidate = new StringBuilder(SEEDS[random.nextInt(SEEDS.length)]);
+            int mutations = 1 + random.nextInt(3);
+            for (int m = 0; m < mutations && !candidate.isEmpty(); m++) {
+                int at = random.nextInt(candidate.length());
+                char c = ALPHABET.charAt(random.nextInt(ALPHABET.length()));
+                switch (random.nextInt(3)) {
+                    case 0 -> candidate.setCharAt(at, c);
+                    case 1 -> candidate.insert(at, c);
+                    default -> candidate.deleteCharAt(at);
+                }
+            }
+            assertAgrees(candidate.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Should accept addresses up to the length cap and reject longer ones")
+    void shouldEnforceLengthCap() {
+        String domain = "@example.com";
+        String atCap = "a".repeat(EmailValidator.MAX_LENGTH - domain.length()) + domain;
+
+        assertThat(EmailValidator.isValid(atCap)).isTrue();
+        assertThat(EmailValidator.isValid("a" + atCap)).isFalse();
+    }
+
+    // how long this takes is measured by EmailValidationBenchmark (input HOSTILE), not asserted here
+    @Test
+    @DisplayName("Should reject input crafted for regex backtracking")
+    void shouldRejectHostileInput() {
+        String dashes = "a@" + "a-".repeat((EmailValidator.MAX_LENGTH - 3) / 2) + "!";
+        String labels = "a@" + "a-a.".repeat(60) + "a!";
+
+        assertThat(EmailValidator.isValid(dashes)).isFalse();
+        assertThat(EmailValidator.isValid(labels)).isFalse();
+    }
+
+    private static void assertAgrees(String candidate) {
+        assertThat(EmailValidator.isValid(candidate))
+                .as("'%s'", candidate)
+                .isEqualTo(REFERENCE.matcher(candidate).matches());
+    }
+}
@@ -3,7 +3,7 @@ package net.rsworld.example.dddonion.domain.order.command;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
-import java.math.BigDecimal;
+import net.rsworld.example.dddonion.domain.common.Money;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -21,18 +21,18 @@ class PlaceOrderCommandTest {
         @Test
         @DisplayName("Should create command with valid email and positive total")
         void shouldCreateWithValidEmailAndPositiveTotal() {
-            var cmd = new PlaceOrderCommand("test@example.com", new BigDecimal("10.50"));
+            var cmd = new PlaceOrderCommand("test@example.com", Money.parse("10.50"));
 
             assertThat(cmd.customerEmail()).isEqualTo("test@example.com");
-            assertThat(cmd.total()).isEqualByComparingTo("10.50");
+            assertThat(cmd.total()).isEqualTo(Money.parse("10.50"));
         }
 
         @Test
         @DisplayName("Should accept zero total")
         void shouldAcceptZeroTotal() {
-            var cmd = new PlaceOrderCommand("test@example.com", BigDecimal.ZERO);
+            var cmd = new PlaceOrderCommand("test@example.com", Money.ofMinor(0));
 
-            assertThat(cmd.total()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(cmd.total()).isEqualTo(Money.ofMinor(0));
         }
 
         @ParameterizedTest
@@ -47,7 +47,7 @@ class PlaceOrderCommandTest {
                 })
         @DisplayName("Should accept various valid email formats")
         void shouldAcceptValidEmailFormats(String email) {
-            var cmd = new PlaceOrderCommand(email, BigDecimal.TEN);
+            var cmd = new PlaceOrderCommand(email, Money.ofMinor(1000));
 
             assertThat(cmd.customerEmail()).isEqualTo(email);
         }
@@ -60,7 +60,7 @@ class PlaceOrderCommandTest {
         @Test
         @DisplayName("Should throw when email is null")
         void shouldThrowWhenEmailIsNull() {
-            assertThatThrownBy(() -> new PlaceOrderCommand(null, new BigDecimal("10.50")))
+            assertThatThrownBy(() -> new PlaceOrderCommand(null, Money.parse("10.50")))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Customer email must not be null or empty");
         }
@@ -70,7 +70,7 @@ class PlaceOrderCommandTest {
         @ValueSource(strings = {"   ", "\t", "\n", "    \t\n"})
         @DisplayName("Should throw when email is null, empty or blank")
         void shouldThrowWhenEmailIsNullEmptyOrBlank(String email) {
-            assertThatThrownBy(() -> new PlaceOrderCommand(email, new BigDecimal("10.50")))
+            assertThatThrownBy(() -> new PlaceOrderCommand(email, Money.parse("10.50")))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Customer email must not be null or empty");
         }
@@ -93,7 +93,7 @@ class PlaceOrderCommandTest {
                 })
         @DisplayName("Should throw when email format is invalid")
         void shouldThrowWhenEmailFormatIsInvalid(String invalidEmail) {
-            assertThatThrownBy(() -> new PlaceOrderCommand(invalidEmail, new BigDecimal("10.50")))
+            assertThatThrownBy(() -> new PlaceOrderCommand(invalidEmail, Money.parse("10.50")))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Customer email must be a valid email address");
         }
@@ -115,7 +115,7 @@ class PlaceOrderCommandTest {
         @ValueSource(strings = {"-0.01", "-1", "-10.50", "-999.99"})
         @DisplayName("Should throw when total is negative")
         void shouldThrowWhenTotalIsNegative(String negativeAmount) {
-            assertThatThrownBy(() -> new PlaceOrderCommand("test@example.com", new BigDecimal(negativeAmount)))
+            assertThatThrownBy(() -> new PlaceOrderCommand("test@example.com", Money.parse(negativeAmount)))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Total must be >= 0");
         }
@@ -129,7 +129,7 @@ class PlaceOrderCommandTest {
         @DisplayName("Should fail fast on first invariant violation (email checked before total)")
         void shouldFailFastOnFirstInvariant() {
             // Both email and total are invalid, but email is checked first
-            assertThatThrownBy(() -> new PlaceOrderCommand(null, new BigDecimal("-1")))
+            assertThatThrownBy(() -> new PlaceOrderCommand(null, Money.parse("-1")))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Customer email must not be null or empty");
         }
@@ -138,7 +138,7 @@ class PlaceOrderCommandTest {
         @DisplayName("Should fail on email format when total is also invalid")
         void shouldFailOnEmailFormatWhenTotalIsInvalid() {
             // Invalid email format and negative total
-            assertThatThrownBy(() -> new PlaceOrderCommand("not-an-email", new BigDecimal("-1")))
+            assertThatThrownBy(() -> new PlaceOrderCommand("not-an-email", Money.parse("-1")))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Customer email must be a valid email address");
         }
@@ -151,17 +151,17 @@ class PlaceOrderCommandTest {
         @Test
         @DisplayName("Should accept very small positive total")
         void shouldAcceptVerySmallPositiveTotal() {
-            var cmd = new PlaceOrderCommand("test@example.com", new BigDecimal("0.01"));
+            var cmd = new PlaceOrderCommand("test@example.com", Money.parse("0.01"));
 
-            assertThat(cmd.total()).isEqualByComparingTo("0.01");
+            assertThat(cmd.total()).isEqualTo(Money.parse("0.01"));
         }
 
         @Test
         @DisplayName("Should accept very large total")
         void shouldAcceptVeryLargeTotal() {
-            var cmd = new PlaceOrderCommand("test@example.com", new BigDecimal("999999999.99"));
+            var cmd = new PlaceOrderCommand("test@example.com", Money.parse("999999999.99"));
 
-            assertThat(cmd.total()).isEqualByComparingTo("999999999.99");
+            assertThat(cmd.total()).isEqualTo(Money.parse("999999999.99"));
         }
 
         @Test
@@ -169,9 +169,19 @@ class PlaceOrderCommandTest {
         void shouldAcceptEmailWithLongComponents() {
             // Valid email with long local and domain parts
             String longEmail = "a.very.long.email.address.with.many.dots@sub.domain.example.com";
-            var cmd = new PlaceOrderCommand(longEmail, BigDecimal.TEN);
+            var cmd = new PlaceOrderCommand(longEmail, Money.ofMinor(1000));
 
             assertThat(cmd.customerEmail()).isEqualTo(longEmail);
         }
+
+        @Test
+        @DisplayName("Should reject email longer than the length cap")
+        void shouldRejectEmailLongerThanCap() {
+            String tooLong = "a".repeat(EmailValidator.MAX_LENGTH) + "@example.com";
+
+            assertThatThrownBy(() -> new PlaceOrderCommand(tooLong, Money.ofMinor(1000)))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Customer email must be a valid email address");
+        }
     }
 }
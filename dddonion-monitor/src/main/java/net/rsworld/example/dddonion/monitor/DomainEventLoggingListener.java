@@ -1,32 +1,33 @@
 package net.rsworld.example.dddonion.monitor;
 
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import net.rsworld.example.dddonion.domain.common.DomainEvent;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
+import net.rsworld.example.dddonion.monitor.dispatch.DomainEventBatchListener;
 import org.springframework.stereotype.Component;
 
 @Slf4j
 @Component
-public class DomainEventLoggingListener {
+public class DomainEventLoggingListener implements DomainEventBatchListener {
 
-    @Async("applicationTaskExecutor")
-    @EventListener
-    public void onDomainEvent(DomainEvent event) {
+    @Override
+    public void onEvents(List<DomainEvent> events) {
         try {
-            // artificial delay to demonstrate asynchronous execution
+            // artificial delay to demonstrate asynchronous execution; paid once per batch, not per event
             Thread.sleep(2000);
-            log.info(
-                    "DomainEvent received: type={}, aggregateId={}, sequence={}, occurredAt={}",
-                    event.type(),
-                    event.aggregateId(),
-                    event.sequence(),
-                    event.occurredAt());
+            for (DomainEvent event : events) {
+                log.info(
+                        "DomainEvent received: type={}, aggregateId={}, sequence={}, occurredAt={}",
+                        event.type(),
+                        event.aggregateId(),
+                        event.sequence(),
+                        event.occurredAt());
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
-            log.warn("Interrupted while logging DomainEvent ({})", event, e);
+            log.warn("Interrupted while logging {} DomainEvents", events.size(), e);
         } catch (Exception e) {
-            log.warn("Failed to log DomainEvent ({})", event, e);
+            log.warn("Failed to log DomainEvents ({})", events, e);
         }
     }
 }
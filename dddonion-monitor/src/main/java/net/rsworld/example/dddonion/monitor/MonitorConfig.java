@@ -1,18 +1,29 @@
 package net.rsworld.example.dddonion.monitor;
 
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import net.rsworld.example.dddonion.monitor.dispatch.DomainEventBatchListener;
+import net.rsworld.example.dddonion.monitor.dispatch.DomainEventDispatcher;
+import net.rsworld.example.dddonion.monitor.dispatch.OverflowPolicy;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.EnableAsync;
 
 @Configuration
-@EnableAsync
 public class MonitorConfig {
-    @Bean(name = "applicationTaskExecutor")
-    public Executor applicationTaskExecutor() {
-        // Virtual-thread per task executor
-        return Executors.newThreadPerTaskExecutor(
-                Thread.ofVirtual().name("vt-events-", 0).factory());
+
+    /** Bounded hand-off from the publishing thread to all {@link DomainEventBatchListener}s, one lane per shard. */
+    @Bean
+    public DomainEventDispatcher domainEventDispatcher(
+            List<DomainEventBatchListener> listeners,
+            MeterRegistry meters,
+            @Value("${dddonion.monitor.dispatcher.lanes:4}") int lanes,
+            @Value("${dddonion.monitor.dispatcher.capacity:2048}") int capacity,
+            @Value("${dddonion.monitor.dispatcher.max-batch-size:256}") int maxBatchSize,
+            @Value("${dddonion.monitor.dispatcher.overflow:DROP_OLDEST}") OverflowPolicy overflow,
+            @Value("${dddonion.monitor.dispatcher.shutdown-timeout:5s}") Duration shutdownTimeout) {
+        var settings = new DomainEventDispatcher.Settings(lanes, capacity, maxBatchSize, overflow, shutdownTimeout);
+        return new DomainEventDispatcher(listeners, settings, meters);
     }
 }
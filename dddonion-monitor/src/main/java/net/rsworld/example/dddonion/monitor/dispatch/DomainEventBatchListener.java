@@ -0,0 +1,15 @@
+package net.rsworld.example.dddonion.monitor.dispatch;
+
+import java.util.List;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+
+/** Receives domain events from the {@link DomainEventDispatcher}, several at a time. */
+public interface DomainEventBatchListener {
+
+    /**
+     * Called with at most {@code maxBatchSize} events of one dispatcher lane. Events of one aggregate always come from
+     * the same lane in sequence order, but lanes call concurrently, so implementations must be thread-safe. The list
+     * is immutable; a thrown exception is logged and does not affect other listeners or later batches.
+     */
+    void onEvents(List<DomainEvent> events);
+}
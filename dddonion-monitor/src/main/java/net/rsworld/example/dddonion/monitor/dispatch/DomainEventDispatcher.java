@@ -0,0 +1,362 @@
+package net.rsworld.example.dddonion.monitor.dispatch;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Hands domain events from the publishing thread to {@link DomainEventBatchListener}s through bounded ring buffers.
+ * Events are hashed by {@link DomainEvent#aggregateId()} onto {@code lanes} lanes; each lane has its own buffer and
+ * worker thread, drains up to {@code maxBatchSize} events at a time and delivers them to every listener. All events of
+ * one aggregate therefore arrive on one lane in sequence order, while different aggregates are processed in parallel.
+ * A slow listener holds back its lane instead of piling up threads; once a lane's buffer is full the
+ * {@link OverflowPolicy} decides.
+ *
+ * <p>Meters: {@value #DEPTH} (queued events, tagged {@code lane}), {@value #LAG} (age of the oldest queued event),
+ * {@value #DROPPED} (tagged {@code reason=drop-oldest|rejected|stopped}), {@value #DELIVERED} (tagged {@code lane})
+ * and {@value #IMBALANCE} (events delivered by the busiest lane relative to the mean; 1.0 is an even spread).
+ *
+ * <p>The dispatcher stops in {@link #PHASE}, after the web server and the writers flushed after it, so events of
+ * requests still completing during a graceful shutdown are delivered. Whatever is offered after {@link #stop()} is
+ * refused under every {@link OverflowPolicy} and counted as {@code reason=stopped}.
+ */
+@Slf4j
+public class DomainEventDispatcher implements SmartLifecycle {
+
+    public static final String DEPTH = "dddonion.monitor.events.queue.depth";
+    public static final String LAG = "dddonion.monitor.events.lag";
+    public static final String DROPPED = "dddonion.monitor.events.dropped";
+    public static final String DELIVERED = "dddonion.monitor.events.delivered";
+    public static final String IMBALANCE = "dddonion.monitor.events.lane.imbalance";
+
+    /**
+     * Lifecycle phase, below Spring Boot's web server ({@code DEFAULT_PHASE - 2048}) and the lifecycle beans one step
+     * below it; this module does not depend on Spring Boot, hence the literal offset.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    // publication order is sequence order in practice; sorting a drained batch also repairs racing publishers
+    private static final Comparator<DomainEvent> BY_SEQUENCE = Comparator.comparingLong(DomainEvent::sequence);
+
+    private final List<DomainEventBatchListener> listeners;
+    private final Settings settings;
+    private final Counter droppedOldest;
+    private final Counter rejected;
+    private final Counter refusedStopped;
+    private final Lane[] lanes;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+
+    public DomainEventDispatcher(List<DomainEventBatchListener> listeners, Settings settings, MeterRegistry registry) {
+        this.listeners = List.copyOf(listeners);
+        this.settings = settings;
+        this.droppedOldest = Counter.builder(DROPPED)
+                .description("Domain events discarded because the dispatcher buffer was full")
+                .tag("reason", "drop-oldest")
+                .register(registry);
+        this.rejected = Counter.builder(DROPPED)
+                .description("Domain events discarded because the dispatcher buffer was full")
+                .tag("reason", "rejected")
+                .register(registry);
+        this.refusedStopped = Counter.builder(DROPPED)
+                .description("Domain events discarded because the dispatcher buffer was full")
+                .tag("reason", "stopped")
+                .register(registry);
+        this.lanes = new Lane[settings.lanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i, registry);
+        }
+        Gauge.builder(LAG, this, d -> d.lagNanos() / 1e9)
+                .description("Age of the oldest domain event waiting for delivery")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder(IMBALANCE, this, DomainEventDispatcher::imbalance)
+                .description("Events delivered by the busiest lane divided by the mean over all lanes")
+                .register(registry);
+    }
+
+    @EventListener
+    public void onDomainEvent(DomainEvent event) {
+        offer(event);
+    }
+
+    /**
+     * Queues {@code event} on its lane; {@code false} if it was refused, the dispatcher is stopped or the wait for a
+     * slot was interrupted.
+     */
+    public boolean offer(DomainEvent event) {
+        return lanes[laneOf(event.aggregateId())].offer(event);
+    }
+
+    /** Lane of an aggregate; stable for the lifetime of the dispatcher. */
+    int laneOf(String aggregateId) {
+        int h = aggregateId.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    public int depth() {
+        int depth = 0;
+        for (Lane lane : lanes) {
+            depth += lane.depth();
+        }
+        return depth;
+    }
+
+    /** Nanoseconds the oldest queued event of any lane has been waiting; 0 if all buffers are empty. */
+    public long lagNanos() {
+        long lag = 0;
+        for (Lane lane : lanes) {
+            lag = Math.max(lag, lane.lagNanos());
+        }
+        return lag;
+    }
+
+    double imbalance() {
+        double max = 0;
+        double sum = 0;
+        for (Lane lane : lanes) {
+            double delivered = lane.delivered.count();
+            max = Math.max(max, delivered);
+            sum += delivered;
+        }
+        return sum == 0 ? 1.0 : max / (sum / lanes.length);
+    }
+
+    @Override
+    public void start() {
+        stopped = false;
+        running = true;
+        for (Lane lane : lanes) {
+            lane.start();
+        }
+    }
+
+    /** Delivers what is still queued, for at most {@code shutdownTimeout}; the rest is lost with the process. */
+    @Override
+    public void stop() {
+        // set before running: a worker that sees running == false and exits implies offers see stopped
+        stopped = true;
+        running = false;
+        for (Lane lane : lanes) {
+            lane.wakeUp();
+        }
+        long deadline = System.nanoTime() + settings.shutdownTimeout().toNanos();
+        for (Lane lane : lanes) {
+            lane.awaitDrained(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /** One ring buffer with its worker; buffer state is guarded by {@code lock}. */
+    private final class Lane {
+        private final int index;
+        private final DomainEvent[] events;
+        private final long[] enqueuedAt;
+        private int head;
+        private int count;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+        private final Condition notFull = lock.newCondition();
+        private final Counter delivered;
+        private Thread worker;
+
+        Lane(int index, MeterRegistry registry) {
+            this.index = index;
+            this.events = new DomainEvent[settings.capacity()];
+            this.enqueuedAt = new long[settings.capacity()];
+            this.delivered = Counter.builder(DELIVERED)
+                    .description("Domain events handed to the listeners")
+                    .tag("lane", Integer.toString(index))
+                    .register(registry);
+            Gauge.builder(DEPTH, this, Lane::depth)
+                    .description("Domain events waiting for delivery")
+                    .tag("lane", Integer.toString(index))
+                    .register(registry);
+        }
+
+        boolean offer(DomainEvent event) {
+            lock.lock();
+            try {
+                if (stopped) {
+                    refusedStopped.increment();
+                    return false;
+                }
+                boolean room = count < events.length || makeRoom();
+                // a BLOCK offer may have waited through stop(), after which the worker may be gone
+                if (stopped) {
+                    refusedStopped.increment();
+                    return false;
+                }
+                if (!room) {
+                    rejected.increment();
+                    return false;
+                }
+                int tail = (head + count) % events.length;
+                events[tail] = event;
+                enqueuedAt[tail] = System.nanoTime();
+                count++;
+                notEmpty.signal();
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** Applies the overflow policy to a full buffer; true if there is a free slot afterwards. */
+        private boolean makeRoom() {
+            switch (settings.overflow()) {
+                case DROP_OLDEST -> {
+                    take();
+                    droppedOldest.increment();
+                    return true;
+                }
+                case BLOCK -> {
+                    try {
+                        // without a running worker nobody frees a slot, so a stopped dispatcher rejects instead
+                        while (count == events.length && running) {
+                            notFull.await();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return count < events.length;
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+
+        private DomainEvent take() {
+            DomainEvent event = events[head];
+            events[head] = null;
+            head = (head + 1) % events.length;
+            count--;
+            return event;
+        }
+
+        int depth() {
+            lock.lock();
+            try {
+                return count;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long lagNanos() {
+            lock.lock();
+            try {
+                return count == 0 ? 0 : System.nanoTime() - enqueuedAt[head];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void drain() {
+            List<DomainEvent> batch = new ArrayList<>(settings.maxBatchSize());
+            while (true) {
+                lock.lock();
+                try {
+                    while (count == 0) {
+                        if (!running) {
+                            return;
+                        }
+                        notEmpty.await();
+                    }
+                    while (count > 0 && batch.size() < settings.maxBatchSize()) {
+                        batch.add(take());
+                    }
+                    notFull.signalAll();
+                } catch (InterruptedException e) {
+                    log.warn("Domain event lane {} interrupted with {} events queued", index, count);
+                    return;
+                } finally {
+                    lock.unlock();
+                }
+                batch.sort(BY_SEQUENCE);
+                deliver(List.copyOf(batch));
+                delivered.increment(batch.size());
+                batch.clear();
+            }
+        }
+
+        private void deliver(List<DomainEvent> batch) {
+            for (DomainEventBatchListener listener : listeners) {
+                try {
+                    listener.onEvents(batch);
+                } catch (RuntimeException e) {
+                    log.warn(
+                            "{} failed on a batch of {} domain events",
+                            listener.getClass().getSimpleName(),
+                            batch.size(),
+                            e);
+                }
+            }
+        }
+
+        void start() {
+            worker = Thread.ofVirtual().name("domain-event-lane-" + index).start(this::drain);
+        }
+
+        void wakeUp() {
+            lock.lock();
+            try {
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void awaitDrained(Duration timeout) {
+            if (worker == null) {
+                return;
+            }
+            try {
+                if (!worker.join(timeout)) {
+                    log.warn("Domain event lane {} did not drain in time, {} events lost", index, depth());
+                    worker.interrupt();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Lane count, per-lane buffer bounds and overflow behaviour ({@code dddonion.monitor.dispatcher.*}). A lane holds
+     * at most {@code capacity} events, so the dispatcher as a whole at most {@code lanes * capacity}.
+     */
+    public record Settings(
+            int lanes, int capacity, int maxBatchSize, OverflowPolicy overflow, Duration shutdownTimeout) {
+        public Settings {
+            if (lanes < 1) throw new IllegalArgumentException("lanes must be >= 1");
+            if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+            if (maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be >= 1");
+            if (overflow == null) throw new IllegalArgumentException("overflow must not be null");
+            if (shutdownTimeout == null || shutdownTimeout.isNegative())
+                throw new IllegalArgumentException("shutdownTimeout must be >= 0");
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package net.rsworld.example.dddonion.monitor.dispatch;
+
+/** What {@link DomainEventDispatcher#offer} does when the ring buffer is full. */
+public enum OverflowPolicy {
+    /** Parks the publishing thread until the worker frees a slot. Only safe if publishers may block. */
+    BLOCK,
+    /** Evicts the oldest queued event to make room; counted as {@code reason=drop-oldest}. */
+    DROP_OLDEST,
+    /** Refuses the new event; counted as {@code reason=rejected}. */
+    REJECT
+}
@@ -8,8 +8,9 @@ import ch.qos.logback.classic.LoggerContext;
 import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
 import ch.qos.logback.core.OutputStreamAppender;
 import java.io.ByteArrayOutputStream;
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
+import net.rsworld.example.dddonion.domain.common.Money;
 import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
@@ -30,8 +31,8 @@ class DomainEventLoggingListenerTest {
     }
 
     @Test
-    @DisplayName("Schreibt beim Empfang eines DomainEvents alle relevanten Felder ins Log")
-    void onDomainEvent_logsExpectedFields() {
+    @DisplayName("Schreibt für jedes DomainEvent eines Batches alle relevanten Felder ins Log")
+    void onEvents_logsExpectedFieldsOfEveryEvent() {
         // route logger output of the class under test to an in-memory stream
         LoggerContext ctx = (LoggerContext) LoggerFactory.getILoggerFactory();
         Logger logger = (Logger) LoggerFactory.getLogger(DomainEventLoggingListener.class);
@@ -52,9 +53,10 @@ class DomainEventLoggingListenerTest {
 
         DomainEventLoggingListener listener = new DomainEventLoggingListener();
 
-        var evt = new OrderPlaced("agg-1", 1L, Instant.now(), "john.doe@example.com", new BigDecimal("12.34"));
+        var evt = new OrderPlaced("agg-1", 1L, Instant.now(), "john.doe@example.com", Money.parse("12.34"));
+        var next = new OrderPlaced("agg-2", 1L, Instant.now(), "jane.doe@example.com", Money.parse("1.00"));
 
-        listener.onDomainEvent(evt);
+        listener.onEvents(List.of(evt, next));
 
         String logged = out.toString();
         assertThat(logged).contains("DomainEvent received");
@@ -62,5 +64,6 @@ class DomainEventLoggingListenerTest {
         assertThat(logged).contains("aggregateId=agg-1");
         assertThat(logged).contains("sequence=1");
         assertThat(logged).contains("occurredAt=");
+        assertThat(logged).contains("aggregateId=agg-2");
     }
 }
@@ -0,0 +1,277 @@
+package net.rsworld.example.dddonion.monitor.dispatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import net.rsworld.example.dddonion.domain.common.DomainEvent;
+import net.rsworld.example.dddonion.domain.common.Money;
+import net.rsworld.example.dddonion.domain.order.event.OrderPlaced;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.context.SmartLifecycle;
+
+class DomainEventDispatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<List<DomainEvent>> batches = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private DomainEventDispatcher dispatcher;
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        if (dispatcher != null && dispatcher.isRunning()) {
+            dispatcher.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Liefert alle Events in Publikationsreihenfolge und bündelt, was während einer Zustellung auflief")
+    void deliversInOrder_inBatches() throws Exception {
+        var firstBatchSeen = new CountDownLatch(1);
+        dispatcher = dispatcher(16, 4, OverflowPolicy.BLOCK, events -> {
+            batches.add(events);
+            firstBatchSeen.countDown();
+            await(release);
+        });
+        dispatcher.start();
+
+        dispatcher.offer(event(0));
+        assertThat(firstBatchSeen.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < 10; i++) {
+            dispatcher.offer(event(i));
+        }
+        release.countDown();
+        dispatcher.stop();
+
+        assertThat(batches).hasSize(4).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(4));
+        assertThat(sequences()).containsExactly(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+    }
+
+    @Test
+    @DisplayName("DROP_OLDEST verdrängt bei vollem Puffer das älteste Event und zählt es")
+    void dropOldest_evictsHead() {
+        dispatcher = dispatcher(2, 8, OverflowPolicy.DROP_OLDEST, batches::add);
+
+        assertThat(dispatcher.offer(event(1))).isTrue();
+        assertThat(dispatcher.offer(event(2))).isTrue();
+        assertThat(dispatcher.offer(event(3))).isTrue();
+        dispatcher.start();
+        dispatcher.stop();
+
+        assertThat(sequences()).containsExactly(2L, 3L);
+        assertThat(dropped("drop-oldest")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("REJECT lehnt bei vollem Puffer das neue Event ab und zählt es")
+    void reject_refusesNewEvent() {
+        dispatcher = dispatcher(2, 8, OverflowPolicy.REJECT, batches::add);
+
+        dispatcher.offer(event(1));
+        dispatcher.offer(event(2));
+        assertThat(dispatcher.offer(event(3))).isFalse();
+        dispatcher.start();
+        dispatcher.stop();
+
+        assertThat(sequences()).containsExactly(1L, 2L);
+        assertThat(dropped("rejected")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("BLOCK hält den Publisher an, bis der Worker einen Platz frei macht")
+    void block_parksPublisherUntilSlotFrees() throws Exception {
+        var firstBatchSeen = new CountDownLatch(1);
+        dispatcher = dispatcher(1, 1, OverflowPolicy.BLOCK, events -> {
+            batches.add(events);
+            firstBatchSeen.countDown();
+            await(release);
+        });
+        dispatcher.start();
+        dispatcher.offer(event(1));
+        assertThat(firstBatchSeen.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.offer(event(2));
+
+        var blocked = CompletableFuture.supplyAsync(() -> dispatcher.offer(event(3)));
+        Thread.sleep(100);
+        assertThat(blocked).isNotDone();
+
+        release.countDown();
+        assertThat(blocked.get(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.stop();
+        assertThat(sequences()).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("BLOCK ohne laufenden Worker lehnt ab, statt den Publisher für immer anzuhalten")
+    void block_withoutWorker_rejects() {
+        dispatcher = dispatcher(1, 1, OverflowPolicy.BLOCK, batches::add);
+
+        dispatcher.offer(event(1));
+
+        assertThat(dispatcher.offer(event(2))).isFalse();
+        assertThat(dropped("rejected")).isEqualTo(1.0);
+    }
+
+    @ParameterizedTest
+    @EnumSource(OverflowPolicy.class)
+    @DisplayName("Verweigert und zählt Events, die nach dem Stoppen angeboten werden")
+    void offerAfterStop_isRefusedAndCounted(OverflowPolicy overflow) {
+        dispatcher = dispatcher(8, 8, overflow, batches::add);
+        dispatcher.start();
+        dispatcher.offer(event(1));
+        dispatcher.stop();
+
+        assertThat(dispatcher.offer(event(2))).isFalse();
+        assertThat(dropped("stopped")).isEqualTo(1.0);
+        assertThat(sequences()).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Stoppt erst nach dem Webserver (Phase DEFAULT_PHASE - 2048) und den direkt danach gestoppten Beans")
+    void phase_isBelowTheWebServer() {
+        dispatcher = dispatcher(8, 8, OverflowPolicy.BLOCK, batches::add);
+
+        assertThat(dispatcher.getPhase()).isLessThan(SmartLifecycle.DEFAULT_PHASE - 2048 - 1);
+    }
+
+    @Test
+    @DisplayName("Ein fehlschlagender Listener hält weder andere Listener noch spätere Batches auf")
+    void failingListener_isIsolated() {
+        DomainEventBatchListener failing = events -> {
+            throw new IllegalStateException("boom");
+        };
+        dispatcher = new DomainEventDispatcher(
+                List.of(failing, batches::add),
+                new DomainEventDispatcher.Settings(1, 8, 1, OverflowPolicy.BLOCK, Duration.ofSeconds(5)),
+                registry);
+        dispatcher.start();
+
+        dispatcher.offer(event(1));
+        dispatcher.offer(event(2));
+        dispatcher.stop();
+
+        assertThat(sequences()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Meldet Queue-Tiefe und das Alter des ältesten wartenden Events als Gauges")
+    void gauges_reportDepthAndLag() throws Exception {
+        dispatcher = dispatcher(8, 8, OverflowPolicy.BLOCK, batches::add);
+
+        assertThat(registry.get(DomainEventDispatcher.LAG).gauge().value()).isZero();
+        dispatcher.offer(event(1));
+        dispatcher.offer(event(2));
+        Thread.sleep(5);
+
+        assertThat(registry.get(DomainEventDispatcher.DEPTH).gauge().value()).isEqualTo(2.0);
+        assertThat(registry.get(DomainEventDispatcher.LAG).gauge().value()).isGreaterThanOrEqualTo(0.005);
+    }
+
+    @Test
+    @DisplayName("Verteilt Aggregate auf parallele Lanes und hält die Reihenfolge je Aggregat ein")
+    void lanes_keepPerAggregateOrder() throws Exception {
+        var delivered = new ConcurrentHashMap<String, List<Long>>();
+        var threads = ConcurrentHashMap.<String>newKeySet();
+        dispatcher = new DomainEventDispatcher(
+                List.of(events -> {
+                    threads.add(Thread.currentThread().getName());
+                    events.forEach(e -> delivered
+                            .computeIfAbsent(e.aggregateId(), id -> new CopyOnWriteArrayList<>())
+                            .add(e.sequence()));
+                }),
+                new DomainEventDispatcher.Settings(4, 64, 8, OverflowPolicy.BLOCK, Duration.ofSeconds(5)),
+                registry);
+        dispatcher.start();
+
+        // one publisher per aggregate, all publishing at the same time
+        var publishers = IntStream.range(0, 32)
+                .mapToObj(a -> CompletableFuture.runAsync(() -> {
+                    for (long seq = 1; seq <= 50; seq++) {
+                        dispatcher.offer(event("agg-" + a, seq));
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(publishers).get(10, TimeUnit.SECONDS);
+        dispatcher.stop();
+
+        var expected = LongStream.rangeClosed(1, 50).boxed().toList();
+        assertThat(delivered).hasSize(32).allSatisfy((id, sequences) -> assertThat(sequences)
+                .containsExactlyElementsOf(expected));
+        assertThat(threads).hasSizeGreaterThan(1).allSatisfy(name -> assertThat(name)
+                .startsWith("domain-event-lane-"));
+    }
+
+    @Test
+    @DisplayName("Ein heißes Aggregat landet auf einer Lane und treibt die Imbalance-Gauge nach oben")
+    void hotAggregate_showsUpAsImbalance() {
+        dispatcher = new DomainEventDispatcher(
+                List.of(batches::add),
+                new DomainEventDispatcher.Settings(4, 1024, 64, OverflowPolicy.BLOCK, Duration.ofSeconds(5)),
+                registry);
+        assertThat(registry.get(DomainEventDispatcher.IMBALANCE).gauge().value()).isEqualTo(1.0);
+
+        for (long seq = 1; seq <= 100; seq++) {
+            dispatcher.offer(event("hot", seq));
+        }
+        dispatcher.start();
+        dispatcher.stop();
+
+        String hotLane = Integer.toString(dispatcher.laneOf("hot"));
+        assertThat(registry.get(DomainEventDispatcher.DELIVERED)
+                        .tag("lane", hotLane)
+                        .counter()
+                        .count())
+                .isEqualTo(100.0);
+        // everything on one of four lanes: the busiest lane carries four times the mean
+        assertThat(registry.get(DomainEventDispatcher.IMBALANCE).gauge().value()).isEqualTo(4.0);
+    }
+
+    private DomainEventDispatcher dispatcher(
+            int capacity, int maxBatchSize, OverflowPolicy overflow, DomainEventBatchListener listener) {
+        return new DomainEventDispatcher(
+                List.of(listener),
+                new DomainEventDispatcher.Settings(1, capacity, maxBatchSize, overflow, Duration.ofSeconds(5)),
+                registry);
+    }
+
+    private List<Long> sequences() {
+        var sequences = new ArrayList<Long>();
+        batches.forEach(batch -> batch.forEach(e -> sequences.add(e.sequence())));
+        return sequences;
+    }
+
+    private double dropped(String reason) {
+        return registry.get(DomainEventDispatcher.DROPPED).tag("reason", reason).counter().count();
+    }
+
+    private static DomainEvent event(long sequence) {
+        return event("agg", sequence);
+    }
+
+    private static DomainEvent event(String aggregateId, long sequence) {
+        return new OrderPlaced(aggregateId, sequence, Instant.now(), "a@b.com", Money.ofMinor(100));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}